@@ -0,0 +1,3 @@
+@echo off
+call mvn -Pbenchmarks clean verify
+pause
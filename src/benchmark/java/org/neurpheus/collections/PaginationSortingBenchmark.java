@@ -0,0 +1,98 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sorting a single page of an array with sorting the whole array.
+ * <p>
+ * Each invocation sorts a fresh copy of the same random data, the copy is made outside of the
+ * measured time.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationSortingBenchmark {
+
+    /** The number of elements in the sorted array. */
+    @Param({"10000", "1000000"})
+    public int size;
+
+    /** The number of elements on a sorted page. */
+    @Param({"10", "1000"})
+    public int pageSize;
+
+    /** Random data. */
+    private int[] source;
+
+    /** The array sorted by a benchmark. */
+    private int[] array;
+
+    /** The position of the first element of the sorted page. */
+    private int pageStart;
+
+    @Setup
+    public void createData() {
+        Random random = new Random(1234L);
+        source = new int[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = random.nextInt();
+        }
+        pageStart = size / 2;
+        array = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void copyData() {
+        System.arraycopy(source, 0, array, 0, size);
+    }
+
+    @Benchmark
+    public int[] sortPage() {
+        PaginationSorting.sortPage(array, pageStart, pageStart + pageSize);
+        return array;
+    }
+
+    @Benchmark
+    public int[] sortAll() {
+        Arrays.sort(array);
+        return array;
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures random reads and writes of a bits array compared to {@link BitSet}, as well as rank
+ * and select queries.
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitsArrayBenchmark {
+
+    /** The number of positions accessed by a single invocation of a benchmark. */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /** The number of bits in the array. */
+    @Param({"1024", "1048576", "67108864"})
+    public int size;
+
+    /** The measured array. */
+    private BitsArray array;
+
+    /** The same bits in a standard bit set used as a baseline. */
+    private BitSet bitSet;
+
+    /** Randomly chosen positions. */
+    private int[] indexes;
+
+    /** Values written to chosen positions. */
+    private boolean[] values;
+
+    /** Randomly chosen numbers of set bits for select queries. */
+    private int[] counts;
+
+    @Setup
+    public void createArray() {
+        Random random = new Random(1234L);
+        array = new BitsArray(size);
+        bitSet = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            boolean value = random.nextBoolean();
+            array.set(i, value);
+            bitSet.set(i, value);
+        }
+        indexes = new int[SAMPLE_SIZE];
+        values = new boolean[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            indexes[i] = random.nextInt(size);
+            values[i] = random.nextBoolean();
+        }
+        array.buildRankIndex();
+        counts = new int[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            counts[i] = 1 + random.nextInt(array.cardinality());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public int get() {
+        int result = 0;
+        for (int index : indexes) {
+            if (array.get(index)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public BitsArray set() {
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            array.set(indexes[i], values[i]);
+        }
+        return array;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public int rank1() {
+        int result = 0;
+        for (int index : indexes) {
+            result += array.rank1(index);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public int select1() {
+        int result = 0;
+        for (int count : counts) {
+            result += array.select1(count);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public int getBitSet() {
+        int result = 0;
+        for (int index : indexes) {
+            if (bitSet.get(index)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public BitSet setBitSet() {
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            bitSet.set(indexes[i], values[i]);
+        }
+        return bitSet;
+    }
+
+}
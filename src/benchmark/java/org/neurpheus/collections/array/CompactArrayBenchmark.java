@@ -0,0 +1,123 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures random reads and writes of a compact array storing values of different bit widths.
+ * <p>
+ * Values crossing a boundary of a backing long are read from two words, so the widths which are
+ * not divisors of 64 are the interesting ones.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactArrayBenchmark {
+
+    /** The number of positions accessed by a single invocation of a benchmark. */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /** The number of bits of stored values. */
+    @Param({"1", "7", "13", "31", "47", "61"})
+    public int bits;
+
+    /** The number of elements in the array. */
+    @Param({"1024", "1048576"})
+    public int size;
+
+    /** The measured array. */
+    private CompactArray array;
+
+    /** The same values in a plain array used as a baseline. */
+    private long[] plainArray;
+
+    /** Randomly chosen positions. */
+    private int[] indexes;
+
+    /** Values written to chosen positions. */
+    private long[] values;
+
+    @Setup
+    public void createArray() {
+        Random random = new Random(1234L);
+        long mask = (1L << bits) - 1;
+        array = new CompactArray(size, mask);
+        plainArray = new long[size];
+        for (int i = 0; i < size; i++) {
+            long value = random.nextLong() & mask;
+            array.setLongValue(i, value);
+            plainArray[i] = value;
+        }
+        indexes = new int[SAMPLE_SIZE];
+        values = new long[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            indexes[i] = random.nextInt(size);
+            values[i] = random.nextLong() & mask;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public long getLongValue() {
+        long result = 0;
+        for (int index : indexes) {
+            result += array.getLongValue(index);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public CompactArray setLongValue() {
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            array.setLongValue(indexes[i], values[i]);
+        }
+        return array;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public long getPlainLong() {
+        long result = 0;
+        for (int index : indexes) {
+            result += plainArray[index];
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Compares random reads and bulk operations of a compressed bits array with a dense bits array.
+ * <p>
+ * The number of bytes used by both arrays is logged while setting up the benchmark.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoaringBitsArrayBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(RoaringBitsArrayBenchmark.class.getName());
+
+    /** The number of positions accessed by a single invocation of a benchmark. */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /** The number of bits in arrays. */
+    private static final int SIZE = 1 << 24;
+
+    /** The distribution of set bits: sparse, random or runs of set bits. */
+    @Param({"sparse", "random", "runs"})
+    public String distribution;
+
+    /** The measured compressed array. */
+    private RoaringBitsArray roaring;
+
+    /** The second compressed array used by bulk operations. */
+    private RoaringBitsArray otherRoaring;
+
+    /** The same bits in a dense array used as a baseline. */
+    private BitsArray dense;
+
+    /** The second dense array used by bulk operations. */
+    private BitsArray otherDense;
+
+    /** Randomly chosen positions. */
+    private int[] indexes;
+
+    @Setup
+    public void createArrays() {
+        Random random = new Random(1234L);
+        dense = createDenseArray(random);
+        otherDense = createDenseArray(random);
+        roaring = new RoaringBitsArray(dense);
+        otherRoaring = new RoaringBitsArray(otherDense);
+        indexes = new int[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            indexes[i] = random.nextInt(SIZE);
+        }
+        LOGGER.info(String.format("%s: dense array %d bytes, compressed array %d bytes",
+                                  distribution, dense.getAllocationSize(),
+                                  roaring.getAllocationSize()));
+    }
+
+    private BitsArray createDenseArray(final Random random) {
+        BitsArray result = new BitsArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            boolean bit;
+            if ("sparse".equals(distribution)) {
+                bit = random.nextInt(1000) == 0;
+            } else if ("random".equals(distribution)) {
+                bit = random.nextBoolean();
+            } else {
+                bit = ((i + random.nextInt(8)) >> 12) % 2 == 0;
+            }
+            result.set(i, bit);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public int get() {
+        int result = 0;
+        for (int index : indexes) {
+            if (roaring.get(index)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public int getDense() {
+        int result = 0;
+        for (int index : indexes) {
+            if (dense.get(index)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public RoaringBitsArray or() {
+        RoaringBitsArray result = new RoaringBitsArray();
+        result.or(roaring);
+        result.or(otherRoaring);
+        return result;
+    }
+
+    @Benchmark
+    public BitsArray orDense() {
+        BitsArray result = new BitsArray(1);
+        result.or(dense);
+        result.or(otherDense);
+        return result;
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.hashing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding and checking keys of different types in a Bloom filter.
+ * <p>
+ * The filter is filled with the expected number of keys before measurements. A half of checked
+ * keys are stored in the filter, so both a positive and a negative path are measured.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BloomFilterBenchmark {
+
+    /** The number of keys added or checked by a single invocation of a benchmark. */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /** The length of array keys. */
+    private static final int KEY_LENGTH = 8;
+
+    /** The type of keys. */
+    @Param({"string", "bytes", "ints", "longs"})
+    public String keyType;
+
+    /** The expected number of elements in the filter. */
+    @Param({"1000", "1000000"})
+    public int size;
+
+    /** The measured filter. */
+    private BloomFilter filter;
+
+    /** Keys added or checked by benchmarks. */
+    private Object[] sample;
+
+    @Setup
+    public void createFilter() {
+        Random random = new Random(1234L);
+        filter = new BloomFilter(size);
+        Object[] stored = new Object[size];
+        for (int i = 0; i < size; i++) {
+            stored[i] = createKey(random);
+            add(stored[i]);
+        }
+        sample = new Object[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            sample[i] = i % 2 == 0 ? stored[random.nextInt(size)] : createKey(random);
+        }
+    }
+
+    /**
+     * Creates a random key of the benchmarked type.
+     *
+     * @param random The source of random values.
+     *
+     * @return The new key.
+     */
+    private Object createKey(final Random random) {
+        switch (keyType) {
+            case "string":
+                return Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+            case "bytes":
+                byte[] bytes = new byte[KEY_LENGTH];
+                random.nextBytes(bytes);
+                return bytes;
+            case "ints":
+                int[] ints = new int[KEY_LENGTH];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = random.nextInt();
+                }
+                return ints;
+            case "longs":
+                long[] longs = new long[KEY_LENGTH];
+                for (int i = 0; i < longs.length; i++) {
+                    longs[i] = random.nextLong();
+                }
+                return longs;
+            default:
+                throw new IllegalArgumentException("Unknown key type: " + keyType);
+        }
+    }
+
+    /**
+     * Adds the specified key to the filter using the overloaded method for its type.
+     *
+     * @param key The key to add.
+     *
+     * @return {@code true} if the filter has been changed.
+     */
+    private boolean add(final Object key) {
+        if (key instanceof CharSequence) {
+            return filter.add((CharSequence) key);
+        } else if (key instanceof byte[]) {
+            return filter.add((byte[]) key);
+        } else if (key instanceof int[]) {
+            return filter.add((int[]) key);
+        } else {
+            return filter.add((long[]) key);
+        }
+    }
+
+    /**
+     * Checks the specified key using the overloaded method for its type.
+     *
+     * @param key The key to check.
+     *
+     * @return {@code true} if the key is probably stored in the filter.
+     */
+    private boolean contains(final Object key) {
+        if (key instanceof CharSequence) {
+            return filter.contains((CharSequence) key);
+        } else if (key instanceof byte[]) {
+            return filter.contains((byte[]) key);
+        } else if (key instanceof int[]) {
+            return filter.contains((int[]) key);
+        } else {
+            return filter.contains((long[]) key);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public int add() {
+        int result = 0;
+        for (Object key : sample) {
+            if (add(key)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public int contains() {
+        int result = 0;
+        for (Object key : sample) {
+            if (contains(key)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.hashing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reads and writes of a LRU cache shared by a growing number of threads.
+ * <p>
+ * All methods of the cache are synchronized, so these benchmarks show the cost of contention.
+ * Keys are chosen from a range two times bigger than the cache, so about a half of reads are
+ * misses and about a half of writes evict the least recently used entry.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LRUCacheBenchmark {
+
+    /** The number of prepared keys, a power of two. */
+    private static final int NUMBER_OF_KEYS = 1 << 16;
+
+    /** The maximum number of entries in the cache. */
+    @Param({"1000", "10000"})
+    public int cacheSize;
+
+    /** The cache shared by all threads. */
+    private LRUCache cache;
+
+    /** Keys used by benchmarks. */
+    private Integer[] keys;
+
+    @Setup
+    public void createCache() {
+        Random random = new Random(1234L);
+        cache = new LRUCache(cacheSize);
+        keys = new Integer[NUMBER_OF_KEYS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(2 * cacheSize);
+        }
+        for (int i = 0; i < cacheSize; i++) {
+            cache.put(i, i);
+        }
+    }
+
+    /**
+     * Iterates over prepared keys independently in each thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        /** The position of the next key. */
+        private int position;
+
+        @Setup
+        public void init() {
+            position = (int) (Thread.currentThread().getId() * 7919) & (NUMBER_OF_KEYS - 1);
+        }
+
+        /**
+         * Returns the next key.
+         *
+         * @param keys The prepared keys.
+         *
+         * @return The key at the current position.
+         */
+        Integer next(final Integer[] keys) {
+            position = (position + 1) & (NUMBER_OF_KEYS - 1);
+            return keys[position];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object get(final Cursor cursor) {
+        return cache.get(cursor.next(keys));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public LRUCache put(final Cursor cursor) {
+        Integer key = cursor.next(keys);
+        cache.put(key, key);
+        return cache;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getContended(final Cursor cursor) {
+        return cache.get(cursor.next(keys));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public LRUCache putContended(final Cursor cursor) {
+        Integer key = cursor.next(keys);
+        cache.put(key, key);
+        return cache;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Object mixedGet(final Cursor cursor) {
+        return cache.get(cursor.next(keys));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public LRUCache mixedPut(final Cursor cursor) {
+        Integer key = cursor.next(keys);
+        cache.put(key, key);
+        return cache;
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Provides word lists used by benchmarks of linked list trees.
+ * <p>
+ * Two datasets are available: {@code english} - a real dictionary read from the english.txt test
+ * resource, and {@code synthetic} - inflected forms of random stems generated with a fixed seed,
+ * so results of benchmarks are comparable between runs and commits.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+final class BenchmarkWords {
+
+    /** The name of the real dataset. */
+    static final String ENGLISH = "english";
+
+    /** The name of the generated dataset. */
+    static final String SYNTHETIC = "synthetic";
+
+    /** The number of stems in the synthetic dataset. */
+    private static final int NUMBER_OF_STEMS = 8000;
+
+    /** Endings appended to stems of the synthetic dataset. */
+    private static final String[] ENDINGS = {
+        "", "a", "e", "y", "ie", "ego", "emu", "ym", "ymi", "ich", "ach", "ami", "ow", "om",
+        "ing", "ed", "er", "est", "ly", "ness"
+    };
+
+    /** Letters used by stems of the synthetic dataset. */
+    private static final String LETTERS = "aabcdeeefghiijklmnoopqrsstuuvwyz";
+
+    /**
+     * This is a utility class.
+     */
+    private BenchmarkWords() {
+    }
+
+    /**
+     * Returns a sorted list of unique words of the specified dataset.
+     *
+     * @param dataset The name of a dataset.
+     *
+     * @return Words of the dataset.
+     *
+     * @throws IOException if the dataset cannot be read.
+     */
+    static List<String> load(final String dataset) throws IOException {
+        if (ENGLISH.equals(dataset)) {
+            return readEnglishWords();
+        } else if (SYNTHETIC.equals(dataset)) {
+            return generateWords(NUMBER_OF_STEMS, 1234L);
+        } else {
+            throw new IllegalArgumentException("Unknown dataset: " + dataset);
+        }
+    }
+
+    /**
+     * Reads words from the english.txt resource.
+     *
+     * @return Words in order of the resource.
+     *
+     * @throws IOException if the resource cannot be read.
+     */
+    private static List<String> readEnglishWords() throws IOException {
+        InputStream in = BenchmarkWords.class.getClassLoader().getResourceAsStream("english.txt");
+        if (in == null) {
+            throw new IOException("Cannot find english.txt on the class path");
+        }
+        List<String> result = new ArrayList<>(80_000);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                if (!line.isEmpty()) {
+                    result.add(line);
+                }
+                line = reader.readLine();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generates inflected forms of random stems.
+     *
+     * @param numberOfStems The number of stems.
+     * @param seed          The seed of a random generator.
+     *
+     * @return Sorted unique words.
+     */
+    static List<String> generateWords(final int numberOfStems, final long seed) {
+        Random random = new Random(seed);
+        TreeSet<String> words = new TreeSet<>();
+        StringBuilder stem = new StringBuilder();
+        for (int i = 0; i < numberOfStems; i++) {
+            stem.setLength(0);
+            int length = 3 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                stem.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            int numberOfForms = 1 + random.nextInt(ENDINGS.length);
+            int first = random.nextInt(ENDINGS.length);
+            for (int j = 0; j < numberOfForms; j++) {
+                words.add(stem + ENDINGS[(first + j) % ENDINGS.length]);
+            }
+            if (random.nextInt(4) == 0) {
+                words.add("nie" + stem + ENDINGS[first]);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Selects a random sample of words.
+     *
+     * @param words The words to select from.
+     * @param size  The size of the sample.
+     * @param seed  The seed of a random generator.
+     *
+     * @return Selected words in random order.
+     */
+    static List<String> sample(final List<String> words, final int size, final long seed) {
+        List<String> result = new ArrayList<>(words);
+        Collections.shuffle(result, new Random(seed));
+        return new ArrayList<>(result.subList(0, Math.min(size, result.size())));
+    }
+
+}
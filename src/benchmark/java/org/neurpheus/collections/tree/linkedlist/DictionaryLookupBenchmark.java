@@ -0,0 +1,120 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.collections.tree.louds.LoudsTree;
+import org.neurpheus.collections.tree.louds.LoudsTreeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Compares lookups in a compressed linked list tree with lookups in structures exported from it:
+ * a double-array trie and a LOUDS tree.
+ * <p>
+ * The number of bytes used by each structure is logged while setting up the benchmark.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionaryLookupBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(DictionaryLookupBenchmark.class.getName());
+
+    /** The number of words looked up by a single invocation of a benchmark. */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /** The name of a dataset (see {@link BenchmarkWords}). */
+    @Param({BenchmarkWords.ENGLISH, BenchmarkWords.SYNTHETIC})
+    public String dataset;
+
+    /** The compressed linked list tree. */
+    private LinkedListTree tree;
+
+    /** The double-array trie exported from the linked list tree. */
+    private DoubleArrayTrie trie;
+
+    /** The LOUDS tree built from the linked list tree. */
+    private LoudsTree louds;
+
+    /** Looked up words. */
+    private String[] sample;
+
+    /** The stack used by lookups in the linked list tree. */
+    private final int[] stack = new int[1000];
+
+    @Setup
+    public void createStructures() throws IOException {
+        List<String> words = BenchmarkWords.load(dataset);
+        tree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(words, false, true), true, true, false);
+        trie = DoubleArrayTrie.create(tree, true);
+        louds = LoudsTreeFactory.getInstance().createTree(tree);
+        sample = BenchmarkWords.sample(words, SAMPLE_SIZE, 4321L).toArray(new String[0]);
+        LOGGER.info(String.format(
+                "%s: linked list tree %d bytes, double-array trie %d bytes, LOUDS tree %d bytes",
+                dataset, tree.getUnitArray().getAllocationSize(), trie.getAllocationSize(),
+                louds.getAllocationSize()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public void linkedListTree(final Blackhole blackhole) {
+        LinkedListTreeNode root = tree.getRoot();
+        for (String word : sample) {
+            blackhole.consume(root.getData(word, stack, 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public void doubleArrayTrie(final Blackhole blackhole) {
+        for (String word : sample) {
+            blackhole.consume(trie.getData(word));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public void loudsTree(final Blackhole blackhole) {
+        for (String word : sample) {
+            blackhole.consume(louds.getData(word));
+        }
+    }
+
+}
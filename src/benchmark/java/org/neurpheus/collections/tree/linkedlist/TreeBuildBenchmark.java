@@ -0,0 +1,90 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.collections.tree.Tree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creation and compression of linked list trees.
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TreeBuildBenchmark {
+
+    /** The name of a dataset (see {@link BenchmarkWords}). */
+    @Param({BenchmarkWords.ENGLISH, BenchmarkWords.SYNTHETIC})
+    public String dataset;
+
+    /** Words of the dataset. */
+    private List<String> words;
+
+    /** A base tree consumed by a single invocation of a benchmark. */
+    private Tree baseTree;
+
+    /** An uncompressed tree consumed by a single invocation of a benchmark. */
+    private LinkedListTree uncompressedTree;
+
+    @Setup(Level.Trial)
+    public void loadWords() throws IOException {
+        words = BenchmarkWords.load(dataset);
+    }
+
+    @Setup(Level.Invocation)
+    public void createTrees() {
+        baseTree = LinkedListTreeTools.createBaseTree(words, false, true);
+        uncompressedTree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(words, false, true), true, false, false);
+    }
+
+    @Benchmark
+    public LinkedListTree createTree() {
+        return LinkedListTreeFactory.getInstance().createTree(baseTree, true, false, false);
+    }
+
+    @Benchmark
+    public LinkedListTree createCompressedTree() {
+        return LinkedListTreeFactory.getInstance().createTree(baseTree, true, true, false);
+    }
+
+    @Benchmark
+    public LinkedListTree lzTrieCompression() {
+        return LZTrieCompression.compress(uncompressedTree, false);
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups in a compressed linked list tree backed by different unit arrays.
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeLookupBenchmark {
+
+    /** The number of words looked up by a single invocation of a benchmark. */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /** The name of a dataset (see {@link BenchmarkWords}). */
+    @Param({BenchmarkWords.ENGLISH, BenchmarkWords.SYNTHETIC})
+    public String dataset;
+
+    /** The implementation of a unit array. */
+    @Param({"fast", "compact", "packed"})
+    public String unitArray;
+
+    /** The minimum number of children of nodes indexed by a sibling index, 0 disables it. */
+    @Param({"0", "8"})
+    public int siblingIndex;
+
+    /** The tree in which words are looked up. */
+    private LinkedListTree tree;
+
+    /** Looked up words. */
+    private String[] sample;
+
+    /** The stack used by lookups. */
+    private final int[] stack = new int[1000];
+
+    @Setup
+    public void createTree() throws IOException {
+        List<String> words = BenchmarkWords.load(dataset);
+        tree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(words, false, true), true, true, false);
+        LinkedListTreeUnitArray units = tree.getUnitArray();
+        if ("fast".equals(unitArray)) {
+            tree.setUnitArray(new FastLinkedListTreeUnitArray(units));
+        } else if ("compact".equals(unitArray)) {
+            tree.setUnitArray(new CompactLinkedListTreeUnitArray(units));
+        } else {
+            tree.setUnitArray(new PackedLinkedListTreeUnitArray(units));
+        }
+        if (siblingIndex > 0) {
+            tree.createSiblingIndex(siblingIndex);
+        }
+        sample = BenchmarkWords.sample(words, SAMPLE_SIZE, 4321L).toArray(new String[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public void getData(final Blackhole blackhole) {
+        LinkedListTreeNode root = tree.getRoot();
+        for (String word : sample) {
+            blackhole.consume(root.getData(word, stack, 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public void getChild(final Blackhole blackhole) {
+        LinkedListTreeNode root = tree.getRoot();
+        for (String word : sample) {
+            LinkedListTreeNode node = root;
+            for (int i = 0; i < word.length() && node != null; i++) {
+                node = node.getChild((int) word.charAt(i), stack, 0);
+            }
+            blackhole.consume(node);
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing and reading of compressed linked list trees.
+ *
+ * @author Jakub Strychowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TreeSerializationBenchmark {
+
+    /** The name of a dataset (see {@link BenchmarkWords}). */
+    @Param({BenchmarkWords.ENGLISH, BenchmarkWords.SYNTHETIC})
+    public String dataset;
+
+    /** The written tree. */
+    private LinkedListTree tree;
+
+    /** The tree in a serialized form. */
+    private byte[] data;
+
+    @Setup
+    public void createTree() throws IOException {
+        tree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(BenchmarkWords.load(dataset), false, true),
+                true, true, false);
+        data = write();
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream(data == null ? 1024 : data.length);
+        try (DataOutputStream out = new DataOutputStream(bout)) {
+            tree.write(out);
+        }
+        return bout.toByteArray();
+    }
+
+    @Benchmark
+    public LinkedListTree read() throws IOException {
+        LinkedListTree result = LinkedListTreeFactory.getInstance().createTree();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            result.read(in);
+        }
+        return result;
+    }
+
+}
@@ -41,6 +41,8 @@ import java.io.Serializable;
  * <li>You can optimize memory consumed by the array calling {@see compact()} method 
  * after setting up values in the array.</li>
  * <li>Object can be serialized to a stream in a compacted form</li>
+ * <li>Rank and select queries are answered in a constant time using a small index of
+ * superblocks, which is built on demand and dropped after any modification of the array.</li>
  * </ul>
  * </p>
  * 
@@ -60,6 +62,18 @@ public class BitsArray implements Serializable {
     /** Size of the array - number of bits actually stored in the array. */
     private int size;
 
+    /** Binary logarithm of the number of bits in a superblock of the rank index. */
+    private static final int SUPERBLOCK_SHIFT = 9;
+
+    /** Binary logarithm of the number of words in a superblock of the rank index. */
+    private static final int WORDS_PER_SUPERBLOCK_SHIFT = SUPERBLOCK_SHIFT - 6;
+
+    /**
+     * The number of set bits before each superblock followed by the number of all set bits,
+     * or null if the index has not been built yet.
+     */
+    private transient volatile int[] rankIndex;
+
     /**
      * Creates a new, empty array of bits.
      */
@@ -77,8 +91,8 @@ public class BitsArray implements Serializable {
     public BitsArray(final int size, final long[] backingArray) {
         data = backingArray;
         this.size = size;
-        if ((size >> 6) > data.length) {
-            int allocsize = 1 + ((size - 1) >> 6);
+        if (((size + 63) >> 6) > data.length) {
+            int allocsize = (size + 63) >> 6;
             long[] newData = new long[allocsize];
             System.arraycopy(data, 0, newData, 0, data.length);
             data = newData;
@@ -128,6 +142,9 @@ public class BitsArray implements Serializable {
         if (index >= size) {
             size = index + 1;
         }
+        if (rankIndex != null) {
+            rankIndex = null;
+        }
         if (value) {
             data[backingIndex] |= (1L << (index & 0x3F));
         } else {
@@ -162,6 +179,375 @@ public class BitsArray implements Serializable {
         return (index < size) && ((data[index >> 6] & (1L << (index & 0x3F))) != 0);
     }
 
+    /**
+     * Returns the number of set bits in the array.
+     * 
+     * @return number of bits having the {@code true} value.
+     */
+    public int cardinality() {
+        int[] index = rankIndex;
+        if (index != null) {
+            return index[index.length - 1];
+        }
+        final int words = getNumberOfWords();
+        int result = 0;
+        for (int i = 0; i < words; i++) {
+            result += Long.bitCount(getWord(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of set bits before the given position.
+     * 
+     * @param index the position in the array; it can be equal to the size of the array.
+     * 
+     * @return number of set bits in the range <code>[0, index)</code>.
+     */
+    public final int rank1(final int index) {
+        if (index < 0 || index > size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        int[] ranks = getRankIndex();
+        final int superblock = index >> SUPERBLOCK_SHIFT;
+        final int wordIndex = index >> 6;
+        int result = ranks[superblock];
+        for (int i = superblock << WORDS_PER_SUPERBLOCK_SHIFT; i < wordIndex; i++) {
+            result += Long.bitCount(data[i]);
+        }
+        if ((index & 0x3F) != 0) {
+            result += Long.bitCount(data[wordIndex] & ((1L << index) - 1));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of cleared bits before the given position.
+     * 
+     * @param index the position in the array; it can be equal to the size of the array.
+     * 
+     * @return number of cleared bits in the range <code>[0, index)</code>.
+     */
+    public final int rank0(final int index) {
+        return index - rank1(index);
+    }
+
+    /**
+     * Returns the position of the given set bit.
+     * 
+     * @param count the number of the set bit counting from 1.
+     * 
+     * @return the position of the set bit or -1 if the array contains less set bits.
+     */
+    public final int select1(final int count) {
+        int[] ranks = getRankIndex();
+        if (count < 1 || count > ranks[ranks.length - 1]) {
+            return -1;
+        }
+        int low = 0;
+        int high = ranks.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (ranks[mid] < count) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int remaining = count - ranks[low];
+        int wordIndex = low << WORDS_PER_SUPERBLOCK_SHIFT;
+        int ones = Long.bitCount(data[wordIndex]);
+        while (ones < remaining) {
+            remaining -= ones;
+            ones = Long.bitCount(data[++wordIndex]);
+        }
+        return (wordIndex << 6) + selectInWord(data[wordIndex], remaining);
+    }
+
+    /**
+     * Returns the position of the given cleared bit.
+     * 
+     * @param count the number of the cleared bit counting from 1.
+     * 
+     * @return the position of the cleared bit or -1 if the array contains less cleared bits.
+     */
+    public final int select0(final int count) {
+        int[] ranks = getRankIndex();
+        if (count < 1 || count > size - ranks[ranks.length - 1]) {
+            return -1;
+        }
+        int low = 0;
+        int high = ranks.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if ((mid << SUPERBLOCK_SHIFT) - ranks[mid] < count) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int remaining = count - ((low << SUPERBLOCK_SHIFT) - ranks[low]);
+        int wordIndex = low << WORDS_PER_SUPERBLOCK_SHIFT;
+        int zeros = Long.bitCount(~data[wordIndex]);
+        while (zeros < remaining) {
+            remaining -= zeros;
+            zeros = Long.bitCount(~data[++wordIndex]);
+        }
+        return (wordIndex << 6) + selectInWord(~data[wordIndex], remaining);
+    }
+
+    /**
+     * Returns the position of the given set bit in a single word.
+     * 
+     * @param word  the word of bits.
+     * @param count the number of the set bit counting from 1.
+     * 
+     * @return the position of the bit in the word.
+     */
+    private static int selectInWord(final long word, final int count) {
+        long bits = word;
+        for (int i = 1; i < count; i++) {
+            bits &= bits - 1;
+        }
+        return Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Builds the index used by rank and select queries if it has not been built yet.
+     * <p>
+     * Queries build the index on demand, so calling this method is needed only when the array is
+     * going to be shared by many threads after its last modification.
+     * </p>
+     */
+    public void buildRankIndex() {
+        getRankIndex();
+    }
+
+    /**
+     * Returns the index used by rank and select queries building it if needed.
+     * 
+     * @return the number of set bits before each superblock followed by the number of all set
+     *         bits.
+     */
+    private int[] getRankIndex() {
+        int[] result = rankIndex;
+        if (result == null) {
+            final int words = getNumberOfWords();
+            final int superblocks = (words + (1 << WORDS_PER_SUPERBLOCK_SHIFT) - 1)
+                                    >> WORDS_PER_SUPERBLOCK_SHIFT;
+            result = new int[superblocks + 1];
+            int rank = 0;
+            for (int i = 0; i < words; i++) {
+                if ((i & ((1 << WORDS_PER_SUPERBLOCK_SHIFT) - 1)) == 0) {
+                    result[i >> WORDS_PER_SUPERBLOCK_SHIFT] = rank;
+                }
+                rank += Long.bitCount(getWord(i));
+            }
+            result[superblocks] = rank;
+            rankIndex = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position of the first set bit which occurs on or after the given position.
+     * 
+     * @param fromIndex the position from which the search starts.
+     * 
+     * @return the position of the found bit or -1 if there is no such bit.
+     */
+    public int nextSetBit(final int fromIndex) {
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (fromIndex >= size) {
+            return -1;
+        }
+        final int words = getNumberOfWords();
+        int wordIndex = fromIndex >> 6;
+        long bits = data[wordIndex] & (-1L << fromIndex);
+        while (bits == 0) {
+            if (++wordIndex == words) {
+                return -1;
+            }
+            bits = data[wordIndex];
+        }
+        int result = (wordIndex << 6) + Long.numberOfTrailingZeros(bits);
+        return result < size ? result : -1;
+    }
+
+    /**
+     * Returns the position of the first cleared bit which occurs on or after the given position.
+     * 
+     * @param fromIndex the position from which the search starts.
+     * 
+     * @return the position of the found bit or -1 if there is no such bit.
+     */
+    public int nextClearBit(final int fromIndex) {
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (fromIndex >= size) {
+            return -1;
+        }
+        final int words = getNumberOfWords();
+        int wordIndex = fromIndex >> 6;
+        long bits = ~data[wordIndex] & (-1L << fromIndex);
+        while (bits == 0) {
+            if (++wordIndex == words) {
+                return -1;
+            }
+            bits = ~data[wordIndex];
+        }
+        int result = (wordIndex << 6) + Long.numberOfTrailingZeros(bits);
+        return result < size ? result : -1;
+    }
+
+    /**
+     * Performs a logical AND of this array with the given array.
+     * The size of this array does not change and bits beyond the size of the given array are
+     * cleared. Bits of the backing array placed beyond the size of this array are not changed.
+     * 
+     * @param other the array of bits.
+     */
+    public void and(final BitsArray other) {
+        final int words = getNumberOfWords();
+        for (int i = 0; i < words; i++) {
+            setWord(i, data[i] & other.getWord(i));
+        }
+        rankIndex = null;
+    }
+
+    /**
+     * Performs a logical OR of this array with the given array.
+     * The size of this array is expanded to the size of the given array if needed.
+     * Bits of the backing array placed beyond the new size of this array are not changed.
+     * 
+     * @param other the array of bits.
+     */
+    public void or(final BitsArray other) {
+        final int words = prepareBulkOperation(other);
+        for (int i = 0; i < words; i++) {
+            setWord(i, data[i] | other.getWord(i));
+        }
+    }
+
+    /**
+     * Performs a logical XOR of this array with the given array.
+     * The size of this array is expanded to the size of the given array if needed.
+     * Bits of the backing array placed beyond the new size of this array are not changed.
+     * 
+     * @param other the array of bits.
+     */
+    public void xor(final BitsArray other) {
+        final int words = prepareBulkOperation(other);
+        for (int i = 0; i < words; i++) {
+            setWord(i, data[i] ^ other.getWord(i));
+        }
+    }
+
+    /**
+     * Clears all bits of this array which are set in the given array.
+     * The size of this array does not change. Bits of the backing array placed beyond the size
+     * of this array are not changed.
+     * 
+     * @param other the array of bits.
+     */
+    public void andNot(final BitsArray other) {
+        final int words = Math.min(getNumberOfWords(), other.getNumberOfWords());
+        for (int i = 0; i < words; i++) {
+            setWord(i, data[i] & ~other.getWord(i));
+        }
+        rankIndex = null;
+    }
+
+    /**
+     * Prepares this array for an operation which can expand it to the size of the given array.
+     * 
+     * @param other the second argument of the operation.
+     * 
+     * @return the number of words of the given array which should be processed.
+     */
+    private int prepareBulkOperation(final BitsArray other) {
+        final int words = other.getNumberOfWords();
+        if (words > data.length) {
+            long[] newData = new long[words];
+            System.arraycopy(data, 0, newData, 0, data.length);
+            data = newData;
+        }
+        if (other.size > size) {
+            clearBits(size, other.size);
+            size = other.size;
+        }
+        rankIndex = null;
+        return words;
+    }
+
+    /**
+     * Clears bits of the backing array in the given range.
+     * 
+     * @param fromIndex the position of the first cleared bit.
+     * @param toIndex   the position after the last cleared bit.
+     */
+    private void clearBits(final int fromIndex, final int toIndex) {
+        final int first = fromIndex >> 6;
+        final int last = (toIndex - 1) >> 6;
+        final long firstMask = -1L << fromIndex;
+        final long lastMask = -1L >>> -toIndex;
+        if (first == last) {
+            data[first] &= ~(firstMask & lastMask);
+        } else {
+            data[first] &= ~firstMask;
+            for (int i = first + 1; i < last; i++) {
+                data[i] = 0;
+            }
+            data[last] &= ~lastMask;
+        }
+    }
+
+    /**
+     * Stores bits of a word of the backing array which are placed before the size of the array,
+     * leaving other bits of the word unchanged.
+     * 
+     * @param wordIndex the position of the word in the backing array.
+     * @param value     the new bits of the word.
+     */
+    private void setWord(final int wordIndex, final long value) {
+        if (wordIndex == getNumberOfWords() - 1 && (size & 0x3F) != 0) {
+            final long mask = (1L << size) - 1;
+            data[wordIndex] = (data[wordIndex] & ~mask) | (value & mask);
+        } else {
+            data[wordIndex] = value;
+        }
+    }
+
+    /**
+     * Returns the number of words of the backing array which hold bits of this array.
+     * 
+     * @return number of used elements of the backing array.
+     */
+    private int getNumberOfWords() {
+        return (size + 63) >> 6;
+    }
+
+    /**
+     * Returns a word of the backing array without bits placed beyond the size of the array.
+     * 
+     * @param wordIndex the position of the word in the backing array.
+     * 
+     * @return 64 bits of the array or 0 if the word is placed beyond the size of the array.
+     */
+    private long getWord(final int wordIndex) {
+        final int words = getNumberOfWords();
+        if (wordIndex >= words) {
+            return 0;
+        }
+        if (wordIndex == words - 1 && (size & 0x3F) != 0) {
+            return data[wordIndex] & ((1L << size) - 1);
+        }
+        return data[wordIndex];
+    }
+
     /**
      * Returns backing array where all bits are actually stored.
      * 
@@ -177,7 +563,9 @@ public class BitsArray implements Serializable {
      * @return Number of bytes occupied by this structure.
      */
     public long getAllocationSize() {
-        return BASE_ALLOCATION_SIZE + (data == null ? 0 : 8 + data.length * 8);
+        int[] index = rankIndex;
+        return BASE_ALLOCATION_SIZE + (data == null ? 0 : 8 + data.length * 8)
+               + (index == null ? 0 : 16 + ((index.length * 4 + 7) & ~7));
     }
 
     /**
@@ -204,6 +592,7 @@ public class BitsArray implements Serializable {
     public void read(DataInputStream in) throws IOException {
         size = DataOutputStreamPacker.readInt(in);
         data = DataOutputStreamPacker.readArrayOfLongs(in);
+        rankIndex = null;
     }
 
     /**
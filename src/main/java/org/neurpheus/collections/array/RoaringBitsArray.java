@@ -0,0 +1,1264 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.array;
+
+import org.neurpheus.core.io.DataOutputStreamPacker;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Array holding binary elements in a compressed form suitable for very sparse or very dense
+ * arrays.
+ * <p>
+ * The array is divided into chunks of 65536 bits and only chunks containing set bits are stored.
+ * Each chunk is held by a container chosen for its content:
+ * </p>
+ * <ul>
+ * <li>an array container holds sorted positions of up to 4096 set bits,</li>
+ * <li>a bitmap container holds all 65536 bits in a long[] array,</li>
+ * <li>a run container holds ranges of successive set bits.</li>
+ * </ul>
+ * <p>
+ * Array and bitmap containers are switched automatically while setting bits. Run containers are
+ * created by the {@link #compact()} method which chooses the smallest container for each chunk,
+ * so you should call it after setting up values in the array.
+ * </p>
+ * <p>
+ * This class provides the same basic operations as {@link BitsArray}: bits are accessed by
+ * {@link #get(int)} and {@link #set(int, boolean)} methods, the size of the array is expanded
+ * automatically and the array can be written to a data stream in a compacted form.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class RoaringBitsArray implements Serializable {
+
+    /** Unique serialization identifier of this class. */
+    static final long serialVersionUID = 770608061016143243L;
+
+    /** Estimated memory occupied by internal objects of this objects. */
+    public static final int BASE_ALLOCATION_SIZE = 12 + 4 + 4 + 4 + 4 + 4;
+
+    /** The maximum number of set bits held by an array container. */
+    static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+    /** Binary logarithm of the number of bits in a chunk. */
+    private static final int CHUNK_SHIFT = 16;
+
+    /** Mask extracting a position in a chunk. */
+    private static final int CHUNK_MASK = 0xFFFF;
+
+    /** The number of words of a bitmap container. */
+    private static final int BITMAP_WORDS = 1 << (CHUNK_SHIFT - 6);
+
+    /** Type of an array container in a data stream. */
+    private static final byte ARRAY_CONTAINER = 0;
+
+    /** Type of a bitmap container in a data stream. */
+    private static final byte BITMAP_CONTAINER = 1;
+
+    /** Type of a run container in a data stream. */
+    private static final byte RUN_CONTAINER = 2;
+
+    /** Sorted numbers of chunks containing set bits. */
+    private char[] keys;
+
+    /** Containers holding bits of chunks. */
+    private Container[] containers;
+
+    /** The number of used elements of the keys and containers arrays. */
+    private int numberOfContainers;
+
+    /** Size of the array - number of bits actually stored in the array. */
+    private int size;
+
+    /**
+     * Creates a new, empty array of bits.
+     */
+    public RoaringBitsArray() {
+        keys = new char[4];
+        containers = new Container[4];
+        numberOfContainers = 0;
+        size = 0;
+    }
+
+    /**
+     * Creates a new array holding the same bits as the given array.
+     *
+     * @param source the array of bits which should be copied.
+     */
+    public RoaringBitsArray(final BitsArray source) {
+        this();
+        for (int i = source.nextSetBit(0); i >= 0; i = source.nextSetBit(i + 1)) {
+            set(i, true);
+        }
+        size = source.size();
+        compact();
+    }
+
+    /**
+     * Returns size/length of the array.
+     *
+     * @return number of bits stored in the array.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets a single bit value at the given position in the array.
+     * This method automatically expands the size of the array if needed to store value at the
+     * given position.
+     *
+     * @param index position in the array where a bit of information should be stored.
+     * @param value binary value to store
+     */
+    public void set(final int index, final boolean value) {
+        if (index < 0) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        if (index >= size) {
+            size = index + 1;
+        }
+        final char key = (char) (index >>> CHUNK_SHIFT);
+        final int pos = findContainer(key);
+        if (value) {
+            if (pos >= 0) {
+                containers[pos] = containers[pos].add(index & CHUNK_MASK);
+            } else {
+                Container container = new ArrayContainer(4);
+                insertContainer(-pos - 1, key, container.add(index & CHUNK_MASK));
+            }
+        } else if (pos >= 0) {
+            Container container = containers[pos].remove(index & CHUNK_MASK);
+            if (container == null) {
+                removeContainer(pos);
+            } else {
+                containers[pos] = container;
+            }
+        }
+    }
+
+    /**
+     * Returns a binary value stored at the given position in the array.
+     *
+     * @param index the position in the array.
+     *
+     * @return binary value stored in the array.
+     */
+    public final boolean get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        final int pos = findContainer((char) (index >>> CHUNK_SHIFT));
+        return pos >= 0 && containers[pos].contains(index & CHUNK_MASK);
+    }
+
+    /**
+     * Returns the number of set bits in the array.
+     *
+     * @return number of bits having the {@code true} value.
+     */
+    public int cardinality() {
+        int result = 0;
+        for (int i = 0; i < numberOfContainers; i++) {
+            result += containers[i].cardinality();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position of the first set bit which occurs on or after the given position.
+     *
+     * @param fromIndex the position from which the search starts.
+     *
+     * @return the position of the found bit or -1 if there is no such bit.
+     */
+    public int nextSetBit(final int fromIndex) {
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (fromIndex >= size) {
+            return -1;
+        }
+        final char key = (char) (fromIndex >>> CHUNK_SHIFT);
+        int pos = findContainer(key);
+        if (pos >= 0) {
+            int low = containers[pos].nextSetBit(fromIndex & CHUNK_MASK);
+            if (low >= 0) {
+                return (key << CHUNK_SHIFT) | low;
+            }
+            ++pos;
+        } else {
+            pos = -pos - 1;
+        }
+        return pos < numberOfContainers
+               ? (keys[pos] << CHUNK_SHIFT) | containers[pos].nextSetBit(0)
+               : -1;
+    }
+
+    /**
+     * Returns the number of chunks of 65536 bits holding at least one set bit.
+     *
+     * @return number of containers used by this array.
+     */
+    public int getNumberOfContainers() {
+        return numberOfContainers;
+    }
+
+    /**
+     * Performs a logical AND of this array with the given array.
+     * The size of this array does not change.
+     *
+     * @param other the array of bits.
+     */
+    public void and(final RoaringBitsArray other) {
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < numberOfContainers; i++) {
+            while (j < other.numberOfContainers && other.keys[j] < keys[i]) {
+                ++j;
+            }
+            if (j < other.numberOfContainers && other.keys[j] == keys[i]) {
+                Container container = and(containers[i], other.containers[j]);
+                if (container != null) {
+                    keys[count] = keys[i];
+                    containers[count++] = container;
+                }
+            }
+        }
+        truncate(count);
+    }
+
+    /**
+     * Clears all bits of this array which are set in the given array.
+     * The size of this array does not change.
+     *
+     * @param other the array of bits.
+     */
+    public void andNot(final RoaringBitsArray other) {
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < numberOfContainers; i++) {
+            while (j < other.numberOfContainers && other.keys[j] < keys[i]) {
+                ++j;
+            }
+            Container container = containers[i];
+            if (j < other.numberOfContainers && other.keys[j] == keys[i]) {
+                container = andNot(container, other.containers[j]);
+            }
+            if (container != null) {
+                keys[count] = keys[i];
+                containers[count++] = container;
+            }
+        }
+        truncate(count);
+    }
+
+    /**
+     * Performs a logical OR of this array with the given array.
+     * The size of this array is expanded to the size of the given array if needed.
+     *
+     * @param other the array of bits.
+     */
+    public void or(final RoaringBitsArray other) {
+        merge(other, false);
+    }
+
+    /**
+     * Performs a logical XOR of this array with the given array.
+     * The size of this array is expanded to the size of the given array if needed.
+     *
+     * @param other the array of bits.
+     */
+    public void xor(final RoaringBitsArray other) {
+        merge(other, true);
+    }
+
+    /**
+     * Merges containers of this array with containers of the given array.
+     *
+     * @param other the array of bits.
+     * @param xor   {@code true} for the XOR operation, {@code false} for the OR operation.
+     */
+    private void merge(final RoaringBitsArray other, final boolean xor) {
+        char[] newKeys = new char[numberOfContainers + other.numberOfContainers];
+        Container[] newContainers = new Container[newKeys.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < numberOfContainers || j < other.numberOfContainers) {
+            char key;
+            Container container;
+            if (j == other.numberOfContainers
+                || (i < numberOfContainers && keys[i] < other.keys[j])) {
+                key = keys[i];
+                container = containers[i++];
+            } else if (i == numberOfContainers || other.keys[j] < keys[i]) {
+                key = other.keys[j];
+                container = other.containers[j++].copy();
+            } else {
+                key = keys[i];
+                container = merge(containers[i++], other.containers[j++], xor);
+            }
+            if (container != null) {
+                newKeys[count] = key;
+                newContainers[count++] = container;
+            }
+        }
+        keys = newKeys.length > 0 ? newKeys : new char[4];
+        containers = newContainers.length > 0 ? newContainers : new Container[4];
+        numberOfContainers = count;
+        if (other.size > size) {
+            size = other.size;
+        }
+    }
+
+    /**
+     * Reduces memory occupied by this array choosing the smallest container for each chunk and
+     * eliminating unused area at the end of internal arrays.
+     */
+    public void compact() {
+        for (int i = 0; i < numberOfContainers; i++) {
+            containers[i] = containers[i].optimize();
+        }
+        if (keys.length != numberOfContainers) {
+            keys = Arrays.copyOf(keys, numberOfContainers);
+            containers = Arrays.copyOf(containers, numberOfContainers);
+        }
+    }
+
+    /**
+     * Returns estimated size of a memory occupied by this structure.
+     *
+     * @return Number of bytes occupied by this structure.
+     */
+    public long getAllocationSize() {
+        long result = BASE_ALLOCATION_SIZE;
+        result += 16 + ((keys.length * 2 + 7) & ~7);
+        result += 16 + ((containers.length * 4 + 7) & ~7);
+        for (int i = 0; i < numberOfContainers; i++) {
+            result += containers[i].getAllocationSize();
+        }
+        return result;
+    }
+
+    /**
+     * Stores this array in the given data output stream.
+     *
+     * @param out the stream where this array should be stored.
+     *
+     * @throws IOException if writing isn't possible.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        compact();
+        DataOutputStreamPacker.writeInt(size, out);
+        DataOutputStreamPacker.writeInt(numberOfContainers, out);
+        for (int i = 0; i < numberOfContainers; i++) {
+            out.writeChar(keys[i]);
+            containers[i].write(out);
+        }
+    }
+
+    /**
+     * Reads data of this array from the given input stream holding data values.
+     *
+     * @param in the input stream where an array of bits has been serialized.
+     *
+     * @throws IOException if reading isn't possible.
+     */
+    public void read(DataInputStream in) throws IOException {
+        int newSize = DataOutputStreamPacker.readInt(in);
+        int count = DataOutputStreamPacker.readInt(in);
+        char[] newKeys = new char[count];
+        Container[] newContainers = new Container[count];
+        for (int i = 0; i < count; i++) {
+            newKeys[i] = in.readChar();
+            byte type = in.readByte();
+            switch (type) {
+                case ARRAY_CONTAINER:
+                    newContainers[i] = ArrayContainer.readContainer(in);
+                    break;
+                case BITMAP_CONTAINER:
+                    newContainers[i] = BitmapContainer.readContainer(in);
+                    break;
+                case RUN_CONTAINER:
+                    newContainers[i] = RunContainer.readContainer(in);
+                    break;
+                default:
+                    throw new IOException("Invalid type of a container: " + type);
+            }
+        }
+        size = newSize;
+        keys = newKeys;
+        containers = newContainers;
+        numberOfContainers = count;
+    }
+
+    /**
+     * Creates a new instance of this class reading data from the given input stream.
+     *
+     * @param in the input stream were an array of bits has been serialized.
+     *
+     * @return New, compact bits array.
+     *
+     * @throws IOException if reading isn't possible.
+     */
+    public static RoaringBitsArray readInstance(DataInputStream in) throws IOException {
+        RoaringBitsArray result = new RoaringBitsArray();
+        result.read(in);
+        return result;
+    }
+
+    /**
+     * Creates a dense array holding the same bits as this array.
+     *
+     * @return New array of bits.
+     */
+    public BitsArray toBitsArray() {
+        BitsArray result = new BitsArray(Math.max(size, 1));
+        if (size > 0) {
+            result.set(size - 1, false);
+        }
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            result.set(i, true);
+        }
+        return result;
+    }
+
+    /**
+     * Finds a container of the given chunk.
+     *
+     * @param key the number of a chunk.
+     *
+     * @return the position of the container or <code>(-(insertion point) - 1)</code> if the
+     *         array has no container for the chunk.
+     */
+    private int findContainer(final char key) {
+        return Arrays.binarySearch(keys, 0, numberOfContainers, key);
+    }
+
+    /**
+     * Inserts a new container at the given position.
+     *
+     * @param pos       the position of the container.
+     * @param key       the number of a chunk.
+     * @param container the container holding bits of the chunk.
+     */
+    private void insertContainer(final int pos, final char key, final Container container) {
+        if (numberOfContainers == keys.length) {
+            int newLength = Math.max(4, 2 * keys.length);
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, numberOfContainers - pos);
+        System.arraycopy(containers, pos, containers, pos + 1, numberOfContainers - pos);
+        keys[pos] = key;
+        containers[pos] = container;
+        ++numberOfContainers;
+    }
+
+    /**
+     * Removes a container from the given position.
+     *
+     * @param pos the position of the container.
+     */
+    private void removeContainer(final int pos) {
+        System.arraycopy(keys, pos + 1, keys, pos, numberOfContainers - pos - 1);
+        System.arraycopy(containers, pos + 1, containers, pos, numberOfContainers - pos - 1);
+        containers[--numberOfContainers] = null;
+    }
+
+    /**
+     * Releases containers placed after the given number of containers.
+     *
+     * @param count the new number of containers.
+     */
+    private void truncate(final int count) {
+        for (int i = count; i < numberOfContainers; i++) {
+            containers[i] = null;
+        }
+        numberOfContainers = count;
+    }
+
+    /**
+     * Computes a logical AND of two containers.
+     *
+     * @param first  the first container.
+     * @param second the second container.
+     *
+     * @return the new container or null if the result has no set bits.
+     */
+    private static Container and(final Container first, final Container second) {
+        if (first instanceof ArrayContainer) {
+            return ((ArrayContainer) first).filter(second, true);
+        }
+        if (second instanceof ArrayContainer) {
+            return ((ArrayContainer) second).filter(first, true);
+        }
+        long[] words = first.toWords();
+        long[] otherWords = second.toWords();
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] &= otherWords[i];
+        }
+        return fromWords(words);
+    }
+
+    /**
+     * Clears bits of the first container which are set in the second container.
+     *
+     * @param first  the first container.
+     * @param second the second container.
+     *
+     * @return the new container or null if the result has no set bits.
+     */
+    private static Container andNot(final Container first, final Container second) {
+        if (first instanceof ArrayContainer) {
+            return ((ArrayContainer) first).filter(second, false);
+        }
+        long[] words = first.toWords();
+        long[] otherWords = second.toWords();
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] &= ~otherWords[i];
+        }
+        return fromWords(words);
+    }
+
+    /**
+     * Computes a logical OR or XOR of two containers.
+     *
+     * @param first  the first container.
+     * @param second the second container.
+     * @param xor    {@code true} for the XOR operation, {@code false} for the OR operation.
+     *
+     * @return the new container or null if the result has no set bits.
+     */
+    private static Container merge(final Container first, final Container second,
+                                   final boolean xor) {
+        if (first instanceof ArrayContainer && second instanceof ArrayContainer
+            && first.cardinality() + second.cardinality() <= ARRAY_CONTAINER_MAX_SIZE) {
+            return ((ArrayContainer) first).merge((ArrayContainer) second, xor);
+        }
+        if (!xor && first instanceof RunContainer && second instanceof RunContainer) {
+            return ((RunContainer) first).or((RunContainer) second);
+        }
+        long[] words = first.toWords();
+        long[] otherWords = second.toWords();
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] = xor ? words[i] ^ otherWords[i] : words[i] | otherWords[i];
+        }
+        return fromWords(words);
+    }
+
+    /**
+     * Creates an array or a bitmap container holding the given bits of a chunk.
+     *
+     * @param words bits of a chunk; the array can be used by the created container.
+     *
+     * @return the new container or null if there are no set bits.
+     */
+    private static Container fromWords(final long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+        if (cardinality > ARRAY_CONTAINER_MAX_SIZE) {
+            return new BitmapContainer(words, cardinality);
+        }
+        char[] values = new char[cardinality];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, cardinality);
+    }
+
+    /**
+     * Returns the position of the first set bit which occurs on or after the given position in
+     * bits of a chunk.
+     *
+     * @param words bits of a chunk.
+     * @param low   the position in the chunk.
+     *
+     * @return the position of the found bit or -1 if there is no such bit.
+     */
+    private static int nextSetBit(final long[] words, final int low) {
+        int wordIndex = low >>> 6;
+        long word = words[wordIndex] & (-1L << low);
+        while (word == 0) {
+            if (++wordIndex == BITMAP_WORDS) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Returns the position of the first cleared bit which occurs on or after the given position
+     * in bits of a chunk.
+     *
+     * @param words bits of a chunk.
+     * @param low   the position in the chunk.
+     *
+     * @return the position of the found bit or the number of bits in a chunk if there is no such
+     *         bit.
+     */
+    private static int nextClearBit(final long[] words, final int low) {
+        int wordIndex = low >>> 6;
+        long word = ~words[wordIndex] & (-1L << low);
+        while (word == 0) {
+            if (++wordIndex == BITMAP_WORDS) {
+                return BITMAP_WORDS << 6;
+            }
+            word = ~words[wordIndex];
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Sets a range of bits of a chunk.
+     *
+     * @param words bits of a chunk.
+     * @param from  the first position of the range.
+     * @param to    the position after the last position of the range.
+     */
+    private static void setRange(final long[] words, final int from, final int to) {
+        final int firstWord = from >>> 6;
+        final int lastWord = (to - 1) >>> 6;
+        final long firstMask = -1L << from;
+        final long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+        } else {
+            words[firstWord] |= firstMask;
+            for (int i = firstWord + 1; i < lastWord; i++) {
+                words[i] = -1L;
+            }
+            words[lastWord] |= lastMask;
+        }
+    }
+
+    /**
+     * Holds bits of a single chunk.
+     */
+    private abstract static class Container implements Serializable {
+
+        /** Unique serialization identifier of this class. */
+        static final long serialVersionUID = 770608061016143244L;
+
+        /**
+         * Checks if a bit is set.
+         *
+         * @param low the position in the chunk.
+         *
+         * @return {@code true} if the bit is set.
+         */
+        abstract boolean contains(int low);
+
+        /**
+         * Sets a bit.
+         *
+         * @param low the position in the chunk.
+         *
+         * @return this container or a new container holding bits of the chunk.
+         */
+        abstract Container add(int low);
+
+        /**
+         * Clears a bit.
+         *
+         * @param low the position in the chunk.
+         *
+         * @return this container, a new container holding bits of the chunk or null if the chunk
+         *         has no set bits.
+         */
+        abstract Container remove(int low);
+
+        /**
+         * Returns the number of set bits.
+         *
+         * @return number of set bits in the chunk.
+         */
+        abstract int cardinality();
+
+        /**
+         * Returns the position of the first set bit which occurs on or after the given position.
+         *
+         * @param low the position in the chunk.
+         *
+         * @return the position of the found bit or -1 if there is no such bit.
+         */
+        abstract int nextSetBit(int low);
+
+        /**
+         * Returns bits of this container.
+         *
+         * @return new array of 1024 words.
+         */
+        abstract long[] toWords();
+
+        /**
+         * Creates a copy of this container.
+         *
+         * @return new container holding the same bits.
+         */
+        abstract Container copy();
+
+        /**
+         * Returns estimated size of a memory occupied by this container.
+         *
+         * @return Number of bytes occupied by this container.
+         */
+        abstract long getAllocationSize();
+
+        /**
+         * Stores this container and its type in the given data output stream.
+         *
+         * @param out the stream where this container should be stored.
+         *
+         * @throws IOException if writing isn't possible.
+         */
+        abstract void write(DataOutputStream out) throws IOException;
+
+        /**
+         * Chooses the smallest container holding bits of this container.
+         *
+         * @return this container or a new, smaller container.
+         */
+        Container optimize() {
+            long[] words = toWords();
+            int runs = RunContainer.countRuns(words);
+            int cardinality = cardinality();
+            int runSize = 4 * runs;
+            int arraySize = cardinality <= ARRAY_CONTAINER_MAX_SIZE ? 2 * cardinality
+                                                                     : Integer.MAX_VALUE;
+            int bitmapSize = 8 * BITMAP_WORDS;
+            Container result;
+            if (runSize < arraySize && runSize < bitmapSize) {
+                result = this instanceof RunContainer ? this : RunContainer.fromWords(words, runs);
+            } else if (arraySize <= bitmapSize) {
+                result = this instanceof ArrayContainer ? this : fromWords(words);
+            } else {
+                result = this instanceof BitmapContainer ? this
+                         : new BitmapContainer(words, cardinality);
+            }
+            if (result instanceof ArrayContainer) {
+                ((ArrayContainer) result).trim();
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Holds sorted positions of set bits.
+     */
+    private static final class ArrayContainer extends Container {
+
+        /** Unique serialization identifier of this class. */
+        static final long serialVersionUID = 770608061016143245L;
+
+        /** Sorted positions of set bits. */
+        private char[] values;
+
+        /** The number of used elements of the values array. */
+        private int cardinality;
+
+        ArrayContainer(final int capacity) {
+            values = new char[capacity];
+            cardinality = 0;
+        }
+
+        ArrayContainer(final char[] values, final int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(final int low) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) low) >= 0;
+        }
+
+        @Override
+        Container add(final int low) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (pos >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+                long[] words = toWords();
+                words[low >>> 6] |= 1L << low;
+                return new BitmapContainer(words, cardinality + 1);
+            }
+            pos = -pos - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values,
+                                       Math.min(ARRAY_CONTAINER_MAX_SIZE, 2 * values.length));
+            }
+            System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+            values[pos] = (char) low;
+            ++cardinality;
+            return this;
+        }
+
+        @Override
+        Container remove(final int low) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (pos >= 0) {
+                System.arraycopy(values, pos + 1, values, pos, cardinality - pos - 1);
+                --cardinality;
+            }
+            return cardinality == 0 ? null : this;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int nextSetBit(final int low) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            return pos < cardinality ? values[pos] : -1;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        long getAllocationSize() {
+            return 24 + 16 + ((values.length * 2 + 7) & ~7);
+        }
+
+        @Override
+        void write(final DataOutputStream out) throws IOException {
+            out.writeByte(ARRAY_CONTAINER);
+            DataOutputStreamPacker.writeInt(cardinality, out);
+            for (int i = 0; i < cardinality; i++) {
+                out.writeChar(values[i]);
+            }
+        }
+
+        static ArrayContainer readContainer(final DataInputStream in) throws IOException {
+            int cardinality = DataOutputStreamPacker.readInt(in);
+            char[] values = new char[cardinality];
+            for (int i = 0; i < cardinality; i++) {
+                values[i] = in.readChar();
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+
+        /**
+         * Eliminates unused area at the end of the values array.
+         */
+        void trim() {
+            if (values.length != cardinality) {
+                values = Arrays.copyOf(values, cardinality);
+            }
+        }
+
+        /**
+         * Creates a container holding bits of this container which are set or cleared in the
+         * given container.
+         *
+         * @param other the second container.
+         * @param set   {@code true} to keep bits set in the second container (AND),
+         *              {@code false} to keep bits cleared in the second container (AND NOT).
+         *
+         * @return the new container or null if the result has no set bits.
+         */
+        Container filter(final Container other, final boolean set) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == set) {
+                    result[count++] = values[i];
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(result, count);
+        }
+
+        /**
+         * Computes a logical OR or XOR of sorted positions of this and the given container.
+         *
+         * @param other the second container.
+         * @param xor   {@code true} for the XOR operation, {@code false} for the OR operation.
+         *
+         * @return the new container or null if the result has no set bits.
+         */
+        Container merge(final ArrayContainer other, final boolean xor) {
+            char[] result = new char[cardinality + other.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = values[i];
+                char b = other.values[j];
+                if (a < b) {
+                    result[count++] = a;
+                    ++i;
+                } else if (b < a) {
+                    result[count++] = b;
+                    ++j;
+                } else {
+                    if (!xor) {
+                        result[count++] = a;
+                    }
+                    ++i;
+                    ++j;
+                }
+            }
+            while (i < cardinality) {
+                result[count++] = values[i++];
+            }
+            while (j < other.cardinality) {
+                result[count++] = other.values[j++];
+            }
+            return count == 0 ? null : new ArrayContainer(result, count);
+        }
+
+    }
+
+    /**
+     * Holds all bits of a chunk.
+     */
+    private static final class BitmapContainer extends Container {
+
+        /** Unique serialization identifier of this class. */
+        static final long serialVersionUID = 770608061016143246L;
+
+        /** Bits of the chunk. */
+        private final long[] words;
+
+        /** The number of set bits. */
+        private int cardinality;
+
+        BitmapContainer(final long[] words, final int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(final int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(final int low) {
+            long word = words[low >>> 6];
+            long newWord = word | (1L << low);
+            if (word != newWord) {
+                words[low >>> 6] = newWord;
+                ++cardinality;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(final int low) {
+            long word = words[low >>> 6];
+            long newWord = word & ~(1L << low);
+            if (word != newWord) {
+                words[low >>> 6] = newWord;
+                if (--cardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+                    return fromWords(words);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int nextSetBit(final int low) {
+            return RoaringBitsArray.nextSetBit(words, low);
+        }
+
+        @Override
+        long[] toWords() {
+            return Arrays.copyOf(words, BITMAP_WORDS);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(toWords(), cardinality);
+        }
+
+        @Override
+        long getAllocationSize() {
+            return 24 + 16 + BITMAP_WORDS * 8L;
+        }
+
+        @Override
+        void write(final DataOutputStream out) throws IOException {
+            out.writeByte(BITMAP_CONTAINER);
+            DataOutputStreamPacker.writeArrayOfLongs(words, out);
+        }
+
+        static BitmapContainer readContainer(final DataInputStream in) throws IOException {
+            long[] words = DataOutputStreamPacker.readArrayOfLongs(in);
+            if (words.length != BITMAP_WORDS) {
+                throw new IOException("Invalid length of a bitmap container: " + words.length);
+            }
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+    }
+
+    /**
+     * Holds ranges of successive set bits.
+     * <p>
+     * Run containers are never modified. Setting or clearing a bit converts a run container
+     * to an array or a bitmap container.
+     * </p>
+     */
+    private static final class RunContainer extends Container {
+
+        /** Unique serialization identifier of this class. */
+        static final long serialVersionUID = 770608061016143247L;
+
+        /** The first position of each run followed by the length of the run decreased by one. */
+        private final char[] runs;
+
+        /** The number of set bits. */
+        private final int cardinality;
+
+        RunContainer(final char[] runs) {
+            this.runs = runs;
+            int result = 0;
+            for (int i = 1; i < runs.length; i += 2) {
+                result += runs[i] + 1;
+            }
+            this.cardinality = result;
+        }
+
+        /**
+         * Counts runs of set bits in the given bits of a chunk.
+         *
+         * @param words bits of a chunk.
+         *
+         * @return number of runs.
+         */
+        static int countRuns(final long[] words) {
+            int result = 0;
+            long carry = 0;
+            for (long word : words) {
+                result += Long.bitCount(word & ~((word << 1) | carry));
+                carry = word >>> 63;
+            }
+            return result;
+        }
+
+        /**
+         * Creates a run container holding the given bits of a chunk.
+         *
+         * @param words        bits of a chunk.
+         * @param numberOfRuns number of runs of set bits.
+         *
+         * @return the new container.
+         */
+        static RunContainer fromWords(final long[] words, final int numberOfRuns) {
+            char[] runs = new char[2 * numberOfRuns];
+            int count = 0;
+            int start = RoaringBitsArray.nextSetBit(words, 0);
+            while (start >= 0) {
+                int end = nextClearBit(words, start);
+                runs[count++] = (char) start;
+                runs[count++] = (char) (end - start - 1);
+                start = end < BITMAP_WORDS << 6 ? RoaringBitsArray.nextSetBit(words, end) : -1;
+            }
+            return new RunContainer(runs);
+        }
+
+        /**
+         * Finds a run which starts at or before the given position.
+         *
+         * @param low the position in the chunk.
+         *
+         * @return the number of the last run starting at or before the position or -1.
+         */
+        private int findRun(final int low) {
+            int lo = 0;
+            int hi = (runs.length >> 1) - 1;
+            int result = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (runs[2 * mid] <= low) {
+                    result = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        boolean contains(final int low) {
+            int run = findRun(low);
+            return run >= 0 && low <= runs[2 * run] + runs[2 * run + 1];
+        }
+
+        @Override
+        Container add(final int low) {
+            if (contains(low)) {
+                return this;
+            }
+            long[] words = toWords();
+            words[low >>> 6] |= 1L << low;
+            return RoaringBitsArray.fromWords(words);
+        }
+
+        @Override
+        Container remove(final int low) {
+            if (!contains(low)) {
+                return this;
+            }
+            long[] words = toWords();
+            words[low >>> 6] &= ~(1L << low);
+            return RoaringBitsArray.fromWords(words);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int nextSetBit(final int low) {
+            int run = findRun(low);
+            if (run >= 0 && low <= runs[2 * run] + runs[2 * run + 1]) {
+                return low;
+            }
+            ++run;
+            return 2 * run < runs.length ? runs[2 * run] : -1;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < runs.length; i += 2) {
+                setRange(words, runs[i], runs[i] + runs[i + 1] + 1);
+            }
+            return words;
+        }
+
+        /**
+         * Computes a logical OR of this and the given container merging their runs.
+         *
+         * @param other the second container.
+         *
+         * @return the new container.
+         */
+        RunContainer or(final RunContainer other) {
+            char[] result = new char[runs.length + other.runs.length];
+            int count = 0;
+            int start = -1;
+            int end = -1;
+            int i = 0;
+            int j = 0;
+            while (i < runs.length || j < other.runs.length) {
+                int runStart;
+                int runEnd;
+                if (j == other.runs.length || (i < runs.length && runs[i] <= other.runs[j])) {
+                    runStart = runs[i];
+                    runEnd = runStart + runs[i + 1];
+                    i += 2;
+                } else {
+                    runStart = other.runs[j];
+                    runEnd = runStart + other.runs[j + 1];
+                    j += 2;
+                }
+                if (start >= 0 && runStart <= end + 1) {
+                    end = Math.max(end, runEnd);
+                } else {
+                    if (start >= 0) {
+                        result[count++] = (char) start;
+                        result[count++] = (char) (end - start);
+                    }
+                    start = runStart;
+                    end = runEnd;
+                }
+            }
+            result[count++] = (char) start;
+            result[count++] = (char) (end - start);
+            return new RunContainer(Arrays.copyOf(result, count));
+        }
+
+        @Override
+        Container copy() {
+            return this;
+        }
+
+        @Override
+        long getAllocationSize() {
+            return 24 + 16 + ((runs.length * 2 + 7) & ~7);
+        }
+
+        @Override
+        void write(final DataOutputStream out) throws IOException {
+            out.writeByte(RUN_CONTAINER);
+            DataOutputStreamPacker.writeInt(runs.length >> 1, out);
+            for (char value : runs) {
+                out.writeChar(value);
+            }
+        }
+
+        static RunContainer readContainer(final DataInputStream in) throws IOException {
+            char[] runs = new char[2 * DataOutputStreamPacker.readInt(in)];
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] = in.readChar();
+            }
+            return new RunContainer(runs);
+        }
+
+    }
+
+}
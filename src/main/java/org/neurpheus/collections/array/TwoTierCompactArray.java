@@ -0,0 +1,340 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.array;
+
+import org.neurpheus.core.io.DataOutputStreamPacker;
+import org.neurpheus.logging.LoggerService;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.logging.Logger;
+
+/**
+ * Holds a read-only array of positive integers in which small values are the most frequent ones.
+ * <p>
+ * Values smaller than 2<sup>k</sup> (hot values) are stored in a {@link CompactArray} using k
+ * bits each. Remaining values (rare values) are stored in a separate compact array using as many
+ * bits as the maximum value requires. A bitmap marks positions of rare values and a sampling
+ * index holds the number of rare values preceding each block of 64 positions, so the position of
+ * a value in one of both arrays is computed in a constant time.
+ * </p>
+ * <p>
+ * The length k is chosen to minimize the memory consumption. If no k saves memory, all values are
+ * stored in a single compact array without the bitmap. This array is especially useful for
+ * storing references to dictionary entries ordered by a frequency of their usage.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class TwoTierCompactArray implements Serializable {
+
+    private static final Logger LOGGER = LoggerService.getLogger(TwoTierCompactArray.class);
+
+    /** Current version of data format used while writing the array to stream. */
+    static final byte FORMAT_VERSION = 1;
+
+    /** Unique serialization identifier of this class. */
+    static final long serialVersionUID = 770608161018193512L;
+
+    /** A shift range used for a calculation of a block of the bitmap. */
+    private static final int BLOCK_SHIFT = 6;
+
+    /** Estimated memory occupied by internal objects of this objects. */
+    public static final int BASE_ALLOCATION_SIZE = 16 + 4 + 4 + 4 * 4;
+
+    /** The number of elements in the array. */
+    private int size;
+
+    /** The number of bits used by hot values or 0 if all values are stored in one array. */
+    private int hotBits;
+
+    /** Hot values or all values if this array consists of a single tier. */
+    private CompactArray hotValues;
+
+    /** Rare values in order of their positions. */
+    private CompactArray rareValues;
+
+    /** Bits denoting positions of rare values. */
+    private long[] rareBitmap;
+
+    /** The number of rare values preceding each block of the bitmap. */
+    private int[] rareRanks;
+
+    /**
+     * Creates a new instance of TwoTierCompactArray.
+     */
+    public TwoTierCompactArray() {
+        this.hotValues = new CompactArray(0, 0);
+    }
+
+    /**
+     * Creates a new array holding the specified values.
+     *
+     * @param values Positive values which should be stored in the array.
+     */
+    public TwoTierCompactArray(final int[] values) {
+        this.size = values.length;
+        int maxValue = 0;
+        long[] histogram = new long[Integer.SIZE + 1];
+        for (int value : values) {
+            if (value < 0) {
+                throw new IllegalArgumentException(
+                        "Two tier compact array cannot store negative values.");
+            }
+            maxValue = Math.max(maxValue, value);
+            histogram[CompactArray.determineNumberOfBits(value)]++;
+        }
+        int maxBits = CompactArray.determineNumberOfBits(maxValue);
+        this.hotBits = findBestHotBits(histogram, maxBits, size);
+        if (hotBits == 0) {
+            hotValues = new CompactArray(size, maxValue);
+            for (int value : values) {
+                hotValues.addIntValue(value);
+            }
+        } else {
+            int hotLimit = 1 << hotBits;
+            int blocks = (size >> BLOCK_SHIFT) + 1;
+            rareBitmap = new long[blocks];
+            hotValues = new CompactArray(size, hotLimit - 1);
+            rareValues = new CompactArray(0, maxValue);
+            for (int i = 0; i < size; i++) {
+                int value = values[i];
+                if (value < hotLimit) {
+                    hotValues.addIntValue(value);
+                } else {
+                    rareBitmap[i >> BLOCK_SHIFT] |= 1L << i;
+                    rareValues.addIntValue(value);
+                }
+            }
+            createRanks();
+        }
+        trimToSize();
+    }
+
+    /**
+     * Finds the length of hot values which minimizes the memory consumption.
+     *
+     * @param histogram The number of values for each number of bits required to store a value.
+     * @param maxBits   The number of bits required to store the maximum value.
+     * @param size      The number of values.
+     *
+     * @return The best number of bits for hot values or 0 if a single tier should be used.
+     */
+    private static int findBestHotBits(final long[] histogram, final int maxBits,
+                                       final int size) {
+        // the bitmap and the sampling index cost 1.5 bit per value
+        long bestCost = (long) size * maxBits;
+        int result = 0;
+        long hotCount = 0;
+        for (int bits = 1; bits < maxBits; bits++) {
+            hotCount += histogram[bits];
+            long cost = hotCount * bits + (size - hotCount) * maxBits + size + size / 2;
+            if (cost < bestCost) {
+                bestCost = cost;
+                result = bits;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the sampling index of the rare values bitmap.
+     */
+    private void createRanks() {
+        rareRanks = new int[rareBitmap.length];
+        int rank = 0;
+        for (int i = 0; i < rareBitmap.length; i++) {
+            rareRanks[i] = rank;
+            rank += Long.bitCount(rareBitmap[i]);
+        }
+    }
+
+    /**
+     * Returns the number of elements stored in this array.
+     *
+     * @return The array size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the integer value stored at the given position in the array.
+     *
+     * @param index The position in the array.
+     *
+     * @return The value stored at the given position.
+     */
+    public int getIntValue(final int index) {
+        if (rareBitmap == null) {
+            return hotValues.getIntValue(index);
+        }
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        int block = index >> BLOCK_SHIFT;
+        long word = rareBitmap[block];
+        long bit = 1L << index;
+        int rareBefore = rareRanks[block] + Long.bitCount(word & (bit - 1));
+        if ((word & bit) == 0) {
+            return hotValues.getIntValue(index - rareBefore);
+        } else {
+            return rareValues.getIntValue(rareBefore);
+        }
+    }
+
+    /**
+     * Returns the number of bits used by hot values.
+     *
+     * @return The number of bits or 0 if all values are stored in a single tier.
+     */
+    public int getHotBits() {
+        return hotBits;
+    }
+
+    /**
+     * Reduces the size of backing arrays to the minimum possible size.
+     */
+    public final void trimToSize() {
+        if (hotValues.size() > 0) {
+            hotValues.compact();
+        }
+        if (rareValues != null && rareValues.size() > 0) {
+            rareValues.compact();
+        }
+    }
+
+    /**
+     * Frees up resources occupied by this object.
+     */
+    public void dispose() {
+        hotValues.dispose();
+        if (rareValues != null) {
+            rareValues.dispose();
+        }
+        rareValues = null;
+        rareBitmap = null;
+        rareRanks = null;
+        size = 0;
+        hotBits = 0;
+    }
+
+    /**
+     * Returns estimated size of memory occupied by this object.
+     *
+     * @return number of bytes occupied by this object.
+     */
+    public long getAllocationSize() {
+        long result = BASE_ALLOCATION_SIZE + hotValues.getAllocationSize();
+        if (rareValues != null) {
+            result += rareValues.getAllocationSize();
+        }
+        if (rareBitmap != null) {
+            result += 16 + rareBitmap.length * 8L;
+        }
+        if (rareRanks != null) {
+            result += 16 + rareRanks.length * 4L;
+        }
+        return result;
+    }
+
+    /**
+     * Writes this object into the given data output stream.
+     *
+     * @param out The output stream where this object should be stored.
+     *
+     * @throws IOException if any write error occurred.
+     */
+    public void write(final DataOutputStream out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(size);
+        out.writeByte(hotBits);
+        hotValues.write(out);
+        if (hotBits > 0) {
+            rareValues.write(out);
+            DataOutputStreamPacker.writeArrayOfLongs(rareBitmap, out);
+        }
+    }
+
+    /**
+     * Reads object's data from the given data input stream.
+     *
+     * @param in The input stream from which this object should be read.
+     *
+     * @throws IOException if any read error occurred.
+     */
+    public void read(final DataInputStream in) throws IOException {
+        if (FORMAT_VERSION != in.readByte()) {
+            throw new IOException("Invalid file format");
+        }
+        size = in.readInt();
+        hotBits = in.readByte();
+        hotValues = CompactArray.readInstance(in);
+        rareValues = null;
+        rareBitmap = null;
+        rareRanks = null;
+        if (hotBits > 0) {
+            rareValues = CompactArray.readInstance(in);
+            rareBitmap = DataOutputStreamPacker.readArrayOfLongs(in);
+            createRanks();
+        }
+    }
+
+    /**
+     * Reads object's data from the given data input stream.
+     *
+     * @param in The input stream from which this object should be read.
+     * @return read two tier compact array
+     *
+     * @throws IOException if any read error occurred.
+     */
+    public static TwoTierCompactArray readInstance(final DataInputStream in) throws IOException {
+        TwoTierCompactArray result = new TwoTierCompactArray();
+        result.read(in);
+        return result;
+    }
+
+    /**
+     * Creates a single tier array holding the same values as the specified compact array.
+     *
+     * @param array The source array.
+     *
+     * @return The new array sharing data with the source array.
+     */
+    public static TwoTierCompactArray wrap(final CompactArray array) {
+        TwoTierCompactArray result = new TwoTierCompactArray();
+        result.hotValues = array;
+        result.size = array.size();
+        return result;
+    }
+
+    /**
+     * Logs out statistical information for this array.
+     *
+     * @param arrayName The name of the array used in log messages.
+     */
+    public void logStatistics(String arrayName) {
+        LOGGER.info(String.format(
+                "Statistics for two tier array %s. size: %d; hot bits: %d; rare values: %d; "
+                + "allocation: %d",
+                arrayName, size, hotBits, rareValues == null ? 0 : rareValues.size(),
+                getAllocationSize()));
+    }
+
+}
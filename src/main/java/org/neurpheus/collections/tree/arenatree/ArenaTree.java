@@ -0,0 +1,96 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.arenatree;
+
+import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.TreeNode;
+
+/**
+ * Implementation of the Tree interface which holds all nodes in a few large arrays.
+ * <p>
+ * Values, data and links between nodes are stored in parallel arrays of integers (see
+ * {@link NodeArena}), and {@link TreeNode} objects are created only as views of positions in
+ * these arrays. Building and discarding a huge base tree of a linked list tree costs a few
+ * allocations of arrays instead of millions of objects.
+ * </p>
+ * <p>
+ * Trees and their nodes are created by an {@link ArenaTreeFactory}.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class ArenaTree implements Tree<Integer, Integer> {
+
+    /**
+     * Unique version of this class.
+     */
+    private static final long serialVersionUID = 770608061018140102L;
+
+    /** The arena holding nodes of this tree. */
+    private final NodeArena arena;
+
+    /** The position of the root node in the arena. */
+    private int root;
+
+    /**
+     * Creates a tree.
+     *
+     * @param arena The arena holding nodes of the tree.
+     * @param root  The position of the root in the arena.
+     */
+    ArenaTree(final NodeArena arena, final int root) {
+        this.arena = arena;
+        this.root = root;
+    }
+
+    @Override
+    public ArenaTreeNode getRoot() {
+        return arena.view(root);
+    }
+
+    /**
+     * Sets a new root of this tree.
+     *
+     * @param root The node created by the factory of this tree.
+     *
+     * @exception NullPointerException     if the root is null.
+     * @exception IllegalArgumentException if the node does not belong to this tree.
+     */
+    @Override
+    public void setRoot(final TreeNode<Integer> root) {
+        if (root == null) {
+            throw new NullPointerException("Root cannot be null");
+        }
+        if (!(root instanceof ArenaTreeNode) || ((ArenaTreeNode) root).arena != arena) {
+            throw new IllegalArgumentException(
+                    "The root has to be created by the factory of this tree.");
+        }
+        this.root = ((ArenaTreeNode) root).node;
+    }
+
+    @Override
+    public void clear() {
+        arena.setFirstChild(root, NodeArena.NONE);
+        arena.setValue(root, 0);
+    }
+
+    @Override
+    public ArenaTreeFactory getFactory() {
+        return new ArenaTreeFactory(arena);
+    }
+
+}
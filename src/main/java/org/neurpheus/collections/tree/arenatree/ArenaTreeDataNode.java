@@ -0,0 +1,60 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.arenatree;
+
+import org.neurpheus.collections.tree.TreeNodeWithData;
+
+/**
+ * Represents a single node of an arena tree which holds data.
+ *
+ * @author Jakub Strychowski
+ */
+public class ArenaTreeDataNode
+        extends ArenaTreeNode
+        implements TreeNodeWithData<Integer, Integer> {
+
+    /**
+     * Constructs a new object representing the specified node.
+     *
+     * @param arena The arena holding the node.
+     * @param node  The position of the node in the arena.
+     */
+    ArenaTreeDataNode(final NodeArena arena, final int node) {
+        super(arena, node);
+    }
+
+    @Override
+    public Integer getData() {
+        return arena.getData(node);
+    }
+
+    /**
+     * Set a new data which should be held by this node.
+     *
+     * @param newData additional data held by a tree structure in this node; null is stored as 0.
+     */
+    @Override
+    public void setData(final Integer newData) {
+        arena.setData(node, newData == null ? 0 : newData);
+    }
+
+    @Override
+    public boolean hasExtraData() {
+        return true;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.arenatree;
+
+import org.neurpheus.collections.tree.TreeFactory;
+
+/**
+ * Creates arena trees and their nodes.
+ * <p>
+ * Each factory allocates nodes in its own {@link NodeArena}, so nodes created by one factory can
+ * be added only to nodes created by the same factory. Null values and data passed to methods of
+ * this factory are stored as 0.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class ArenaTreeFactory implements TreeFactory<Integer, Integer> {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** The arena holding nodes created by this factory. */
+    private final NodeArena arena;
+
+    /**
+     * Creates a new factory with its own arena.
+     */
+    public ArenaTreeFactory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new factory with its own arena.
+     *
+     * @param capacity The expected number of nodes created by this factory.
+     */
+    public ArenaTreeFactory(final int capacity) {
+        this(new NodeArena(capacity));
+    }
+
+    /**
+     * Creates a new factory allocating nodes in the specified arena.
+     *
+     * @param arena The arena of nodes.
+     */
+    ArenaTreeFactory(final NodeArena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Creates a new tree which root is allocated in the arena of this factory.
+     *
+     * @return A new tree.
+     */
+    @Override
+    public ArenaTree createTree() {
+        return new ArenaTree(arena, arena.allocate(0));
+    }
+
+    @Override
+    public ArenaTreeNode createTreeNode(final Integer value) {
+        return createTreeNode(value == null ? 0 : value.intValue());
+    }
+
+    /**
+     * Creates a new node for a tree.
+     *
+     * @param value a value which describes a node in the tree.
+     *
+     * @return constructed node.
+     */
+    public ArenaTreeNode createTreeNode(final int value) {
+        return new ArenaTreeNode(arena, arena.allocate(value));
+    }
+
+    @Override
+    public ArenaTreeDataNode createTreeNodeWithAdditionalData(final Integer value,
+                                                              final Integer data) {
+        return createTreeNodeWithAdditionalData(value == null ? 0 : value.intValue(),
+                                                data == null ? 0 : data.intValue());
+    }
+
+    /**
+     * Creates a new node holding additional data in a tree.
+     *
+     * @param value a value which describes a node in the tree.
+     * @param data  additional data to hold in the node.
+     *
+     * @return constructed node.
+     */
+    public ArenaTreeDataNode createTreeNodeWithAdditionalData(final int value, final int data) {
+        return new ArenaTreeDataNode(arena, arena.allocate(value, data));
+    }
+
+    /**
+     * Returns the number of nodes allocated by this factory.
+     *
+     * @return The number of nodes.
+     */
+    public int getNumberOfNodes() {
+        return arena.size();
+    }
+
+    /**
+     * Returns the number of bytes allocated for nodes created by this factory.
+     *
+     * @return The allocation size.
+     */
+    public long getAllocationSize() {
+        return arena.getAllocationSize();
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.arenatree;
+
+import org.neurpheus.collections.tree.TreeNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a single node of an arena tree.
+ * <p>
+ * A node is only a view of a position in arrays of a {@link NodeArena}, so node objects are created
+ * while traversing a tree and two objects representing the same position are equal. Nodes added
+ * to other nodes have to be created by the factory of the same tree.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class ArenaTreeNode implements TreeNode<Integer> {
+
+    /** The arena holding this node. */
+    protected final NodeArena arena;
+
+    /** The position of this node in the arena. */
+    protected final int node;
+
+    /**
+     * Constructs a new object representing the specified node.
+     *
+     * @param arena The arena holding the node.
+     * @param node  The position of the node in the arena.
+     */
+    ArenaTreeNode(final NodeArena arena, final int node) {
+        this.arena = arena;
+        this.node = node;
+    }
+
+    /**
+     * Returns the position of this node in the arena.
+     *
+     * @return The position of the node.
+     */
+    public int getNodeNumber() {
+        return node;
+    }
+
+    @Override
+    public Integer getValue() {
+        return arena.getValue(node);
+    }
+
+    /**
+     * Returns a value assigned to this node without boxing.
+     *
+     * @return The value of the node.
+     */
+    public int getIntValue() {
+        return arena.getValue(node);
+    }
+
+    /**
+     * Sets a new value for this node.
+     *
+     * @param newValue The new value of this node.
+     *
+     * @exception NullPointerException If the specified value is null.
+     */
+    @Override
+    public void setValue(final Integer newValue) {
+        arena.setValue(node, newValue);
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return arena.getFirstChild(node) == NodeArena.NONE;
+    }
+
+    @Override
+    public boolean hasExtraData() {
+        return false;
+    }
+
+    /**
+     * Returns a list of views of children nodes of this node.
+     * <p>
+     * The list is a snapshot, so changes of the list are not reflected by this node.
+     * </p>
+     *
+     * @return List of children nodes or empty list if this node is a leaf.
+     */
+    @Override
+    public List<ArenaTreeNode> getChildren() {
+        int child = arena.getFirstChild(node);
+        if (child == NodeArena.NONE) {
+            return Collections.emptyList();
+        }
+        List<ArenaTreeNode> result = new ArrayList<>();
+        for (; child != NodeArena.NONE; child = arena.getNextSibling(child)) {
+            result.add(arena.view(child));
+        }
+        return result;
+    }
+
+    @Override
+    public int getNumberOfChildren() {
+        int count = 0;
+        for (int child = arena.getFirstChild(node); child != NodeArena.NONE;
+                child = arena.getNextSibling(child)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public ArenaTreeNode getChild(final Integer key) {
+        return key == null ? null : getChild(key.intValue());
+    }
+
+    /**
+     * Returns a child node represented the given key value.
+     *
+     * @param key the value of a node.
+     *
+     * @return Found child node or null if this node doesn't have any node with the given value.
+     */
+    public ArenaTreeNode getChild(final int key) {
+        int child = arena.findSibling(arena.getFirstChild(node), key);
+        return child == NodeArena.NONE ? null : arena.view(child);
+    }
+
+    /**
+     * Returns a child node represented the given key value (searching from the given node).
+     *
+     * @param key      the value of a node.
+     * @param fromNode a child of this node from which searching starts.
+     *
+     * @return Found child node or null if this node doesn't have any node with the given value.
+     */
+    @Override
+    public ArenaTreeNode getChild(final Integer key, final TreeNode fromNode) {
+        if (fromNode == null) {
+            return getChild(key);
+        } else if (key == null) {
+            return null;
+        }
+        int child = arena.findSibling(position(fromNode), key);
+        return child == NodeArena.NONE ? null : arena.view(child);
+    }
+
+    @Override
+    public ArenaTreeNode getChildAtPos(final int index) {
+        int child = arena.getFirstChild(node);
+        for (int i = index; i > 0 && child != NodeArena.NONE; i--) {
+            child = arena.getNextSibling(child);
+        }
+        if (index < 0 || child == NodeArena.NONE) {
+            throw new IndexOutOfBoundsException("Wrong index: " + index);
+        }
+        return arena.view(child);
+    }
+
+    /**
+     * Sets child nodes for this node.
+     *
+     * @param children A list of nodes of the same tree for which this node is a parent.
+     */
+    @Override
+    public void setChildren(final List<? extends TreeNode> children) {
+        int last = NodeArena.NONE;
+        if (children != null) {
+            for (TreeNode child : children) {
+                int position = position(child);
+                if (last == NodeArena.NONE) {
+                    arena.setFirstChild(node, position);
+                } else {
+                    arena.setNextSibling(last, position);
+                }
+                last = position;
+            }
+        }
+        if (last == NodeArena.NONE) {
+            arena.setFirstChild(node, NodeArena.NONE);
+        } else {
+            arena.setNextSibling(last, NodeArena.NONE);
+        }
+    }
+
+    /**
+     * Adds a new child node to this node.
+     *
+     * @param child A new child node of the same tree - it will be added at the end of a list of
+     *              children.
+     */
+    @Override
+    public void addChild(final TreeNode child) {
+        int position = position(child);
+        arena.setNextSibling(position, NodeArena.NONE);
+        int last = arena.getFirstChild(node);
+        if (last == NodeArena.NONE) {
+            arena.setFirstChild(node, position);
+        } else {
+            for (int next = arena.getNextSibling(last); next != NodeArena.NONE;
+                    next = arena.getNextSibling(last)) {
+                last = next;
+            }
+            arena.setNextSibling(last, position);
+        }
+    }
+
+    @Override
+    public void addChild(final int index, final TreeNode child) {
+        int position = position(child);
+        if (index == 0) {
+            arena.setNextSibling(position, arena.getFirstChild(node));
+            arena.setFirstChild(node, position);
+        } else {
+            int previous = getChildAtPos(index - 1).node;
+            arena.setNextSibling(position, arena.getNextSibling(previous));
+            arena.setNextSibling(previous, position);
+        }
+    }
+
+    @Override
+    public boolean removeChild(final TreeNode child) {
+        return unlink(position(child)) >= 0;
+    }
+
+    @Override
+    public ArenaTreeNode removeChild(final int index) {
+        int child = getChildAtPos(index).node;
+        unlink(child);
+        return arena.view(child);
+    }
+
+    @Override
+    public int replaceChild(final TreeNode fromNode, final TreeNode toNode) {
+        int from = position(fromNode);
+        int to = position(toNode);
+        int previous = NodeArena.NONE;
+        int index = 0;
+        for (int child = arena.getFirstChild(node); child != NodeArena.NONE;
+                child = arena.getNextSibling(child)) {
+            if (child == from) {
+                arena.setNextSibling(to, arena.getNextSibling(from));
+                if (previous == NodeArena.NONE) {
+                    arena.setFirstChild(node, to);
+                } else {
+                    arena.setNextSibling(previous, to);
+                }
+                return index;
+            }
+            previous = child;
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Detaches all children from this node. Space allocated by nodes is released together with the
+     * whole arena.
+     */
+    @Override
+    public void clear() {
+        arena.setFirstChild(node, NodeArena.NONE);
+    }
+
+    @Override
+    public boolean equals(final Object anObject) {
+        if (this == anObject) {
+            return true;
+        }
+        if (anObject instanceof ArenaTreeNode) {
+            ArenaTreeNode other = (ArenaTreeNode) anObject;
+            return arena == other.arena && node == other.node;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return node;
+    }
+
+    /**
+     * Returns the position of a node of the same arena.
+     *
+     * @param treeNode The node.
+     *
+     * @return The position of the node in the arena.
+     *
+     * @exception IllegalArgumentException if the node does not belong to the arena of this node.
+     */
+    private int position(final TreeNode treeNode) {
+        if (!(treeNode instanceof ArenaTreeNode) || ((ArenaTreeNode) treeNode).arena != arena) {
+            throw new IllegalArgumentException(
+                    "The node has to be created by the factory of the same tree.");
+        }
+        return ((ArenaTreeNode) treeNode).node;
+    }
+
+    /**
+     * Removes a node from the list of children.
+     *
+     * @param position The position of the node in the arena.
+     *
+     * @return the index of the removed child or -1 if the node is not a child of this node.
+     */
+    private int unlink(final int position) {
+        int previous = NodeArena.NONE;
+        int index = 0;
+        for (int child = arena.getFirstChild(node); child != NodeArena.NONE;
+                child = arena.getNextSibling(child)) {
+            if (child == position) {
+                int next = arena.getNextSibling(child);
+                if (previous == NodeArena.NONE) {
+                    arena.setFirstChild(node, next);
+                } else {
+                    arena.setNextSibling(previous, next);
+                }
+                arena.setNextSibling(child, NodeArena.NONE);
+                return index;
+            }
+            previous = child;
+            index++;
+        }
+        return -1;
+    }
+
+}
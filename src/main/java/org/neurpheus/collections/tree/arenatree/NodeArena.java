@@ -0,0 +1,198 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.arenatree;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Holds all nodes of arena trees in parallel arrays of integers.
+ * <p>
+ * A node is identified by its position in the arrays. Children of a node form a list linked by
+ * the next sibling pointers. Nodes are never released separately; the whole arena is released
+ * when it is not referenced any more.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+final class NodeArena implements Serializable {
+
+    /**
+     * Unique version of this class.
+     */
+    private static final long serialVersionUID = 770608061018140101L;
+
+    /** Denotes the lack of a node. */
+    static final int NONE = -1;
+
+    /** Values of nodes. */
+    private int[] values;
+
+    /** The first child of each node or {@link #NONE}. */
+    private int[] firstChild;
+
+    /** The next sibling of each node or {@link #NONE}. */
+    private int[] nextSibling;
+
+    /** Data of nodes; valid only for nodes marked in {@link #dataFlags}. */
+    private int[] data;
+
+    /** Bits marking nodes which hold data. */
+    private long[] dataFlags;
+
+    /** The number of allocated nodes. */
+    private int size;
+
+    /**
+     * Creates an arena.
+     *
+     * @param capacity The initial number of nodes which can be allocated without resizing arrays.
+     */
+    NodeArena(final int capacity) {
+        int length = Math.max(capacity, 16);
+        values = new int[length];
+        firstChild = new int[length];
+        nextSibling = new int[length];
+        data = new int[length];
+        dataFlags = new long[(length + 63) >> 6];
+    }
+
+    /**
+     * Allocates a new node without children.
+     *
+     * @param value The value of the node.
+     *
+     * @return The allocated node.
+     */
+    int allocate(final int value) {
+        if (size == values.length) {
+            grow();
+        }
+        int node = size++;
+        values[node] = value;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        return node;
+    }
+
+    /**
+     * Allocates a new node holding data.
+     *
+     * @param value    The value of the node.
+     * @param nodeData The data of the node.
+     *
+     * @return The allocated node.
+     */
+    int allocate(final int value, final int nodeData) {
+        int node = allocate(value);
+        data[node] = nodeData;
+        dataFlags[node >> 6] |= 1L << node;
+        return node;
+    }
+
+    private void grow() {
+        int length = values.length + (values.length >> 1);
+        values = Arrays.copyOf(values, length);
+        firstChild = Arrays.copyOf(firstChild, length);
+        nextSibling = Arrays.copyOf(nextSibling, length);
+        data = Arrays.copyOf(data, length);
+        dataFlags = Arrays.copyOf(dataFlags, (length + 63) >> 6);
+    }
+
+    /**
+     * Returns the number of nodes allocated in this arena.
+     *
+     * @return The number of nodes.
+     */
+    int size() {
+        return size;
+    }
+
+    int getValue(final int node) {
+        return values[node];
+    }
+
+    void setValue(final int node, final int value) {
+        values[node] = value;
+    }
+
+    int getFirstChild(final int node) {
+        return firstChild[node];
+    }
+
+    void setFirstChild(final int node, final int child) {
+        firstChild[node] = child;
+    }
+
+    int getNextSibling(final int node) {
+        return nextSibling[node];
+    }
+
+    void setNextSibling(final int node, final int sibling) {
+        nextSibling[node] = sibling;
+    }
+
+    boolean hasData(final int node) {
+        return (dataFlags[node >> 6] & (1L << node)) != 0;
+    }
+
+    int getData(final int node) {
+        return data[node];
+    }
+
+    void setData(final int node, final int nodeData) {
+        data[node] = nodeData;
+    }
+
+    /**
+     * Finds a node with the given value on a list of siblings.
+     *
+     * @param from  The node from which searching starts.
+     * @param value The value of the searched node.
+     *
+     * @return The found node or {@link #NONE}.
+     */
+    int findSibling(final int from, final int value) {
+        for (int child = from; child != NONE; child = nextSibling[child]) {
+            if (values[child] == value) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns a view of the specified node.
+     *
+     * @param node The node.
+     *
+     * @return The node object; {@link ArenaTreeDataNode} for nodes holding data.
+     */
+    ArenaTreeNode view(final int node) {
+        return hasData(node) ? new ArenaTreeDataNode(this, node) : new ArenaTreeNode(this, node);
+    }
+
+    /**
+     * Returns the number of bytes allocated by arrays of this arena.
+     *
+     * @return The allocation size.
+     */
+    long getAllocationSize() {
+        return 16L * values.length + 8L * dataFlags.length + 5 * 16;
+    }
+
+}
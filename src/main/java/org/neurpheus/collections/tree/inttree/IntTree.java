@@ -0,0 +1,159 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.inttree;
+
+import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.TreeNode;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Implementation of the Tree interface for trees which nodes are described by primitive integer
+ * values, for example char codes of words.
+ * <p>
+ * This tree can be used instead of the {@link org.neurpheus.collections.tree.objecttree.ObjectTree}
+ * as a base tree for creating linked list trees. Nodes do not hold boxed values and children
+ * lists, and children of all nodes are always sorted, so the tree consumes several times less
+ * memory and children are found using the binary search.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class IntTree implements Tree<Integer, Integer> {
+
+    /**
+     * Unique version of this class.
+     */
+    private static final long serialVersionUID = 770608061018120101L;
+
+    /**
+     * Root node of the tree.
+     */
+    private transient IntTreeNode root;
+
+    /**
+     * Creates a tree with only root node.
+     */
+    public IntTree() {
+        root = new IntTreeNode(0);
+    }
+
+    @Override
+    public IntTreeNode getRoot() {
+        return root;
+    }
+
+    @Override
+    public void setRoot(final TreeNode<Integer> root) {
+        if (root == null) {
+            throw new NullPointerException("Root cannot be null");
+        }
+        this.root = (IntTreeNode) root;
+    }
+
+    @Override
+    public void clear() {
+        root.clear();
+        root.value = 0;
+    }
+
+    @Override
+    public IntTreeFactory getFactory() {
+        return IntTreeFactory.getInstance();
+    }
+
+    /**
+     * Serializes this tree to the objects stream.
+     * <p>
+     * Nodes are written in the depth-first order without recursion, so deep trees can be
+     * serialized.
+     * </p>
+     *
+     * @param out Output stream.
+     *
+     * @throws IOException if data cannot be written.
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        ArrayDeque<IntTreeNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            IntTreeNode node = stack.pop();
+            out.writeInt(node.value);
+            out.writeBoolean(node.hasExtraData());
+            if (node.hasExtraData()) {
+                out.writeInt(((IntTreeNodeWithData) node).getIntData());
+            }
+            int count = node.getNumberOfChildren();
+            out.writeInt(count);
+            for (int i = count - 1; i >= 0; i--) {
+                stack.push(node.getChildAtPos(i));
+            }
+        }
+    }
+
+    /**
+     * Deserializes this tree from the input stream.
+     *
+     * @param in Input stream
+     *
+     * @throws IOException            If data cannot be read.
+     * @throws ClassNotFoundException If object cannot be created.
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        IntTreeNode[] parents = new IntTreeNode[16];
+        IntTreeNode[][] children = new IntTreeNode[16][];
+        int[] filled = new int[16];
+        int depth = -1;
+        root = null;
+        do {
+            int value = in.readInt();
+            IntTreeNode node = in.readBoolean()
+                    ? new IntTreeNodeWithData(value, in.readInt())
+                    : new IntTreeNode(value);
+            int count = in.readInt();
+            if (root == null) {
+                root = node;
+            } else {
+                children[depth][filled[depth]++] = node;
+            }
+            if (count > 0) {
+                depth++;
+                if (depth == parents.length) {
+                    parents = Arrays.copyOf(parents, depth * 2);
+                    children = Arrays.copyOf(children, depth * 2);
+                    filled = Arrays.copyOf(filled, depth * 2);
+                }
+                parents[depth] = node;
+                children[depth] = new IntTreeNode[count];
+                filled[depth] = 0;
+            }
+            while (depth >= 0 && filled[depth] == children[depth].length) {
+                parents[depth].setSortedChildren(children[depth]);
+                parents[depth] = null;
+                children[depth] = null;
+                depth--;
+            }
+        } while (depth >= 0);
+    }
+
+}
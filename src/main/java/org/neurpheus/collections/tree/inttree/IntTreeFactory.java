@@ -0,0 +1,108 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.inttree;
+
+import org.neurpheus.collections.tree.TreeFactory;
+
+/**
+ * Creates elements of an {@link IntTree}.
+ * <p>
+ * Null values and data passed to methods of this factory are stored as 0.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public final class IntTreeFactory implements TreeFactory<Integer, Integer> {
+
+    /**
+     * Single instance of this factory.
+     */
+    private static final IntTreeFactory INSTANCE = new IntTreeFactory();
+
+    /** Creates a new instance of IntTreeFactory. */
+    private IntTreeFactory() {
+    }
+
+    /**
+     * Returns a single instance of this factory.
+     *
+     * @return Factory object.
+     */
+    public static IntTreeFactory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new tree compatible with this factory.
+     *
+     * @return A new tree objects.
+     */
+    @Override
+    public IntTree createTree() {
+        return new IntTree();
+    }
+
+    /**
+     * Creates a new node for a tree.
+     *
+     * @param value a value which describes a node in the tree.
+     *
+     * @return constructed node.
+     */
+    @Override
+    public IntTreeNode createTreeNode(final Integer value) {
+        return new IntTreeNode(value == null ? 0 : value);
+    }
+
+    /**
+     * Creates a new node for a tree.
+     *
+     * @param value a value which describes a node in the tree.
+     *
+     * @return constructed node.
+     */
+    public IntTreeNode createTreeNode(final int value) {
+        return new IntTreeNode(value);
+    }
+
+    /**
+     * Creates a new node holding additional data in a tree.
+     *
+     * @param value a value which describes a node in the tree.
+     * @param data  additional data to hold in the node.
+     *
+     * @return constructed node.
+     */
+    @Override
+    public IntTreeNodeWithData createTreeNodeWithAdditionalData(final Integer value,
+                                                                final Integer data) {
+        return new IntTreeNodeWithData(value == null ? 0 : value, data == null ? 0 : data);
+    }
+
+    /**
+     * Creates a new node holding additional data in a tree.
+     *
+     * @param value a value which describes a node in the tree.
+     * @param data  additional data to hold in the node.
+     *
+     * @return constructed node.
+     */
+    public IntTreeNodeWithData createTreeNodeWithAdditionalData(final int value, final int data) {
+        return new IntTreeNodeWithData(value, data);
+    }
+
+}
@@ -0,0 +1,576 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.inttree;
+
+import org.neurpheus.collections.tree.TreeNode;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Implementation of the TreeNode interface for nodes described by primitive integer values (for
+ * example char codes).
+ * <p>
+ * Children of a node are always sorted by their values. Values of children are held in a
+ * primitive array, so a child is found using the binary search without boxing. A node with a
+ * single child holds only a reference to this child.
+ * </p>
+ * <p>
+ * Values of children determine their order, therefore a value of a node should not be changed
+ * when the node is a child of another node.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class IntTreeNode implements TreeNode<Integer>, Comparable {
+
+    /** Holds value assigned to this node. */
+    protected int value;
+
+    /**
+     * Values of child nodes; null if this node has less than two children. The first element
+     * holds the number of children and the following elements hold sorted values of children.
+     */
+    private int[] keys;
+
+    /**
+     * An object holding children nodes of this node. This field can contains different types of
+     * values (reduced memory consumption):
+     * <ul>
+     * <li>null - for nodes without children</li>
+     * <li>single IntTreeNode object - for nodes with have only one child</li>
+     * <li>array of IntTreeNode objects - for nodes having many children</li>
+     * </ul>
+     */
+    private Object children;
+
+    /**
+     * Constructs a new node and marks it with the given value. Created node has no children.
+     *
+     * @param value The value assigned to the node.
+     */
+    protected IntTreeNode(final int value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns a value assigned to this node.
+     *
+     * @return The value of the node.
+     */
+    @Override
+    public Integer getValue() {
+        return value;
+    }
+
+    /**
+     * Returns a value assigned to this node without boxing.
+     *
+     * @return The value of the node.
+     */
+    public int getIntValue() {
+        return value;
+    }
+
+    /**
+     * Sets a new value for this node.
+     *
+     * @param newValue The new value of this node.
+     *
+     * @exception NullPointerException If the specified value is null.
+     */
+    @Override
+    public void setValue(final Integer newValue) {
+        this.value = newValue;
+    }
+
+    /**
+     * Checks if this nodes is a leaf - has no child nodes.
+     *
+     * @return <strong>true</strong> if this node has no children.
+     */
+    @Override
+    public boolean isLeaf() {
+        return children == null;
+    }
+
+    /**
+     * Checks if this node holds additional data.
+     *
+     * @return <strong>false</strong>; see {@link IntTreeNodeWithData}.
+     */
+    @Override
+    public boolean hasExtraData() {
+        return false;
+    }
+
+    /**
+     * Returns a readonly list of children nodes of this node sorted by their values.
+     *
+     * @return List of children nodes or empty list if this node is a leaf.
+     */
+    @Override
+    public List<IntTreeNode> getChildren() {
+        if (children == null) {
+            return Collections.emptyList();
+        } else if (keys == null) {
+            return Collections.singletonList((IntTreeNode) children);
+        } else {
+            return new ChildrenList();
+        }
+    }
+
+    /**
+     * Return number of children of this node.
+     *
+     * @return Number of child nodes.
+     */
+    @Override
+    public int getNumberOfChildren() {
+        if (keys != null) {
+            return keys[0];
+        }
+        return children == null ? 0 : 1;
+    }
+
+    /**
+     * Returns a child node represented the given key value.
+     *
+     * @param key the value of a node.
+     *
+     * @return Found child node or null if this node doesn't have any node with the given value.
+     */
+    @Override
+    public IntTreeNode getChild(final Integer key) {
+        return key == null ? null : getChild(key.intValue());
+    }
+
+    /**
+     * Returns a child node represented the given key value.
+     *
+     * @param key the value of a node.
+     *
+     * @return Found child node or null if this node doesn't have any node with the given value.
+     */
+    public IntTreeNode getChild(final int key) {
+        if (keys != null) {
+            int index = Arrays.binarySearch(keys, 1, keys[0] + 1, key);
+            return index < 0 ? null : ((IntTreeNode[]) children)[index - 1];
+        } else if (children != null) {
+            IntTreeNode child = (IntTreeNode) children;
+            return child.value == key ? child : null;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a child node represented the given key value.
+     * <p>
+     * Children are found using the binary search, so the {@code fromNode} argument is ignored.
+     * </p>
+     *
+     * @param key      the value of a node.
+     * @param fromNode unused here.
+     *
+     * @return Found child node or null if this node doesn't have any node with the given value.
+     */
+    @Override
+    public IntTreeNode getChild(final Integer key, final TreeNode fromNode) {
+        return getChild(key);
+    }
+
+    /**
+     * Returns a node at the given position on a list of child nodes.
+     *
+     * @param index the position of a list of child nodes.
+     *
+     * @exception IndexOutOfBoundsException If the specified {@code index} argument is negative, or
+     *                                      if it is greater than or equal to the number of child
+     *                                      nodes.
+     *
+     * @return node at the given position.
+     */
+    @Override
+    public IntTreeNode getChildAtPos(final int index) {
+        if (index < 0 || index >= getNumberOfChildren()) {
+            throw new IndexOutOfBoundsException("Wrong index: " + index);
+        }
+        return keys == null ? (IntTreeNode) children : ((IntTreeNode[]) children)[index];
+    }
+
+    /**
+     * Sets child nodes for this node. Nodes are sorted by their values.
+     *
+     * @param newChildren A list of {@link IntTreeNode} objects for which this node is a parent.
+     */
+    @Override
+    public void setChildren(final List<? extends TreeNode> newChildren) {
+        if (newChildren == null || newChildren.isEmpty()) {
+            children = null;
+            keys = null;
+            return;
+        }
+        int count = newChildren.size();
+        IntTreeNode[] nodes = newChildren.toArray(new IntTreeNode[count]);
+        long[] order = null;
+        for (int i = 1; i < count && order == null; i++) {
+            if (nodes[i - 1].value > nodes[i].value) {
+                order = new long[count];
+            }
+        }
+        if (order != null) {
+            for (int i = 0; i < count; i++) {
+                order[i] = ((long) nodes[i].value << 32) | i;
+            }
+            Arrays.sort(order);
+            IntTreeNode[] unsorted = nodes;
+            nodes = new IntTreeNode[count];
+            for (int i = 0; i < count; i++) {
+                nodes[i] = unsorted[(int) order[i]];
+            }
+        }
+        setSortedChildren(nodes);
+    }
+
+    /**
+     * Adds a new child node to this node.
+     *
+     * @param child A new {@link IntTreeNode} child - it will be added after all children having
+     *              lower or equal values.
+     *
+     * @exception NullPointerException If the specified {@code child} argument is null.
+     */
+    @Override
+    public void addChild(final TreeNode child) {
+        IntTreeNode node = (IntTreeNode) child;
+        int index;
+        if (keys != null) {
+            int low = 1;
+            int high = keys[0] + 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle] > node.value) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            index = low - 1;
+        } else if (children != null) {
+            index = ((IntTreeNode) children).value > node.value ? 0 : 1;
+        } else {
+            index = 0;
+        }
+        insert(index, node);
+    }
+
+    /**
+     * Adds a new child node tho this node at the given position in a list of children nodes.
+     *
+     * @param index a position on a list where the given node should be added.
+     * @param child a new {@link IntTreeNode} child of this node.
+     *
+     * @exception IndexOutOfBoundsException If the specified {@code index} argument is negative, or
+     *                                      if it is greater than number of child nodes.
+     * @exception IllegalArgumentException  If children would not be sorted by values after adding
+     *                                      the node at the given position.
+     */
+    @Override
+    public void addChild(final int index, final TreeNode child) {
+        int size = getNumberOfChildren();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Wrong position: " + index);
+        }
+        IntTreeNode node = (IntTreeNode) child;
+        if ((index > 0 && getChildAtPos(index - 1).value > node.value)
+                || (index < size && getChildAtPos(index).value < node.value)) {
+            throw new IllegalArgumentException(
+                    "Children have to be sorted by values. Wrong position: " + index);
+        }
+        insert(index, node);
+    }
+
+    /**
+     * Removes the given node from a list of children of this node.
+     *
+     * @param child The child to remove.
+     *
+     * @return <code>true</code> if the given node has been found and removed from a list of
+     *         children nodes.
+     */
+    @Override
+    public boolean removeChild(final TreeNode child) {
+        if (!(child instanceof IntTreeNode)) {
+            return false;
+        }
+        int index = indexOf((IntTreeNode) child, false);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Removes a child node from the given position at a list child nodes.
+     *
+     * @param index The position from which this method should remove node.
+     *
+     * @return removed node
+     *
+     * @exception IndexOutOfBoundsException If the specified {@code index} argument is negative, or
+     *                                      if it is greater than number of child nodes.
+     */
+    @Override
+    public IntTreeNode removeChild(final int index) {
+        if (index < 0 || index >= getNumberOfChildren()) {
+            throw new IndexOutOfBoundsException("Wrong index: " + index);
+        }
+        return remove(index);
+    }
+
+    /**
+     * Replaces child nodes of this node.
+     * <p>
+     * If values of both nodes differ, the new node is moved to the position keeping children
+     * sorted.
+     * </p>
+     *
+     * @param fromNode the node which should be removed from the list of child nodes.
+     * @param toNode   the node which should be added to the list of child nodes at the place of
+     *                 previous node.
+     *
+     * @return position of the replaced node.
+     */
+    @Override
+    public int replaceChild(final TreeNode fromNode, final TreeNode toNode) {
+        if (!(fromNode instanceof IntTreeNode)) {
+            return -1;
+        }
+        int index = indexOf((IntTreeNode) fromNode, true);
+        if (index >= 0) {
+            IntTreeNode node = (IntTreeNode) toNode;
+            if (node.value == ((IntTreeNode) fromNode).value) {
+                if (keys == null) {
+                    children = node;
+                } else {
+                    ((IntTreeNode[]) children)[index] = node;
+                }
+            } else {
+                remove(index);
+                addChild(node);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Removes all children of this node and all nodes of sub-trees of children.
+     */
+    @Override
+    public void clear() {
+        ArrayDeque<IntTreeNode> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            IntTreeNode node = stack.pop();
+            for (int i = node.getNumberOfChildren() - 1; i >= 0; i--) {
+                stack.push(node.getChildAtPos(i));
+            }
+            node.children = null;
+            node.keys = null;
+            node.clearData();
+        }
+    }
+
+    /**
+     * Releases additional data held by this node.
+     */
+    protected void clearData() {
+        // no data to release
+    }
+
+    /**
+     * Compares two nodes by values assigned to these nodes.
+     *
+     * @param obj Second node
+     *
+     * @return Result of comparison.
+     */
+    @Override
+    public int compareTo(final Object obj) {
+        if (obj == null) {
+            return 1;
+        }
+        Object val = ((TreeNode) obj).getValue();
+        return val == null ? 1 : Integer.compare(value, ((Number) val).intValue());
+    }
+
+    /**
+     * Return true if a compared object is a node with the same value assigned.
+     *
+     * @param obj Node with which to compare.
+     *
+     * @return true if this node has the same value assigned.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj instanceof TreeNode) {
+            return getValue().equals(((TreeNode) obj).getValue());
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for the object calculate from the value assigned to this node.
+     *
+     * @return a hash code for this object.
+     */
+    @Override
+    public int hashCode() {
+        return 37 * 5 + value;
+    }
+
+    /**
+     * Sets children of this node without checking the order of their values.
+     *
+     * @param nodes The new children sorted by values; the array is used by this node.
+     */
+    void setSortedChildren(final IntTreeNode[] nodes) {
+        int count = nodes.length;
+        if (count == 0) {
+            children = null;
+            keys = null;
+        } else if (count == 1) {
+            children = nodes[0];
+            keys = null;
+        } else {
+            keys = new int[count + 1];
+            keys[0] = count;
+            for (int i = 0; i < count; i++) {
+                keys[i + 1] = nodes[i].value;
+            }
+            children = nodes;
+        }
+    }
+
+    /**
+     * Finds the position of a child.
+     *
+     * @param node     The searched node.
+     * @param identity if <strong>true</strong> only the same object is found, otherwise also a
+     *                 node which is equal to the given node.
+     *
+     * @return The position of the node or -1 if the node has not been found.
+     */
+    private int indexOf(final IntTreeNode node, final boolean identity) {
+        if (keys == null) {
+            IntTreeNode child = (IntTreeNode) children;
+            return child != null && (child == node || (!identity && child.equals(node))) ? 0 : -1;
+        }
+        IntTreeNode[] nodes = (IntTreeNode[]) children;
+        int end = keys[0] + 1;
+        int index = Arrays.binarySearch(keys, 1, end, node.value);
+        if (index > 0) {
+            while (index > 1 && keys[index - 1] == node.value) {
+                index--;
+            }
+            for (int i = index; i < end && keys[i] == node.value; i++) {
+                if (nodes[i - 1] == node || (!identity && nodes[i - 1].equals(node))) {
+                    return i - 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts a child at the given position. Arrays of children grow by one eighth of their size,
+     * so small nodes do not waste memory and adding many children to a node takes linear time.
+     */
+    private void insert(final int index, final IntTreeNode node) {
+        if (children == null) {
+            children = node;
+            return;
+        }
+        IntTreeNode[] nodes;
+        int size;
+        if (keys == null) {
+            size = 1;
+            nodes = new IntTreeNode[2];
+            keys = new int[3];
+            nodes[0] = (IntTreeNode) children;
+            keys[1] = nodes[0].value;
+        } else {
+            size = keys[0];
+            nodes = (IntTreeNode[]) children;
+            if (size == nodes.length) {
+                int capacity = size + 1 + (size >> 3);
+                nodes = Arrays.copyOf(nodes, capacity);
+                keys = Arrays.copyOf(keys, capacity + 1);
+            }
+        }
+        System.arraycopy(nodes, index, nodes, index + 1, size - index);
+        System.arraycopy(keys, index + 1, keys, index + 2, size - index);
+        nodes[index] = node;
+        keys[index + 1] = node.value;
+        keys[0] = size + 1;
+        children = nodes;
+    }
+
+    private IntTreeNode remove(final int index) {
+        if (keys == null) {
+            IntTreeNode result = (IntTreeNode) children;
+            children = null;
+            return result;
+        }
+        IntTreeNode[] nodes = (IntTreeNode[]) children;
+        IntTreeNode result = nodes[index];
+        int size = keys[0];
+        if (size == 2) {
+            children = nodes[1 - index];
+            keys = null;
+        } else {
+            System.arraycopy(nodes, index + 1, nodes, index, size - index - 1);
+            System.arraycopy(keys, index + 2, keys, index + 1, size - index - 1);
+            nodes[size - 1] = null;
+            keys[0] = size - 1;
+        }
+        return result;
+    }
+
+    /**
+     * A readonly view of children of a node having many children.
+     */
+    private final class ChildrenList extends AbstractList<IntTreeNode> implements RandomAccess {
+
+        @Override
+        public IntTreeNode get(final int index) {
+            return getChildAtPos(index);
+        }
+
+        @Override
+        public int size() {
+            return getNumberOfChildren();
+        }
+
+    }
+
+}
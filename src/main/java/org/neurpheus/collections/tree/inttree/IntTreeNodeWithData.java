@@ -0,0 +1,117 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.inttree;
+
+import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.TreeNodeWithData;
+
+/**
+ * A node of an {@link IntTree} which holds additional integer data.
+ *
+ * @author Jakub Strychowski
+ */
+public class IntTreeNodeWithData extends IntTreeNode implements TreeNodeWithData<Integer, Integer> {
+
+    /** Additional data held by this node. */
+    private int data;
+
+    /**
+     * Constructs a new node and marks it with the given value and sets the given additional data.
+     * Created node has no children.
+     *
+     * @param value The value assigned to the node.
+     * @param data  Additional data to store by this node.
+     */
+    protected IntTreeNodeWithData(final int value, final int data) {
+        super(value);
+        this.data = data;
+    }
+
+    /**
+     * Returns additional data hold by this node.
+     *
+     * @return The data of this node.
+     */
+    @Override
+    public Integer getData() {
+        return data;
+    }
+
+    /**
+     * Returns additional data hold by this node without boxing.
+     *
+     * @return The data of this node.
+     */
+    public int getIntData() {
+        return data;
+    }
+
+    /**
+     * Set a new data which should be held by this node.
+     *
+     * @param newData additional data held by a tree structure in this node; null is stored as 0.
+     */
+    @Override
+    public void setData(final Integer newData) {
+        this.data = newData == null ? 0 : newData;
+    }
+
+    /**
+     * Checks if this node holds additional data.
+     *
+     * @return <strong>true</strong> if this node holds additional data.
+     */
+    @Override
+    public boolean hasExtraData() {
+        return true;
+    }
+
+    @Override
+    protected void clearData() {
+        this.data = 0;
+    }
+
+    /**
+     * Returns a hash code value for the object calculate from the value assigned to this node and
+     * additional data stored in the node.
+     *
+     * @return a hash code for this object.
+     */
+    @Override
+    public int hashCode() {
+        return 5 + 37 * value + 47 * data;
+    }
+
+    /**
+     * Return true if a compared object is a node with the same value and additional data assigned.
+     *
+     * @param obj Node with which to compare.
+     *
+     * @return true if this node has the same value and additional data assigned.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj instanceof TreeNodeWithData) {
+            TreeNodeWithData node = (TreeNodeWithData) obj;
+            return getValue().equals(node.getValue()) && getData().equals(node.getData());
+        } else if (obj instanceof TreeNode) {
+            return getValue().equals(((TreeNode) obj).getValue());
+        }
+        return false;
+    }
+
+}
@@ -54,6 +54,12 @@ public abstract class AbstractLinkedListTreeUnitArray
     /** Reverse mapping used to speed up processing while a tree compression process. */
     protected transient Map<Integer, Integer> reverseMapping;
 
+    /** Metrics collecting statistics about lookups or null if lookups are not measured. */
+    protected transient TraversalMetrics traversalMetrics;
+
+    /** Index of children of high fan-out nodes or null if children are scanned linearly. */
+    protected transient SiblingIndex siblingIndex;
+
     @Override
     public int size() {
         return size;
@@ -68,7 +74,7 @@ public abstract class AbstractLinkedListTreeUnitArray
 
     @Override
     public long getAllocationSize() {
-        long result = 4L + 4 + 4; // fields
+        long result = 4L + 4 + 4 + 4 + 4; // fields
         result += 16; // this object header
         if (valueMapping != null) {
             result += 16 + valueMapping.length * 4L;
@@ -158,6 +164,26 @@ public abstract class AbstractLinkedListTreeUnitArray
         return result;
     }
 
+    @Override
+    public TraversalMetrics getTraversalMetrics() {
+        return traversalMetrics;
+    }
+
+    @Override
+    public void setTraversalMetrics(TraversalMetrics metrics) {
+        this.traversalMetrics = metrics;
+    }
+
+    @Override
+    public SiblingIndex getSiblingIndex() {
+        return siblingIndex;
+    }
+
+    @Override
+    public void setSiblingIndex(SiblingIndex index) {
+        this.siblingIndex = index;
+    }
+
     @Override
     public int mapToValueCode(int value) {
         Integer result = reverseMapping.get(value);
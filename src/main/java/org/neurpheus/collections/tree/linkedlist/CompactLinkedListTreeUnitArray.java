@@ -18,18 +18,14 @@ package org.neurpheus.collections.tree.linkedlist;
 
 import org.neurpheus.collections.array.BitsArray;
 import org.neurpheus.collections.array.CompactArray;
+import org.neurpheus.collections.array.TwoTierCompactArray;
 import org.neurpheus.logging.LoggerService;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,7 +63,10 @@ public final class CompactLinkedListTreeUnitArray extends AbstractLinkedListTree
     @SuppressWarnings("FieldNameHidesFieldInSuperclass")
     static final long serialVersionUID = 770608060919195404L;
 
-    static final byte COMPACT_FORMAT_VERSION = 3;
+    static final byte COMPACT_FORMAT_VERSION = 4;
+
+    /** The previous version of data format which stored references to units in a single tier. */
+    static final byte SINGLE_TIER_FORMAT_VERSION = 3;
 
     /** Estimated memory occupied by internal objects of this objects. */
     public static final int BASE_ALLOCATION_SIZE = 6 * 4 + 7;
@@ -87,7 +86,8 @@ public final class CompactLinkedListTreeUnitArray extends AbstractLinkedListTree
     /** Holds codes of data. */
     private CompactArray dataCode;
 
-    private CompactArray items;
+    /** Holds references to unique units in compact mode. */
+    private TwoTierCompactArray items;
 
     private boolean compact;
 
@@ -119,6 +119,10 @@ public final class CompactLinkedListTreeUnitArray extends AbstractLinkedListTree
         ensureCapacity(baseArray.size());
         this.size = baseArray.size();
         for (int i = 0; i < baseArray.size(); i++) {
+            if (baseArray.isNull(i)) {
+                set(i, null);
+                continue;
+            }
             set(i,
                 baseArray.getDistance(i),
                 baseArray.isWordEnd(i),
@@ -204,6 +208,25 @@ public final class CompactLinkedListTreeUnitArray extends AbstractLinkedListTree
         this.size = index + 1;
     }
 
+    /**
+     * Removes all units stored at and after the specified position.
+     * <p>
+     * This method can be used only in creation mode. Next units added to the array will be stored
+     * starting from the specified position.
+     * </p>
+     *
+     * @param newSize The new number of units in this array.
+     */
+    void truncate(final int newSize) {
+        if (compact) {
+            throw new IllegalStateException(ILLEGAL_STATE_EXCEPTION_MESSAGE);
+        }
+        if (newSize < 0 || newSize > this.size) {
+            throw new IndexOutOfBoundsException("Invalid size = " + newSize);
+        }
+        this.size = newSize;
+    }
+
     @Override
     public int getValueCode(final int index) {
         if (compact) {
@@ -356,11 +379,8 @@ public final class CompactLinkedListTreeUnitArray extends AbstractLinkedListTree
         if (compact) {
             return valueCode.size();
         } else {
-            Set set = new HashSet();
-            for (int i = size() - 1; i >= 0; i--) {
-                set.add(get(i));
-            }
-            return set.size();
+            return UnitDeduplicator.getNumberOfUniqueUnits(
+                    UnitDeduplicator.deduplicate(this, 1));
         }
     }
 
@@ -381,46 +401,147 @@ public final class CompactLinkedListTreeUnitArray extends AbstractLinkedListTree
      * will be stored ones. This method also converts all internal arrays into a compact form.
      */
     public void compact() {
+        compact(1);
+    }
+
+    /**
+     * Reduces memory usage as much as possible using the specified number of threads.
+     * <p>
+     * Unique units are found by the {@link UnitDeduplicator} directly in internal arrays, so no
+     * unit objects are created. Unique units are ordered by the number of their occurrences, so
+     * references to the most frequent units are short and are stored in a
+     * {@link TwoTierCompactArray}.
+     * </p>
+     *
+     * @param numberOfThreads The number of threads searching for unique units.
+     */
+    public void compact(final int numberOfThreads) {
         if (compact) {
             return;
         }
-        Set<LinkedListTreeUnit> differentUnits = LinkedListTreeUnit.getDifferentUnits(this);
-        List<LinkedListTreeUnit> list = new ArrayList<>(differentUnits.size());
-        list.addAll(differentUnits);
-        differentUnits.clear();
-        Map map = new HashMap();
+        int[] identifiers = UnitDeduplicator.deduplicate(this, numberOfThreads);
+        int numberOfUniqueUnits = UnitDeduplicator.getNumberOfUniqueUnits(identifiers);
+        int[] firstPositions = new int[numberOfUniqueUnits];
         int index = 0;
-        for (LinkedListTreeUnit unit : list) {
-            map.put(unit, index);
-            index++;
+        for (int i = 0; i < identifiers.length && index < numberOfUniqueUnits; i++) {
+            if (identifiers[i] == index) {
+                firstPositions[index++] = i;
+            }
         }
-        CompactArray unitsMapping = new CompactArray(size(), list.size());
-        for (int i = 0; i < size(); i++) {
-            LinkedListTreeUnit unit = get(i);
-            index = (Integer) map.get(unit);
-            unitsMapping.addIntValue(index);
+        int[] slots = arrangeUniqueUnits(firstPositions, orderByFrequency(identifiers,
+                                                                           numberOfUniqueUnits));
+        for (int i = 0; i < identifiers.length; i++) {
+            identifiers[i] = slots[identifiers[i]];
         }
+        TwoTierCompactArray unitsMapping = new TwoTierCompactArray(identifiers);
+        BitsArray oldWordContinued = wordContinued;
+        BitsArray oldWordEnd = wordEnd;
+        CompactArray oldDistance = distance;
+        CompactArray oldValueCode = valueCode;
+        CompactArray oldDataCode = dataCode;
         int oldSize = size();
-        clear(list.size());
+        clear(numberOfUniqueUnits);
         this.size = oldSize;
-        index = 0;
-        for (LinkedListTreeUnit unit : (ArrayList<LinkedListTreeUnit>) list) {
-            if (unit == null) {
-                set(index, index, false, false, 0, 0);
+        for (int id = 0; id < numberOfUniqueUnits; id++) {
+            int pos = firstPositions[id];
+            int slot = slots[id];
+            int dist = oldDistance.getIntValue(pos);
+            boolean we = oldWordEnd.get(pos);
+            boolean wc = oldWordContinued.get(pos);
+            if (!we && !wc && dist == pos) {
+                set(slot, slot, false, false, 0, 0);
             } else {
-                set(index, unit);
+                set(slot, dist, we, wc, oldValueCode.getIntValue(pos),
+                    oldDataCode.getIntValue(pos));
             }
-            index++;
         }
         items = unitsMapping;
         trimToSize();
         compact = true;
     }
 
+    /**
+     * Sorts unique units by the number of their occurrences.
+     *
+     * @param identifiers         Identifiers of unique units for each position in this array.
+     * @param numberOfUniqueUnits The number of unique units.
+     *
+     * @return Identifiers of unique units starting from the most frequent one.
+     */
+    private static int[] orderByFrequency(final int[] identifiers,
+                                          final int numberOfUniqueUnits) {
+        int[] frequencies = new int[numberOfUniqueUnits];
+        for (int id : identifiers) {
+            frequencies[id]++;
+        }
+        long[] keys = new long[numberOfUniqueUnits];
+        for (int id = 0; id < numberOfUniqueUnits; id++) {
+            keys[id] = ((long) (Integer.MAX_VALUE - frequencies[id]) << 32) | id;
+        }
+        Arrays.sort(keys);
+        int[] result = frequencies;
+        for (int i = 0; i < numberOfUniqueUnits; i++) {
+            result[i] = (int) keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Assigns positions in the compact array to unique units.
+     * <p>
+     * Units are placed in the given order. However, an absolute pointer to the position at which
+     * it is stored would be read as an empty unit, so such pointers are swapped with following
+     * units.
+     * </p>
+     *
+     * @param firstPositions Positions of first occurrences of unique units in this array.
+     * @param order          Identifiers of unique units in the preferred order.
+     *
+     * @return The position in the compact array for each unique unit.
+     */
+    private int[] arrangeUniqueUnits(final int[] firstPositions, final int[] order) {
+        int count = firstPositions.length;
+        int[] slots = new int[count];
+        for (int slot = 0; slot < count; slot++) {
+            slots[order[slot]] = slot;
+        }
+        for (int slot = 0; slot < count; slot++) {
+            int id = order[slot];
+            if (isPointerTo(firstPositions[id], slot)) {
+                for (int other = (slot + 1) % count; other != slot; other = (other + 1) % count) {
+                    int otherId = order[other];
+                    if (!isPointerTo(firstPositions[id], other)
+                            && !isPointerTo(firstPositions[otherId], slot)) {
+                        order[slot] = otherId;
+                        order[other] = id;
+                        slots[id] = other;
+                        slots[otherId] = slot;
+                        break;
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Checks if the unit at the specified position in creation mode is an absolute pointer to the
+     * given position.
+     *
+     * @param pos    The position of a unit.
+     * @param target The position of a pointed unit.
+     *
+     * @return {@code true} if the unit is not empty and points to the given position.
+     */
+    private boolean isPointerTo(final int pos, final int target) {
+        return distance.getIntValue(pos) == target && !wordEnd.get(pos)
+                && !wordContinued.get(pos) && !isNull(pos);
+    }
+
     @Override
     public void trimToSize() {
         if (items != null) {
-            items.compact();
+            items.trimToSize();
         }
         if (wordEnd != null) {
             wordEnd.compact();
@@ -469,7 +590,8 @@ public final class CompactLinkedListTreeUnitArray extends AbstractLinkedListTree
     @Override
     public void read(DataInputStream in) throws IOException {
         super.read(in);
-        if (COMPACT_FORMAT_VERSION != in.readByte()) {
+        byte version = in.readByte();
+        if (COMPACT_FORMAT_VERSION != version && SINGLE_TIER_FORMAT_VERSION != version) {
             throw new IOException("Invalid file format");
         }
         compact = in.readBoolean();
@@ -478,7 +600,11 @@ public final class CompactLinkedListTreeUnitArray extends AbstractLinkedListTree
         distance = CompactArray.readInstance(in);
         valueCode = CompactArray.readInstance(in);
         dataCode = CompactArray.readInstance(in);
-        items = CompactArray.readInstance(in);
+        if (version == SINGLE_TIER_FORMAT_VERSION) {
+            items = TwoTierCompactArray.wrap(CompactArray.readInstance(in));
+        } else {
+            items = TwoTierCompactArray.readInstance(in);
+        }
     }
 
     @Override
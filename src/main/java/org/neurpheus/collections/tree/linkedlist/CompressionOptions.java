@@ -0,0 +1,336 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import java.io.File;
+
+/**
+ * Describes how the {@link LZTrieCompression} algorithm trades the compression ratio for time.
+ * <p>
+ * The default options give the best compression ratio (see {@link Profile#MAX}). Other profiles
+ * limit the work done by the algorithm, so large trees can be compressed in seconds, for example
+ * by development builds, while release builds use the maximum compression.
+ * </p>
+ * <p>
+ * <b>Usage:</b>
+ * <br>
+ * <code><pre>
+ * CompressionOptions options = new CompressionOptions(CompressionOptions.Profile.FAST);
+ * options.setTimeBudget(10_000);
+ * LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree(baseTree, true, options);
+ * </pre></code>
+ * </p>
+ * <p>
+ * Compression of a very large tree may take hours. If a checkpoint file is set, the state of the
+ * compression is saved periodically, and a compression of the same tree with the same options
+ * started after a crash resumes from the last checkpoint.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class CompressionOptions {
+
+    /**
+     * The highest maximum length of a replacement.
+     * <p>
+     * A replacement length has to be encoded on a limited number of bits; this value requires 7
+     * bits.
+     * </p>
+     */
+    public static final int MAX_REPLACEMENT_LENGTH = 127;
+
+    /** The default time in milliseconds between checkpoints (10 minutes). */
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 600_000L;
+
+    /**
+     * Named sets of options.
+     */
+    public enum Profile {
+
+        /**
+         * Replacements searched in small partitions; compresses large trees many times faster at
+         * the cost of a fraction of a percent of the compression ratio.
+         */
+        FAST(MAX_REPLACEMENT_LENGTH, 64, 1),
+
+        /** Replacements searched in bounded partitions; close to the maximum compression. */
+        BALANCED(MAX_REPLACEMENT_LENGTH, 1024, 1),
+
+        /** No limits; the best compression ratio. */
+        MAX(MAX_REPLACEMENT_LENGTH, Integer.MAX_VALUE, 1);
+
+        private final int maxReplacementLength;
+
+        private final int maxPartitionSize;
+
+        private final int minGain;
+
+        Profile(final int maxReplacementLength, final int maxPartitionSize, final int minGain) {
+            this.maxReplacementLength = maxReplacementLength;
+            this.maxPartitionSize = maxPartitionSize;
+            this.minGain = minGain;
+        }
+
+    }
+
+    /** The maximum number of units replaced by a single pointer. */
+    private int maxReplacementLength;
+
+    /** The maximum number of suffixes in a partition compared with each other. */
+    private int maxPartitionSize;
+
+    /** The minimum number of units saved by a single replacement. */
+    private int minGain;
+
+    /** The time in milliseconds after which searching for duplicates stops; 0 means no limit. */
+    private long timeBudget;
+
+    /** If {@code true} partitions are compressed in parallel. */
+    private boolean parallelMode;
+
+    /** The file where the state of the compression is saved or {@code null}. */
+    private File checkpointFile;
+
+    /** The time in milliseconds between checkpoints. */
+    private long checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+    /** Receives the compression progress or {@code null}. */
+    private CompressionProgressListener progressListener;
+
+    /**
+     * Creates options giving the best compression ratio.
+     */
+    public CompressionOptions() {
+        this(Profile.MAX);
+    }
+
+    /**
+     * Creates options of the specified profile.
+     *
+     * @param profile The named set of options.
+     */
+    public CompressionOptions(final Profile profile) {
+        this.maxReplacementLength = profile.maxReplacementLength;
+        this.maxPartitionSize = profile.maxPartitionSize;
+        this.minGain = profile.minGain;
+    }
+
+    /**
+     * Returns the maximum number of units which can be replaced by a single pointer.
+     *
+     * @return The maximum length of a replacement.
+     */
+    public int getMaxReplacementLength() {
+        return maxReplacementLength;
+    }
+
+    /**
+     * Sets the maximum number of units which can be replaced by a single pointer.
+     *
+     * @param maxReplacementLength The maximum length of a replacement, from the minimum gain plus
+     *                             1 to {@link #MAX_REPLACEMENT_LENGTH}.
+     *
+     * @exception IllegalArgumentException If the length is out of the range.
+     */
+    public void setMaxReplacementLength(int maxReplacementLength) {
+        if (maxReplacementLength < 2 || maxReplacementLength > MAX_REPLACEMENT_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Invalid maximum replacement length: " + maxReplacementLength);
+        }
+        if (maxReplacementLength <= minGain) {
+            throw new IllegalArgumentException(String.format(
+                    "Maximum replacement length %d does not exceed the minimum gain %d",
+                    maxReplacementLength, minGain));
+        }
+        this.maxReplacementLength = maxReplacementLength;
+    }
+
+    /**
+     * Returns the maximum size of a partition.
+     * <p>
+     * A partition is a list of positions in the suffix array starting with the same two units.
+     * All positions in a partition are compared with each other, so this value bounds the
+     * quadratic cost of the algorithm.
+     * </p>
+     *
+     * @return The maximum number of suffixes in a partition.
+     */
+    public int getMaxPartitionSize() {
+        return maxPartitionSize;
+    }
+
+    /**
+     * Sets the maximum size of a partition.
+     *
+     * @param maxPartitionSize The maximum number of suffixes in a partition, at least 2.
+     *
+     * @exception IllegalArgumentException If the size is less than 2.
+     */
+    public void setMaxPartitionSize(int maxPartitionSize) {
+        if (maxPartitionSize < 2) {
+            throw new IllegalArgumentException("Invalid maximum partition size: "
+                                               + maxPartitionSize);
+        }
+        this.maxPartitionSize = maxPartitionSize;
+    }
+
+    /**
+     * Returns the minimum number of units which have to be saved by a single replacement.
+     * <p>
+     * A replacement of {@code n} units by a pointer saves {@code n - 1} units.
+     * </p>
+     *
+     * @return The minimum gain of a replacement.
+     */
+    public int getMinGain() {
+        return minGain;
+    }
+
+    /**
+     * Sets the minimum number of units which have to be saved by a single replacement.
+     *
+     * @param minGain The minimum gain of a replacement, from 1 to the maximum replacement length
+     *                minus 1.
+     *
+     * @exception IllegalArgumentException If the gain is out of the range.
+     */
+    public void setMinGain(int minGain) {
+        if (minGain < 1 || minGain >= maxReplacementLength) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid minimum gain %d for the maximum replacement length %d",
+                    minGain, maxReplacementLength));
+        }
+        this.minGain = minGain;
+    }
+
+    /**
+     * Returns the time after which the compression stops searching for duplicated fragments.
+     *
+     * @return The time budget in milliseconds or 0 if the time is not limited.
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Sets the time after which the compression stops searching for duplicated fragments.
+     * <p>
+     * The time is measured from the start of the compression. When the budget is exceeded, the
+     * remaining part of the tree is left uncompressed, so the result is always a valid tree.
+     * </p>
+     *
+     * @param timeBudget The time budget in milliseconds or 0 if the time should not be limited.
+     *
+     * @exception IllegalArgumentException If the budget is negative.
+     */
+    public void setTimeBudget(long timeBudget) {
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("Invalid time budget: " + timeBudget);
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Checks if the experimental parallel compression should be used.
+     *
+     * @return {@code true} if partitions are compressed in parallel.
+     *
+     * @see LZTrieCompression#compress(LinkedListTree, boolean)
+     */
+    public boolean isParallelMode() {
+        return parallelMode;
+    }
+
+    /**
+     * Decides if the experimental parallel compression should be used.
+     *
+     * @param parallelMode if {@code true} partitions are compressed in parallel.
+     *
+     * @see LZTrieCompression#compress(LinkedListTree, boolean)
+     */
+    public void setParallelMode(boolean parallelMode) {
+        this.parallelMode = parallelMode;
+    }
+
+    /**
+     * Returns the file where the state of the compression is periodically saved.
+     *
+     * @return The checkpoint file or {@code null} if checkpoints are not saved.
+     */
+    public File getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * Sets the file where the state of the compression is periodically saved.
+     * <p>
+     * If the file exists when the compression starts and it has been saved for the same tree and
+     * options, the compression resumes from the saved state. The file is deleted when the
+     * compression finishes. Checkpoints are not saved by the parallel compression.
+     * </p>
+     *
+     * @param checkpointFile The checkpoint file or {@code null} if checkpoints should not be saved.
+     */
+    public void setCheckpointFile(File checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Returns the time between checkpoints.
+     *
+     * @return The checkpoint interval in milliseconds.
+     */
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Sets the time between checkpoints.
+     *
+     * @param checkpointInterval The checkpoint interval in milliseconds.
+     *
+     * @exception IllegalArgumentException If the interval is not positive.
+     */
+    public void setCheckpointInterval(long checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Invalid checkpoint interval: "
+                                               + checkpointInterval);
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Returns the listener receiving the compression progress.
+     *
+     * @return The listener or {@code null} if the progress is only logged.
+     */
+    public CompressionProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * Sets the listener receiving the compression progress.
+     *
+     * @param progressListener The listener or {@code null} if the progress should be only logged
+     *                         on the {@code FINER} level.
+     */
+    public void setProgressListener(CompressionProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import java.io.File;
+
+/**
+ * Receives notifications about the progress of the {@link LZTrieCompression} algorithm.
+ * <p>
+ * Progress is reported about once a second while the algorithm searches for duplicated tree
+ * fragments and once when the search is finished. Methods of a listener are called by the thread
+ * performing the compression, so they should return quickly.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ *
+ * @see CompressionOptions#setProgressListener(CompressionProgressListener)
+ */
+public interface CompressionProgressListener {
+
+    /**
+     * Called when the compression progress changes.
+     *
+     * @param progress    The number of processed units.
+     * @param maxProgress The number of units to process.
+     * @param elapsedTime The time in milliseconds elapsed since the compression (or its resumption)
+     *                    started.
+     */
+    void progressChanged(long progress, long maxProgress, long elapsedTime);
+
+    /**
+     * Called when the state of the compression has been saved in a checkpoint file.
+     *
+     * @param file     The checkpoint file.
+     * @param position The position in the suffix array from which a resumed compression starts.
+     */
+    void checkpointSaved(File file, int position);
+
+    /**
+     * Called when the compression has been resumed from a checkpoint file.
+     *
+     * @param file     The checkpoint file.
+     * @param position The position in the suffix array from which the compression continues.
+     */
+    void checkpointRestored(File file, int position);
+
+}
@@ -0,0 +1,498 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.TreeNodeWithData;
+import org.neurpheus.collections.tree.objecttree.ObjectTree;
+import org.neurpheus.collections.tree.objecttree.ObjectTreeFactory;
+import org.neurpheus.collections.tree.objecttree.ObjectTreeNode;
+import org.neurpheus.logging.LoggerService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Allows modifications of a read-only (compressed) linked list tree.
+ * <p>
+ * A {@link LinkedListTree} cannot be modified after it has been built. This class stores all
+ * modifications in a small delta layer - an {@link ObjectTree} holding added words and tombstones
+ * of removed words. Lookups consult the delta layer first and then the base linked list tree.
+ * </p>
+ * <p>
+ * The delta layer can be folded into the base tree by the {@link #merge()} method. The merge
+ * freezes the current delta layer and starts a new one for further modifications, creates a new
+ * (compressed) linked list tree and atomically swaps it with the base tree. Lookups and
+ * modifications are served during the whole merge. If an executor service is specified, merges can
+ * run in background and can be started automatically when the delta layer grows above the given
+ * threshold.
+ * </p>
+ * <p>
+ * Words are stored as sequences of characters, and each word holds an integer data code (like
+ * trees created by {@link LinkedListTreeTools} with data).
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class DeltaLinkedListTree {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerService.getLogger(DeltaLinkedListTree.class);
+
+    /** Size of a stack used for a traversal of the base tree. */
+    private static final int STACK_SIZE = 1000;
+
+    /** Data stored in the delta layer for removed words. */
+    private static final Object TOMBSTONE = new Object();
+
+    /** Current layers of this tree, replaced atomically. */
+    private volatile Layers layers;
+
+    /** Serializes merges. */
+    private final Object mergeLock = new Object();
+
+    /** Guards scheduling of background merges. */
+    private final Object scheduleLock = new Object();
+
+    /** The last scheduled background merge. */
+    private Future<LinkedListTree> scheduledMerge;
+
+    /** Executor running background merges or null if merges can be run only synchronously. */
+    private final ExecutorService executor;
+
+    /** Size of the delta layer starting a background merge or 0 if merges are not automatic. */
+    private final int mergeThreshold;
+
+    /** If {@code true} trees created by merges are compressed using the LZTrie algorithm. */
+    private final boolean compress;
+
+    /**
+     * Creates a modifiable view of the specified tree which can be merged only synchronously.
+     *
+     * @param baseTree The tree holding words.
+     */
+    public DeltaLinkedListTree(final LinkedListTree baseTree) {
+        this(baseTree, null, 0, true);
+    }
+
+    /**
+     * Creates a modifiable view of the specified tree.
+     *
+     * @param baseTree       The tree holding words.
+     * @param executor       The executor service used for background merges or null if merges
+     *                       should be run only synchronously.
+     * @param mergeThreshold The size of the delta layer which starts a background merge, or 0 if
+     *                       background merges should be started only explicitly.
+     * @param compress       Use LZTrie compression algorithm for trees created by merges.
+     */
+    public DeltaLinkedListTree(final LinkedListTree baseTree, final ExecutorService executor,
+                               final int mergeThreshold, final boolean compress) {
+        if (baseTree == null) {
+            throw new NullPointerException("Base tree cannot be null");
+        }
+        if (mergeThreshold < 0) {
+            throw new IllegalArgumentException("Invalid merge threshold = " + mergeThreshold);
+        }
+        this.layers = new Layers(baseTree, new Delta(), null);
+        this.executor = executor;
+        this.mergeThreshold = mergeThreshold;
+        this.compress = compress;
+    }
+
+    /**
+     * Returns the current base tree.
+     * <p>
+     * The base tree does not contain modifications stored in the delta layer.
+     * </p>
+     *
+     * @return The current linked list tree.
+     */
+    public LinkedListTree getBaseTree() {
+        return layers.base;
+    }
+
+    /**
+     * Returns the number of modifications which are not merged with the base tree.
+     *
+     * @return The number of words added or removed since the last merge.
+     */
+    public int getDeltaSize() {
+        Layers current = layers;
+        return current.active.size() + (current.merging == null ? 0 : current.merging.size());
+    }
+
+    /**
+     * Returns a data code assigned to the specified word.
+     *
+     * @param word The word to find.
+     *
+     * @return The data code of the word or null if the tree doesn't contain the word.
+     */
+    public Integer getData(final String word) {
+        return getData(word, new int[STACK_SIZE]);
+    }
+
+    /**
+     * Returns a data code assigned to the specified word using the given stack for traversal.
+     *
+     * @param word  The word to find.
+     * @param stack Stack used for fast traversal of the base tree.
+     *
+     * @return The data code of the word or null if the tree doesn't contain the word.
+     */
+    public Integer getData(final String word, final int[] stack) {
+        Layers current = layers;
+        Object data = current.active.get(word);
+        if (data == null && current.merging != null) {
+            data = current.merging.get(word);
+        }
+        if (data == null) {
+            return word.length() == 0 ? null : current.base.getRoot().getData(word, stack, 0);
+        }
+        return data == TOMBSTONE ? null : (Integer) data;
+    }
+
+    /**
+     * Checks if the tree contains the specified word.
+     *
+     * @param word The word to find.
+     *
+     * @return {@code true} if the word is stored in the tree.
+     */
+    public boolean contains(final String word) {
+        return getData(word) != null;
+    }
+
+    /**
+     * Adds the specified word to the tree or changes its data code.
+     *
+     * @param word     The word to add.
+     * @param dataCode The data code assigned to the word.
+     */
+    public void add(final String word, final int dataCode) {
+        update(word, Integer.valueOf(dataCode));
+    }
+
+    /**
+     * Removes the specified word from the tree.
+     *
+     * @param word The word to remove.
+     *
+     * @return {@code true} if the tree contained the word.
+     */
+    public boolean remove(final String word) {
+        if (!contains(word)) {
+            return false;
+        }
+        update(word, TOMBSTONE);
+        return true;
+    }
+
+    /**
+     * Stores a modification in the active delta layer.
+     *
+     * @param word The modified word.
+     * @param data The data code of the word or {@link #TOMBSTONE}.
+     */
+    private void update(final String word, final Object data) {
+        if (word.length() == 0) {
+            throw new IllegalArgumentException("Empty words are not supported");
+        }
+        Delta active = layers.active;
+        while (!active.put(word, data)) {
+            // the layer has been frozen by a merge, a new one is already available
+            active = layers.active;
+        }
+        if (executor != null && mergeThreshold > 0 && active.size() >= mergeThreshold) {
+            mergeInBackground();
+        }
+    }
+
+    /**
+     * Schedules a background merge of the delta layer with the base tree.
+     * <p>
+     * If a merge has already been scheduled and is not finished, this method returns it.
+     * </p>
+     *
+     * @return The future result of the merge - the new base tree.
+     *
+     * @exception IllegalStateException if no executor service has been specified for this tree.
+     */
+    public Future<LinkedListTree> mergeInBackground() {
+        if (executor == null) {
+            throw new IllegalStateException("Executor service for background merges is not set");
+        }
+        synchronized (scheduleLock) {
+            if (scheduledMerge == null || scheduledMerge.isDone()) {
+                scheduledMerge = executor.submit(new Callable<LinkedListTree>() {
+                    @Override
+                    public LinkedListTree call() {
+                        return merge();
+                    }
+                });
+            }
+            return scheduledMerge;
+        }
+    }
+
+    /**
+     * Merges the delta layer with the base tree.
+     * <p>
+     * Modifications made during the merge are stored in a new delta layer and are not included in
+     * the new base tree.
+     * </p>
+     *
+     * @return The new base tree.
+     */
+    public LinkedListTree merge() {
+        synchronized (mergeLock) {
+            long startTime = System.currentTimeMillis();
+            Layers current = layers;
+            Delta merging = current.merging;
+            if (merging == null) {
+                Delta active = current.active;
+                if (active.size() == 0) {
+                    return current.base;
+                }
+                active.lock.writeLock().lock();
+                try {
+                    active.frozen = true;
+                    current = new Layers(current.base, new Delta(), active);
+                    layers = current;
+                } finally {
+                    active.lock.writeLock().unlock();
+                }
+                merging = active;
+            }
+            // the frozen layer is not modified any more, so it can be read without locking
+            LinkedListTree newBase = createMergedTree(current.base, merging);
+            layers = new Layers(newBase, layers.active, null);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format("%d modifications merged in %d ms.", merging.size(),
+                                          System.currentTimeMillis() - startTime));
+            }
+            return newBase;
+        }
+    }
+
+    /**
+     * Creates a new linked list tree from the base tree and modifications from the delta layer.
+     *
+     * @param base  The base tree.
+     * @param delta The frozen delta layer.
+     *
+     * @return The new linked list tree.
+     */
+    private LinkedListTree createMergedTree(final LinkedListTree base, final Delta delta) {
+        ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
+        Tree baseTree = factory.createTree();
+        copyNodes(factory, base.getRoot(), delta.tree.getRoot(), baseTree.getRoot());
+        return LinkedListTreeFactory.getInstance().createTree(baseTree, true, compress, false);
+    }
+
+    /**
+     * Copies recursively children of a node from the base tree and a node from the delta layer.
+     *
+     * @param factory   The factory creating nodes of the target tree.
+     * @param baseNode  The node from the base tree or null.
+     * @param deltaNode The node from the delta layer or null.
+     * @param target    The node which receives copied children.
+     */
+    private void copyNodes(final ObjectTreeFactory factory, final LinkedListTreeNode baseNode,
+                           final ObjectTreeNode deltaNode, final TreeNode target) {
+        List<LinkedListTreeNode> baseChildren = baseNode == null
+                ? Collections.<LinkedListTreeNode>emptyList()
+                : baseNode.getChildren();
+        List<ObjectTreeNode> deltaChildren = deltaNode == null
+                ? Collections.<ObjectTreeNode>emptyList()
+                : new ArrayList<>(deltaNode.getChildren());
+        Collections.sort(deltaChildren);
+        int baseIndex = 0;
+        int deltaIndex = 0;
+        while (baseIndex < baseChildren.size() || deltaIndex < deltaChildren.size()) {
+            LinkedListTreeNode baseChild = baseIndex < baseChildren.size()
+                    ? baseChildren.get(baseIndex) : null;
+            ObjectTreeNode deltaChild = deltaIndex < deltaChildren.size()
+                    ? deltaChildren.get(deltaIndex) : null;
+            int cmp;
+            if (baseChild == null) {
+                cmp = 1;
+            } else if (deltaChild == null) {
+                cmp = -1;
+            } else {
+                cmp = baseChild.getValue().compareTo((Integer) deltaChild.getValue());
+            }
+            if (cmp <= 0) {
+                baseIndex++;
+            } else {
+                baseChild = null;
+            }
+            if (cmp >= 0) {
+                deltaIndex++;
+            } else {
+                deltaChild = null;
+            }
+
+            Integer value = baseChild == null ? (Integer) deltaChild.getValue()
+                                              : baseChild.getValue();
+            Object data = null;
+            if (deltaChild != null && deltaChild.hasExtraData()) {
+                data = ((TreeNodeWithData) deltaChild).getData();
+            } else if (baseChild != null && baseChild.isLeaf()) {
+                data = ((LinkedListTreeDataNode) baseChild).getData();
+            }
+            TreeNode child = data == null || data == TOMBSTONE
+                    ? factory.createTreeNode(value)
+                    : factory.createTreeNodeWithAdditionalData(value, data);
+            copyNodes(factory, baseChild, deltaChild, child);
+            if (child.hasExtraData() || !child.getChildren().isEmpty()) {
+                target.addChild(child);
+            }
+        }
+    }
+
+    /**
+     * Immutable set of layers of the tree.
+     */
+    private static final class Layers {
+
+        /** The base tree. */
+        private final LinkedListTree base;
+
+        /** The delta layer receiving modifications. */
+        private final Delta active;
+
+        /** The frozen delta layer which is being merged with the base tree or null. */
+        private final Delta merging;
+
+        /**
+         * Creates a new set of layers.
+         *
+         * @param base    The base tree.
+         * @param active  The delta layer receiving modifications.
+         * @param merging The frozen delta layer which is being merged with the base tree or null.
+         */
+        Layers(final LinkedListTree base, final Delta active, final Delta merging) {
+            this.base = base;
+            this.active = active;
+            this.merging = merging;
+        }
+    }
+
+    /**
+     * Small on-heap tree of modifications.
+     * <p>
+     * Nodes ending modified words hold data codes of added words or {@link #TOMBSTONE} objects
+     * marking removed words.
+     * </p>
+     */
+    private static final class Delta {
+
+        /** Tree of modified words. */
+        private final ObjectTree<Integer, Object> tree = new ObjectTree<>();
+
+        /** Guards the tree. */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /** If {@code true} the layer is being merged and cannot be modified. */
+        private boolean frozen;
+
+        /** Number of modified words. */
+        private volatile int size;
+
+        /**
+         * Returns the number of modified words.
+         *
+         * @return The number of words stored in this layer.
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Returns a modification of the specified word.
+         *
+         * @param word The word to find.
+         *
+         * @return A data code, {@link #TOMBSTONE} or null if the word has not been modified.
+         */
+        Object get(final String word) {
+            lock.readLock().lock();
+            try {
+                TreeNode node = tree.getRoot();
+                for (int i = 0; node != null && i < word.length(); i++) {
+                    node = node.getChild(Integer.valueOf(word.charAt(i)));
+                }
+                return node != null && node.hasExtraData()
+                        ? ((TreeNodeWithData) node).getData()
+                        : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Stores a modification of the specified word.
+         *
+         * @param word The modified word.
+         * @param data A data code or {@link #TOMBSTONE}.
+         *
+         * @return {@code false} if this layer has been frozen and cannot be modified.
+         */
+        boolean put(final String word, final Object data) {
+            lock.writeLock().lock();
+            try {
+                if (frozen) {
+                    return false;
+                }
+                ObjectTreeFactory factory = tree.getFactory();
+                TreeNode parent = null;
+                TreeNode node = tree.getRoot();
+                for (int i = 0; i < word.length(); i++) {
+                    Integer value = Integer.valueOf(word.charAt(i));
+                    TreeNode child = node.getChild(value);
+                    if (child == null) {
+                        child = factory.createTreeNode(value);
+                        node.addChild(child);
+                    }
+                    parent = node;
+                    node = child;
+                }
+                if (!node.hasExtraData()) {
+                    size++;
+                }
+                factory.setDataForNode(node, parent, data);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+}
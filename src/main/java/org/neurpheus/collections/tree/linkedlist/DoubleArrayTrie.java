@@ -0,0 +1,555 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.core.io.DataOutputStreamPacker;
+import org.neurpheus.logging.LoggerService;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only double-array trie exported from a linked list tree for fast exact-match lookups.
+ * <p>
+ * A linked list tree scans siblings one by one and follows absolute pointers, so the cost of a
+ * lookup grows with the number of children of visited nodes. The double-array trie finds a child
+ * in constant time: a child of a state <code>s</code> reached by a label <code>c</code> is stored
+ * at position <code>base[s] + c</code> and belongs to <code>s</code> only if
+ * <code>check[base[s] + c] == s</code>. Labels are codes from the value mapping of the source
+ * tree, so the arrays stay dense.
+ * </p>
+ * <p>
+ * Fragments shared by a compressed linked list tree are expanded in the double-array trie, so
+ * it usually needs much more memory than the source tree. Optionally single branches ending
+ * with a word (tails) are stored as sequences of labels in a separate array instead of states,
+ * which reduces the size of the trie several times for natural language dictionaries.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public final class DoubleArrayTrie implements Serializable {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerService.getLogger(DoubleArrayTrie.class);
+
+    /** Unique serialization identifier of this class. */
+    static final long serialVersionUID = 770608151111104501L;
+
+    /** Supported version of a data format for a serialized double-array trie. */
+    static final byte FORMAT_VERSION = 1;
+
+    /** The index of the root state. */
+    private static final int ROOT = 0;
+
+    /** The check value of a free position. */
+    private static final int FREE = -1;
+
+    /** The data value of a state which doesn't end any word. */
+    private static final int NO_DATA = -1;
+
+    /**
+     * The ratio of occupied positions after which a search for free positions starts from the
+     * last checked position.
+     */
+    private static final double DENSITY_THRESHOLD = 0.95;
+
+    /** Array of integer where index is a value code, and an element is a decoded value. */
+    private int[] valueMapping;
+
+    /** Labels of characters (value code + 1) or 0 for characters not present in the trie. */
+    private int[] charLabels;
+
+    /** Offsets of children of states or negative positions of tails. */
+    private int[] base;
+
+    /** Parents of states or {@link #FREE} for unused positions. */
+    private int[] check;
+
+    /** Data codes of states ending words or {@link #NO_DATA}. */
+    private int[] data;
+
+    /** Tails: a length, labels and a data code of each tail. */
+    private int[] tail;
+
+    /**
+     * Creates a new, empty double-array trie.
+     * <p>
+     * Use {@link #create(LinkedListTree, boolean)} to export a linked list tree or
+     * {@link #read(DataInputStream)} to load a stored trie.
+     * </p>
+     */
+    public DoubleArrayTrie() {
+        valueMapping = new int[]{0};
+        base = new int[]{0};
+        check = new int[]{FREE};
+        data = new int[]{NO_DATA};
+        tail = new int[0];
+        charLabels = createCharLabels(valueMapping);
+    }
+
+    /**
+     * Exports the specified linked list tree to a new double-array trie.
+     *
+     * @param tree            The source tree; it can be compressed.
+     * @param tailCompression if {@code true} single branches ending with a word are stored as
+     *                        tails instead of states.
+     *
+     * @return The double-array trie containing the same words and data codes as the tree.
+     *
+     * @throws IllegalArgumentException if the tree has no value mapping or stores negative data
+     *                                  codes.
+     */
+    public static DoubleArrayTrie create(final LinkedListTree tree,
+                                         final boolean tailCompression) {
+        long startTime = System.currentTimeMillis();
+        int[] mapping = tree.getUnitArray().getValueMapping();
+        if (mapping == null) {
+            throw new IllegalArgumentException("The tree has no value mapping");
+        }
+        Builder builder = new Builder(tree.getUnitArray().size());
+        LinkedListTreeNode root = tree.getRoot();
+        builder.setData(ROOT, root.getUnit());
+        Deque<LinkedListTreeNode> nodes = new ArrayDeque<>();
+        Deque<Integer> states = new ArrayDeque<>();
+        nodes.add(root);
+        states.add(ROOT);
+        while (!nodes.isEmpty()) {
+            LinkedListTreeNode node = nodes.poll();
+            int state = states.poll();
+            List<LinkedListTreeNode> children = node.getChildren();
+            if (children.isEmpty() || (tailCompression && builder.addTail(state, children))) {
+                continue;
+            }
+            int[] labels = new int[children.size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = children.get(i).getUnit().getValueCode() + 1;
+            }
+            int offset = builder.findBase(labels);
+            builder.base[state] = offset;
+            for (int i = 0; i < labels.length; i++) {
+                int child = offset + labels[i];
+                builder.check[child] = state;
+                builder.setData(child, children.get(i).getUnit());
+                nodes.add(children.get(i));
+                states.add(child);
+            }
+        }
+        DoubleArrayTrie result = builder.build(mapping);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format(
+                    "Double-array trie with %d positions and %d tail items created in %d ms.",
+                    result.base.length, result.tail.length,
+                    System.currentTimeMillis() - startTime));
+        }
+        return result;
+    }
+
+    /**
+     * Creates labels of characters from the value mapping.
+     *
+     * @param mapping Array of integer where index is a value code, and an element is a decoded
+     *                value.
+     *
+     * @return Labels indexed by characters.
+     */
+    private static int[] createCharLabels(final int[] mapping) {
+        int maxValue = 0;
+        for (int value : mapping) {
+            if (value <= Character.MAX_VALUE) {
+                maxValue = Math.max(maxValue, value);
+            }
+        }
+        int[] result = new int[maxValue + 1];
+        for (int code = 0; code < mapping.length; code++) {
+            int value = mapping[code];
+            if (value >= 0 && value <= maxValue) {
+                result[value] = code + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns data stored in the trie for the specified word.
+     *
+     * @param word A list of characters describing successive nodes in a tree.
+     *
+     * @return Integer identifier of an object stored in the trie or null if the word is not
+     *         stored in the trie.
+     */
+    public Integer getData(final CharSequence word) {
+        int code = getDataCode(word);
+        return code == NO_DATA ? null : code;
+    }
+
+    /**
+     * Checks if the specified word is stored in the trie.
+     *
+     * @param word A list of characters describing successive nodes in a tree.
+     *
+     * @return {@code true} if the word is stored in the trie.
+     */
+    public boolean contains(final CharSequence word) {
+        return getDataCode(word) != NO_DATA;
+    }
+
+    /**
+     * Finds a data code stored for the specified word.
+     *
+     * @param word A list of characters describing successive nodes in a tree.
+     *
+     * @return The data code or {@link #NO_DATA} if the word is not stored in the trie.
+     */
+    private int getDataCode(final CharSequence word) {
+        int state = ROOT;
+        int length = word.length();
+        for (int i = 0; i < length; i++) {
+            int offset = base[state];
+            if (offset < 0) {
+                return matchTail(-offset - 1, word, i);
+            }
+            char c = word.charAt(i);
+            int label = c < charLabels.length ? charLabels[c] : 0;
+            if (label == 0) {
+                return NO_DATA;
+            }
+            int child = offset + label;
+            if (child >= check.length || check[child] != state) {
+                return NO_DATA;
+            }
+            state = child;
+        }
+        return data[state];
+    }
+
+    /**
+     * Compares the remaining characters of a word with the specified tail.
+     *
+     * @param tailPos The position of the tail.
+     * @param word    The looked up word.
+     * @param start   The position of the first remaining character of the word.
+     *
+     * @return The data code of the tail or {@link #NO_DATA} if the tail doesn't match.
+     */
+    private int matchTail(final int tailPos, final CharSequence word, final int start) {
+        int length = tail[tailPos];
+        if (word.length() - start != length) {
+            return NO_DATA;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(start + i);
+            int label = c < charLabels.length ? charLabels[c] : 0;
+            if (tail[tailPos + 1 + i] != label) {
+                return NO_DATA;
+            }
+        }
+        return tail[tailPos + 1 + length];
+    }
+
+    /**
+     * Returns a mapping between codes and values of nodes.
+     *
+     * @return Array of integer where index is a code, and an element is a decoded value.
+     */
+    public int[] getValueMapping() {
+        return valueMapping;
+    }
+
+    /**
+     * Returns the number of positions in the double array.
+     *
+     * @return The length of base and check arrays.
+     */
+    public int size() {
+        return base.length;
+    }
+
+    /**
+     * Returns the number of items stored in tails.
+     *
+     * @return The length of the tail array.
+     */
+    public int getTailSize() {
+        return tail.length;
+    }
+
+    /**
+     * Returns an estimated number of bytes used by this trie.
+     *
+     * @return The size of this object in bytes.
+     */
+    public long getAllocationSize() {
+        long result = 16 + 6 * 4L;
+        result += 16 + valueMapping.length * 4L;
+        result += 16 + charLabels.length * 4L;
+        result += 3 * (16 + base.length * 4L);
+        result += 16 + tail.length * 4L;
+        return result;
+    }
+
+    /**
+     * Writes this trie to the specified data stream.
+     *
+     * @param out Data output stream.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void write(final DataOutputStream out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        DataOutputStreamPacker.writeArrayOfIntegers(valueMapping, out);
+        DataOutputStreamPacker.writeArrayOfIntegers(base, out);
+        DataOutputStreamPacker.writeArrayOfIntegers(check, out);
+        DataOutputStreamPacker.writeArrayOfIntegers(data, out);
+        DataOutputStreamPacker.writeArrayOfIntegers(tail, out);
+    }
+
+    /**
+     * Reads a content of a trie from the specified data stream.
+     *
+     * @param in Data input stream.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void read(final DataInputStream in) throws IOException {
+        if (FORMAT_VERSION != in.readByte()) {
+            throw new IOException("Invalid file format");
+        }
+        valueMapping = DataOutputStreamPacker.readArrayOfIntegers(in);
+        base = DataOutputStreamPacker.readArrayOfIntegers(in);
+        check = DataOutputStreamPacker.readArrayOfIntegers(in);
+        data = DataOutputStreamPacker.readArrayOfIntegers(in);
+        tail = DataOutputStreamPacker.readArrayOfIntegers(in);
+        if (base.length == 0 || check.length != base.length || data.length != base.length) {
+            throw new IOException("Invalid double-array trie");
+        }
+        charLabels = createCharLabels(valueMapping);
+    }
+
+    /**
+     * Reads a new trie from the specified data stream.
+     *
+     * @param in Data input stream.
+     *
+     * @return The read trie.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public static DoubleArrayTrie readInstance(final DataInputStream in) throws IOException {
+        DoubleArrayTrie result = new DoubleArrayTrie();
+        result.read(in);
+        return result;
+    }
+
+    /**
+     * Builds arrays of a double-array trie.
+     */
+    private static final class Builder {
+
+        /** Offsets of children of states or negative positions of tails. */
+        private int[] base;
+
+        /** Parents of states or {@link #FREE} for unused positions. */
+        private int[] check;
+
+        /** Data codes of states. */
+        private int[] data;
+
+        /** Tails. */
+        private int[] tail;
+
+        /** The number of used items in the tail array. */
+        private int tailSize;
+
+        /** The number of positions used by the trie. */
+        private int size;
+
+        /** The position from which a search for free positions starts. */
+        private int nextCheckPos;
+
+        /**
+         * Creates a new builder.
+         *
+         * @param capacity The expected number of positions.
+         */
+        Builder(final int capacity) {
+            base = new int[0];
+            check = new int[0];
+            data = new int[0];
+            tail = new int[16];
+            ensureCapacity(Math.max(capacity, 16));
+            check[ROOT] = ROOT;
+            size = 1;
+            nextCheckPos = 1;
+        }
+
+        /**
+         * Expands arrays to hold at least the specified number of positions.
+         *
+         * @param capacity The required number of positions.
+         */
+        private void ensureCapacity(final int capacity) {
+            if (capacity > base.length) {
+                int oldLength = base.length;
+                int newLength = Math.max(capacity, 2 * oldLength);
+                base = Arrays.copyOf(base, newLength);
+                check = Arrays.copyOf(check, newLength);
+                data = Arrays.copyOf(data, newLength);
+                Arrays.fill(check, oldLength, newLength, FREE);
+                Arrays.fill(data, oldLength, newLength, NO_DATA);
+            }
+        }
+
+        /**
+         * Stores data of a unit ending a word in the specified state.
+         *
+         * @param state The state of a node.
+         * @param unit  The unit describing the node.
+         */
+        void setData(final int state, final LinkedListTreeUnit unit) {
+            if (unit.isWordEnd()) {
+                data[state] = checkDataCode(unit.getDataCode());
+            }
+            size = Math.max(size, state + 1);
+        }
+
+        /**
+         * Verifies that the specified data code can be stored in the trie.
+         *
+         * @param dataCode The data code of a node.
+         *
+         * @return The data code.
+         */
+        private static int checkDataCode(final int dataCode) {
+            if (dataCode < 0) {
+                throw new IllegalArgumentException(
+                        "Negative data codes are not supported: " + dataCode);
+            }
+            return dataCode;
+        }
+
+        /**
+         * Finds an offset for which all children of a state can be placed on free positions.
+         *
+         * @param labels Sorted labels of children.
+         *
+         * @return The offset of children.
+         */
+        int findBase(final int[] labels) {
+            int first = labels[0];
+            int last = labels[labels.length - 1];
+            int start = Math.max(nextCheckPos, first);
+            int pos = start;
+            int occupied = 0;
+            while (true) {
+                ensureCapacity(pos - first + last + 1);
+                if (check[pos] != FREE) {
+                    ++occupied;
+                } else {
+                    int offset = pos - first;
+                    boolean fits = true;
+                    for (int i = 1; i < labels.length && fits; i++) {
+                        fits = check[offset + labels[i]] == FREE;
+                    }
+                    if (fits) {
+                        if (occupied >= DENSITY_THRESHOLD * (pos - start + 1)) {
+                            nextCheckPos = pos;
+                        }
+                        return offset;
+                    }
+                }
+                ++pos;
+            }
+        }
+
+        /**
+         * Stores children of a state as a tail if they form a single branch ending with a word.
+         *
+         * @param state    The state of a parent node.
+         * @param children Children of the parent node.
+         *
+         * @return {@code true} if the tail has been added.
+         */
+        boolean addTail(final int state, final List<LinkedListTreeNode> children) {
+            if (children.size() != 1) {
+                return false;
+            }
+            int start = tailSize;
+            int pos = start + 1;
+            LinkedListTreeNode node = children.get(0);
+            while (true) {
+                LinkedListTreeUnit unit = node.getUnit();
+                ensureTailCapacity(pos + 2);
+                tail[pos++] = unit.getValueCode() + 1;
+                List<LinkedListTreeNode> next = node.getChildren();
+                if (next.isEmpty()) {
+                    if (!unit.isWordEnd()) {
+                        return false;
+                    }
+                    tail[pos++] = checkDataCode(unit.getDataCode());
+                    break;
+                }
+                if (unit.isWordEnd() || next.size() != 1) {
+                    return false;
+                }
+                node = next.get(0);
+            }
+            tail[start] = pos - start - 2;
+            tailSize = pos;
+            base[state] = -start - 1;
+            return true;
+        }
+
+        /**
+         * Expands the tail array to hold at least the specified number of items.
+         *
+         * @param capacity The required number of items.
+         */
+        private void ensureTailCapacity(final int capacity) {
+            if (capacity > tail.length) {
+                tail = Arrays.copyOf(tail, Math.max(capacity, 2 * tail.length));
+            }
+        }
+
+        /**
+         * Creates a trie from built arrays.
+         *
+         * @param mapping The value mapping of the source tree.
+         *
+         * @return The new trie.
+         */
+        DoubleArrayTrie build(final int[] mapping) {
+            DoubleArrayTrie result = new DoubleArrayTrie();
+            result.valueMapping = Arrays.copyOf(mapping, mapping.length);
+            result.charLabels = createCharLabels(mapping);
+            result.base = Arrays.copyOf(base, size);
+            result.check = Arrays.copyOf(check, size);
+            result.check[ROOT] = FREE;
+            result.data = Arrays.copyOf(data, size);
+            result.tail = Arrays.copyOf(tail, tailSize);
+            return result;
+        }
+    }
+
+}
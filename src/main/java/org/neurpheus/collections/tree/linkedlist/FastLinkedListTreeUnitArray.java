@@ -337,6 +337,16 @@ public final class FastLinkedListTreeUnitArray extends AbstractLinkedListTreeUni
         return distance[index];
     }
 
+    /**
+     * Changes the distance stored in the unit at the specified position.
+     *
+     * @param index    The position of a unit.
+     * @param distance The new distance.
+     */
+    void setDistance(final int index, final int distance) {
+        this.distance[index] = distance;
+    }
+
     @Override
     public void write(DataOutputStream out) throws IOException {
         super.write(out);
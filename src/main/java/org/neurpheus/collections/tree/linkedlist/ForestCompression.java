@@ -0,0 +1,304 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.logging.LoggerService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compresses a linked list tree as a forest of independently compressed sub trees.
+ * <p>
+ * The tree is split by children of its root (see {@link LinkedListTree#split()}). Each sub tree
+ * is compressed by the sequential {@link LZTrieCompression} algorithm on a bounded pool of threads
+ * and compressed sub trees are joined back (see {@link LinkedListTree#joinSubTrees(List)}).
+ * Contrary to the parallel mode of the {@link LZTrieCompression}, threads never modify the same
+ * unit array, so the result is always coherent.
+ * </p>
+ * <p>
+ * Compressed sub trees cannot share fragments with other sub trees, so the result is usually a
+ * little bigger than a tree compressed as a whole. Optionally sub trees having the same children
+ * (cross-shard deduplication) are compressed only once - the children list of each repeated sub
+ * tree is replaced by a single absolute pointer to the children list of its first occurrence.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public final class ForestCompression {
+
+    /** Holds the logger for this class. */
+    private static final Logger LOGGER = LoggerService.getLogger(ForestCompression.class);
+
+    /**
+     * This is a utility class.
+     */
+    private ForestCompression() {
+    }
+
+    /**
+     * Compresses the specified tree as a forest of sub trees.
+     *
+     * @param tree            The tree to compress.
+     * @param numberOfThreads The maximum number of threads compressing sub trees.
+     * @param deduplicate     if {@code true} children of sub trees repeated in the forest are
+     *                        stored only once.
+     *
+     * @return The compressed tree.
+     */
+    public static LinkedListTree compress(final LinkedListTree tree, final int numberOfThreads,
+                                          final boolean deduplicate) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads);
+        }
+        long startTime = System.currentTimeMillis();
+        List<LinkedListTree> forest = tree.split();
+        if (forest.isEmpty()) {
+            return tree;
+        }
+        int[] duplicates = findDuplicates(forest, deduplicate);
+        int poolSize = Math.min(numberOfThreads, forest.size());
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        List<LinkedListTree> compressed;
+        try {
+            compressed = compressForest(forest, duplicates, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+        replaceDuplicates(forest, compressed, duplicates);
+        LinkedListTree result = LinkedListTreeFactory.getInstance().createTree();
+        result.joinSubTrees(compressed);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("%d sub trees compressed by %d threads in %d ms.",
+                                      forest.size(), poolSize,
+                                      System.currentTimeMillis() - startTime));
+        }
+        return result;
+    }
+
+    /**
+     * Compresses trees from the specified forest using the given executor.
+     *
+     * @param forest     The sub trees to compress.
+     * @param duplicates Indexes of first occurrences of repeated sub trees, or -1 for sub trees
+     *                   which should be compressed.
+     * @param executor   The executor service running compression tasks.
+     *
+     * @return Compressed sub trees in the order of the forest, or null for repeated sub trees.
+     */
+    private static List<LinkedListTree> compressForest(
+            final List<LinkedListTree> forest, final int[] duplicates,
+            final ExecutorService executor) {
+        // start from the biggest sub trees to balance threads
+        List<Integer> order = new ArrayList<>(forest.size());
+        for (int i = 0; i < forest.size(); i++) {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer index1, Integer index2) {
+                return Integer.compare(forest.get(index2).getUnitArray().size(),
+                                       forest.get(index1).getUnitArray().size());
+            }
+        });
+        List<Future<LinkedListTree>> futures = new ArrayList<>(
+                Collections.<Future<LinkedListTree>>nCopies(forest.size(), null));
+        for (final Integer index : order) {
+            if (duplicates[index] >= 0) {
+                continue;
+            }
+            futures.set(index, executor.submit(new Callable<LinkedListTree>() {
+                @Override
+                public LinkedListTree call() {
+                    return compressSubTree(forest.get(index));
+                }
+            }));
+        }
+        List<LinkedListTree> result = new ArrayList<>(forest.size());
+        try {
+            for (Future<LinkedListTree> future : futures) {
+                result.add(future == null ? null : future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Forest compression interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Cannot compress a sub tree", ex.getCause());
+        }
+        return result;
+    }
+
+    /**
+     * Compresses a single sub tree.
+     * <p>
+     * A root unit of a sub tree gets a pointer to the next sibling when the forest is joined, so
+     * it cannot be a part of any replacement. Therefore the root unit gets a unique data code
+     * during compression.
+     * </p>
+     *
+     * @param subTree The sub tree to compress.
+     *
+     * @return The compressed sub tree.
+     */
+    private static LinkedListTree compressSubTree(final LinkedListTree subTree) {
+        LinkedListTreeUnitArray units = new FastLinkedListTreeUnitArray(subTree.getUnitArray());
+        int maxDataCode = 0;
+        for (int i = 0; i < units.size(); i++) {
+            maxDataCode = Math.max(maxDataCode, units.getDataCode(i));
+        }
+        LinkedListTreeUnit rootUnit = units.get(0);
+        units.set(0, rootUnit.getDistance(), rootUnit.isWordEnd(), rootUnit.isWordContinued(),
+                  rootUnit.getValueCode(), maxDataCode + 1);
+        subTree.setUnitArray(units);
+        LinkedListTree result = LZTrieCompression.compress(subTree, false);
+        result.getUnitArray().set(0, rootUnit);
+        return result;
+    }
+
+    /**
+     * Finds sub trees having the same children as previous sub trees in the forest.
+     *
+     * @param forest      The uncompressed sub trees.
+     * @param deduplicate if {@code false} this method doesn't search for repeated sub trees.
+     *
+     * @return For each sub tree, the index of the first sub tree having the same children or -1.
+     */
+    private static int[] findDuplicates(final List<LinkedListTree> forest,
+                                        final boolean deduplicate) {
+        int[] result = new int[forest.size()];
+        Map<SubTreeKey, Integer> firstOccurrences = new HashMap<>();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = -1;
+            LinkedListTreeUnitArray units = forest.get(i).getUnitArray();
+            if (deduplicate && units.size() > 1) {
+                SubTreeKey key = new SubTreeKey(units);
+                Integer first = firstOccurrences.get(key);
+                if (first == null) {
+                    firstOccurrences.put(key, i);
+                } else {
+                    result[i] = first;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces children of repeated sub trees by absolute pointers.
+     * <p>
+     * Each repeated sub tree is represented by its root unit followed by a closed absolute pointer
+     * to the children of the first occurrence. Pointers in sub trees are relative to the begin of
+     * a sub tree until they are moved while joining, therefore positions of sub trees in the
+     * joined tree are computed here.
+     * </p>
+     *
+     * @param forest     The uncompressed sub trees.
+     * @param compressed The compressed sub trees or null for repeated sub trees.
+     * @param duplicates Indexes of first occurrences of repeated sub trees or -1.
+     */
+    private static void replaceDuplicates(final List<LinkedListTree> forest,
+                                          final List<LinkedListTree> compressed,
+                                          final int[] duplicates) {
+        LinkedListTreeFactory factory = LinkedListTreeFactory.getInstance();
+        int[] offsets = new int[duplicates.length];
+        int offset = 1;
+        for (int i = 0; i < duplicates.length; i++) {
+            offsets[i] = offset;
+            if (duplicates[i] >= 0) {
+                LinkedListTreeUnitArray source = forest.get(i).getUnitArray();
+                LinkedListTreeUnitArray units = new FastLinkedListTreeUnitArray(2);
+                units.setValueMapping(source.getValueMapping());
+                LinkedListTreeUnit rootUnit = source.get(0);
+                rootUnit.setDistance(0);
+                units.add(rootUnit);
+                int target = offsets[duplicates[i]] + 1;
+                units.add(new LinkedListTreeUnit(0, target - offset, false, false, 0));
+                LinkedListTree subTree = factory.createTree();
+                subTree.setUnitArray(units);
+                compressed.set(i, subTree);
+            }
+            offset += compressed.get(i).getUnitArray().size();
+        }
+    }
+
+    /**
+     * Identifies a sub tree by its children.
+     */
+    private static final class SubTreeKey {
+
+        /** Units of the sub tree. */
+        private final LinkedListTreeUnitArray units;
+
+        /** Cached hash code. */
+        private final int hash;
+
+        /**
+         * Creates a key of the specified sub tree.
+         *
+         * @param units Units of an uncompressed sub tree.
+         */
+        SubTreeKey(final LinkedListTreeUnitArray units) {
+            this.units = units;
+            int h = units.size();
+            for (int i = 1; i < units.size(); i++) {
+                h = 31 * h + units.getValueCode(i);
+                h = 31 * h + units.getDistance(i);
+                h = 31 * h + units.getDataCode(i);
+                h = 31 * h + (units.isWordEnd(i) ? 2 : 0) + (units.isWordContinued(i) ? 1 : 0);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof SubTreeKey)) {
+                return false;
+            }
+            LinkedListTreeUnitArray other = ((SubTreeKey) obj).units;
+            if (hash != obj.hashCode() || units.size() != other.size()) {
+                return false;
+            }
+            for (int i = 1; i < units.size(); i++) {
+                if (units.getValueCode(i) != other.getValueCode(i)
+                        || units.getDistance(i) != other.getDistance(i)
+                        || units.getDataCode(i) != other.getDataCode(i)
+                        || units.isWordEnd(i) != other.isWordEnd(i)
+                        || units.isWordContinued(i) != other.isWordContinued(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
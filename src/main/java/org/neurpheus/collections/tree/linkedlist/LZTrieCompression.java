@@ -16,9 +16,21 @@
 
 package org.neurpheus.collections.tree.linkedlist;
 
+import org.neurpheus.collections.array.BitsArray;
 import org.neurpheus.collections.array.CompactArray;
 import org.neurpheus.logging.LoggerService;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -60,6 +72,18 @@ import java.util.logging.Logger;
  * </p>
  *
  * <p>
+ * The trade-off between the compression ratio and time can be tuned by {@link CompressionOptions}
+ * passed to the {@link #compress(LinkedListTree, CompressionOptions)} method.
+ * </p>
+ *
+ * <p>
+ * The sequential compression can periodically save its state in a checkpoint file (see
+ * {@link CompressionOptions#setCheckpointFile(File)}). A checkpoint holds the suffix array, the
+ * work array with flags of replaced units and the position in the suffix array, so the
+ * compression of the same tree restarted after a crash continues from this position.
+ * </p>
+ *
+ * <p>
  * You can find more informations about the compression algorithm in the following publications:
  * <ul>
  * <li>
@@ -89,24 +113,17 @@ public class LZTrieCompression {
     /** Holds the logger for this class. */
     private static final Logger LOGGER = LoggerService.getLogger(LZTrieCompression.class);
 
-    /**
-     * Holds the maximum length of a replacement.
-     * <p>
-     * A replacement length have to be encoded on a limited number of bits, therefore the length of
-     * a replacement is limited.
-     * </p>
-     * <p>
-     * The default value (127) requires 7 bits for encoding. You can decrease this value before
-     * compression, if a unit structure should be packed more.
-     * </p>
-     */
-    private static final int MAX_REPLACEMENT_LENGTH = 127;
+    /** Number of replacements covered by a synchronized fragment of a unit array. */
+    private static final int REPLACEMENTS_PER_PAGE = 5;
 
-    /** Experimental constant to limit the algorithm complexity using partition size limit. */
-    private static final int MAX_PARTITION_SIZE = Integer.MAX_VALUE;
+    /** Number of processed suffixes between checks of the time budget. */
+    private static final int TIME_CHECK_INTERVAL = 256;
 
-    /** Size of a synchronized fragment of a unit array. */
-    private static int SYNCHRONIZATION_PAGE_SIZE = MAX_REPLACEMENT_LENGTH * 5;
+    /** Minimum time in milliseconds between progress notifications. */
+    private static final long PROGRESS_INTERVAL = 1_000L;
+
+    /** Version of the checkpoint file format. */
+    private static final byte CHECKPOINT_FORMAT_VERSION = 1;
 
     /** Info message for logger. */
     private static final String SEARCHING_MESSAGE = "   searching for duplicated tree fragments";
@@ -174,15 +191,77 @@ public class LZTrieCompression {
      */
     private boolean parallel;
 
+    /**
+     * Holds the maximum length of a replacement.
+     * <p>
+     * A replacement length have to be encoded on a limited number of bits, therefore the length of
+     * a replacement is limited (see {@link CompressionOptions#MAX_REPLACEMENT_LENGTH}).
+     * </p>
+     */
+    private final int maxReplacementLength;
+
+    /** Limits the algorithm complexity using partition size limit. */
+    private final int maxPartitionSize;
+
+    /** The minimum length of a replacement. */
+    private final int minReplacementLength;
+
+    /** The time budget of the compression in milliseconds or 0. */
+    private final long timeBudget;
+
+    /** Size of a synchronized fragment of a unit array. */
+    private final int synchronizationPageSize;
+
+    /** System time after which searching for duplicates stops. */
+    private long deadline;
+
+    /** Becomes {@code true} when the time budget is exceeded. */
+    private volatile boolean stopped;
+
     /**
      * Parallel compression splits a units array to sub arrays called pages. Each page may be
      * separately locked to protect concurrent modification by threads.
      */
     AtomicLong[] synchroniationPages;
 
-    private LZTrieCompression(LinkedListTree tree, boolean parallelMode) {
+    /** The file where the state of the compression is saved or {@code null}. */
+    private final File checkpointFile;
+
+    /** Time in milliseconds between checkpoints. */
+    private final long checkpointInterval;
+
+    /** Receives the compression progress or {@code null}. */
+    private final CompressionProgressListener progressListener;
+
+    /** Identifies the compressed units and options in a checkpoint. */
+    private long fingerprint;
+
+    /** System time after which the next checkpoint is saved. */
+    private long nextCheckpointTime;
+
+    /** The position in the suffix array from which searching for duplicates starts. */
+    private int startPosition = 1;
+
+    /** The end of the partition containing the start position or -1. */
+    private int startPartitionEnd = -1;
+
+    private LZTrieCompression(LinkedListTree tree, CompressionOptions options) {
         this.processedTree = tree;
-        this.parallel = parallelMode;
+        this.parallel = options.isParallelMode();
+        this.maxReplacementLength = options.getMaxReplacementLength();
+        this.maxPartitionSize = options.getMaxPartitionSize();
+        this.minReplacementLength = Math.max(2, options.getMinGain() + 1);
+        this.timeBudget = options.getTimeBudget();
+        this.synchronizationPageSize = maxReplacementLength * REPLACEMENTS_PER_PAGE;
+        this.checkpointFile = parallel ? null : options.getCheckpointFile();
+        this.checkpointInterval = options.getCheckpointInterval();
+        if (options.getProgressListener() != null) {
+            this.progressListener = options.getProgressListener();
+        } else if (LOGGER.isLoggable(Level.FINER)) {
+            this.progressListener = new LoggingProgressListener();
+        } else {
+            this.progressListener = null;
+        }
     }
 
     /**
@@ -202,7 +281,23 @@ public class LZTrieCompression {
      * @return The compressed tree.
      */
     public static LinkedListTree compress(final LinkedListTree tree, boolean parallelMode) {
-        LZTrieCompression compr = new LZTrieCompression(tree, parallelMode);
+        CompressionOptions options = new CompressionOptions();
+        options.setParallelMode(parallelMode);
+        return compress(tree, options);
+    }
+
+    /**
+     * Compresses the specified linked list tree using the LZ-based compression algorithm tuned by
+     * the specified options.
+     *
+     * @param tree    The tree to compress.
+     * @param options Options deciding about the trade-off between the compression ratio and time.
+     *
+     * @return The compressed tree.
+     */
+    public static LinkedListTree compress(final LinkedListTree tree,
+                                          final CompressionOptions options) {
+        LZTrieCompression compr = new LZTrieCompression(tree, options);
         compr.lztrieCompression();
         LinkedListTree result = compr.processedTree;
         compr.clear();
@@ -225,7 +320,7 @@ public class LZTrieCompression {
         int j = jPos;
         boolean matched;
         LinkedListTreeUnitArray localWork = work;
-        int maxRes = MAX_REPLACEMENT_LENGTH;
+        int maxRes = maxReplacementLength;
         boolean absolutePointerEnd = false;
         do {
 
@@ -315,23 +410,9 @@ public class LZTrieCompression {
     }
 
     private void createSortedSuffixArray() {
-        // create suffx array
+        // create and sort suffix array
         LOGGER.finer("    creating suffix array....");
-        Integer[] tmpArray = new Integer[unitsLength];
-        for (int i = tmpArray.length - 1; i >= 0; i--) {
-            tmpArray[i] = i;
-        }
-
-        // sort suffix array
-        LOGGER.finer("    sorting suffix array...");
-        comparator = new SuffixArrayComparator(units, true);
-        Arrays.sort(tmpArray, comparator);
-        suffixArray = new int[unitsLength];
-        for (int i = tmpArray.length - 1; i >= 0; i--) {
-            suffixArray[i] = tmpArray[i].intValue();
-        }
-
-        tmpArray = null;
+        suffixArray = SuffixArraySorter.createSuffixArray(units);
         maxSuffixArrayPos = suffixArray.length - 1;
     }
 
@@ -374,22 +455,27 @@ public class LZTrieCompression {
      */
     private double lztrieCompression() {
         LOGGER.fine("LZTrie compression started");
+        deadline = timeBudget > 0 ? System.currentTimeMillis() + timeBudget : Long.MAX_VALUE;
         sizeBefore = processedTree.getUnitArray().size();
 
         units = processedTree.getUnitArray();
         unitsLength = units.size();
 
-        createSortedSuffixArray();
-        createBackPointersArray();
-        createTemporaryResultArray();
+        if (!resumeFromCheckpoint()) {
+            createSortedSuffixArray();
+            createBackPointersArray();
+            createTemporaryResultArray();
 
-        prepareLoop();
+            prepareLoop();
+        }
 
         if (parallel) {
             mainLoopParallel();
         } else {
             mainLoopFirst();
         }
+        reportProgress(true);
+        deleteCheckpoint();
 
         eliminateEmptySpace();
         updateTwoWayPointers();
@@ -408,7 +494,8 @@ public class LZTrieCompression {
         processed = new boolean[maxSuffixArrayPos + 1];
         isWorkNull = new boolean[maxSuffixArrayPos + 1];
         nextNotNull = new int[maxSuffixArrayPos + 1];
-        synchroniationPages = new AtomicLong[2 + ((maxSuffixArrayPos + 1) / SYNCHRONIZATION_PAGE_SIZE)];
+        synchroniationPages
+                = new AtomicLong[2 + ((maxSuffixArrayPos + 1) / synchronizationPageSize)];
         for (int i = 0; i < synchroniationPages.length; i++) {
             synchroniationPages[i] = new AtomicLong(1L);
         }
@@ -452,7 +539,10 @@ public class LZTrieCompression {
 
     protected void processPartition(int partitionStart, int partitionEnd) {
         for (int i = partitionStart; i < partitionEnd; i++) {
-            logProgress();
+            if (isTimeBudgetExceeded(i)) {
+                return;
+            }
+            reportProgress(false);
             final int iPos = suffixArray[i];
             processed[iPos] = true;
             if (!isWorkNull[iPos]) {
@@ -470,7 +560,7 @@ public class LZTrieCompression {
             partitionEnd = i + 1;
             int posB = suffixArray[partitionEnd];
             while ((partitionEnd < maxSuffixArrayPos)
-                    && ((partitionEnd - i) < MAX_PARTITION_SIZE)
+                    && ((partitionEnd - i) < maxPartitionSize)
                     && units.equalsUnits(iPos, posB)
                     && units.equalsUnits(iPos + 1, posB + 1)) {
                 ++partitionEnd;
@@ -483,9 +573,15 @@ public class LZTrieCompression {
 
     protected void mainLoopFirst() {
         LOGGER.finer("   searching for duplicated tree fragments...");
-        int partitionEnd = -1;
-        for (int i = 1; i < maxSuffixArrayPos; i++) {
-            logProgress();
+        int partitionEnd = startPartitionEnd;
+        for (int i = startPosition; i < maxSuffixArrayPos; i++) {
+            if (isTimeBudgetExceeded(i)) {
+                break;
+            }
+            if (isCheckpointDue(i)) {
+                saveCheckpoint(i, partitionEnd);
+            }
+            reportProgress(false);
             final int iPos = suffixArray[i];
             processed[iPos] = true;
             if (!isWorkNull[iPos]) {
@@ -504,7 +600,7 @@ public class LZTrieCompression {
         int partitionEnd = i + 1;
         int posB = suffixArray[partitionEnd];
         while ((partitionEnd < maxSuffixArrayPos)
-                && ((partitionEnd - i) < MAX_PARTITION_SIZE)
+                && ((partitionEnd - i) < maxPartitionSize)
                 && units.equalsUnits(iPos, posB)
                 && units.equalsUnits(iPos + 1, posB + 1)) {
             ++partitionEnd;
@@ -515,20 +611,23 @@ public class LZTrieCompression {
 
     protected void findDuplicates(final int i, final int iPos, final int partitionEnd) {
         for (int j = i + 1; j < partitionEnd; j++) {
+            if (isTimeBudgetExceeded(j)) {
+                return;
+            }
             final int jPos = suffixArray[j];
             if (!isWorkNull[jPos]) {
                 int replacementLength = getReplacementLength(iPos, jPos);
-                if (replacementLength > 1) {
-                    int page = jPos / SYNCHRONIZATION_PAGE_SIZE;
+                if (replacementLength >= minReplacementLength) {
+                    int page = jPos / synchronizationPageSize;
                     AtomicLong syncObj1 = synchroniationPages[page];
                     AtomicLong syncObj2 = synchroniationPages[page + 1];
-                    if (((jPos + replacementLength) / SYNCHRONIZATION_PAGE_SIZE) > page + 1) {
+                    if (((jPos + replacementLength) / synchronizationPageSize) > page + 1) {
                         throw new IllegalStateException("Unsycnhronized page hit");
                     }
                     synchronized (syncObj1) {
                         synchronized (syncObj2) {
                             int replacementLength2 = getReplacementLength(iPos, jPos);
-                            if (replacementLength2 > 1) {
+                            if (replacementLength2 >= minReplacementLength) {
                                 replaceDuplicate(iPos, jPos, replacementLength2);
                             }
                         }
@@ -567,19 +666,36 @@ public class LZTrieCompression {
         }
     }
 
-    protected synchronized void logProgress() {
-        if (LOGGER.isLoggable(Level.FINER)) {
-            long duration = System.currentTimeMillis() - lastTime;
-            if (duration > 1_000) {
-                float percent = 100.0f * progress / maxProgress;
-                float speed = progress / (System.currentTimeMillis() - startTime);
-                long toTheEnd = (long) ((maxProgress - progress) / speed);
+    /**
+     * Checks from time to time if the compression should stop because the time budget has been
+     * exceeded.
+     *
+     * @param i The position in the suffix array processed by the caller.
+     *
+     * @return {@code true} if searching for duplicates should stop.
+     */
+    private boolean isTimeBudgetExceeded(int i) {
+        if (timeBudget > 0 && !stopped && i % TIME_CHECK_INTERVAL == 0
+                && System.currentTimeMillis() > deadline) {
+            stopped = true;
+            LOGGER.log(Level.INFO, "LZTrie compression time budget ({0} ms) exceeded at {1}% of "
+                       + "the search", new Object[]{timeBudget, 100L * progress / maxProgress});
+        }
+        return stopped;
+    }
 
-                LOGGER.finer(String.format("    searching for duplicated tree fragments : %7.4f %%",
-                                           percent));
-                lastTime = System.currentTimeMillis();
-                LOGGER.finer(String.format("Estimated finish in %d s. (about %tT)", toTheEnd / 1000,
-                                           new Date(lastTime + toTheEnd)));
+    /**
+     * Notifies the progress listener about the compression progress.
+     *
+     * @param force if {@code false} the listener is notified only if the progress has not been
+     *              reported for a second.
+     */
+    protected synchronized void reportProgress(boolean force) {
+        if (progressListener != null) {
+            long now = System.currentTimeMillis();
+            if (force || now - lastTime > PROGRESS_INTERVAL) {
+                lastTime = now;
+                progressListener.progressChanged(progress, maxProgress, now - startTime);
             }
         }
     }
@@ -587,10 +703,230 @@ public class LZTrieCompression {
     protected void initializeProgressMonitoring() {
         startTime = System.currentTimeMillis();
         lastTime = startTime;
+        nextCheckpointTime = startTime + checkpointInterval;
         progress = 1;
         maxProgress = maxSuffixArrayPos;
     }
 
+    /**
+     * Checks from time to time if the state of the compression should be saved.
+     *
+     * @param i The position in the suffix array processed by the caller.
+     *
+     * @return {@code true} if a checkpoint should be saved.
+     */
+    private boolean isCheckpointDue(int i) {
+        return checkpointFile != null && i % TIME_CHECK_INTERVAL == 0
+                && System.currentTimeMillis() >= nextCheckpointTime;
+    }
+
+    /**
+     * Saves the state of the compression in the checkpoint file.
+     * <p>
+     * The state is written to a temporary file which then replaces the checkpoint file, so a crash
+     * during writing leaves the previous checkpoint intact. A write error is only logged because
+     * the compression can continue without checkpoints.
+     * </p>
+     *
+     * @param position     The position in the suffix array which has not been processed yet.
+     * @param partitionEnd The end of the partition containing the position or -1.
+     */
+    private void saveCheckpoint(int position, int partitionEnd) {
+        File tmpFile = new File(checkpointFile.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                writeCheckpoint(out, position, partitionEnd);
+            }
+            try {
+                Files.move(tmpFile.toPath(), checkpointFile.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmpFile.toPath(), checkpointFile.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Cannot save LZTrie compression checkpoint " + checkpointFile,
+                       ex);
+            return;
+        } finally {
+            nextCheckpointTime = System.currentTimeMillis() + checkpointInterval;
+        }
+        LOGGER.log(Level.FINE, "   LZTrie compression checkpoint saved at position {0}", position);
+        if (progressListener != null) {
+            progressListener.checkpointSaved(checkpointFile, position);
+        }
+    }
+
+    private void writeCheckpoint(DataOutputStream out, int position, int partitionEnd)
+            throws IOException {
+        out.writeByte(CHECKPOINT_FORMAT_VERSION);
+        out.writeLong(fingerprint);
+        out.writeInt(position);
+        out.writeInt(partitionEnd);
+        out.writeInt(progress);
+        toCompactArray(suffixArray, maxSuffixArrayPos).write(out);
+        if (work instanceof FastLinkedListTreeUnitArray) {
+            work.write(out);
+        } else {
+            new FastLinkedListTreeUnitArray(work).write(out);
+        }
+        toBitsArray(isWorkNull).write(out);
+        toBitsArray(processed).write(out);
+        toCompactArray(nextNotNull, unitsLength).write(out);
+        toBitsArray(absolutePointers).write(out);
+        toBitsArray(absolutePointersEnds).write(out);
+    }
+
+    /**
+     * Restores the state of the compression from the checkpoint file if the file exists and has
+     * been saved for the same units and options.
+     *
+     * @return {@code true} if the compression has been resumed.
+     */
+    private boolean resumeFromCheckpoint() {
+        if (checkpointFile == null) {
+            return false;
+        }
+        fingerprint = computeFingerprint();
+        if (!checkpointFile.isFile()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+            return readCheckpoint(in);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Cannot read LZTrie compression checkpoint " + checkpointFile
+                       + " - the compression starts from the beginning", ex);
+            return false;
+        }
+    }
+
+    private boolean readCheckpoint(DataInputStream in) throws IOException {
+        if (CHECKPOINT_FORMAT_VERSION != in.readByte()) {
+            throw new IOException("Invalid file format");
+        }
+        if (fingerprint != in.readLong()) {
+            LOGGER.log(Level.WARNING, "LZTrie compression checkpoint {0} has been saved for "
+                       + "a different tree or options - the compression starts from the beginning",
+                       checkpointFile);
+            return false;
+        }
+        final int position = in.readInt();
+        final int partitionEnd = in.readInt();
+        final int savedProgress = in.readInt();
+        final int[] savedSuffixArray = toIntArray(CompactArray.readInstance(in));
+        final FastLinkedListTreeUnitArray savedWork = new FastLinkedListTreeUnitArray();
+        savedWork.read(in);
+        final boolean[] savedIsWorkNull = toBooleanArray(BitsArray.readInstance(in));
+        final boolean[] savedProcessed = toBooleanArray(BitsArray.readInstance(in));
+        final int[] savedNextNotNull = toIntArray(CompactArray.readInstance(in));
+        final BitSet savedAbsolutePointers = toBitSet(BitsArray.readInstance(in));
+        final BitSet savedAbsolutePointersEnds = toBitSet(BitsArray.readInstance(in));
+
+        suffixArray = savedSuffixArray;
+        maxSuffixArrayPos = suffixArray.length - 1;
+        createBackPointersArray();
+        if (!(units instanceof CompactLinkedListTreeUnitArray)) {
+            units = new CompactLinkedListTreeUnitArray(units);
+        }
+        processedTree.setUnitArray(units);
+        prepareLoop();
+
+        work = savedWork;
+        isWorkNull = savedIsWorkNull;
+        processed = savedProcessed;
+        nextNotNull = savedNextNotNull;
+        absolutePointers = savedAbsolutePointers;
+        absolutePointersEnds = savedAbsolutePointersEnds;
+        progress = savedProgress;
+        startPosition = position;
+        startPartitionEnd = partitionEnd;
+
+        LOGGER.log(Level.INFO, "LZTrie compression resumed from checkpoint {0} at {1}%",
+                   new Object[]{checkpointFile, 100L * progress / maxProgress});
+        if (progressListener != null) {
+            progressListener.checkpointRestored(checkpointFile, position);
+        }
+        return true;
+    }
+
+    private void deleteCheckpoint() {
+        if (checkpointFile != null && checkpointFile.exists() && !checkpointFile.delete()) {
+            LOGGER.log(Level.WARNING, "Cannot delete LZTrie compression checkpoint {0}",
+                       checkpointFile);
+        }
+    }
+
+    /**
+     * Computes a hash of the compressed units and options, so a checkpoint saved for a different
+     * tree is not restored.
+     *
+     * @return The fingerprint of the compression.
+     */
+    private long computeFingerprint() {
+        long result = unitsLength;
+        result = 31 * result + maxReplacementLength;
+        result = 31 * result + maxPartitionSize;
+        result = 31 * result + minReplacementLength;
+        for (int i = 0; i < unitsLength; i++) {
+            result = 31 * result + units.getValueCode(i);
+            result = 31 * result + units.getDistance(i);
+            result = 31 * result + units.getDataCode(i);
+            result = 31 * result + (units.isWordEnd(i) ? 1 : 0) + (units.isWordContinued(i) ? 2 : 0)
+                    + (units.isAbsolutePointer(i) ? 4 : 0);
+        }
+        return result;
+    }
+
+    private static CompactArray toCompactArray(int[] values, int maxValue) {
+        CompactArray result = new CompactArray(values.length, maxValue);
+        for (int i = 0; i < values.length; i++) {
+            result.setIntValue(i, values[i]);
+        }
+        return result;
+    }
+
+    private static int[] toIntArray(CompactArray values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.getIntValue(i);
+        }
+        return result;
+    }
+
+    private static BitsArray toBitsArray(boolean[] values) {
+        BitsArray result = new BitsArray(Math.max(1, values.length));
+        for (int i = values.length - 1; i >= 0; i--) {
+            result.set(i, values[i]);
+        }
+        return result;
+    }
+
+    private static BitsArray toBitsArray(BitSet values) {
+        BitsArray result = new BitsArray(Math.max(1, values.length()));
+        for (int i = values.nextSetBit(0); i >= 0; i = values.nextSetBit(i + 1)) {
+            result.set(i, true);
+        }
+        return result;
+    }
+
+    private static boolean[] toBooleanArray(BitsArray values) {
+        boolean[] result = new boolean[values.size()];
+        for (int i = values.nextSetBit(0); i >= 0; i = values.nextSetBit(i + 1)) {
+            result[i] = true;
+        }
+        return result;
+    }
+
+    private static BitSet toBitSet(BitsArray values) {
+        BitSet result = new BitSet(values.size());
+        for (int i = values.nextSetBit(0); i >= 0; i = values.nextSetBit(i + 1)) {
+            result.set(i);
+        }
+        return result;
+    }
+
     protected void eliminateEmptySpace() {
         // removes empty elements and upgrades pointers
         LOGGER.fine("   removing empty elements and update pointers....");
@@ -688,4 +1024,32 @@ public class LZTrieCompression {
         synchroniationPages = null;
     }
 
+    /**
+     * Logs the compression progress with the estimated finish time on the {@code FINER} level.
+     */
+    private static class LoggingProgressListener implements CompressionProgressListener {
+
+        @Override
+        public void progressChanged(long progress, long maxProgress, long elapsedTime) {
+            float percent = 100.0f * progress / maxProgress;
+            float speed = (float) progress / Math.max(1L, elapsedTime);
+            long toTheEnd = (long) ((maxProgress - progress) / speed);
+            LOGGER.finer(String.format("    searching for duplicated tree fragments : %7.4f %%",
+                                       percent));
+            LOGGER.finer(String.format("Estimated finish in %d s. (about %tT)", toTheEnd / 1000,
+                                       new Date(System.currentTimeMillis() + toTheEnd)));
+        }
+
+        @Override
+        public void checkpointSaved(File file, int position) {
+            // checkpoints are logged by the compression
+        }
+
+        @Override
+        public void checkpointRestored(File file, int position) {
+            // checkpoints are logged by the compression
+        }
+
+    }
+
 }
@@ -133,9 +133,68 @@ public class LinkedListTree implements Tree<Integer, Integer>, Serializable {
      * @param unitArray An array of units representing nodes and edges.
      */
     public void setUnitArray(LinkedListTreeUnitArray unitArray) {
+        if (this.unitArray != null && unitArray.getTraversalMetrics() == null) {
+            unitArray.setTraversalMetrics(this.unitArray.getTraversalMetrics());
+        }
         this.unitArray = unitArray;
     }
 
+    /**
+     * Returns metrics collecting statistics about lookups in this tree.
+     *
+     * @return The traversal metrics or null if lookups are not measured.
+     */
+    public TraversalMetrics getTraversalMetrics() {
+        return unitArray.getTraversalMetrics();
+    }
+
+    /**
+     * Attaches metrics collecting statistics about lookups in this tree.
+     * <p>
+     * Metrics can be shared by many trees to aggregate their statistics.
+     * </p>
+     *
+     * @param metrics The traversal metrics or null if lookups should not be measured.
+     */
+    public void setTraversalMetrics(TraversalMetrics metrics) {
+        unitArray.setTraversalMetrics(metrics);
+    }
+
+    /**
+     * Creates an index of children of nodes having at least the specified number of children.
+     * <p>
+     * Lookups jump straight to the searched child of an indexed node instead of comparing the
+     * searched value with all its siblings. The index is not written by the
+     * {@link #write(DataOutputStream)} method, so it has to be created again after the tree is
+     * read or its unit array is replaced.
+     * </p>
+     *
+     * @param minNumberOfChildren Nodes having fewer children are not indexed.
+     *
+     * @return The created index.
+     */
+    public SiblingIndex createSiblingIndex(int minNumberOfChildren) {
+        SiblingIndex index = SiblingIndex.create(unitArray, minNumberOfChildren);
+        unitArray.setSiblingIndex(index);
+        return index;
+    }
+
+    /**
+     * Returns an index of children of high fan-out nodes used by lookups in this tree.
+     *
+     * @return The sibling index or null if children are always scanned linearly.
+     */
+    public SiblingIndex getSiblingIndex() {
+        return unitArray.getSiblingIndex();
+    }
+
+    /**
+     * Removes an index of children of high fan-out nodes from this tree.
+     */
+    public void removeSiblingIndex() {
+        unitArray.setSiblingIndex(null);
+    }
+
     /**
      * Writes this tree and all its elements to the specified data stream.
      *
@@ -150,10 +209,11 @@ public class LinkedListTree implements Tree<Integer, Integer>, Serializable {
             units =  (CompactLinkedListTreeUnitArray) unitArray;
         } else {
             units = new CompactLinkedListTreeUnitArray(unitArray);
+            units.setSiblingIndex(unitArray.getSiblingIndex());
         }
         units.compact();
         units.write(out);
-        unitArray = units;
+        setUnitArray(units);
     }
 
     /**
@@ -167,8 +227,9 @@ public class LinkedListTree implements Tree<Integer, Integer>, Serializable {
         if (FORMAT_VERSION != in.readByte()) {
             throw new IOException("Invalid file format");
         }
-        unitArray = new CompactLinkedListTreeUnitArray();
-        unitArray.read(in);
+        LinkedListTreeUnitArray units = new CompactLinkedListTreeUnitArray();
+        units.read(in);
+        setUnitArray(units);
     }
 
     /**
@@ -223,8 +284,15 @@ public class LinkedListTree implements Tree<Integer, Integer>, Serializable {
             }
             lastChildPos = units.size();
             LinkedListTreeUnitArray subArray = subTree.getUnitArray();
-            subArray.moveAbsolutePointers(lastChildPos);
             units.addAll(subArray);
+            // Pointers are moved in the target array. A pointer moved in the source array could
+            // point to its own position there and would be read as an empty unit.
+            for (int i = lastChildPos; i < units.size(); i++) {
+                if (units.isAbsolutePointer(i)) {
+                    units.set(i, units.getDistance(i) + lastChildPos, false, false,
+                              units.getValueCode(i), units.getDataCode(i));
+                }
+            }
             LinkedListTreeUnit unit = units.get(lastChildPos);
             unit.setDistance(subArray.size());
             units.set(lastChildPos, unit);
@@ -0,0 +1,421 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.logging.LoggerService;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates a minimized linked list tree directly from a sorted sequence of words.
+ * <p>
+ * {@link LinkedListTreeFactory} creates linked list trees from base trees which have to be
+ * entirely stored in memory. This builder consumes words (with optional data codes) in the
+ * lexicographic order and writes units directly into a {@link CompactLinkedListTreeUnitArray}.
+ * Because words are sorted, successive nodes appear in the same order as units in the linked list
+ * tree, and only nodes on the path of the last added word can be modified.
+ * </p>
+ * <p>
+ * The tree is minimized on the fly using the incremental construction algorithm described by Jan
+ * Daciuk et al. When a node leaves the path of the last word, its list of children cannot change
+ * any more. If the same list of children (with the same subtrees) has already been written to the
+ * array, units of the node's children are removed and replaced with a single absolute pointer to
+ * the previous occurrence. Therefore the peak memory is proportional to the size of the minimized
+ * tree instead of the size of the base tree.
+ * </p>
+ * <p>
+ * <b>Usage:</b>
+ * <br>
+ * <code><pre>
+ * LinkedListTreeBuilder builder = new LinkedListTreeBuilder();
+ * builder.add("car", 0);
+ * builder.add("cat", 1);
+ * LinkedListTree tree = builder.build();
+ * </pre></code>
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class LinkedListTreeBuilder {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerService.getLogger(LinkedListTreeBuilder.class);
+
+    /** Number of integers describing a single child in a signature of a list of children. */
+    private static final int CHILD_SIGNATURE_LENGTH = 4;
+
+    /** Marks a child without children in a signature. */
+    private static final int NO_CHILDREN = -1;
+
+    /** Initial depth of the path of the last word. */
+    private static final int INITIAL_DEPTH = 64;
+
+    /** Units of the created tree. */
+    private CompactLinkedListTreeUnitArray units;
+
+    /** Maps signatures of written lists of children to their identifiers and positions. */
+    private Map<Signature, int[]> registry;
+
+    /** Positions of units describing nodes on the path of the last word. */
+    private int[] pathPos;
+
+    /** Values of nodes on the path of the last word. */
+    private int[] pathValue;
+
+    /** Word end flags of nodes on the path of the last word. */
+    private boolean[] pathWordEnd;
+
+    /** Data codes of nodes on the path of the last word. */
+    private int[] pathData;
+
+    /** Positions of the last children of nodes on the path or -1 if a node has no children. */
+    private int[] pathLastChild;
+
+    /** Signatures of children lists of nodes on the path of the last word. */
+    private int[][] pathSignature;
+
+    /** Lengths of signatures of children lists of nodes on the path of the last word. */
+    private int[] pathSignatureLength;
+
+    /** Number of nodes on the path of the last word (without the root). */
+    private int depth;
+
+    /** The last added word. */
+    private CharSequence lastWord;
+
+    /** Number of added words. */
+    private int numberOfWords;
+
+    /** Number of lists of children replaced by absolute pointers. */
+    private int numberOfReplacements;
+
+    /**
+     * Creates a new builder of a linked list tree.
+     */
+    public LinkedListTreeBuilder() {
+        units = new CompactLinkedListTreeUnitArray();
+        registry = new HashMap<>();
+        pathPos = new int[INITIAL_DEPTH + 1];
+        pathValue = new int[INITIAL_DEPTH + 1];
+        pathWordEnd = new boolean[INITIAL_DEPTH + 1];
+        pathData = new int[INITIAL_DEPTH + 1];
+        pathLastChild = new int[INITIAL_DEPTH + 1];
+        pathSignature = new int[INITIAL_DEPTH + 1][];
+        pathSignatureLength = new int[INITIAL_DEPTH + 1];
+        pathPos[0] = 0;
+        pathLastChild[0] = -1;
+        pathSignature[0] = new int[CHILD_SIGNATURE_LENGTH * 8];
+        units.add(new LinkedListTreeUnit(0, 0, false, true, 0));
+        lastWord = "";
+    }
+
+    /**
+     * Adds the specified word to the tree without any data.
+     *
+     * @param word The word to add.
+     *
+     * @see #add(CharSequence, int)
+     */
+    public void add(final CharSequence word) {
+        add(word, 0);
+    }
+
+    /**
+     * Adds the specified word to the tree.
+     * <p>
+     * Words have to be added in the lexicographic order of their characters (the order defined by
+     * the {@link String#compareTo(String)} method). Empty words and repeated words are ignored -
+     * the data code of the first occurrence of a word is stored in the tree.
+     * </p>
+     *
+     * @param word     The word to add.
+     * @param dataCode The data code assigned to the last node of the word's path.
+     *
+     * @exception IllegalArgumentException if the word is smaller than the previously added word.
+     * @exception IllegalStateException    if the tree has already been built.
+     */
+    public void add(final CharSequence word, final int dataCode) {
+        if (units == null) {
+            throw new IllegalStateException("The tree has already been built");
+        }
+        int length = word.length();
+        if (length == 0) {
+            return;
+        }
+        int prefix = 0;
+        int lastLength = lastWord.length();
+        int maxPrefix = Math.min(length, lastLength);
+        while (prefix < maxPrefix && word.charAt(prefix) == lastWord.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == length) {
+            if (prefix == lastLength) {
+                // repeated word
+                return;
+            }
+            throw new IllegalArgumentException(
+                    String.format("Words are not sorted: '%s' after '%s'", word, lastWord));
+        }
+        if (prefix < lastLength && word.charAt(prefix) < lastWord.charAt(prefix)) {
+            throw new IllegalArgumentException(
+                    String.format("Words are not sorted: '%s' after '%s'", word, lastWord));
+        }
+        freezePath(prefix);
+        ensureDepth(length);
+        for (int i = prefix; i < length; i++) {
+            appendChild(word.charAt(i));
+        }
+        pathWordEnd[depth] = true;
+        pathData[depth] = dataCode;
+        writePathUnit(depth);
+        lastWord = word.toString();
+        numberOfWords++;
+    }
+
+    /**
+     * Returns the number of words added to the tree.
+     *
+     * @return Number of unique words.
+     */
+    public int getNumberOfWords() {
+        return numberOfWords;
+    }
+
+    /**
+     * Completes the tree and returns it.
+     * <p>
+     * The builder cannot be used after this call.
+     * </p>
+     *
+     * @return The minimized linked list tree holding all added words.
+     */
+    public LinkedListTree build() {
+        if (units == null) {
+            throw new IllegalStateException("The tree has already been built");
+        }
+        freezePath(0);
+        remapValues();
+        units.compact();
+        LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree();
+        tree.setUnitArray(units);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format(
+                    "Linked list tree built from %d words: %d units, %d replaced lists of children",
+                    numberOfWords, units.size(), numberOfReplacements));
+            units.logStatistics("built");
+        }
+        units = null;
+        registry = null;
+        pathSignature = null;
+        return tree;
+    }
+
+    /**
+     * Adds a new node at the end of the path of the last word.
+     *
+     * @param value The value describing the node.
+     */
+    private void appendChild(final int value) {
+        final int parent = depth;
+        final int child = depth + 1;
+        final int newPos = units.size();
+        if (pathLastChild[parent] < 0) {
+            units.set(pathPos[parent], 0, pathWordEnd[parent], true,
+                      pathValue[parent], pathData[parent]);
+        } else {
+            // the previous sibling is frozen now, so its distance is known
+            final int siblingPos = pathLastChild[parent];
+            units.set(siblingPos, newPos - siblingPos, pathWordEnd[child],
+                      pathLastChild[child] >= 0, pathValue[child], pathData[child]);
+        }
+        pathLastChild[parent] = newPos;
+        pathPos[child] = newPos;
+        pathValue[child] = value;
+        pathWordEnd[child] = false;
+        pathData[child] = 0;
+        pathLastChild[child] = -1;
+        pathSignatureLength[child] = 0;
+        if (pathSignature[child] == null) {
+            pathSignature[child] = new int[CHILD_SIGNATURE_LENGTH * 8];
+        }
+        units.add(null);
+        depth = child;
+        writePathUnit(child);
+    }
+
+    /**
+     * Writes properties of a node from the path of the last word into the unit array.
+     * <p>
+     * A node on the path is always the last child of its parent, so its distance is 0.
+     * </p>
+     *
+     * @param level The level of the node on the path.
+     */
+    private void writePathUnit(final int level) {
+        units.set(pathPos[level], 0, pathWordEnd[level], pathLastChild[level] >= 0,
+                  pathValue[level], pathData[level]);
+    }
+
+    /**
+     * Removes nodes from the path of the last word, minimizing their lists of children.
+     *
+     * @param newDepth The number of nodes which should remain on the path.
+     */
+    private void freezePath(final int newDepth) {
+        while (depth > newDepth) {
+            final int level = depth;
+            final int childrenSequence = pathLastChild[level] < 0
+                    ? NO_CHILDREN
+                    : registerChildren(level);
+            int[] parentSignature = pathSignature[level - 1];
+            int len = pathSignatureLength[level - 1];
+            if (len + CHILD_SIGNATURE_LENGTH > parentSignature.length) {
+                parentSignature = Arrays.copyOf(parentSignature, parentSignature.length * 2);
+                pathSignature[level - 1] = parentSignature;
+            }
+            parentSignature[len++] = pathValue[level];
+            parentSignature[len++] = pathWordEnd[level] ? 1 : 0;
+            parentSignature[len++] = pathData[level];
+            parentSignature[len++] = childrenSequence;
+            pathSignatureLength[level - 1] = len;
+            depth--;
+        }
+    }
+
+    /**
+     * Registers a list of children of a node or replaces it by a pointer to an equal list.
+     *
+     * @param level The level of the node on the path of the last word.
+     *
+     * @return An identifier of the list of children.
+     */
+    private int registerChildren(final int level) {
+        Signature signature = new Signature(
+                Arrays.copyOf(pathSignature[level], pathSignatureLength[level]));
+        final int childrenPos = pathPos[level] + 1;
+        int[] registered = registry.get(signature);
+        if (registered == null) {
+            registered = new int[]{registry.size(), childrenPos};
+            registry.put(signature, registered);
+        } else if (units.size() - childrenPos > 1) {
+            // a pointer to a single unit would not save any memory
+            units.truncate(childrenPos);
+            units.add(null);
+            units.set(childrenPos, registered[1], false, false, 0, 0);
+            numberOfReplacements++;
+        }
+        return registered[0];
+    }
+
+    /**
+     * Ensures that the path can hold nodes of a word of the specified length.
+     *
+     * @param length The length of the word.
+     */
+    private void ensureDepth(final int length) {
+        if (length >= pathPos.length) {
+            int newLength = Math.max(length + 1, pathPos.length * 2);
+            pathPos = Arrays.copyOf(pathPos, newLength);
+            pathValue = Arrays.copyOf(pathValue, newLength);
+            pathWordEnd = Arrays.copyOf(pathWordEnd, newLength);
+            pathData = Arrays.copyOf(pathData, newLength);
+            pathLastChild = Arrays.copyOf(pathLastChild, newLength);
+            pathSignature = Arrays.copyOf(pathSignature, newLength);
+            pathSignatureLength = Arrays.copyOf(pathSignatureLength, newLength);
+        }
+    }
+
+    /**
+     * Replaces values stored in units by their codes.
+     * <p>
+     * Codes are assigned in the order of values, so the order of children is preserved.
+     * </p>
+     */
+    private void remapValues() {
+        final int size = units.size();
+        int maxValue = 0;
+        for (int i = 0; i < size; i++) {
+            if (!units.isAbsolutePointer(i)) {
+                maxValue = Math.max(maxValue, units.getValueCode(i));
+            }
+        }
+        boolean[] used = new boolean[maxValue + 1];
+        used[0] = true;
+        for (int i = 0; i < size; i++) {
+            if (!units.isAbsolutePointer(i)) {
+                used[units.getValueCode(i)] = true;
+            }
+        }
+        int[] codes = new int[maxValue + 1];
+        int numberOfValues = 0;
+        for (int v = 0; v <= maxValue; v++) {
+            if (used[v]) {
+                codes[v] = numberOfValues++;
+            }
+        }
+        int[] mapping = new int[numberOfValues];
+        for (int v = 0; v <= maxValue; v++) {
+            if (used[v]) {
+                mapping[codes[v]] = v;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (!units.isAbsolutePointer(i)) {
+                units.set(i, units.getDistance(i), units.isWordEnd(i), units.isWordContinued(i),
+                          codes[units.getValueCode(i)], units.getDataCode(i));
+            }
+        }
+        units.setValueMapping(mapping);
+    }
+
+    /**
+     * Describes a list of children: values, data and identifiers of lists of grandchildren.
+     */
+    private static final class Signature {
+
+        /** Successive properties of children. */
+        private final int[] data;
+
+        /** Cached hash code. */
+        private final int hash;
+
+        /**
+         * Creates a new signature.
+         *
+         * @param data Successive properties of children.
+         */
+        Signature(final int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Signature && Arrays.equals(data, ((Signature) obj).data);
+        }
+    }
+
+}
@@ -16,19 +16,17 @@
 
 package org.neurpheus.collections.tree.linkedlist;
 
+import org.neurpheus.collections.array.BitsArray;
 import org.neurpheus.collections.tree.Tree;
 import org.neurpheus.collections.tree.TreeFactory;
 import org.neurpheus.collections.tree.TreeNode;
 import org.neurpheus.collections.tree.TreeNodeWithData;
 import org.neurpheus.logging.LoggerService;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -96,6 +94,31 @@ public class LinkedListTreeFactory implements TreeFactory {
      */
     public LinkedListTree createTree(Tree baseTree, boolean clearBaseTree, boolean compress,
                                      boolean parallelMode) {
+        CompressionOptions options = null;
+        if (compress) {
+            options = new CompressionOptions();
+            options.setParallelMode(parallelMode);
+        }
+        return createTree(baseTree, clearBaseTree, options);
+    }
+
+    /**
+     * Creates a linked list tree from the specified base tree compressing it with the specified
+     * options of the LZTrie compression algorithm.
+     * <p>
+     * Options allow choosing between the best compression ratio and a short compression time, see
+     * {@link CompressionOptions.Profile}.
+     * </p>
+     *
+     * @param baseTree      The base tree which will be represented as a linked list tree.
+     * @param clearBaseTree Dispose all objects from the base tree while creating copy.
+     * @param options       Options of the LZTrie compression or {@code null} if the tree should
+     *                      not be compressed.
+     *
+     * @return The created linked list tree.
+     */
+    public LinkedListTree createTree(Tree baseTree, boolean clearBaseTree,
+                                     CompressionOptions options) {
         long startTime = System.currentTimeMillis();
         LinkedListTree llt = createLinkedListTree(baseTree, clearBaseTree);
 
@@ -105,15 +128,54 @@ public class LinkedListTreeFactory implements TreeFactory {
 
         long memoryBefore = llt.getUnitArray().getAllocationSize();
 
-        if (compress) {
-            llt = LZTrieCompression.compress(llt, parallelMode);
+        if (options != null) {
+            llt = LZTrieCompression.compress(llt, options);
+        }
+
+        compact(llt);
+        logMemoryUsage(llt, memoryBefore, startTime);
+
+        return llt;
+    }
+
+    /**
+     * Creates a linked list tree from the specified base tree using the forest compression.
+     * <p>
+     * The tree is split by children of its root and sub trees are compressed in parallel by the
+     * specified number of threads (see {@link ForestCompression}). Contrary to the parallel mode
+     * of the {@link #createTree(Tree, boolean, boolean, boolean)} method, the result is always
+     * coherent, but the compression ratio is a little bit worse than the compression ratio of the
+     * sequential compression.
+     * </p>
+     *
+     * @param baseTree        The base tree which will be represented as a linked list tree.
+     * @param clearBaseTree   Dispose all objects from the base tree while creating copy.
+     * @param numberOfThreads The maximum number of threads compressing sub trees.
+     * @param deduplicate     if {@code true} children of repeated sub trees are stored only once.
+     *
+     * @return The created linked list tree.
+     */
+    public LinkedListTree createTreeUsingForestCompression(Tree baseTree, boolean clearBaseTree,
+                                                           int numberOfThreads,
+                                                           boolean deduplicate) {
+        long startTime = System.currentTimeMillis();
+        LinkedListTree llt = createLinkedListTree(baseTree, clearBaseTree);
+
+        if (clearBaseTree) {
+            baseTree.clear();
         }
 
+        long memoryBefore = llt.getUnitArray().getAllocationSize();
+        llt = ForestCompression.compress(llt, numberOfThreads, deduplicate);
         compact(llt);
+        logMemoryUsage(llt, memoryBefore, startTime);
 
-        long memoryAfter = llt.getUnitArray().getAllocationSize();
+        return llt;
+    }
 
+    private void logMemoryUsage(LinkedListTree llt, long memoryBefore, long startTime) {
         if (LOGGER.isLoggable(Level.FINE)) {
+            long memoryAfter = llt.getUnitArray().getAllocationSize();
             long treeCreationTime = System.currentTimeMillis() - startTime;
             LOGGER.fine(String.format("Memory usage: %d kB (%5.2f%% of uncompressed size = %d kB)",
                                       memoryAfter / 1024,
@@ -121,8 +183,6 @@ public class LinkedListTreeFactory implements TreeFactory {
                                       memoryBefore / 1024));
             LOGGER.log(Level.FINE, "Total time: {0} ms.", treeCreationTime);
         }
-
-        return llt;
     }
 
     private void compact(LinkedListTree llt) {
@@ -136,6 +196,11 @@ public class LinkedListTreeFactory implements TreeFactory {
 
     /**
      * Creates uncompressed linked list from the specified base tree.
+     * <p>
+     * The base tree is traversed twice without recursion. The first pass counts nodes and collects
+     * values, so the unit array can be allocated at once. The second pass writes units of nodes
+     * in the depth-first order directly to the unit array.
+     * </p>
      *
      * @param baseTree      The base tree which will be represented as a linked list tree.
      * @param clearBaseTree Dispose all objects from the base tree while creating copy.
@@ -147,24 +212,18 @@ public class LinkedListTreeFactory implements TreeFactory {
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.fine("Creating linked list tree.");
         }
-        LinkedListTreeUnitArray unitArray = new FastLinkedListTreeUnitArray(1);
-        LinkedListTreeUnit unit = new LinkedListTreeUnit();
-        unit.setDistance(0);
-        unit.setWordContinued(true);
-        unitArray.add(unit);
         TreeNode rootNode = baseTree.getRoot();
-        Set<Integer> allValues = new HashSet<>();
-        allValues.add(0);
-        convertCharToInteger(rootNode, allValues);
-        Map<Integer, Integer> valueMapping = createMapping(allValues);
+        ValueMapping valueMapping = new ValueMapping();
+        valueMapping.add(0);
+        int numberOfNodes = convertCharToInteger(rootNode, valueMapping);
+        valueMapping.build();
+
+        FastLinkedListTreeUnitArray unitArray = new FastLinkedListTreeUnitArray(numberOfNodes);
+        unitArray.set(0, 0, false, true, 0, 0);
         createTreeFromNode(rootNode, unitArray, clearBaseTree, valueMapping);
         LinkedListTree llt = new LinkedListTree();
         llt.setUnitArray(unitArray);
-        int[] values = new int[valueMapping.size()];
-        for (Map.Entry<Integer, Integer> entry : valueMapping.entrySet()) {
-            values[entry.getValue()] = entry.getKey();
-        }
-        unitArray.setValueMapping(values);
+        unitArray.setValueMapping(valueMapping.values);
 
         if (LOGGER.isLoggable(Level.FINE)) {
             long duration = System.currentTimeMillis() - startTime;
@@ -174,119 +233,203 @@ public class LinkedListTreeFactory implements TreeFactory {
 
         return llt;
     }
-    
-    private void convertCharToInteger(TreeNode node, Set<Integer> allValues) {
-        Object value = node.getValue();
-        if (value instanceof Character) {
-            value = new Integer(((Character) value).charValue());
-            node.setValue(value);
-        }
-        if (value instanceof Number) {
-            allValues.add(((Number) value).intValue());
-        }
-        for (TreeNode child : (List<TreeNode>) node.getChildren()) {
-            convertCharToInteger(child, allValues);
-        }
-    }
 
-    private Map<Integer, Integer> createMapping(Set<Integer> allValues) {
-        Map<Integer, Integer> valueMapping = new HashMap<>();
-        ArrayList<Integer> values = new ArrayList<>(allValues);
-        Collections.sort(values);
-        int index = 0;
-        for (Integer value : values) {
-            valueMapping.put(value, index++);
+    /**
+     * Replaces character values by integer values and collects values of all nodes of a tree.
+     *
+     * @param root         The root of the base tree.
+     * @param valueMapping Collects values of nodes.
+     *
+     * @return The number of nodes in the tree.
+     */
+    private int convertCharToInteger(TreeNode root, ValueMapping valueMapping) {
+        int numberOfNodes = 0;
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            TreeNode node = stack.pop();
+            numberOfNodes++;
+            Object value = node.getValue();
+            if (value instanceof Character) {
+                value = Integer.valueOf(((Character) value).charValue());
+                node.setValue(value);
+            }
+            if (value instanceof Number) {
+                valueMapping.add(((Number) value).intValue());
+            }
+            for (TreeNode child : (List<TreeNode>) node.getChildren()) {
+                stack.push(child);
+            }
         }
-        return valueMapping;
+        return numberOfNodes;
     }
-    
-    
-    
+
     /**
-     * Recurrent method which traverse nodes of the base tree and creates linked list tree.
+     * Traverses nodes of the base tree and creates linked list tree.
+     * <p>
+     * Children of a node are written one after the other, each of them directly followed by units
+     * of its sub-tree. The distance of a unit is set when the unit of its next sibling is written.
+     * </p>
      *
-     * @param node          Current processed node from the base tree.
+     * @param root          The root of the base tree.
      * @param unitArray     target linked list representation.
      * @param clearBaseTree Dispose all objects from the base tree while creating copy.
      * @param valueMapping  maps integer values from the base tree to internal values to reduce
      *                      number of bits required for an integer values storage.
      */
-    private void createTreeFromNode(TreeNode node, LinkedListTreeUnitArray unitArray,
-                                    boolean clearBaseTree, Map<Integer, Integer> valueMapping) {
-        LinkedListTreeUnit lastUnit = null;
-        int lastUnitPos = 0;
-        ArrayList<TreeNode> children = new ArrayList<>(node.getChildren());
-        Collections.sort(children, new ValueCodeComparator(valueMapping));
-        for (TreeNode child : children) {
-            if (lastUnit != null) {
-                lastUnit.setDistance(unitArray.size() - lastUnitPos);
-                unitArray.set(lastUnitPos, lastUnit);
+    private void createTreeFromNode(TreeNode root, FastLinkedListTreeUnitArray unitArray,
+                                    boolean clearBaseTree, ValueMapping valueMapping) {
+        TreeNode[] nodes = new TreeNode[16];
+        TreeNode[][] children = new TreeNode[16][];
+        int[] childIndexes = new int[16];
+        int[] lastUnitPositions = new int[16];
+        int depth = 0;
+        nodes[0] = root;
+        children[0] = sortChildren(root, valueMapping);
+        lastUnitPositions[0] = -1;
+        int size = unitArray.size();
+        while (depth >= 0) {
+            TreeNode[] siblings = children[depth];
+            int index = childIndexes[depth];
+            if (index == siblings.length) {
+                if (clearBaseTree) {
+                    nodes[depth].clear();
+                }
+                nodes[depth] = null;
+                children[depth] = null;
+                depth--;
+                continue;
             }
-            LinkedListTreeUnit unit = new LinkedListTreeUnit();
-            Integer val = (Integer) child.getValue();
-            Integer valMapped = valueMapping.get(val);
-            if (valMapped == null) {
-                valMapped = valueMapping.size();
-                valueMapping.put(val, valMapped);
+            childIndexes[depth] = index + 1;
+            TreeNode child = siblings[index];
+            int lastUnitPos = lastUnitPositions[depth];
+            if (lastUnitPos >= 0) {
+                unitArray.setDistance(lastUnitPos, size - lastUnitPos);
             }
-            unit.setValueCode(valMapped);
+            lastUnitPositions[depth] = size;
+
+            int dataCode = 0;
+            boolean wordEnd = false;
             if (child.hasExtraData()) {
                 Object dataObject = ((TreeNodeWithData) child).getData();
-                if (dataObject == null) {
-                    unit.setDataCode(0);
-                } else if (dataObject instanceof Number) {
-                    unit.setDataCode(((Number) dataObject).intValue());
-                } else {
-                    unit.setDataCode(Integer.parseInt(dataObject.toString()));
+                if (dataObject instanceof Number) {
+                    dataCode = ((Number) dataObject).intValue();
+                } else if (dataObject != null) {
+                    dataCode = Integer.parseInt(dataObject.toString());
                 }
-                unit.setWordEnd(true);
+                wordEnd = true;
             }
-            unit.setDistance(0);
-            boolean hasChildren = !child.getChildren().isEmpty();
-            if (!hasChildren) {
-                unit.setWordEnd(true);
-            }
-            lastUnit = unit;
-            lastUnitPos = unitArray.size();
+            TreeNode[] grandChildren = sortChildren(child, valueMapping);
+            boolean hasChildren = grandChildren.length > 0;
+            int valueCode = valueMapping.getCode(((Integer) child.getValue()).intValue());
+            unitArray.set(size++, 0, wordEnd || !hasChildren, hasChildren, valueCode, dataCode);
             if (hasChildren) {
-                unit.setWordContinued(true);
-                unitArray.add(unit);
-                createTreeFromNode(child, unitArray, clearBaseTree, valueMapping);
-            } else {
-                unitArray.add(unit);
+                depth++;
+                if (depth == nodes.length) {
+                    int newLength = depth * 2;
+                    nodes = Arrays.copyOf(nodes, newLength);
+                    children = Arrays.copyOf(children, newLength);
+                    childIndexes = Arrays.copyOf(childIndexes, newLength);
+                    lastUnitPositions = Arrays.copyOf(lastUnitPositions, newLength);
+                }
+                nodes[depth] = child;
+                children[depth] = grandChildren;
+                childIndexes[depth] = 0;
+                lastUnitPositions[depth] = -1;
+            } else if (clearBaseTree) {
+                child.clear();
             }
         }
-        if (clearBaseTree) {
-            node.clear();
+    }
+
+    /**
+     * Returns children of the specified node sorted by codes of their values.
+     *
+     * @param node         The node of the base tree.
+     * @param valueMapping maps values of nodes to their codes.
+     *
+     * @return The sorted children.
+     */
+    private static TreeNode[] sortChildren(TreeNode node, ValueMapping valueMapping) {
+        List<TreeNode> list = (List<TreeNode>) node.getChildren();
+        int count = list.size();
+        TreeNode[] result = list.toArray(new TreeNode[count]);
+        if (count > 1) {
+            long[] keys = new long[count];
+            boolean sorted = true;
+            for (int i = 0; i < count; i++) {
+                long code = valueMapping.getCode(((Integer) result[i].getValue()).intValue());
+                keys[i] = (code << 32) | i;
+                if (i > 0 && keys[i - 1] > keys[i]) {
+                    sorted = false;
+                }
+            }
+            if (!sorted) {
+                Arrays.sort(keys);
+                TreeNode[] unsorted = result;
+                result = new TreeNode[count];
+                for (int i = 0; i < count; i++) {
+                    result[i] = unsorted[(int) keys[i]];
+                }
+            }
         }
+        return result;
     }
 
     /**
-     * Sorts nodes by values describing nodes.
+     * Maps integer values of nodes to consecutive codes preserving the order of values.
+     * <p>
+     * Codes are resolved from an array indexed by values when values fall into a range which is not
+     * much larger than the number of distinct values (as char codes do), otherwise they are found
+     * by the binary search.
+     * </p>
      */
-    private class ValueCodeComparator implements Comparator {
+    private static final class ValueMapping {
+
+        /** Marks non-negative values lower than 65536. */
+        private final BitsArray charValues = new BitsArray(Character.MAX_VALUE + 1);
+
+        /** Holds other values. */
+        private final Set<Integer> otherValues = new HashSet<>();
 
-        Map<Integer, Integer> valueMapping;
+        /** Sorted distinct values; a code of a value is its position in this array. */
+        private int[] values;
 
-        public ValueCodeComparator(Map<Integer, Integer> valueMapping) {
-            this.valueMapping = valueMapping;
+        /** Codes of values indexed by values minus the minimal value, or null. */
+        private int[] codes;
+
+        /** Adds a value. */
+        void add(final int value) {
+            if (value >= 0 && value <= Character.MAX_VALUE) {
+                charValues.set(value, true);
+            } else {
+                otherValues.add(value);
+            }
         }
 
-        @Override
-        public int compare(Object o1, Object o2) {
-            Integer v1 = (Integer) ((TreeNode) o1).getValue();
-            Integer v2 = (Integer) ((TreeNode) o2).getValue();
-            Integer v1mapped = valueMapping.get(v1);
-            if (v1mapped == null) {
-                v1mapped = valueMapping.size();
-                valueMapping.put(v1, v1mapped);
+        /** Creates the mapping from the added values. */
+        void build() {
+            values = new int[charValues.cardinality() + otherValues.size()];
+            int count = 0;
+            for (int v = charValues.nextSetBit(0); v >= 0; v = charValues.nextSetBit(v + 1)) {
+                values[count++] = v;
+            }
+            for (Integer value : otherValues) {
+                values[count++] = value;
             }
-            Integer v2mapped = valueMapping.get(v2);
-            if (v2mapped == null) {
-                v2mapped = valueMapping.size();
-                valueMapping.put(v2, v2mapped);
+            Arrays.sort(values);
+            long range = (long) values[count - 1] - values[0] + 1;
+            if (range <= Math.max(Character.MAX_VALUE + 1, 4L * count)) {
+                codes = new int[(int) range];
+                for (int i = 0; i < count; i++) {
+                    codes[values[i] - values[0]] = i;
+                }
             }
-            return v1mapped.compareTo(v2mapped);
+        }
+
+        /** Returns the code of an added value. */
+        int getCode(final int value) {
+            return codes == null ? Arrays.binarySearch(values, value) : codes[value - values[0]];
         }
 
     }
@@ -183,10 +183,36 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
      *
      * @return The child or null if there is no child containing specified key.
      */
+    public LinkedListTreeNode getChild(final Integer key, final int[] stack, int stackPos) {
+        if (TraversalMetrics.ENABLED) {
+            TraversalMetrics metrics = pos.getUnitArray().getTraversalMetrics();
+            if (metrics != null) {
+                TraversalMetrics.Probe probe = metrics.startLookup();
+                try {
+                    return getChild(key, stack, stackPos, probe);
+                } finally {
+                    probe.finish();
+                }
+            }
+        }
+        return getChild(key, stack, stackPos, null);
+    }
+
+    /**
+     * Returns a child which contains specified key collecting traversal statistics.
+     *
+     * @param key      The transition key to the child.
+     * @param stack    Stack used for fast recursion.
+     * @param stackPos Current position in the stack
+     * @param probe    Collects statistics of the lookup or null.
+     *
+     * @return The child or null if there is no child containing specified key.
+     */
     @SuppressWarnings({"squid:MethodCyclomaticComplexity", 
                        "common-java:DuplicatedBlocks", 
                        "squid:S134"})
-    public LinkedListTreeNode getChild(final Integer key, final int[] stack, int stackPos) {
+    private LinkedListTreeNode getChild(final Integer key, final int[] stack, int stackPos,
+                                        final TraversalMetrics.Probe probe) {
         final LinkedListTreeUnitArray units = pos.getUnitArray();
         final int unitsSize = units.size();
         final int startStackPos = stackPos;
@@ -202,6 +228,9 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                 stack[++stackPos] = nested;
                 stack[++stackPos] = unitsToRead - 1;
             }
+            if (TraversalMetrics.ENABLED && probe != null) {
+                probe.pointerFollowed(stackPos - startStackPos);
+            }
             unitsToRead = units.getValueCodeFast(fastIndex);
             nested = unitsToRead != 0 ? 1 : 0;
             index = units.getDistanceFast(fastIndex);
@@ -233,6 +262,7 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                 --unitsToRead;
             }
             fastIndex = units.getFastIndex(index);
+            SiblingIndex siblingIndex = units.getSiblingIndex();
             // traverse all children (getChild)
             boolean found = false;
             while (!found) {
@@ -243,13 +273,33 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                         stack[++stackPos] = nested;
                         stack[++stackPos] = unitsToRead - 1;
                     }
+                    if (TraversalMetrics.ENABLED && probe != null) {
+                        probe.pointerFollowed(stackPos - startStackPos);
+                    }
                     unitsToRead = units.getValueCodeFast(fastIndex);
                     nested = unitsToRead != 0 ? 1 : 0;
                     index = units.getDistanceFast(fastIndex);
                     fastIndex = units.getFastIndex(index);
                 }
+                if (siblingIndex != null) {
+                    // jump to the child using the sibling index (getChild)
+                    int table = findSiblingTable(siblingIndex, index, nested, unitsToRead);
+                    if (table >= 0) {
+                        int target = siblingIndex.ceilingChild(table, cint);
+                        if (target < 0) {
+                            return null;
+                        }
+                        unitsToRead -= target - index;
+                        index = target;
+                        fastIndex = units.getFastIndex(index);
+                    }
+                    siblingIndex = null;
+                }
                 // check key (getChild)
                 int vc = units.getValueCodeFast(fastIndex);
+                if (TraversalMetrics.ENABLED && probe != null) {
+                    probe.unitScanned();
+                }
                 if (vc == cint) {
                     // found = true
                     LinkedListPosition retPos = returnPos == null ? null : new LinkedListPosition(
@@ -321,11 +371,38 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
      *
      * @return The child or null if there is no child containing specified key.
      */
+    public void findChildren(final int[] keys, final LinkedListTreeNode[] foundChildren, 
+                                               final int[] stack, int stackPos) {
+        if (TraversalMetrics.ENABLED) {
+            TraversalMetrics metrics = pos.getUnitArray().getTraversalMetrics();
+            if (metrics != null) {
+                TraversalMetrics.Probe probe = metrics.startLookup();
+                try {
+                    findChildren(keys, foundChildren, stack, stackPos, probe);
+                } finally {
+                    probe.finish();
+                }
+                return;
+            }
+        }
+        findChildren(keys, foundChildren, stack, stackPos, null);
+    }
+
+    /**
+     * Finds children containing specified keys collecting traversal statistics.
+     *
+     * @param keys          Sorted transition keys to children.
+     * @param foundChildren Found children or nulls for keys which have not been found.
+     * @param stack         Stack used for fast recursion.
+     * @param stackPos      Current position in the stack
+     * @param probe         Collects statistics of the lookup or null.
+     */
     @SuppressWarnings({"squid:MethodCyclomaticComplexity", 
                        "common-java:DuplicatedBlocks", 
                        "squid:S134"})
-    public void findChildren(final int[] keys, final LinkedListTreeNode[] foundChildren, 
-                                               final int[] stack, int stackPos) {
+    private void findChildren(final int[] keys, final LinkedListTreeNode[] foundChildren,
+                              final int[] stack, int stackPos,
+                              final TraversalMetrics.Probe probe) {
         final LinkedListTreeUnitArray units = pos.getUnitArray();
         final int unitsSize = units.size();
         final int startStackPos = stackPos;
@@ -341,6 +418,9 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                 stack[++stackPos] = nested;
                 stack[++stackPos] = unitsToRead - 1;
             }
+            if (TraversalMetrics.ENABLED && probe != null) {
+                probe.pointerFollowed(stackPos - startStackPos);
+            }
             unitsToRead = units.getValueCodeFast(fastIndex);
             nested = unitsToRead != 0 ? 1 : 0;
             index = units.getDistanceFast(fastIndex);
@@ -376,6 +456,8 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
             int keyIndex = 0;
             int cint = keys[keyIndex];
             cint = units.mapToValueCode(cint);
+            SiblingIndex siblingIndex = units.getSiblingIndex();
+            int siblingTable = -1;
             while (keyIndex < numberOfKeys) {
                 
                 // process absolute pointer
@@ -385,14 +467,36 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                         stack[++stackPos] = nested;
                         stack[++stackPos] = unitsToRead - 1;
                     }
+                    if (TraversalMetrics.ENABLED && probe != null) {
+                        probe.pointerFollowed(stackPos - startStackPos);
+                    }
                     unitsToRead = units.getValueCodeFast(fastIndex);
                     nested = unitsToRead != 0 ? 1 : 0;
                     index = units.getDistanceFast(fastIndex);
                     fastIndex = units.getFastIndex(index);
                 }
+                if (siblingIndex != null && siblingTable < 0) {
+                    siblingTable = findSiblingTable(siblingIndex, index, nested, unitsToRead);
+                    if (siblingTable < 0) {
+                        siblingIndex = null;
+                    }
+                }
+                if (siblingTable >= 0) {
+                    // jump to the next searched child using the sibling index
+                    int target = siblingIndex.ceilingChild(siblingTable, cint);
+                    if (target < 0) {
+                        return;
+                    }
+                    unitsToRead -= target - index;
+                    index = target;
+                    fastIndex = units.getFastIndex(index);
+                }
                 
                 // get key (getChild)
                 int vc = units.getValueCodeFast(fastIndex);
+                if (TraversalMetrics.ENABLED && probe != null) {
+                    probe.unitScanned();
+                }
                 
                 // move to next key
                 while (vc >= cint && keyIndex < numberOfKeys) {
@@ -465,6 +569,32 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
         }
     }
     
+    /**
+     * Finds a table of the sibling index which can be used to find children in the current
+     * context of a traversal.
+     * <p>
+     * Inside a fragment referenced by an absolute pointer, only the specified number of units can
+     * be read, so the index can be used only if the whole list of siblings fits in the fragment.
+     * </p>
+     *
+     * @param siblingIndex The sibling index of the unit array.
+     * @param index        The position of the first child.
+     * @param nested       1 if the traversal is inside a fragment referenced by an absolute
+     *                     pointer, 0 otherwise.
+     * @param unitsToRead  The number of units which can be read in the fragment.
+     *
+     * @return The identifier of the table or -1 if children have to be scanned linearly.
+     */
+    private static int findSiblingTable(final SiblingIndex siblingIndex, final int index,
+                                        final int nested, final int unitsToRead) {
+        int table = siblingIndex.findTable(index);
+        if (table >= 0 && nested == 1 && unitsToRead > 0
+                && siblingIndex.getLastChild(table) >= index + unitsToRead) {
+            return -1;
+        }
+        return table;
+    }
+
     /**
      * Returns data stored in a tree at the specified location starting from the current node.
      * 
@@ -476,10 +606,36 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
      * @return  Integer identifier of an object stored in the tree or null if there is no 
      *          data at the specified path.
      */
+    public Integer getData(String path, int[] stack, int stackPos) {
+        if (TraversalMetrics.ENABLED) {
+            TraversalMetrics metrics = pos.getUnitArray().getTraversalMetrics();
+            if (metrics != null) {
+                TraversalMetrics.Probe probe = metrics.startLookup();
+                try {
+                    return getData(path, stack, stackPos, probe);
+                } finally {
+                    probe.finish();
+                }
+            }
+        }
+        return getData(path, stack, stackPos, null);
+    }
+
+    /**
+     * Returns data stored in a tree at the specified location collecting traversal statistics.
+     *
+     * @param path      A list of characters describing successive nodes in a tree.
+     * @param stack     Stack used for fast recursion in the tree.
+     * @param stackPos  Current position in the stack.
+     * @param probe     Collects statistics of the lookup or null.
+     *
+     * @return  Integer identifier of an object stored in the tree or null.
+     */
     @SuppressWarnings({"squid:MethodCyclomaticComplexity", 
                        "common-java:DuplicatedBlocks", 
                        "squid:S134"})
-    public Integer getData(String path, int[] stack, int stackPos) {
+    private Integer getData(final String path, final int[] stack, int stackPos,
+                            final TraversalMetrics.Probe probe) {
         int startStackPos = stackPos;
         LinkedListTreeUnitArray units = pos.getUnitArray();
         int unitsSize = units.size();
@@ -487,6 +643,8 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
         int fastIndex = units.getFastIndex(index);
         int nested = pos.getNested() ? 1 : 0;
         int unitsToRead = pos.getUnitsToRead();
+        LinkedListPosition returnPos = pos.getReturnPos();
+        SiblingIndex siblingIndex = units.getSiblingIndex();
         for (int i = 0; i < path.length(); i++) {
             int cint = (int) path.charAt(i);
             cint = units.mapToValueCode(cint);
@@ -498,6 +656,9 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                     stack[++stackPos] = nested;
                     stack[++stackPos] = unitsToRead - 1;
                 }
+                if (TraversalMetrics.ENABLED && probe != null) {
+                    probe.pointerFollowed(stackPos - startStackPos);
+                }
                 unitsToRead = units.getValueCodeFast(fastIndex);
                 nested = unitsToRead != 0 ? 1 : 0;
                 index = units.getDistanceFast(fastIndex);
@@ -508,11 +669,11 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                 if (nested == 1 && unitsToRead <= 1) {
                     // return from the absolute pointer
                     if (stackPos <= startStackPos) {
-                        LinkedListPosition returnPos = pos.getReturnPos();
                         if (returnPos != null) {
                             unitsToRead = returnPos.getUnitsToRead();
                             nested = returnPos.getNested() ? 1 : 0;
                             index = returnPos.getPos();
+                            returnPos = returnPos.getReturnPos();
                         } else {
                             // not matched
                             return null;
@@ -533,6 +694,7 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
             }
             // traverse all children (getData)
             boolean found = false;
+            SiblingIndex currentIndex = siblingIndex;
             while (!found) {
                 // process absolute pointer
                 while (index < unitsSize && units.isAbsolutePointerFast(fastIndex)) {
@@ -541,13 +703,33 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                         stack[++stackPos] = nested;
                         stack[++stackPos] = unitsToRead - 1;
                     }
+                    if (TraversalMetrics.ENABLED && probe != null) {
+                        probe.pointerFollowed(stackPos - startStackPos);
+                    }
                     unitsToRead = units.getValueCodeFast(fastIndex);
                     nested = unitsToRead != 0 ? 1 : 0;
                     index = units.getDistanceFast(fastIndex);
                     fastIndex = units.getFastIndex(index);
                 }
+                if (currentIndex != null) {
+                    // jump to the child using the sibling index (getData)
+                    int table = findSiblingTable(currentIndex, index, nested, unitsToRead);
+                    if (table >= 0) {
+                        int target = currentIndex.ceilingChild(table, cint);
+                        if (target < 0) {
+                            return null;
+                        }
+                        unitsToRead -= target - index;
+                        index = target;
+                        fastIndex = units.getFastIndex(index);
+                    }
+                    currentIndex = null;
+                }
                 // check key - getData
                 int vc = units.getValueCodeFast(fastIndex);
+                if (TraversalMetrics.ENABLED && probe != null) {
+                    probe.unitScanned();
+                }
                 if (vc == cint) {
                     found = true;
                 } else if (vc > cint) {
@@ -560,7 +742,6 @@ public class LinkedListTreeNode implements TreeNode<Integer> {
                         if (nested == 1 && unitsToRead > 0 && target >= index + unitsToRead) {
                             // return from the absolute pointer
                             if (stackPos <= startStackPos) {
-                                LinkedListPosition returnPos = pos.getReturnPos();
                                 if (returnPos != null) {
                                     unitsToRead = returnPos.getUnitsToRead();
                                     nested = returnPos.getNested() ? 1 : 0;
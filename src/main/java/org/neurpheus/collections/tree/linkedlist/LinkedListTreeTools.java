@@ -17,8 +17,12 @@
 package org.neurpheus.collections.tree.linkedlist;
 
 import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.TreeFactory;
 import org.neurpheus.collections.tree.TreeNode;
 import org.neurpheus.collections.tree.TreeNodeWithData;
+import org.neurpheus.collections.tree.arenatree.ArenaTreeNode;
+import org.neurpheus.collections.tree.inttree.IntTreeFactory;
+import org.neurpheus.collections.tree.inttree.IntTreeNode;
 import org.neurpheus.collections.tree.objecttree.ObjectTree;
 import org.neurpheus.collections.tree.objecttree.ObjectTreeFactory;
 import org.neurpheus.collections.tree.objecttree.ObjectTreeNode;
@@ -30,10 +34,12 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -74,6 +80,10 @@ public class LinkedListTreeTools {
      * You can create a compressed LLTrie from the result of this method using the
      * {@link LinkedListTreeFactory#createTree(Tree, boolean, boolean, boolean)} method.
      * </p>
+     * <p>
+     * This method uses all available processors (see
+     * {@link #createBaseTree(String, Charset, boolean, boolean, int)}).
+     * </p>
      *
      *
      * @param filePath Path to text file with words written in any language.
@@ -90,33 +100,83 @@ public class LinkedListTreeTools {
     public static Tree createBaseTree(
             String filePath, Charset charset, boolean reverse, boolean withData)
             throws IOException {
-        ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
-        Tree result = factory.createTree();
-        TreeNode root = result.getRoot();
+        return createBaseTree(filePath, charset, reverse, withData,
+                              Runtime.getRuntime().availableProcessors());
+    }
 
+    /**
+     * Creates a tree from a list of words read from the specified file using the given number of
+     * threads.
+     * <p>
+     * The file is divided into chunks which are memory mapped and split into words in parallel.
+     * Words are partitioned by their first characters (last characters in the reverse mode) and
+     * each partition is inserted into a separate partial tree. Chunks are processed in rounds of
+     * at most one chunk per thread, so only words of a single round are held in memory. Partial
+     * trees are joined under a common root at the end. Children of all nodes of the created tree
+     * are sorted.
+     * </p>
+     * <p>
+     * Index values assigned to words do not depend on the number of threads - each word gets the
+     * position of its first occurrence in the file.
+     * </p>
+     *
+     * @param filePath        Path to text file with words written in any language.
+     * @param charset         Character encoding used by the specified file.
+     * @param reverse         if <strong>true</strong> a new tree will store characters in the
+     *                        reverse order - from last char to the first one.
+     * @param withData        if <Strong>true</strong> a new tree will contain an index value
+     *                        assigned to each word stored in the tree.
+     * @param numberOfThreads The number of threads used for reading the file and creating the
+     *                        tree.
+     *
+     * @return A newly created tree.
+     *
+     * @throws IOException if any i/o error occurred.
+     */
+    public static Tree createBaseTree(
+            String filePath, Charset charset, boolean reverse, boolean withData,
+            int numberOfThreads) throws IOException {
+        return new ParallelBaseTreeBuilder(charset, reverse, withData, numberOfThreads,
+                                           ParallelBaseTreeBuilder.DEFAULT_CHUNK_SIZE)
+                .build(filePath);
+    }
+
+    /**
+     * Creates a minimized LLTrie directly from a text file containing sorted words.
+     * <p>
+     * Contrary to the {@link #createBaseTree(String, Charset, boolean, boolean)} method, this
+     * method does not create a base tree, but streams words from the file into a
+     * {@link LinkedListTreeBuilder}. Words in the file have to be sorted lexicographically.
+     * Repeated words are ignored.
+     * </p>
+     *
+     * @param filePath The path to a text file with sorted words separated by white spaces.
+     * @param charset  Character encoding used by the specified file.
+     * @param withData if <Strong>true</strong> a new tree will contain an index value assigned to
+     *                 each word stored in the tree.
+     *
+     * @return A newly created tree.
+     *
+     * @throws IOException if any i/o error occurred.
+     * @throws IllegalArgumentException if words in the file are not sorted.
+     */
+    public static LinkedListTree createTreeFromSortedWords(
+            String filePath, Charset charset, boolean withData) throws IOException {
+        LinkedListTreeBuilder builder = new LinkedListTreeBuilder();
         try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath), charset)) {
             String line;
-            int lineNumber = 1;
             int index = 0;
-            try {
-                while ((line = reader.readLine()) != null) {
-                    String[] values = line.split("\\s");
-                    for (String str : values) {
-                        if (str.length() > 0) {
-                            addStringToTree(factory, reverse, root, str,
-                                            reverse ? str.length() - 1 : 0,
-                                            withData ? index : -1);
-                            index++;
-                        }
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split("\\s");
+                for (String str : values) {
+                    if (str.length() > 0) {
+                        builder.add(str, withData ? index : 0);
+                        index++;
                     }
-                    lineNumber++;
                 }
-            } catch (IOException e) {
-                LOGGER.log(Level.SEVERE, "Cannot read line {0}", lineNumber);
-                throw e;
             }
         }
-        return result;
+        return builder.build();
     }
 
     /**
@@ -151,8 +211,29 @@ public class LinkedListTreeTools {
      * @return A newly created tree.
      */
     public static Tree createBaseTree(List<String> examples, boolean reverse, boolean withData) {
+        return createBaseTree(examples, reverse, withData, ObjectTreeFactory.getInstance());
+    }
+
+    /**
+     * Creates a tree from a list of words using the specified tree factory.
+     * <p>
+     * This method works like the {@link #createBaseTree(List, boolean, boolean)} method, but
+     * nodes are created by the given factory. Use the {@link IntTreeFactory} to create a base tree
+     * which consumes less memory than the {@link ObjectTree}.
+     * </p>
+     *
+     * @param examples A list of words to store in the tree.
+     * @param reverse  if <strong>true</strong> a new tree will store characters in the reverse
+     *                 order - from last char to the first one.
+     * @param withData if <Strong>true</strong> a new tree will contain an index value assigned to
+     *                 each word stored in the tree.
+     * @param factory  The factory creating the tree and its nodes.
+     *
+     * @return A newly created tree.
+     */
+    public static Tree createBaseTree(List<String> examples, boolean reverse, boolean withData,
+                                      TreeFactory factory) {
         LOGGER.log(Level.FINE, "Creating base tree from {0} words", examples.size());
-        ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
         Tree result = factory.createTree();
         TreeNode root = result.getRoot();
 
@@ -163,13 +244,15 @@ public class LinkedListTreeTools {
             index++;
         }
 
-        ((ObjectTreeNode) result.getRoot()).sort();
+        if (result.getRoot() instanceof ObjectTreeNode) {
+            ObjectTreeFactory.getInstance().sortTree(result);
+        }
 
         return result;
     }
 
     /**
-     * Adds recursively a word to {@link ObjectTree}.
+     * Adds a word to {@link ObjectTree}.
      *
      * @param factory  the factory used for nodes creation.
      * @param reverse  if {@code true} analyze string in reverse order.
@@ -179,26 +262,59 @@ public class LinkedListTreeTools {
      * @param dataCode the data identifier which should be assigned to the last node in a tree path,
      *                 If it is negative integer, do not add any data at the end of the path.
      */
-    private static void addStringToTree(ObjectTreeFactory factory, boolean reverse, TreeNode node,
-                                        String str, int pos, int dataCode) {
-        int valueCode = str.charAt(pos);
-        TreeNode child = node.getChild(valueCode);
-        int endPos = reverse ? 0 : str.length() - 1;
-        if (child == null) {
-            if (pos == endPos && dataCode >= 0) {
-                child = factory.createTreeNodeWithAdditionalData(valueCode, dataCode);
-            } else {
-                child = factory.createTreeNode(valueCode);
+    static void addStringToTree(TreeFactory factory, boolean reverse, TreeNode node,
+                                String str, int pos, int dataCode) {
+        final int endPos = reverse ? 0 : str.length() - 1;
+        final int step = reverse ? -1 : 1;
+        TreeNode parent = node;
+        for (int i = pos;; i += step) {
+            int valueCode = str.charAt(i);
+            TreeNode child = findChild(parent, valueCode);
+            if (child == null) {
+                if (i == endPos && dataCode >= 0) {
+                    child = factory.createTreeNodeWithAdditionalData(valueCode, dataCode);
+                } else {
+                    child = factory.createTreeNode(valueCode);
+                }
+                parent.addChild(child);
+            } else if (i == endPos && dataCode >= 0 && !(child instanceof TreeNodeWithData)) {
+                TreeNode child2 = factory.createTreeNodeWithAdditionalData(valueCode, dataCode);
+                child2.setChildren(child.getChildren());
+                parent.replaceChild(child, child2);
+            }
+            if (i == endPos) {
+                return;
             }
-            node.addChild(child);
+            parent = child;
         }
-        if (pos != endPos) {
-            addStringToTree(factory, reverse, child, str, pos + (reverse ? -1 : 1), dataCode);
-        } else if (dataCode >= 0 && !(child instanceof TreeNodeWithData)) {
-            TreeNode child2 = factory.createTreeNodeWithAdditionalData(valueCode, dataCode);
-            child2.setChildren(child.getChildren());
-            node.replaceChild(child, child2);
+    }
+
+    /**
+     * Finds a child of a node in a base tree without boxing the searched value.
+     *
+     * @param node      the parent node.
+     * @param valueCode the value of the searched child.
+     *
+     * @return the found child or null if the node has no child with the value.
+     */
+    private static TreeNode findChild(TreeNode node, int valueCode) {
+        if (node instanceof IntTreeNode) {
+            return ((IntTreeNode) node).getChild(valueCode);
         }
+        if (node instanceof ArenaTreeNode) {
+            return ((ArenaTreeNode) node).getChild(valueCode);
+        }
+        if (node instanceof ObjectTreeNode) {
+            return ((ObjectTreeNode) node).getChild(valueCode);
+        }
+        final int count = node.getNumberOfChildren();
+        for (int i = 0; i < count; i++) {
+            TreeNode child = node.getChildAtPos(i);
+            if (((Integer) child.getValue()) == valueCode) {
+                return child;
+            }
+        }
+        return null;
     }
 
     /**
@@ -411,6 +527,85 @@ public class LinkedListTreeTools {
         }
     }
 
+    /**
+     * Writes all words stored in the specified tree to the writer, one word per line.
+     * <p>
+     * The unit array of the tree is traversed directly, without creating node objects, and all
+     * words share a single path buffer, so the tree can be exported in time proportional to its
+     * size. Compressed trees are supported. If {@code withData} is {@code true}, each word is
+     * followed by a tab character and the data code of the last node of the word.
+     * </p>
+     *
+     * @param tree     The tree to export.
+     * @param out      The writer receiving words; it is neither buffered nor closed by this
+     *                 method.
+     * @param reverse  if {@code true} the tree stores characters in the reverse order - from
+     *                 last char to the first one, so paths are written backwards.
+     * @param withData if {@code true} data codes are written after words.
+     *
+     * @throws IOException if any i/o error occurred.
+     */
+    public static void writeWords(LinkedListTree tree, Writer out, boolean reverse,
+                                  boolean withData) throws IOException {
+        LinkedListTreeUnitArray units = tree.getUnitArray();
+        if (units.size() <= 1) {
+            return;
+        }
+        int[] mapping = units.getValueMapping();
+        char[] path = new char[64];
+        char[] line = reverse ? new char[64] : null;
+        LinkedListPosition[] siblings = new LinkedListPosition[64];
+        int[] depths = new int[64];
+        int size = 0;
+        LinkedListPosition current = new LinkedListPosition(units, 0, null, 0, false).nextLevel();
+        int depth = 0;
+        while (current != null || size > 0) {
+            if (current == null) {
+                current = siblings[--size];
+                siblings[size] = null;
+                depth = depths[size];
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, 2 * depth);
+            }
+            path[depth] = (char) mapping[current.getValueMapped()];
+            if (current.isWordEnd()) {
+                int length = depth + 1;
+                if (reverse) {
+                    if (line.length < length) {
+                        line = new char[path.length];
+                    }
+                    for (int i = 0; i < length; i++) {
+                        line[i] = path[depth - i];
+                    }
+                    out.write(line, 0, length);
+                } else {
+                    out.write(path, 0, length);
+                }
+                if (withData) {
+                    out.write('\t');
+                    out.write(Integer.toString(units.getDataCode(current.getPos())));
+                }
+                out.write('\n');
+            }
+            LinkedListPosition sibling = current.nextChild();
+            if (sibling != null) {
+                if (size == siblings.length) {
+                    siblings = Arrays.copyOf(siblings, 2 * size);
+                    depths = Arrays.copyOf(depths, 2 * size);
+                }
+                siblings[size] = sibling;
+                depths[size++] = depth;
+            }
+            if (current.isWordContinued()) {
+                current = current.nextLevel();
+                depth++;
+            } else {
+                current = null;
+            }
+        }
+    }
+
     /**
      * Test the LZTrie compression creating a linked list tree from a file containing words i any
      * language.
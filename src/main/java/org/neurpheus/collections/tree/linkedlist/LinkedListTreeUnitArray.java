@@ -455,5 +455,38 @@ public interface LinkedListTreeUnitArray extends Serializable {
      * @return Fragment of this array as a string.
      */
     String toString(int startIndex, int endIndex);
+
+    /**
+     * Returns metrics collecting statistics about lookups in a tree using this array.
+     *
+     * @return The traversal metrics or null if lookups are not measured.
+     */
+    TraversalMetrics getTraversalMetrics();
+
+    /**
+     * Attaches metrics collecting statistics about lookups in a tree using this array.
+     *
+     * @param metrics The traversal metrics or null if lookups should not be measured.
+     */
+    void setTraversalMetrics(TraversalMetrics metrics);
+
+    /**
+     * Returns an index of children of high fan-out nodes used by lookups in this array.
+     *
+     * @return The sibling index or null if children are always scanned linearly.
+     */
+    SiblingIndex getSiblingIndex();
+
+    /**
+     * Attaches an index of children of high fan-out nodes to this array.
+     * <p>
+     * The index describes positions of units, so it has to be created again (see
+     * {@link SiblingIndex#create(LinkedListTreeUnitArray, int)}) after any modification of this
+     * array.
+     * </p>
+     *
+     * @param index The sibling index or null if children should be scanned linearly.
+     */
+    void setSiblingIndex(SiblingIndex index);
     
 }
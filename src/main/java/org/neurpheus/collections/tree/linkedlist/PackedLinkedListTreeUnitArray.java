@@ -0,0 +1,398 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.logging.LoggerService;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Represents an array of linked list units packed into long values.
+ * <p>
+ * Flags, a value code and a distance of each unit are stored in a single long value: the lower 32
+ * bits hold the distance, the higher 32 bits hold the value code shifted left by two bits, the
+ * word end flag (bit 1) and the word continued flag (bit 0). Data codes are stored in a separate
+ * array because they are read only at the end of a word.
+ * </p>
+ * <p>
+ * While traversing a tree, all information required to move to the next unit is read from a
+ * single memory location, so this implementation causes fewer cache misses than the
+ * {@link FastLinkedListTreeUnitArray} which keeps each field in a separate array. Value codes
+ * cannot be greater than {@link #MAX_VALUE_CODE}.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public final class PackedLinkedListTreeUnitArray extends AbstractLinkedListTreeUnitArray
+        implements Serializable, LinkedListTreeUnitArray {
+
+    /** Logger used by this class. */
+    @SuppressWarnings("FieldNameHidesFieldInSuperclass")
+    private static final Logger LOGGER = LoggerService.getLogger(
+            PackedLinkedListTreeUnitArray.class);
+
+    /** Unique serialization identifier of this class. */
+    @SuppressWarnings("FieldNameHidesFieldInSuperclass")
+    static final long serialVersionUID = 770608151610180930L;
+
+    /** version of data format used of serialization and deserialization. */
+    static final byte PACKED_ARRAY_FORMAT_VERSION = 1;
+
+    /** Estimated memory occupied by internal objects of this objects. */
+    public static final int BASE_ALLOCATION_SIZE = 2 * 4;
+
+    /** The maximum value code which can be stored in a packed unit. */
+    public static final int MAX_VALUE_CODE = (1 << 30) - 1;
+
+    /** Bit denoting the word continued flag in the higher part of a packed unit. */
+    private static final long WORD_CONTINUED_BIT = 1L << 32;
+
+    /** Bit denoting the word end flag in the higher part of a packed unit. */
+    private static final long WORD_END_BIT = 1L << 33;
+
+    /** Mask of both flags in a packed unit. */
+    private static final long FLAGS_MASK = WORD_CONTINUED_BIT | WORD_END_BIT;
+
+    /** Mask of a distance in a packed unit. */
+    private static final long DISTANCE_MASK = 0xFFFFFFFFL;
+
+    /** Holds flags, value codes and distances of units. */
+    protected long[] units;
+
+    /** Holds codes of data. */
+    protected int[] dataCode;
+
+    /**
+     * Creates a new empty unit array.
+     * <p>
+     * This method reserver memory in internal structures for the specified number of units.
+     * </p>
+     *
+     * @param capacity Estimated size of an array.
+     */
+    public PackedLinkedListTreeUnitArray(int capacity) {
+        clear(capacity);
+    }
+
+    /**
+     * Creates a new instance of LinkedListTreeUnitArray.
+     * <p>
+     * This constructor reserves memory for 100 units.
+     * </p>
+     */
+    public PackedLinkedListTreeUnitArray() {
+        clear(100);
+    }
+
+    /**
+     * Creates a mew unit array as a copy of the specified source array.
+     *
+     * @param baseArray The source array which should be copied.
+     */
+    public PackedLinkedListTreeUnitArray(LinkedListTreeUnitArray baseArray) {
+        if (baseArray instanceof PackedLinkedListTreeUnitArray) {
+            PackedLinkedListTreeUnitArray source = (PackedLinkedListTreeUnitArray) baseArray;
+            this.size = source.size();
+            this.units = Arrays.copyOf(source.units, size);
+            this.dataCode = Arrays.copyOf(source.dataCode, size);
+        } else {
+            this.size = baseArray.size();
+            this.units = new long[size];
+            this.dataCode = new int[size];
+            for (int i = 0; i < size; i++) {
+                if (baseArray.isNull(i)) {
+                    this.units[i] = i;
+                } else {
+                    this.units[i] = pack(baseArray.getDistance(i), baseArray.isWordEnd(i),
+                                         baseArray.isWordContinued(i),
+                                         baseArray.getValueCode(i));
+                    this.dataCode[i] = baseArray.getDataCode(i);
+                }
+            }
+        }
+        this.valueMapping = baseArray.getValueMapping();
+        this.reverseMapping = baseArray.getReverseValueMapping();
+    }
+
+    /**
+     * Packs the specified properties of a unit into a single long value.
+     *
+     * @param distance      The distance (absolute or relative pointer) of a unit.
+     * @param wordEnd       The word end flag.
+     * @param wordContinued The word continued flag.
+     * @param valueCode     The value code of a unit.
+     *
+     * @return The packed unit.
+     */
+    private static long pack(final int distance, final boolean wordEnd,
+                             final boolean wordContinued, final int valueCode) {
+        if (valueCode < 0 || valueCode > MAX_VALUE_CODE) {
+            throw new IllegalArgumentException("Value code out of range: " + valueCode);
+        }
+        return (distance & DISTANCE_MASK)
+                | ((long) valueCode << 34)
+                | (wordEnd ? WORD_END_BIT : 0)
+                | (wordContinued ? WORD_CONTINUED_BIT : 0);
+    }
+
+    /**
+     * Ensures that the internal arrays can hold a unit at the specified index.
+     *
+     * @param index The index of a unit which will be set.
+     */
+    private void ensureCapacity(final int index) {
+        if (index >= this.units.length) {
+            int newSize = 100 + (int) (index * 1.3f);
+            LOGGER.finest(
+                    String.format("Expanding capacity of linked list unit array to %s", newSize));
+            units = Arrays.copyOf(units, newSize);
+            dataCode = Arrays.copyOf(dataCode, newSize);
+        }
+    }
+
+    @Override
+    public void clear(int capacity) {
+        units = new long[capacity];
+        dataCode = new int[capacity];
+        size = 0;
+    }
+
+    @Override
+    public void set(final int index, final LinkedListTreeUnit unit) {
+        ensureCapacity(index);
+        if (unit == null) {
+            units[index] = index;
+            dataCode[index] = 0;
+        } else {
+            units[index] = pack(unit.getDistance(), unit.isWordEnd(), unit.isWordContinued(),
+                                unit.getValueCode());
+            dataCode[index] = unit.getDataCode();
+        }
+        if (index >= size) {
+            size = index + 1;
+        }
+    }
+
+    @Override
+    public void set(final int index, final int distance,
+                    final boolean wordEnd, final boolean wordContinued,
+                    final int valueCode, final int dataCode) {
+        ensureCapacity(index);
+        this.units[index] = pack(distance, wordEnd, wordContinued, valueCode);
+        this.dataCode[index] = dataCode;
+        if (index >= size) {
+            size = index + 1;
+        }
+    }
+
+    @Override
+    public final void add(final LinkedListTreeUnit unit) {
+        set(size, unit);
+    }
+
+    @Override
+    public final int getValueCode(final int index) {
+        return (int) (units[index] >>> 34);
+    }
+
+    @Override
+    public final int getValueCodeFast(final int index) {
+        return (int) (units[index] >>> 34);
+    }
+
+    @Override
+    public final int getValue(final int index) {
+        return valueMapping[(int) (units[index] >>> 34)];
+    }
+
+    @Override
+    public final boolean isWordContinued(final int index) {
+        return (units[index] & WORD_CONTINUED_BIT) != 0;
+    }
+
+    @Override
+    public final boolean isWordEnd(final int index) {
+        return (units[index] & WORD_END_BIT) != 0;
+    }
+
+    @Override
+    public final boolean isAbsolutePointer(final int index) {
+        return (units[index] & FLAGS_MASK) == 0;
+    }
+
+    @Override
+    public final int getDistance(final int index) {
+        return (int) units[index];
+    }
+
+    @Override
+    public final int getDataCode(final int index) {
+        return dataCode[index];
+    }
+
+    @Override
+    public final boolean equalsUnits(final int index1, final int index2) {
+        return units[index1] == units[index2] && dataCode[index1] == dataCode[index2];
+    }
+
+    @Override
+    public final LinkedListTreeUnit get(final int index) {
+        long unit = units[index];
+        if (isNullUnit(unit, index)) {
+            return null;
+        } else {
+            return new LinkedListTreeUnit((int) (unit >>> 34), (int) unit,
+                                          (unit & WORD_END_BIT) != 0,
+                                          (unit & WORD_CONTINUED_BIT) != 0, dataCode[index]);
+        }
+    }
+
+    /**
+     * Checks if the specified packed unit represents an empty unit.
+     *
+     * @param unit  The packed unit.
+     * @param index The position of the unit in this array.
+     *
+     * @return {@code true} if the unit is an absolute pointer pointing to its own position.
+     */
+    private static boolean isNullUnit(final long unit, final int index) {
+        return (unit & FLAGS_MASK) == 0 && (int) unit == index;
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return isNullUnit(units[index], index);
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        units = null;
+        dataCode = null;
+    }
+
+    @Override
+    public long getAllocationSize() {
+        trimToSize();
+        long result = super.getAllocationSize();
+        result += BASE_ALLOCATION_SIZE;
+        if (units != null) {
+            result += 20 + size * 8L;
+        }
+        if (dataCode != null) {
+            result += 20 + size * 4L;
+        }
+        return result;
+    }
+
+    @Override
+    public void trimToSize() {
+        if (units != null && units.length != size) {
+            units = Arrays.copyOf(units, size);
+        }
+        if (dataCode != null && dataCode.length != size) {
+            dataCode = Arrays.copyOf(dataCode, size);
+        }
+    }
+
+    @Override
+    public final int getFastIndex(int index) {
+        return index;
+    }
+
+    @Override
+    public final boolean isAbsolutePointerFast(int index) {
+        return (units[index] & FLAGS_MASK) == 0;
+    }
+
+    @Override
+    public final boolean isWordContinuedFast(int index) {
+        return (units[index] & WORD_CONTINUED_BIT) != 0;
+    }
+
+    @Override
+    public final boolean isWordEndFast(int index) {
+        return (units[index] & WORD_END_BIT) != 0;
+    }
+
+    @Override
+    public final int getDataCodeFast(int index) {
+        return dataCode[index];
+    }
+
+    @Override
+    public final int getDistanceFast(int index) {
+        return (int) units[index];
+    }
+
+    @Override
+    public void write(DataOutputStream out) throws IOException {
+        super.write(out);
+        out.writeByte(PACKED_ARRAY_FORMAT_VERSION);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(units[i]);
+            out.writeInt(dataCode[i]);
+        }
+    }
+
+    @Override
+    public void read(DataInputStream in) throws IOException {
+        super.read(in);
+        if (PACKED_ARRAY_FORMAT_VERSION != in.readByte()) {
+            throw new IOException("Invalid file format");
+        }
+        int newSize = in.readInt();
+        clear(newSize);
+        size = newSize;
+        for (int i = 0; i < size; i++) {
+            units[i] = in.readLong();
+            dataCode[i] = in.readInt();
+        }
+    }
+
+    @Override
+    public int compareUnits(int index1, int index2) {
+        // value code and flags are compared together as in other implementations
+        int res = (int) (units[index1] >>> 32) - (int) (units[index2] >>> 32);
+        if (res == 0) {
+            res = (int) units[index1] - (int) units[index2];
+            if (res == 0 && (units[index1] & WORD_END_BIT) != 0) {
+                res = dataCode[index1] - dataCode[index2];
+            }
+        }
+        return res;
+    }
+
+    @Override
+    protected AbstractLinkedListTreeUnitArray subArrayArgumentsVerified(int startIndex,
+                                                                        int endIndex) {
+        PackedLinkedListTreeUnitArray result = new PackedLinkedListTreeUnitArray(0);
+        result.valueMapping = this.valueMapping;
+        result.reverseMapping = this.reverseMapping;
+        result.units = Arrays.copyOfRange(units, startIndex, endIndex);
+        result.dataCode = Arrays.copyOfRange(dataCode, startIndex, endIndex);
+        result.size = endIndex - startIndex;
+        return result;
+    }
+
+}
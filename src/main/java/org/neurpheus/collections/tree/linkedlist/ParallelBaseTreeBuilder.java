@@ -0,0 +1,673 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.objecttree.ObjectTreeFactory;
+import org.neurpheus.collections.tree.objecttree.ObjectTreeNode;
+import org.neurpheus.logging.LoggerService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates a base tree from a text file with words using many threads.
+ * <p>
+ * The file is divided into chunks which end at white space characters and chunks are processed
+ * in rounds, each round covering at most one chunk per thread:
+ * </p>
+ * <ol>
+ * <li>Each chunk is memory mapped, decoded and split into words by a separate task. Words are
+ * distributed into partitions by the first character stored in the tree (the last character of a
+ * word in the reverse mode).</li>
+ * <li>Words of each partition are inserted into a separate partial tree by a separate task, and
+ * the words of the round are released.</li>
+ * </ol>
+ * <p>
+ * Only words of a single round are held in memory, so the memory used for reading does not depend
+ * on the size of the file. Partial trees have disjoint sets of children of the root, so after the
+ * last round they are merged by joining these children under a common root.
+ * </p>
+ * <p>
+ * The index assigned to a word is the position of the first occurrence of the word in the file,
+ * like in a tree created by a single thread.
+ * </p>
+ * <p>
+ * Chunks can be split at white space bytes only if the file uses an ASCII compatible charset with
+ * single byte characters or the UTF-8 charset. Other files are read sequentially by the calling
+ * thread and their words are passed to partial trees in portions of about {@code chunkSize}
+ * characters.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+final class ParallelBaseTreeBuilder {
+
+    private static final Logger LOGGER = LoggerService.getLogger(ParallelBaseTreeBuilder.class);
+
+    /** The default number of bytes of a file processed by a single task. */
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /** The number of characters decoded at once. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** The number of partitions of words created for each thread to balance load of threads. */
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    /** White space characters separating words in a file. */
+    private static final String WHITE_SPACES = " \t\n\u000B\f\r";
+
+    /** Character encoding of a file. */
+    private final Charset charset;
+
+    /** If {@code true} store characters in the reverse order. */
+    private final boolean reverse;
+
+    /** If {@code true} assign an index value to each word. */
+    private final boolean withData;
+
+    /** The number of threads used for creating a tree. */
+    private final int numberOfThreads;
+
+    /** The approximate number of bytes of a file processed by a single task. */
+    private final int chunkSize;
+
+    /**
+     * Creates a new builder.
+     *
+     * @param charset         Character encoding used by files.
+     * @param reverse         if {@code true} trees will store characters in the reverse order.
+     * @param withData        if {@code true} trees will contain an index value assigned to each
+     *                        word.
+     * @param numberOfThreads The number of threads used for creating a tree.
+     * @param chunkSize       The approximate number of bytes of a file processed by a single
+     *                        task.
+     */
+    ParallelBaseTreeBuilder(final Charset charset, final boolean reverse, final boolean withData,
+                            final int numberOfThreads, final int chunkSize) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads);
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.charset = charset;
+        this.reverse = reverse;
+        this.withData = withData;
+        this.numberOfThreads = numberOfThreads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates a tree from words read from the specified file.
+     *
+     * @param filePath Path to text file with words separated by white space characters.
+     *
+     * @return A newly created tree.
+     *
+     * @throws IOException if any i/o error occurred.
+     */
+    Tree build(final String filePath) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Path path = Paths.get(filePath);
+        int numberOfPartitions = numberOfThreads == 1 ? 1 : PARTITIONS_PER_THREAD * numberOfThreads;
+        ExecutorService pool = numberOfThreads == 1 ? null
+                               : Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
+            ObjectTreeNode[] roots = new ObjectTreeNode[numberOfPartitions];
+            for (int i = 0; i < numberOfPartitions; i++) {
+                roots[i] = factory.createTreeNode(null);
+            }
+            WordCounter counter = new WordCounter();
+            if (isSplittable(charset)) {
+                readMappedChunks(path, pool, roots, counter);
+            } else {
+                readStream(path, pool, roots, counter);
+            }
+
+            List<Callable<List<ObjectTreeNode>>> sortTasks = new ArrayList<>(numberOfPartitions);
+            for (ObjectTreeNode root : roots) {
+                sortTasks.add(new PartitionSorter(root));
+            }
+            List<ObjectTreeNode> children = new ArrayList<>();
+            for (List<ObjectTreeNode> part : invoke(pool, sortTasks)) {
+                children.addAll(part);
+            }
+            Collections.sort(children);
+
+            Tree result = factory.createTree();
+            result.getRoot().setChildren(children);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format(
+                        "Base tree created from %d words in %d chunks using %d threads in %d ms.",
+                        counter.numberOfWords, counter.numberOfChunks, numberOfThreads,
+                        System.currentTimeMillis() - startTime));
+            }
+            return result;
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Reads words from memory mapped chunks of the specified file in rounds of at most one chunk
+     * per thread and inserts them into partial trees.
+     *
+     * @param path    The path to a file.
+     * @param pool    The pool of threads or null if the current thread should do all work.
+     * @param roots   Roots of partial trees, one per partition.
+     * @param counter Counts words and chunks already inserted into partial trees.
+     *
+     * @throws IOException if any i/o error occurred.
+     */
+    private void readMappedChunks(final Path path, final ExecutorService pool,
+                                  final ObjectTreeNode[] roots, final WordCounter counter)
+            throws IOException {
+        long[] bounds = findChunkBounds(path);
+        for (int first = 1; first < bounds.length; first += numberOfThreads) {
+            int last = Math.min(bounds.length, first + numberOfThreads);
+            List<Callable<Chunk>> readTasks = new ArrayList<>(last - first);
+            for (int i = first; i < last; i++) {
+                readTasks.add(new MappedChunkReader(path, i - 1, bounds[i - 1], bounds[i],
+                                                    roots.length));
+            }
+            insertWords(pool, invoke(pool, readTasks), roots, counter);
+        }
+    }
+
+    /**
+     * Reads words from the specified file sequentially and inserts them into partial trees in
+     * portions of about {@code chunkSize} characters.
+     *
+     * @param path    The path to a file.
+     * @param pool    The pool of threads or null if the current thread should do all work.
+     * @param roots   Roots of partial trees, one per partition.
+     * @param counter Counts words and chunks already inserted into partial trees.
+     *
+     * @throws IOException if any i/o error occurred.
+     */
+    private void readStream(final Path path, final ExecutorService pool,
+                            final ObjectTreeNode[] roots, final WordCounter counter)
+            throws IOException {
+        Chunk chunk = new Chunk(roots.length);
+        char[] buffer = new char[BUFFER_SIZE];
+        long position = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, charset)) {
+            int count;
+            while ((count = reader.read(buffer)) >= 0) {
+                chunk.process(buffer, 0, count);
+                position += count;
+                if (chunk.numberOfCharacters >= chunkSize) {
+                    Chunk next = chunk.next();
+                    insertWords(pool, Collections.singletonList(chunk), roots, counter);
+                    chunk = next;
+                }
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Cannot read {0} after character {1}",
+                       new Object[]{path, position});
+            throw ex;
+        }
+        chunk.finish();
+        insertWords(pool, Collections.singletonList(chunk), roots, counter);
+    }
+
+    /**
+     * Inserts words of the given chunks into partial trees using a separate task for each
+     * partition.
+     *
+     * @param pool    The pool of threads or null if the current thread should do all work.
+     * @param chunks  Successive chunks of a file.
+     * @param roots   Roots of partial trees, one per partition.
+     * @param counter Counts words and chunks already inserted into partial trees; the position of
+     *                the first word of the given chunks in the file.
+     *
+     * @throws IOException if any task has thrown an i/o error.
+     */
+    private void insertWords(final ExecutorService pool, final List<Chunk> chunks,
+                             final ObjectTreeNode[] roots, final WordCounter counter)
+            throws IOException {
+        int[] offsets = new int[chunks.size()];
+        for (int i = 0; i < chunks.size(); i++) {
+            offsets[i] = counter.numberOfWords;
+            counter.numberOfWords += chunks.get(i).numberOfWords;
+        }
+        counter.numberOfChunks += chunks.size();
+        List<Callable<Void>> buildTasks = new ArrayList<>(roots.length);
+        for (int i = 0; i < roots.length; i++) {
+            buildTasks.add(new PartitionBuilder(chunks, offsets, i, roots[i]));
+        }
+        invoke(pool, buildTasks);
+    }
+
+    /**
+     * Checks if white space bytes always encode white space characters in the given charset.
+     *
+     * @param charset The character encoding of a file.
+     *
+     * @return {@code true} if a file can be split into chunks at white space bytes.
+     */
+    static boolean isSplittable(final Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        boolean singleByte = charset.newEncoder().maxBytesPerChar() == 1.0f;
+        return (singleByte || StandardCharsets.UTF_8.equals(charset))
+               && Arrays.equals(WHITE_SPACES.getBytes(StandardCharsets.US_ASCII),
+                                WHITE_SPACES.getBytes(charset));
+    }
+
+    /**
+     * Checks if the given character separates words.
+     *
+     * @param c A character or a byte.
+     *
+     * @return {@code true} if it is one of white space characters matched by the \s regular
+     *         expression.
+     */
+    private static boolean isWhiteSpace(final int c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * Divides the specified file into chunks ending at white space bytes.
+     *
+     * @param path The path to a file.
+     *
+     * @return Positions of the beginnings of successive chunks followed by the size of the file.
+     *
+     * @throws IOException if any i/o error occurred.
+     */
+    private long[] findChunkBounds(final Path path) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer probe = ByteBuffer.allocate(4096);
+            long pos = chunkSize;
+            while (pos < size) {
+                long bound = findWhiteSpace(channel, pos, size, probe);
+                if (bound >= size) {
+                    break;
+                }
+                bounds.add(bound + 1);
+                pos = bound + 1 + chunkSize;
+            }
+            bounds.add(size);
+        }
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first white space byte at or after the given position.
+     *
+     * @param channel The channel of a file.
+     * @param from    The position from which the search starts.
+     * @param size    The size of the file.
+     * @param probe   The buffer used for reading the file.
+     *
+     * @return The position of the found byte or the size of the file if there is no such byte.
+     *
+     * @throws IOException if any i/o error occurred.
+     */
+    private static long findWhiteSpace(final FileChannel channel, final long from,
+                                       final long size, final ByteBuffer probe)
+            throws IOException {
+        long pos = from;
+        while (pos < size) {
+            probe.clear();
+            int count = channel.read(probe, pos);
+            if (count <= 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                if (isWhiteSpace(probe.get(i))) {
+                    return pos + i;
+                }
+            }
+            pos += count;
+        }
+        return size;
+    }
+
+    /**
+     * Executes the given tasks using the given pool of threads.
+     *
+     * @param <T>   The type of results of tasks.
+     * @param pool  The pool of threads or null if tasks should be executed by the current thread.
+     * @param tasks The list of tasks.
+     *
+     * @return Results of tasks in the order of tasks.
+     *
+     * @throws IOException if any task has thrown an i/o error.
+     */
+    private static <T> List<T> invoke(final ExecutorService pool,
+                                      final List<? extends Callable<T>> tasks)
+            throws IOException {
+        List<T> result = new ArrayList<>(tasks.size());
+        try {
+            if (pool == null) {
+                for (Callable<T> task : tasks) {
+                    result.add(task.call());
+                }
+            } else {
+                for (Future<T> future : pool.invokeAll(tasks)) {
+                    result.add(future.get());
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Creation of a base tree has been interrupted");
+        } catch (ExecutionException ex) {
+            throw rethrow(ex.getCause());
+        } catch (IOException | RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw rethrow(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Converts an exception thrown by a task to an exception thrown by this builder.
+     *
+     * @param cause The exception thrown by a task.
+     *
+     * @return The i/o exception which should be thrown.
+     */
+    private static IOException rethrow(final Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * Counts words and chunks inserted into partial trees.
+     */
+    private static final class WordCounter {
+
+        /** The number of inserted words, which is also the index of the next word. */
+        private int numberOfWords;
+
+        /** The number of inserted chunks. */
+        private int numberOfChunks;
+
+    }
+
+    /**
+     * Words of a single partition read from a chunk of a file.
+     */
+    private static final class Partition {
+
+        /** Words in the order of occurrences in a chunk. */
+        private String[] words = new String[16];
+
+        /** Positions of words in a chunk. */
+        private int[] indexes = new int[16];
+
+        /** The number of words. */
+        private int size;
+
+        void add(final String word, final int index) {
+            if (size == words.length) {
+                words = Arrays.copyOf(words, 2 * size);
+                indexes = Arrays.copyOf(indexes, 2 * size);
+            }
+            words[size] = word;
+            indexes[size++] = index;
+        }
+
+    }
+
+    /**
+     * Words read from a chunk of a file.
+     * <p>
+     * Words are split at white space characters by a hand written tokenizer which is fed with
+     * successive buffers of decoded characters.
+     * </p>
+     */
+    private final class Chunk {
+
+        /** Words divided into partitions. */
+        private final Partition[] partitions;
+
+        /** The number of words read from the chunk. */
+        private int numberOfWords;
+
+        /** The number of characters passed to the chunk. */
+        private long numberOfCharacters;
+
+        /** The beginning of a word which has not been finished in the previous buffer. */
+        private final StringBuilder pending = new StringBuilder();
+
+        Chunk(final int numberOfPartitions) {
+            partitions = new Partition[numberOfPartitions];
+            for (int i = 0; i < numberOfPartitions; i++) {
+                partitions[i] = new Partition();
+            }
+        }
+
+        /**
+         * Splits the given characters into words.
+         *
+         * @param buffer The buffer of characters.
+         * @param offset The position of the first character in the buffer.
+         * @param length The number of characters.
+         */
+        void process(final char[] buffer, final int offset, final int length) {
+            numberOfCharacters += length;
+            final int end = offset + length;
+            int start = offset;
+            for (int i = offset; i < end; i++) {
+                if (isWhiteSpace(buffer[i])) {
+                    if (pending.length() > 0) {
+                        pending.append(buffer, start, i - start);
+                        addWord(pending.toString());
+                        pending.setLength(0);
+                    } else if (i > start) {
+                        addWord(new String(buffer, start, i - start));
+                    }
+                    start = i + 1;
+                }
+            }
+            if (start < end) {
+                pending.append(buffer, start, end - start);
+            }
+        }
+
+        /**
+         * Adds the last word of the chunk.
+         */
+        void finish() {
+            if (pending.length() > 0) {
+                addWord(pending.toString());
+                pending.setLength(0);
+            }
+        }
+
+        /**
+         * Creates a chunk which continues this chunk, so a word which has not been finished in
+         * this chunk is finished in the returned chunk.
+         *
+         * @return The next chunk.
+         */
+        Chunk next() {
+            Chunk result = new Chunk(partitions.length);
+            result.pending.append(pending);
+            pending.setLength(0);
+            return result;
+        }
+
+        private void addWord(final String word) {
+            int key = reverse ? word.charAt(word.length() - 1) : word.charAt(0);
+            partitions[key % partitions.length].add(word, numberOfWords++);
+        }
+
+    }
+
+    /**
+     * Reads words from a memory mapped chunk of a file.
+     */
+    private final class MappedChunkReader implements Callable<Chunk> {
+
+        private final Path path;
+
+        private final int number;
+
+        private final long start;
+
+        private final long end;
+
+        private final int numberOfPartitions;
+
+        MappedChunkReader(final Path path, final int number, final long start, final long end,
+                          final int numberOfPartitions) {
+            this.path = path;
+            this.number = number;
+            this.start = start;
+            this.end = end;
+            this.numberOfPartitions = numberOfPartitions;
+        }
+
+        @Override
+        public Chunk call() throws IOException {
+            Chunk chunk = new Chunk(numberOfPartitions);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer input = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                                                     end - start);
+                CharsetDecoder decoder = charset.newDecoder();
+                CharBuffer output = CharBuffer.allocate(BUFFER_SIZE);
+                CoderResult result;
+                do {
+                    result = decoder.decode(input, output, true);
+                    if (result.isError()) {
+                        result.throwException();
+                    }
+                    chunk.process(output.array(), 0, output.position());
+                    output.clear();
+                } while (result.isOverflow());
+                do {
+                    result = decoder.flush(output);
+                    chunk.process(output.array(), 0, output.position());
+                    output.clear();
+                } while (result.isOverflow());
+            } catch (IOException ex) {
+                LOGGER.log(Level.SEVERE, "Cannot read chunk {0} (bytes from {1} to {2}) of {3}",
+                           new Object[]{number, start, end, path});
+                throw ex;
+            }
+            chunk.finish();
+            return chunk;
+        }
+
+    }
+
+    /**
+     * Inserts words of a single partition into a partial tree.
+     */
+    private final class PartitionBuilder implements Callable<Void> {
+
+        private final List<Chunk> chunks;
+
+        private final int[] offsets;
+
+        private final int partition;
+
+        private final ObjectTreeNode root;
+
+        PartitionBuilder(final List<Chunk> chunks, final int[] offsets, final int partition,
+                         final ObjectTreeNode root) {
+            this.chunks = chunks;
+            this.offsets = offsets;
+            this.partition = partition;
+            this.root = root;
+        }
+
+        @Override
+        public Void call() {
+            ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
+            for (int i = 0; i < chunks.size(); i++) {
+                Partition words = chunks.get(i).partitions[partition];
+                for (int j = 0; j < words.size; j++) {
+                    String word = words.words[j];
+                    LinkedListTreeTools.addStringToTree(
+                            factory, reverse, root, word, reverse ? word.length() - 1 : 0,
+                            withData ? offsets[i] + words.indexes[j] : -1);
+                    words.words[j] = null;
+                }
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * Sorts a partial tree and returns children of its root.
+     */
+    private static final class PartitionSorter implements Callable<List<ObjectTreeNode>> {
+
+        private final ObjectTreeNode root;
+
+        PartitionSorter(final ObjectTreeNode root) {
+            this.root = root;
+        }
+
+        @Override
+        public List<ObjectTreeNode> call() {
+            root.sort();
+            return new ArrayList<>(root.getChildren());
+        }
+
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.collections.array.BitsArray;
+
+/**
+ * Auxiliary index of children of high fan-out nodes in a linked list tree.
+ * <p>
+ * Lookups in a linked list tree compare the searched value code with every sibling until a
+ * greater value code is found. For nodes having many children (e.g. a root of a dictionary) this
+ * index stores a sorted table of value codes and positions of children, so a lookup can jump
+ * straight to the searched child.
+ * </p>
+ * <p>
+ * Only lists of siblings which do not contain absolute pointers are indexed, so the layout of a
+ * compressed tree is not changed. A list of children is identified by the position of its first
+ * unit. Lists of small nodes are not indexed and they are scanned linearly as before.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public final class SiblingIndex {
+
+    /**
+     * Marks first units of indexed lists of siblings; the rank of a marked unit identifies the
+     * table of its list.
+     */
+    private final BitsArray indexedStarts;
+
+    /** Offsets of tables of indexed lists in the codes and positions arrays. */
+    private final int[] offsets;
+
+    /** Value codes of children. */
+    private final int[] codes;
+
+    /** Positions of children. */
+    private final int[] positions;
+
+    /** The minimum number of children of an indexed node. */
+    private final int minNumberOfChildren;
+
+    /**
+     * Creates an index from computed tables.
+     *
+     * @param indexedStarts       Marks first units of indexed lists.
+     * @param offsets             Offsets of tables of indexed lists.
+     * @param codes               Value codes of children.
+     * @param positions           Positions of children.
+     * @param minNumberOfChildren The minimum number of children of an indexed node.
+     */
+    private SiblingIndex(final BitsArray indexedStarts, final int[] offsets, final int[] codes,
+                         final int[] positions, final int minNumberOfChildren) {
+        this.indexedStarts = indexedStarts;
+        this.offsets = offsets;
+        this.codes = codes;
+        this.positions = positions;
+        this.minNumberOfChildren = minNumberOfChildren;
+    }
+
+    /**
+     * Creates an index of lists of siblings in the specified unit array.
+     *
+     * @param units               The units of a linked list tree.
+     * @param minNumberOfChildren Lists having fewer units are not indexed.
+     *
+     * @return The created index.
+     */
+    public static SiblingIndex create(final LinkedListTreeUnitArray units,
+                                      final int minNumberOfChildren) {
+        if (minNumberOfChildren < 2) {
+            throw new IllegalArgumentException(
+                    "Invalid minimum number of children: " + minNumberOfChildren);
+        }
+        int size = units.size();
+        int[] listLengths = computeListLengths(units);
+        BitsArray candidates = new BitsArray(size);
+        for (int i = 0; i < size; i++) {
+            if (units.isAbsolutePointer(i)) {
+                int target = units.getDistance(i);
+                if (target != i && target >= 0 && target < size) {
+                    candidates.set(target, true);
+                }
+                if (i + 1 < size) {
+                    candidates.set(i + 1, true);
+                }
+            } else if (units.isWordContinued(i) && i + 1 < size) {
+                candidates.set(i + 1, true);
+            }
+        }
+        int numberOfLists = 0;
+        int numberOfChildren = 0;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (listLengths[i] >= minNumberOfChildren) {
+                ++numberOfLists;
+                numberOfChildren += listLengths[i];
+            }
+        }
+        BitsArray indexedStarts = new BitsArray(size);
+        int[] offsets = new int[numberOfLists + 1];
+        int[] codes = new int[numberOfChildren];
+        int[] positions = new int[numberOfChildren];
+        int list = 0;
+        int offset = 0;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (listLengths[i] >= minNumberOfChildren) {
+                indexedStarts.set(i, true);
+                offsets[list++] = offset;
+                int pos = i;
+                for (int j = listLengths[i]; j > 0; j--) {
+                    codes[offset] = units.getValueCode(pos);
+                    positions[offset++] = pos;
+                    pos += units.getDistance(pos);
+                }
+            }
+        }
+        offsets[list] = offset;
+        indexedStarts.compact();
+        indexedStarts.buildRankIndex();
+        return new SiblingIndex(indexedStarts, offsets, codes, positions, minNumberOfChildren);
+    }
+
+    /**
+     * Computes lengths of lists of siblings starting at each position of the array.
+     *
+     * @param units The units of a linked list tree.
+     *
+     * @return For each position, the number of siblings following each other from this position
+     *         without absolute pointers and with increasing value codes, or 0 if a list of
+     *         siblings cannot be indexed from this position.
+     */
+    private static int[] computeListLengths(final LinkedListTreeUnitArray units) {
+        int size = units.size();
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            if (!units.isAbsolutePointer(i)) {
+                int distance = units.getDistance(i);
+                if (distance == 0) {
+                    result[i] = 1;
+                } else if (distance > 0 && i + distance < size && result[i + distance] > 0
+                           && units.getValueCode(i + distance) > units.getValueCode(i)) {
+                    result[i] = result[i + distance] + 1;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds a table of the list of siblings starting at the specified position.
+     *
+     * @param start The position of the first unit of a list of siblings.
+     *
+     * @return The identifier of the table or -1 if the list is not indexed.
+     */
+    public int findTable(final int start) {
+        if (start >= indexedStarts.size() || !indexedStarts.get(start)) {
+            return -1;
+        }
+        return indexedStarts.rank1(start);
+    }
+
+    /**
+     * Returns the position of the last unit of an indexed list of siblings.
+     *
+     * @param table The identifier of a table (see {@link #findTable(int)}).
+     *
+     * @return The position of the last sibling.
+     */
+    public int getLastChild(final int table) {
+        return positions[offsets[table + 1] - 1];
+    }
+
+    /**
+     * Finds the first sibling having a value code not smaller than the specified value code.
+     *
+     * @param table     The identifier of a table (see {@link #findTable(int)}).
+     * @param valueCode The searched value code.
+     *
+     * @return The position of the found sibling or -1 if all siblings have smaller value codes.
+     */
+    public int ceilingChild(final int table, final int valueCode) {
+        int low = offsets[table];
+        int high = offsets[table + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int code = codes[mid];
+            if (code < valueCode) {
+                low = mid + 1;
+            } else if (code > valueCode) {
+                high = mid - 1;
+            } else {
+                return positions[mid];
+            }
+        }
+        return low < offsets[table + 1] ? positions[low] : -1;
+    }
+
+    /**
+     * Returns the number of indexed lists of siblings.
+     *
+     * @return The number of tables in this index.
+     */
+    public int getNumberOfIndexedNodes() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the minimum number of children of an indexed node.
+     *
+     * @return The number of children from which lists of siblings are indexed.
+     */
+    public int getMinNumberOfChildren() {
+        return minNumberOfChildren;
+    }
+
+    /**
+     * Returns an estimated number of bytes used by this index.
+     *
+     * @return The size of this object in bytes.
+     */
+    public long getAllocationSize() {
+        long result = 16 + 5 * 4L;
+        result += indexedStarts.getAllocationSize();
+        result += 3 * 16 + (offsets.length + codes.length + positions.length) * 4L;
+        return result;
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import java.util.Arrays;
+
+/**
+ * Creates a sorted suffix array of a {@link LinkedListTreeUnitArray} in linear time.
+ * <p>
+ * The LZTrie compression compares unit sequences only on their first two units (see
+ * {@link SuffixArrayComparator}). Therefore a suffix array can be built without comparisons:
+ * <ol>
+ * <li>all units are sorted by their fields (valueCode, wordEnd, wordContinued, distance,
+ * dataCode) and each unit receives a dense rank - equal units get the same rank,</li>
+ * <li>positions are sorted by pairs of ranks (rank[i], rank[i+1]) and by positions.</li>
+ * </ol>
+ * Both steps use the LSD radix sort on primitive arrays, so the time complexity is O(N) and the
+ * transient memory is limited to three integer arrays of the unit array size.
+ * </p>
+ * <p>
+ * The result is exactly the same as an array of positions sorted by the
+ * {@link SuffixArrayComparator} with the {@code byPositions} flag switched on.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+final class SuffixArraySorter {
+
+    /** Number of bits in a single digit of the radix sort. */
+    private static final int DIGIT_BITS = 8;
+
+    /** Number of different values of a single digit. */
+    private static final int RADIX = 1 << DIGIT_BITS;
+
+    /** Mask extracting a single digit. */
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    /** Units to sort. */
+    private final LinkedListTreeUnitArray units;
+
+    /** Number of units in the array. */
+    private final int size;
+
+    /** Buffer used by the radix sort. */
+    private int[] buffer;
+
+    /** Counters of digits used by the radix sort. */
+    private final int[] counters = new int[RADIX];
+
+    /**
+     * Constructs a sorter for the specified unit array.
+     *
+     * @param units The units to sort.
+     */
+    private SuffixArraySorter(final LinkedListTreeUnitArray units) {
+        this.units = units;
+        this.size = units.size();
+    }
+
+    /**
+     * Returns positions of unit sequences in the specified array sorted alphabetically.
+     *
+     * @param units An array of units constructing a linked list tree.
+     *
+     * @return The sorted suffix array.
+     */
+    static int[] createSuffixArray(final LinkedListTreeUnitArray units) {
+        return new SuffixArraySorter(units).sort();
+    }
+
+    /**
+     * Sorts positions of the unit array.
+     *
+     * @return The sorted suffix array.
+     */
+    private int[] sort() {
+        if (size == 0) {
+            return new int[0];
+        }
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        buffer = new int[size];
+
+        // sort units by their fields, from the least significant one
+        order = radixSort(order, size, new SortKey() {
+            @Override
+            int get(int pos) {
+                return units.isWordEnd(pos) ? units.getDataCode(pos) : 0;
+            }
+        });
+        order = radixSort(order, size, new SortKey() {
+            @Override
+            int get(int pos) {
+                return units.getDistance(pos);
+            }
+        });
+        order = radixSort(order, size, new SortKey() {
+            @Override
+            int get(int pos) {
+                return (units.getValueCode(pos) << 2)
+                        + (units.isWordEnd(pos) ? 2 : 0)
+                        + (units.isWordContinued(pos) ? 1 : 0);
+            }
+        });
+
+        // assign dense ranks to units
+        final int[] ranks = buffer;
+        int rank = 0;
+        ranks[order[0]] = rank;
+        for (int i = 1; i < size; i++) {
+            if (units.compareUnits(order[i - 1], order[i]) != 0) {
+                ++rank;
+            }
+            ranks[order[i]] = rank;
+        }
+        buffer = order;
+
+        // The last unit goes to the end, other positions are sorted by pairs of ranks.
+        final int maxPos = size - 1;
+        int[] result = new int[size];
+        for (int i = 0; i < maxPos; i++) {
+            result[i] = i;
+        }
+        result = radixSort(result, maxPos, new SortKey() {
+            @Override
+            int get(int pos) {
+                return ranks[pos + 1];
+            }
+        });
+        result = radixSort(result, maxPos, new SortKey() {
+            @Override
+            int get(int pos) {
+                return ranks[pos];
+            }
+        });
+        result[maxPos] = maxPos;
+        buffer = null;
+        return result;
+    }
+
+    /**
+     * Stable sorts the specified positions by the specified key.
+     * <p>
+     * The method uses the internal buffer as a target of odd passes, so the returned array can be
+     * the input array or the buffer. The other array becomes the new buffer.
+     * </p>
+     *
+     * @param positions Positions to sort.
+     * @param length    Number of positions to sort.
+     * @param key       Extracts a sort key of a position.
+     *
+     * @return Sorted positions.
+     */
+    private int[] radixSort(final int[] positions, final int length, final SortKey key) {
+        if (length == 0) {
+            return positions;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < length; i++) {
+            int value = key.get(positions[i]);
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+        }
+        long range = (long) max - (long) min;
+        int[] src = positions;
+        int[] dst = buffer;
+        for (int shift = 0; shift < Integer.SIZE && (range >>> shift) > 0; shift += DIGIT_BITS) {
+            Arrays.fill(counters, 0);
+            for (int i = 0; i < length; i++) {
+                ++counters[((key.get(src[i]) - min) >>> shift) & DIGIT_MASK];
+            }
+            int offset = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int count = counters[d];
+                counters[d] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < length; i++) {
+                int pos = src[i];
+                dst[counters[((key.get(pos) - min) >>> shift) & DIGIT_MASK]++] = pos;
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        buffer = dst;
+        return src;
+    }
+
+    /**
+     * Extracts a sort key for a position in the unit array.
+     */
+    private abstract static class SortKey {
+
+        /**
+         * Returns a key for the specified position.
+         *
+         * @param pos The position in the unit array.
+         *
+         * @return Integer key.
+         */
+        abstract int get(int pos);
+    }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import org.neurpheus.logging.LoggerService;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects statistics about the internal cost of lookups in a linked list tree.
+ * <p>
+ * Metrics are attached to a tree by the {@link LinkedListTree#setTraversalMetrics} method and
+ * are collected by the {@link LinkedListTreeNode#getChild(Integer, int[], int)},
+ * {@link LinkedListTreeNode#findChildren} and {@link LinkedListTreeNode#getData} methods. For
+ * each lookup the number of scanned units, the number of followed absolute pointers and the
+ * maximum depth of the stack are recorded in histograms. Metrics can be registered as a JMX bean,
+ * so degradation of a dictionary (for example after recompression) can be observed at runtime.
+ * </p>
+ * <p>
+ * Trees without metrics pay only for a single check per lookup. The instrumentation can be
+ * removed completely by setting the system property
+ * {@code org.neurpheus.collections.tree.linkedlist.traversalMetrics.disabled} to {@code true};
+ * the JIT compiler drops all guarded code in this case.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public final class TraversalMetrics implements TraversalMetricsMBean {
+
+    /** Holds the logger for this class. */
+    private static final Logger LOGGER = LoggerService.getLogger(TraversalMetrics.class);
+
+    /** Indicates if the traversal instrumentation is compiled into lookup methods. */
+    static final boolean ENABLED = !Boolean.getBoolean(
+            "org.neurpheus.collections.tree.linkedlist.traversalMetrics.disabled");
+
+    /** The domain and type of names of registered JMX beans. */
+    private static final String OBJECT_NAME_PREFIX
+            = "org.neurpheus.collections.tree.linkedlist:type=TraversalMetrics,name=";
+
+    /** The number of buckets in histograms - one for each possible bit length of a count. */
+    private static final int NUMBER_OF_BUCKETS = Integer.SIZE + 1;
+
+    /** The name of a measured tree. */
+    private final String name;
+
+    /** The number of measured lookups. */
+    private final AtomicLong lookups = new AtomicLong();
+
+    /** The total number of scanned units. */
+    private final AtomicLong unitsScanned = new AtomicLong();
+
+    /** The total number of followed absolute pointers. */
+    private final AtomicLong pointerHops = new AtomicLong();
+
+    /** The maximum depth of the stack. */
+    private final AtomicInteger maxStackDepth = new AtomicInteger();
+
+    /** The histogram of scanned units per lookup. */
+    private final AtomicLongArray unitsScannedHistogram = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+    /** The histogram of followed absolute pointers per lookup. */
+    private final AtomicLongArray pointerHopsHistogram = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+    /** The histogram of stack depths per lookup. */
+    private final AtomicLongArray stackDepthHistogram = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+    /** The name under which this object has been registered as a JMX bean. */
+    private ObjectName objectName;
+
+    /**
+     * Creates new empty metrics.
+     *
+     * @param name The name of a measured tree used also as a name of a JMX bean.
+     */
+    public TraversalMetrics(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of a measured tree.
+     *
+     * @return The name of the tree.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Starts measuring a single lookup.
+     *
+     * @return A probe collecting counts of the lookup.
+     */
+    Probe startLookup() {
+        return new Probe();
+    }
+
+    /**
+     * Records counts of a finished lookup.
+     *
+     * @param probe The probe which collected the counts.
+     */
+    private void record(final Probe probe) {
+        lookups.incrementAndGet();
+        unitsScanned.addAndGet(probe.unitsScanned);
+        pointerHops.addAndGet(probe.pointerHops);
+        int depth = probe.stackDepth;
+        int max = maxStackDepth.get();
+        while (depth > max && !maxStackDepth.compareAndSet(max, depth)) {
+            max = maxStackDepth.get();
+        }
+        unitsScannedHistogram.incrementAndGet(bucket(probe.unitsScanned));
+        pointerHopsHistogram.incrementAndGet(bucket(probe.pointerHops));
+        stackDepthHistogram.incrementAndGet(bucket(depth));
+    }
+
+    /**
+     * Returns a histogram bucket of the specified count.
+     *
+     * @param count A non negative count.
+     *
+     * @return The number of bits required to store the count.
+     */
+    private static int bucket(final int count) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(count);
+    }
+
+    /**
+     * Returns a copy of the specified histogram.
+     *
+     * @param histogram The histogram to copy.
+     *
+     * @return Counts of lookups in successive buckets up to the last non-empty bucket.
+     */
+    private static long[] toArray(final AtomicLongArray histogram) {
+        int length = histogram.length();
+        while (length > 1 && histogram.get(length - 1) == 0) {
+            length--;
+        }
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = histogram.get(i);
+        }
+        return result;
+    }
+
+    @Override
+    public long getLookups() {
+        return lookups.get();
+    }
+
+    @Override
+    public long getUnitsScanned() {
+        return unitsScanned.get();
+    }
+
+    @Override
+    public long getPointerHops() {
+        return pointerHops.get();
+    }
+
+    @Override
+    public double getMeanUnitsScanned() {
+        long count = lookups.get();
+        return count == 0 ? 0 : unitsScanned.get() / (double) count;
+    }
+
+    @Override
+    public double getMeanPointerHops() {
+        long count = lookups.get();
+        return count == 0 ? 0 : pointerHops.get() / (double) count;
+    }
+
+    @Override
+    public int getMaxStackDepth() {
+        return maxStackDepth.get();
+    }
+
+    @Override
+    public long[] getUnitsScannedHistogram() {
+        return toArray(unitsScannedHistogram);
+    }
+
+    @Override
+    public long[] getPointerHopsHistogram() {
+        return toArray(pointerHopsHistogram);
+    }
+
+    @Override
+    public long[] getStackDepthHistogram() {
+        return toArray(stackDepthHistogram);
+    }
+
+    @Override
+    public void reset() {
+        lookups.set(0);
+        unitsScanned.set(0);
+        pointerHops.set(0);
+        maxStackDepth.set(0);
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            unitsScannedHistogram.set(i, 0);
+            pointerHopsHistogram.set(i, 0);
+            stackDepthHistogram.set(i, 0);
+        }
+    }
+
+    /**
+     * Registers these metrics in the platform MBean server.
+     *
+     * @return The name of the registered bean.
+     *
+     * @throws JMException if the bean cannot be registered.
+     */
+    public synchronized ObjectName register() throws JMException {
+        if (objectName == null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName newName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name));
+            server.registerMBean(this, newName);
+            objectName = newName;
+            LOGGER.log(Level.FINE, "Registered traversal metrics {0}", objectName);
+        }
+        return objectName;
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server.
+     *
+     * @throws JMException if the bean cannot be unregistered.
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Traversal metrics %s - lookups: %d; mean units scanned: %.2f; "
+                + "mean pointer hops: %.2f; max stack depth: %d",
+                name, getLookups(), getMeanUnitsScanned(), getMeanPointerHops(),
+                getMaxStackDepth());
+    }
+
+    /**
+     * Collects counts of a single lookup.
+     * <p>
+     * A probe is used by a single thread only, so its counters are not synchronized.
+     * </p>
+     */
+    final class Probe {
+
+        /** The number of scanned units. */
+        private int unitsScanned;
+
+        /** The number of followed absolute pointers. */
+        private int pointerHops;
+
+        /** The maximum depth of the stack. */
+        private int stackDepth;
+
+        /**
+         * Notes that a value code of a unit has been compared with a searched key.
+         */
+        void unitScanned() {
+            unitsScanned++;
+        }
+
+        /**
+         * Notes that an absolute pointer has been followed.
+         *
+         * @param stackSize The number of stack elements used by the lookup.
+         */
+        void pointerFollowed(final int stackSize) {
+            pointerHops++;
+            // each nested pointer occupies three stack elements
+            stackDepth = Math.max(stackDepth, stackSize / 3);
+        }
+
+        /**
+         * Records counts of the finished lookup in the metrics.
+         */
+        void finish() {
+            record(this);
+        }
+    }
+
+}
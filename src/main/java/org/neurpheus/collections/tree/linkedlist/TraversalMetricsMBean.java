@@ -0,0 +1,98 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+/**
+ * Management interface of {@link TraversalMetrics} exposed through JMX.
+ *
+ * @author Jakub Strychowski
+ */
+public interface TraversalMetricsMBean {
+
+    /**
+     * Returns the number of measured lookups.
+     *
+     * @return The number of calls of measured traversal methods.
+     */
+    long getLookups();
+
+    /**
+     * Returns the total number of units scanned by all measured lookups.
+     *
+     * @return The number of units which value codes have been compared with searched keys.
+     */
+    long getUnitsScanned();
+
+    /**
+     * Returns the total number of absolute pointers followed by all measured lookups.
+     *
+     * @return The number of absolute pointers.
+     */
+    long getPointerHops();
+
+    /**
+     * Returns the average number of units scanned by a single lookup.
+     *
+     * @return The average number of scanned units.
+     */
+    double getMeanUnitsScanned();
+
+    /**
+     * Returns the average number of absolute pointers followed by a single lookup.
+     *
+     * @return The average number of followed pointers.
+     */
+    double getMeanPointerHops();
+
+    /**
+     * Returns the maximum depth of the stack used by a single lookup.
+     *
+     * @return The maximum number of nested absolute pointers.
+     */
+    int getMaxStackDepth();
+
+    /**
+     * Returns a histogram of units scanned per lookup.
+     * <p>
+     * The bucket {@code b} holds the number of lookups which scanned from 2<sup>b-1</sup> to
+     * 2<sup>b</sup>-1 units (the bucket 0 counts lookups which did not scan any unit).
+     * </p>
+     *
+     * @return Counts of lookups in successive buckets.
+     */
+    long[] getUnitsScannedHistogram();
+
+    /**
+     * Returns a histogram of absolute pointers followed per lookup.
+     *
+     * @return Counts of lookups in successive buckets (see {@link #getUnitsScannedHistogram()}).
+     */
+    long[] getPointerHopsHistogram();
+
+    /**
+     * Returns a histogram of the maximum stack depth per lookup.
+     *
+     * @return Counts of lookups in successive buckets (see {@link #getUnitsScannedHistogram()}).
+     */
+    long[] getStackDepthHistogram();
+
+    /**
+     * Clears all collected measurements.
+     */
+    void reset();
+
+}
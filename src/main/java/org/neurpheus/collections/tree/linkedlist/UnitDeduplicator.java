@@ -0,0 +1,232 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Finds unique units in a linked list tree unit array.
+ * <p>
+ * Fields of each unit are hashed into a 64-bit key and units are grouped in an open-addressing
+ * table mapping keys to positions of first occurrences of units. Units are read directly from an
+ * array, so no {@link LinkedListTreeUnit} objects are created while deduplication. Keys are only
+ * used to find candidates, equal units are always verified by comparing their fields.
+ * </p>
+ * <p>
+ * Deduplication can be executed by many threads. Each thread owns a separate table holding keys
+ * from a disjoint range of hash values, so threads do not need any synchronization.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+final class UnitDeduplicator {
+
+    /** The multiplier used to mix fields of a unit. */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /** The key of all empty units. */
+    private static final long NULL_UNIT_KEY = -1L;
+
+    /** Initial capacity of a hash table. */
+    private static final int INITIAL_TABLE_SIZE = 1024;
+
+    /**
+     * This is a utility class.
+     */
+    private UnitDeduplicator() {
+    }
+
+    /**
+     * Assigns identifiers of unique units to all units of the specified array.
+     * <p>
+     * Identifiers are assigned in order of the first occurrences of units, so the first unit
+     * having the identifier {@code k} is the unit at the first position {@code i} where
+     * {@code result[i] == k}. Empty units (see {@link LinkedListTreeUnitArray#isNull(int)}) are
+     * treated as equal.
+     * </p>
+     *
+     * @param units           The array of units which should be deduplicated.
+     * @param numberOfThreads The number of threads used for deduplication.
+     *
+     * @return The identifier of the unique unit for each position in the array.
+     */
+    static int[] deduplicate(final LinkedListTreeUnitArray units, final int numberOfThreads) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads);
+        }
+        final int[] result = new int[units.size()];
+        if (numberOfThreads == 1 || result.length < INITIAL_TABLE_SIZE) {
+            findFirstOccurrences(units, result, 0, 1);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+            try {
+                List<Future<?>> futures = new ArrayList<>(numberOfThreads);
+                for (int i = 0; i < numberOfThreads; i++) {
+                    final int partition = i;
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            findFirstOccurrences(units, result, partition, numberOfThreads);
+                            return null;
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Deduplication of units interrupted", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Cannot deduplicate units", ex.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        // first occurrences always precede repeated units, so identifiers can be assigned in place
+        int count = 0;
+        for (int i = 0; i < result.length; i++) {
+            int first = result[i];
+            result[i] = first == i ? count++ : result[first];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of unique units assigned by the {@link #deduplicate} method.
+     *
+     * @param identifiers Identifiers of unique units.
+     *
+     * @return The number of unique units.
+     */
+    static int getNumberOfUniqueUnits(final int[] identifiers) {
+        int result = 0;
+        for (int id : identifiers) {
+            if (id == result) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds positions of first occurrences of units belonging to the specified partition.
+     *
+     * @param units           The array of units.
+     * @param result          The array where positions of first occurrences are stored.
+     * @param partition       The partition of hash values processed by this method.
+     * @param numberOfThreads The number of partitions.
+     */
+    private static void findFirstOccurrences(final LinkedListTreeUnitArray units,
+                                             final int[] result, final int partition,
+                                             final int numberOfThreads) {
+        int tableSize = INITIAL_TABLE_SIZE;
+        long[] keys = new long[tableSize];
+        int[] positions = new int[tableSize];
+        int mask = tableSize - 1;
+        int count = 0;
+        int size = units.size();
+        for (int i = 0; i < size; i++) {
+            long key = computeKey(units, i);
+            if ((int) (key >>> 33) % numberOfThreads != partition) {
+                continue;
+            }
+            int slot = (int) key & mask;
+            int first = -1;
+            while (positions[slot] != 0) {
+                if (keys[slot] == key && equalUnits(units, positions[slot] - 1, i)) {
+                    first = positions[slot] - 1;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (first >= 0) {
+                result[i] = first;
+                continue;
+            }
+            result[i] = i;
+            keys[slot] = key;
+            positions[slot] = i + 1;
+            count++;
+            if (count * 2 > tableSize) {
+                tableSize <<= 1;
+                mask = tableSize - 1;
+                long[] newKeys = new long[tableSize];
+                int[] newPositions = new int[tableSize];
+                for (int j = 0; j < keys.length; j++) {
+                    if (positions[j] != 0) {
+                        int newSlot = (int) keys[j] & mask;
+                        while (newPositions[newSlot] != 0) {
+                            newSlot = (newSlot + 1) & mask;
+                        }
+                        newKeys[newSlot] = keys[j];
+                        newPositions[newSlot] = positions[j];
+                    }
+                }
+                keys = newKeys;
+                positions = newPositions;
+            }
+        }
+    }
+
+    /**
+     * Computes a 64-bit hash key from all fields of a unit.
+     *
+     * @param units The array of units.
+     * @param index The position of a unit.
+     *
+     * @return The hash key of the unit.
+     */
+    private static long computeKey(final LinkedListTreeUnitArray units, final int index) {
+        if (units.isNull(index)) {
+            return NULL_UNIT_KEY;
+        }
+        long key = units.getDistance(index);
+        key = key * HASH_MULTIPLIER + units.getDataCode(index);
+        key = key * HASH_MULTIPLIER + ((long) units.getValueCode(index) << 2)
+                + (units.isWordEnd(index) ? 2 : 0)
+                + (units.isWordContinued(index) ? 1 : 0);
+        key *= HASH_MULTIPLIER;
+        return key ^ (key >>> 29);
+    }
+
+    /**
+     * Checks if units at the specified positions are equal.
+     *
+     * @param units  The array of units.
+     * @param index1 The position of the first unit.
+     * @param index2 The position of the second unit.
+     *
+     * @return {@code true} if both units are empty or all their fields are equal.
+     */
+    private static boolean equalUnits(final LinkedListTreeUnitArray units, final int index1,
+                                      final int index2) {
+        boolean null1 = units.isNull(index1);
+        boolean null2 = units.isNull(index2);
+        if (null1 || null2) {
+            return null1 && null2;
+        }
+        return units.equalsUnits(index1, index2);
+    }
+
+}
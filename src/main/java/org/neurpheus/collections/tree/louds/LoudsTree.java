@@ -0,0 +1,506 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.louds;
+
+import org.neurpheus.collections.array.BitsArray;
+import org.neurpheus.collections.array.CompactArray;
+import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTree;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeDataNode;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeNode;
+import org.neurpheus.core.io.DataOutputStreamPacker;
+import org.neurpheus.logging.LoggerService;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Succinct, read-only representation of a tree using the level-order unary degree sequence.
+ * <p>
+ * Nodes are numbered in the breadth-first order starting from 0 for the root. The topology of a
+ * tree is stored in an array of bits, where each node is represented by a sequence of set bits
+ * - one bit for each child - followed by a cleared bit. Therefore the topology takes about 2 bits
+ * per node and children of a node are found by rank and select queries on this array.
+ * </p>
+ * <p>
+ * Values of nodes are stored as codes from a value mapping (see
+ * {@link org.neurpheus.collections.tree.linkedlist.LinkedListTreeUnitArray#getValueMapping()})
+ * in an array of characters indexed by node numbers. Data codes of nodes ending words are stored
+ * in a compact array indexed by the rank of a node in the array of word ends.
+ * </p>
+ * <p>
+ * Contrary to a compressed linked list tree, repeated fragments of a tree are not shared, but a
+ * single node takes only a few bits instead of a whole unit, so this representation trades some
+ * lookup speed for a smaller, predictable size of a dictionary. A tree is created from a linked
+ * list tree by the {@link LoudsTreeFactory#createTree(LinkedListTree)} method.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class LoudsTree implements Tree<Integer, Integer> {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerService.getLogger(LoudsTree.class);
+
+    /** Unique serialization identifier of this class. */
+    static final long serialVersionUID = 770608151111104602L;
+
+    /** Supported version of a data format for a serialized LOUDS tree. */
+    static final byte FORMAT_VERSION = 1;
+
+    /** The number of the root node. */
+    static final int ROOT = 0;
+
+    /** Array of integer where index is a value code, and an element is a decoded value. */
+    private int[] valueMapping;
+
+    /** Value codes of characters or -1 for characters not present in the tree. */
+    private int[] charCodes;
+
+    /** Value codes of nodes indexed by node numbers. */
+    private char[] labels;
+
+    /** The level-order unary degree sequence. */
+    private BitsArray topology;
+
+    /** Marks nodes ending words. */
+    private BitsArray wordEnds;
+
+    /** Data codes of nodes ending words indexed by ranks in the {@link #wordEnds} array. */
+    private CompactArray dataCodes;
+
+    /**
+     * Creates a new tree with only a root node.
+     */
+    protected LoudsTree() {
+        valueMapping = new int[]{0};
+        charCodes = createCharCodes(valueMapping);
+        labels = new char[1];
+        topology = new BitsArray(1);
+        topology.set(0, false);
+        topology.buildRankIndex();
+        wordEnds = new BitsArray(1);
+        wordEnds.set(0, false);
+        wordEnds.buildRankIndex();
+        dataCodes = new CompactArray(0, 1);
+    }
+
+    /**
+     * Builds this tree from the specified linked list tree.
+     *
+     * @param source The linked list tree; it can be compressed.
+     *
+     * @throws IllegalArgumentException if the source tree has values or data codes which cannot
+     *                                  be stored in this tree.
+     */
+    void build(final LinkedListTree source) {
+        long startTime = System.currentTimeMillis();
+        int[] mapping = source.getUnitArray().getValueMapping();
+        if (mapping == null) {
+            throw new IllegalArgumentException("The tree has no value mapping");
+        }
+        if (mapping.length > Character.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("Too many different values: " + mapping.length);
+        }
+        int capacity = source.getUnitArray().size();
+        char[] newLabels = new char[capacity];
+        BitsArray newTopology = new BitsArray(2 * capacity);
+        BitsArray newWordEnds = new BitsArray(capacity);
+        CompactArray newDataCodes = new CompactArray(capacity, 1);
+        Deque<LinkedListTreeNode> queue = new ArrayDeque<>();
+        queue.add(source.getRoot());
+        int numberOfNodes = 1;
+        int bitPos = 0;
+        int node = 0;
+        while (!queue.isEmpty()) {
+            LinkedListTreeNode current = queue.poll();
+            if (current instanceof LinkedListTreeDataNode) {
+                newWordEnds.set(node, true);
+                Integer data = ((LinkedListTreeDataNode) current).getData();
+                if (data < 0) {
+                    throw new IllegalArgumentException(
+                            "Negative data codes are not supported: " + data);
+                }
+                newDataCodes.addIntValue(data);
+            } else {
+                newWordEnds.set(node, false);
+            }
+            for (LinkedListTreeNode child : current.getChildren()) {
+                if (numberOfNodes == newLabels.length) {
+                    newLabels = Arrays.copyOf(newLabels, 2 * newLabels.length);
+                }
+                newLabels[numberOfNodes++] = (char) codeOf(mapping, child.getValue());
+                newTopology.set(bitPos++, true);
+                queue.add(child);
+            }
+            newTopology.set(bitPos++, false);
+            ++node;
+        }
+        newTopology.compact();
+        newTopology.buildRankIndex();
+        newWordEnds.compact();
+        newWordEnds.buildRankIndex();
+        newDataCodes.compact();
+        valueMapping = Arrays.copyOf(mapping, mapping.length);
+        charCodes = createCharCodes(valueMapping);
+        labels = Arrays.copyOf(newLabels, numberOfNodes);
+        topology = newTopology;
+        wordEnds = newWordEnds;
+        dataCodes = newDataCodes;
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("LOUDS tree with %d nodes created in %d ms.",
+                                      numberOfNodes, System.currentTimeMillis() - startTime));
+        }
+    }
+
+    /**
+     * Finds a code of the specified value in a sorted value mapping.
+     *
+     * @param mapping The value mapping.
+     * @param value   The value of a node.
+     *
+     * @return The code of the value.
+     */
+    private static int codeOf(final int[] mapping, final int value) {
+        int code = Arrays.binarySearch(mapping, value);
+        if (code < 0) {
+            // the mapping created by the linked list tree factory is sorted, but it is not required
+            for (code = 0; code < mapping.length && mapping[code] != value; code++) {
+                // searching
+            }
+            if (code == mapping.length) {
+                throw new IllegalArgumentException("Value not found in the mapping: " + value);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Creates value codes of characters from the value mapping.
+     *
+     * @param mapping Array of integer where index is a value code, and an element is a decoded
+     *                value.
+     *
+     * @return Value codes indexed by characters.
+     */
+    private static int[] createCharCodes(final int[] mapping) {
+        int maxValue = 0;
+        for (int value : mapping) {
+            if (value <= Character.MAX_VALUE) {
+                maxValue = Math.max(maxValue, value);
+            }
+        }
+        int[] result = new int[maxValue + 1];
+        Arrays.fill(result, -1);
+        for (int code = 0; code < mapping.length; code++) {
+            int value = mapping[code];
+            if (value >= 0 && value <= maxValue) {
+                result[value] = code;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a code of the specified value.
+     *
+     * @param value The value of a node.
+     *
+     * @return The value code or -1 if the value is not present in the tree.
+     */
+    int mapToValueCode(final int value) {
+        if (value >= 0 && value < charCodes.length) {
+            return charCodes[value];
+        }
+        int code = Arrays.binarySearch(valueMapping, value);
+        return code < 0 ? -1 : code;
+    }
+
+    @Override
+    public LoudsTreeNode getRoot() {
+        return createNode(ROOT);
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link Tree} interface.
+     * <p>
+     * A tree should be constructed by the {@link LoudsTreeFactory#createTree(LinkedListTree)}
+     * method.
+     * </p>
+     *
+     * @param root not used here
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public void setRoot(TreeNode<Integer> root) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        LoudsTree empty = new LoudsTree();
+        valueMapping = empty.valueMapping;
+        charCodes = empty.charCodes;
+        labels = empty.labels;
+        topology = empty.topology;
+        wordEnds = empty.wordEnds;
+        dataCodes = empty.dataCodes;
+    }
+
+    @Override
+    public LoudsTreeFactory getFactory() {
+        return LoudsTreeFactory.getInstance();
+    }
+
+    /**
+     * Creates an object representing the specified node.
+     *
+     * @param node The number of a node.
+     *
+     * @return The node object.
+     */
+    LoudsTreeNode createNode(final int node) {
+        return wordEnds.get(node) ? new LoudsTreeDataNode(this, node)
+                : new LoudsTreeNode(this, node);
+    }
+
+    /**
+     * Returns the number of nodes in this tree.
+     *
+     * @return The number of nodes including the root.
+     */
+    public int getNumberOfNodes() {
+        return labels.length;
+    }
+
+    /**
+     * Returns the position of the first bit describing children of the specified node.
+     *
+     * @param node The number of a node.
+     *
+     * @return The position in the topology array.
+     */
+    private int getChildrenPosition(final int node) {
+        return node == ROOT ? 0 : topology.select0(node) + 1;
+    }
+
+    /**
+     * Returns the number of children of the specified node.
+     *
+     * @param node The number of a node.
+     *
+     * @return The number of children.
+     */
+    int getNumberOfChildren(final int node) {
+        return getNumberOfChildrenAt(getChildrenPosition(node));
+    }
+
+    /**
+     * Returns the number of children described by the topology from the specified position.
+     *
+     * @param pos The position of the first bit describing children of a node.
+     *
+     * @return The number of set bits preceding the next cleared bit.
+     */
+    private int getNumberOfChildrenAt(final int pos) {
+        return topology.nextClearBit(pos) - pos;
+    }
+
+    /**
+     * Returns the number of the first child of the specified node.
+     *
+     * @param node The number of a node.
+     *
+     * @return The number of the first child; it is valid only if the node has children.
+     */
+    int getFirstChild(final int node) {
+        return topology.rank1(getChildrenPosition(node)) + 1;
+    }
+
+    /**
+     * Finds a child of the specified node.
+     *
+     * @param node      The number of a node.
+     * @param valueCode The value code of the child.
+     *
+     * @return The number of the child or -1 if the node has no child with the value code.
+     */
+    int findChild(final int node, final int valueCode) {
+        if (valueCode < 0) {
+            return -1;
+        }
+        int pos = getChildrenPosition(node);
+        int count = getNumberOfChildrenAt(pos);
+        if (count == 0) {
+            return -1;
+        }
+        int low = topology.rank1(pos) + 1;
+        int high = low + count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int code = labels[mid];
+            if (code < valueCode) {
+                low = mid + 1;
+            } else if (code > valueCode) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a decoded value of the specified node.
+     *
+     * @param node The number of a node.
+     *
+     * @return The value of the node.
+     */
+    int getValue(final int node) {
+        return valueMapping[labels[node]];
+    }
+
+    /**
+     * Checks if the specified node ends a word.
+     *
+     * @param node The number of a node.
+     *
+     * @return {@code true} if data are assigned to the node.
+     */
+    boolean isWordEnd(final int node) {
+        return wordEnds.get(node);
+    }
+
+    /**
+     * Returns a data code assigned to the specified node ending a word.
+     *
+     * @param node The number of a node ending a word.
+     *
+     * @return The data code.
+     */
+    int getDataCode(final int node) {
+        return dataCodes.getIntValue(wordEnds.rank1(node));
+    }
+
+    /**
+     * Returns data stored in the tree for the specified word.
+     *
+     * @param word A list of characters describing successive nodes in the tree.
+     *
+     * @return Integer identifier of an object stored in the tree or null if the word is not
+     *         stored in the tree.
+     */
+    public Integer getData(final CharSequence word) {
+        int node = ROOT;
+        for (int i = 0; i < word.length() && node >= 0; i++) {
+            node = findChild(node, mapToValueCode(word.charAt(i)));
+        }
+        return node >= 0 && wordEnds.get(node) ? getDataCode(node) : null;
+    }
+
+    /**
+     * Returns an estimated number of bytes used by this tree.
+     *
+     * @return The size of this object in bytes.
+     */
+    public long getAllocationSize() {
+        long result = 16 + 6 * 4L;
+        result += 16 + valueMapping.length * 4L;
+        result += 16 + charCodes.length * 4L;
+        result += 16 + labels.length * 2L;
+        result += topology.getAllocationSize();
+        result += wordEnds.getAllocationSize();
+        result += dataCodes.getAllocationSize();
+        return result;
+    }
+
+    /**
+     * Returns the number of bits used by the topology of this tree.
+     *
+     * @return The length of the level-order unary degree sequence.
+     */
+    public int getTopologySize() {
+        return topology.size();
+    }
+
+    /**
+     * Writes this tree to the specified data stream.
+     *
+     * @param out Data output stream.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        DataOutputStreamPacker.writeArrayOfIntegers(valueMapping, out);
+        DataOutputStreamPacker.writeInt(labels.length, out);
+        for (char label : labels) {
+            out.writeChar(label);
+        }
+        topology.write(out);
+        wordEnds.write(out);
+        dataCodes.write(out);
+    }
+
+    /**
+     * Reads a content of a tree from the specified data stream.
+     *
+     * @param in Data input stream.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void read(DataInputStream in) throws IOException {
+        if (FORMAT_VERSION != in.readByte()) {
+            throw new IOException("Invalid file format");
+        }
+        valueMapping = DataOutputStreamPacker.readArrayOfIntegers(in);
+        charCodes = createCharCodes(valueMapping);
+        labels = new char[DataOutputStreamPacker.readInt(in)];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = in.readChar();
+        }
+        topology = BitsArray.readInstance(in);
+        topology.buildRankIndex();
+        wordEnds = BitsArray.readInstance(in);
+        wordEnds.buildRankIndex();
+        dataCodes = CompactArray.readInstance(in);
+    }
+
+    /**
+     * Logs statistics about sizes of structures used by this tree.
+     */
+    public void logStatistics() {
+        if (LOGGER.isLoggable(Level.INFO)) {
+            int numberOfNodes = getNumberOfNodes();
+            LOGGER.info(String.format(
+                    "LOUDS tree: %d nodes, %d words, %.2f bits of topology per node, "
+                    + "%d bytes in total.",
+                    numberOfNodes, dataCodes.size(),
+                    (double) getTopologySize() / numberOfNodes, getAllocationSize()));
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.louds;
+
+import org.neurpheus.collections.tree.TreeNodeWithData;
+
+/**
+ * Represents a single node of a LOUDS tree which ends a word and holds data.
+ *
+ * @author Jakub Strychowski
+ */
+public class LoudsTreeDataNode
+        extends LoudsTreeNode
+        implements TreeNodeWithData<Integer, Integer> {
+
+    /**
+     * Constructs a new object representing the specified node.
+     *
+     * @param tree The tree containing the node.
+     * @param node The number of the node.
+     */
+    LoudsTreeDataNode(final LoudsTree tree, final int node) {
+        super(tree, node);
+    }
+
+    @Override
+    public Integer getData() {
+        return tree.getDataCode(node);
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link TreeNodeWithData}
+     * interface.
+     *
+     * @param newData unused here.
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public void setData(Integer newData) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasExtraData() {
+        return true;
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.louds;
+
+import org.neurpheus.collections.tree.TreeFactory;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTree;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Creates LOUDS trees.
+ *
+ * @author Jakub Strychowski
+ */
+public class LoudsTreeFactory implements TreeFactory {
+
+    private static final LoudsTreeFactory INSTANCE = new LoudsTreeFactory();
+
+    /** Creates a new instance of LoudsTreeFactory. */
+    protected LoudsTreeFactory() {
+    }
+
+    /**
+     * Returns the default instance of this factory.
+     *
+     * @return The factory instance.
+     */
+    public static LoudsTreeFactory getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public LoudsTreeNode createTreeNode(Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public LoudsTreeDataNode createTreeNodeWithAdditionalData(Object value, Object data) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public LoudsTree createTree() {
+        return new LoudsTree();
+    }
+
+    /**
+     * Creates a LOUDS tree containing the same nodes as the specified linked list tree.
+     * <p>
+     * Fragments shared by a compressed linked list tree are expanded, so the number of nodes of
+     * the created tree is equal to the number of nodes of the uncompressed tree.
+     * </p>
+     *
+     * @param source The linked list tree; it can be compressed.
+     *
+     * @return The created LOUDS tree.
+     */
+    public LoudsTree createTree(LinkedListTree source) {
+        LoudsTree result = new LoudsTree();
+        result.build(source);
+        return result;
+    }
+
+    /**
+     * Reads a LOUDS tree from the specified data stream.
+     *
+     * @param in Data input stream.
+     *
+     * @return The read tree.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public LoudsTree readTree(DataInputStream in) throws IOException {
+        LoudsTree result = new LoudsTree();
+        result.read(in);
+        return result;
+    }
+
+}
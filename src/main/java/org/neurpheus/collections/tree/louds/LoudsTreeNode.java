@@ -0,0 +1,232 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.louds;
+
+import org.neurpheus.collections.tree.TreeNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a single node of a LOUDS tree.
+ * <p>
+ * A node is only a view of a position in the arrays of a tree, so node objects are created while
+ * traversing a tree and two objects representing the same node are equal.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+public class LoudsTreeNode implements TreeNode<Integer> {
+
+    /** The tree containing this node. */
+    protected final LoudsTree tree;
+
+    /** The number of this node in the breadth-first order. */
+    protected final int node;
+
+    /**
+     * Constructs a new object representing the specified node.
+     *
+     * @param tree The tree containing the node.
+     * @param node The number of the node.
+     */
+    LoudsTreeNode(final LoudsTree tree, final int node) {
+        this.tree = tree;
+        this.node = node;
+    }
+
+    /**
+     * Returns the number of this node in the breadth-first order.
+     *
+     * @return The number of the node; the root has number 0.
+     */
+    public int getNodeNumber() {
+        return node;
+    }
+
+    @Override
+    public Integer getValue() {
+        return tree.getValue(node);
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link TreeNode} interface.
+     *
+     * @param newValue unused here.
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public void setValue(Integer newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return tree.getNumberOfChildren(node) == 0;
+    }
+
+    @Override
+    public boolean hasExtraData() {
+        return false;
+    }
+
+    @Override
+    public List<LoudsTreeNode> getChildren() {
+        int count = tree.getNumberOfChildren(node);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        int first = tree.getFirstChild(node);
+        List<LoudsTreeNode> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(tree.createNode(first + i));
+        }
+        return result;
+    }
+
+    @Override
+    public int getNumberOfChildren() {
+        return tree.getNumberOfChildren(node);
+    }
+
+    @Override
+    public LoudsTreeNode getChild(Integer key) {
+        int child = tree.findChild(node, tree.mapToValueCode(key));
+        return child < 0 ? null : tree.createNode(child);
+    }
+
+    @Override
+    public LoudsTreeNode getChild(Integer key, TreeNode fromNode) {
+        return getChild(key);
+    }
+
+    @Override
+    public LoudsTreeNode getChildAtPos(int index) {
+        if (index < 0 || index >= tree.getNumberOfChildren(node)) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return tree.createNode(tree.getFirstChild(node) + index);
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link TreeNode} interface.
+     *
+     * @param children unused here.
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public void setChildren(List<? extends TreeNode> children) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link TreeNode} interface.
+     *
+     * @param child unused here.
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public void addChild(TreeNode child) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link TreeNode} interface.
+     *
+     * @param index unused here.
+     * @param child unused here.
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public void addChild(int index, TreeNode child) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link TreeNode} interface.
+     *
+     * @param child unused here.
+     *
+     * @return no return - exception is thrown.
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public boolean removeChild(TreeNode child) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link TreeNode} interface.
+     *
+     * @param index unused here.
+     *
+     * @return no return - exception is thrown.
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public TreeNode removeChild(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method is not supported for this implementation of the {@link TreeNode} interface.
+     *
+     * @param fromNode unused here.
+     * @param toNode   unused here.
+     *
+     * @return no return - exception is thrown.
+     *
+     * @exception UnsupportedOperationException
+     */
+    @Override
+    public int replaceChild(TreeNode fromNode, TreeNode toNode) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Does nothing because nodes of a LOUDS tree are only views of arrays of the tree.
+     */
+    @Override
+    public void clear() {
+        // nothing to release
+    }
+
+    @Override
+    public boolean equals(Object anObject) {
+        if (this == anObject) {
+            return true;
+        }
+        if (anObject instanceof LoudsTreeNode) {
+            LoudsTreeNode other = (LoudsTreeNode) anObject;
+            return tree == other.tree && node == other.node;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return node;
+    }
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+
+package org.neurpheus.collections.tree.objecttree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * A list of children of an object tree node which finds children by their values using a hash
+ * index.
+ * <p>
+ * Nodes switch to this list when the number of their children reaches {@link #INDEX_THRESHOLD}, so
+ * searching children of wide nodes does not depend on the number of children. The index maps a
+ * value to the first child having this value, so the list behaves exactly like a plain list
+ * searched from the beginning. Changes made by the {@link ObjectTreeNode} methods and replacements
+ * of elements by the {@link #set(int, ObjectTreeNode)} method keep the index up to date; after any
+ * other structural change of the list the index is ignored until the next change made by the node.
+ * Values of children should not be changed while they belong to the list.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+final class IndexedChildList extends ArrayList<ObjectTreeNode> {
+
+    private static final long serialVersionUID = 770608061018160101L;
+
+    /** The number of children from which nodes use an indexed list. */
+    static final int INDEX_THRESHOLD = 16;
+
+    /** Maps values to the first child having the value. */
+    private transient HashMap<Object, ObjectTreeNode> index;
+
+    /** The modification counter of this list for which the index has been built. */
+    private transient int indexedModCount;
+
+    /**
+     * Creates an empty list; the index is built by the {@link #ensureIndexed()} method.
+     *
+     * @param initialCapacity The initial capacity of the list.
+     */
+    IndexedChildList(final int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * Creates an indexed list containing the given nodes.
+     *
+     * @param nodes The children of a node.
+     */
+    IndexedChildList(final Collection<ObjectTreeNode> nodes) {
+        super(nodes);
+        reindex();
+    }
+
+    /**
+     * Checks if the index reflects the current content of this list.
+     *
+     * @return {@code true} if the index can be used.
+     */
+    private boolean isIndexed() {
+        return index != null && indexedModCount == modCount;
+    }
+
+    /**
+     * Builds the index from scratch.
+     */
+    private void reindex() {
+        int size = size();
+        HashMap<Object, ObjectTreeNode> newIndex = new HashMap<>(Math.max(16, size * 4 / 3 + 1));
+        for (int i = size - 1; i >= 0; i--) {
+            ObjectTreeNode node = get(i);
+            newIndex.put(node.getValue(), node);
+        }
+        index = newIndex;
+        indexedModCount = modCount;
+    }
+
+    /**
+     * Builds the index unless it reflects the current content of this list.
+     */
+    void ensureIndexed() {
+        if (!isIndexed()) {
+            reindex();
+        }
+    }
+
+    /**
+     * Returns the first child having the given value.
+     *
+     * @param key The value of the searched child.
+     *
+     * @return The found child or {@code null} if there is no child with the value.
+     */
+    ObjectTreeNode find(final Object key) {
+        if (isIndexed()) {
+            ObjectTreeNode node = index.get(key);
+            if (node == null || Objects.equals(key, node.getValue())) {
+                return node;
+            }
+        }
+        for (int i = 0, size = size(); i < size; i++) {
+            ObjectTreeNode node = get(i);
+            if (Objects.equals(key, node.getValue())) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if this list can contain a child with the given value.
+     *
+     * @param key The value of a child.
+     *
+     * @return {@code false} if it is sure that there is no child with the value.
+     */
+    boolean mayContain(final Object key) {
+        return !isIndexed() || index.containsKey(key);
+    }
+
+    /**
+     * Adds a child at the end of this list updating the index.
+     *
+     * @param child The new child.
+     */
+    void append(final ObjectTreeNode child) {
+        boolean indexed = isIndexed();
+        add(child);
+        if (indexed) {
+            Object key = child.getValue();
+            if (!index.containsKey(key)) {
+                index.put(key, child);
+            }
+            indexedModCount = modCount;
+        } else {
+            reindex();
+        }
+    }
+
+    /**
+     * Adds a child at the given position of this list updating the index.
+     *
+     * @param position The position of the new child.
+     * @param child    The new child.
+     */
+    void insert(final int position, final ObjectTreeNode child) {
+        boolean indexed = isIndexed();
+        add(position, child);
+        if (indexed && !index.containsKey(child.getValue())) {
+            index.put(child.getValue(), child);
+            indexedModCount = modCount;
+        } else {
+            reindex();
+        }
+    }
+
+    /**
+     * Replaces a child at the given position updating the index.
+     * <p>
+     * Replacing an element does not change the modification counter of a list, so the index is
+     * updated here, also when the list is changed through {@link #listIterator()} or the list
+     * returned by the {@link ObjectTreeNode#getChildren()} method.
+     * </p>
+     *
+     * @param position The position of the replaced child.
+     * @param child    The new child.
+     *
+     * @return The replaced child.
+     */
+    @Override
+    public ObjectTreeNode set(final int position, final ObjectTreeNode child) {
+        boolean indexed = isIndexed();
+        ObjectTreeNode previous = super.set(position, child);
+        Object key = child.getValue();
+        if (indexed && index.get(key) == previous && Objects.equals(key, previous.getValue())) {
+            index.put(key, child);
+        } else if (index != null) {
+            reindex();
+        }
+        return previous;
+    }
+
+    /**
+     * Updates the index after children have been removed from this list.
+     */
+    void removed() {
+        reindex();
+    }
+
+    /**
+     * Sorts this list keeping the index, because sorting does not change the set of children.
+     */
+    void sortNodes() {
+        boolean indexed = isIndexed();
+        Collections.sort(this);
+        if (indexed) {
+            indexedModCount = modCount;
+        } else {
+            reindex();
+        }
+    }
+
+}
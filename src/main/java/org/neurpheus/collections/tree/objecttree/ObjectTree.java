@@ -19,10 +19,21 @@ package org.neurpheus.collections.tree.objecttree;
 import org.neurpheus.collections.tree.Tree;
 import org.neurpheus.collections.tree.TreeNode;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 /**
  * Implementation of the Tree interface using collections of objects.
+ * <p>
+ * The tree is serialized in a compact binary form written without recursion, see the
+ * {@link #write(DataOutputStream)} method. Trees serialized by previous versions, which stored
+ * the {@code root} field with the default Java serialization, can still be deserialized.
+ * </p>
  *
  * @param <T> Type of values describing nodes.
  * @param <D> Type of additional data stored in some nodes.
@@ -36,8 +47,17 @@ public class ObjectTree<T, D> implements Tree<T, D>, Serializable {
      */
     static final long serialVersionUID = 770608070910114037L;
 
+    /**
+     * Marks a serialized tree whose nodes follow the fields in the binary form.
+     */
+    private static final byte BINARY_SERIAL_FORM = 1;
+
     /**
      * Root node of the tree.
+     * <p>
+     * The field is serialized as {@code null} and the nodes are written in the binary form after
+     * it; a non-null value is read only from trees serialized by previous versions.
+     * </p>
      */
     protected ObjectTreeNode<T> root;
 
@@ -72,4 +92,50 @@ public class ObjectTree<T, D> implements Tree<T, D>, Serializable {
         return ObjectTreeFactory.getInstance();
     }
 
+    /**
+     * Writes this tree to the data stream.
+     * <p>
+     * Integer, character and string values of nodes and their additional data are written
+     * directly, other values are written using the Java serialization.
+     * </p>
+     *
+     * @param out The output stream.
+     *
+     * @throws IOException if any write error occurred or a value cannot be serialized.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        ObjectTreeSerializer.write(root, out);
+    }
+
+    /**
+     * Reads this tree from the data stream replacing the current content of the tree.
+     *
+     * @param in The input stream.
+     *
+     * @throws IOException if any read error occurred or the stream has an invalid format.
+     */
+    public void read(DataInputStream in) throws IOException {
+        root = ObjectTreeSerializer.read(in);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("root", null);
+        out.writeFields();
+        out.writeByte(BINARY_SERIAL_FORM);
+        write(new DataOutputStream(out));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        root = (ObjectTreeNode<T>) fields.get("root", null);
+        if (root == null) {
+            if (in.readByte() != BINARY_SERIAL_FORM) {
+                throw new InvalidObjectException("Unknown serialized form of a tree");
+            }
+            read(new DataInputStream(in));
+        }
+    }
+
 }
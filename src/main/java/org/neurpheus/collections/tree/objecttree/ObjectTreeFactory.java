@@ -21,6 +21,9 @@ import org.neurpheus.collections.tree.TreeFactory;
 import org.neurpheus.collections.tree.TreeNode;
 import org.neurpheus.collections.tree.TreeNodeWithData;
 
+import java.io.DataInputStream;
+import java.io.IOException;
+
 /**
  * Creates elements of a tree structure.
  * <p>
@@ -106,11 +109,43 @@ public final class ObjectTreeFactory<T, D> implements TreeFactory<T, D> {
 
     /**
      * Sorts all nodes in the given tree according to values describing nodes.
+     * <p>
+     * Independent subtrees are sorted in parallel using all available processors.
+     * </p>
      *
      * @param tree Tree which nodes should be sort.
      */
     public void sortTree(Tree<T, D> tree) {
-        ((ObjectTreeNode<T>) tree.getRoot()).sort();
+        sortTree(tree, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Sorts all nodes in the given tree according to values describing nodes using the given
+     * number of threads.
+     *
+     * @param tree            Tree which nodes should be sort.
+     * @param numberOfThreads The number of threads sorting independent subtrees; the value
+     *                        {@code 1} sorts the tree in the current thread.
+     */
+    public void sortTree(Tree<T, D> tree, int numberOfThreads) {
+        ParallelTreeSorter.sort((ObjectTreeNode<T>) tree.getRoot(), numberOfThreads);
+    }
+
+    /**
+     * Reads an object tree from the specified data stream.
+     *
+     * @param in Data input stream.
+     *
+     * @return The read tree.
+     *
+     * @throws IOException if an I/O error occurs.
+     *
+     * @see ObjectTree#write(java.io.DataOutputStream)
+     */
+    public ObjectTree<T, D> readTree(DataInputStream in) throws IOException {
+        ObjectTree<T, D> result = new ObjectTree<>();
+        result.read(in);
+        return result;
     }
 
 }
@@ -53,6 +53,8 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
      * <li>null - for nodes without children</li>
      * <li>single TreeNode object - for nodes with have only one child</li>
      * <li>ArrayList - for nodes having many children</li>
+     * <li>IndexedChildList - for nodes having at least
+     * {@link IndexedChildList#INDEX_THRESHOLD} children which are searched using a hash index</li>
      * </ul>
      */
     private transient Object children;
@@ -141,6 +143,11 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
             children = null;
         } else if (newChildren.size() == 1) {
             children = newChildren.get(0);
+        } else if (newChildren instanceof IndexedChildList) {
+            ((IndexedChildList) newChildren).ensureIndexed();
+            children = newChildren;
+        } else if (newChildren.size() >= IndexedChildList.INDEX_THRESHOLD) {
+            children = new IndexedChildList(newChildren);
         } else {
             children = newChildren;
         }
@@ -206,8 +213,14 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
             tmp.add(children);
             tmp.add(child);
             children = tmp;
+        } else if (children instanceof IndexedChildList) {
+            ((IndexedChildList) children).append((ObjectTreeNode) child);
         } else {
-            ((List) children).add(child);
+            List list = (List) children;
+            list.add(child);
+            if (list.size() >= IndexedChildList.INDEX_THRESHOLD) {
+                children = new IndexedChildList(list);
+            }
         }
     }
 
@@ -234,8 +247,14 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
             tmp.add(children);
             tmp.add(index, child);
             children = tmp;
+        } else if (children instanceof IndexedChildList) {
+            ((IndexedChildList) children).insert(index, (ObjectTreeNode) child);
         } else {
-            ((List) children).add(index, child);
+            List list = (List) children;
+            list.add(index, child);
+            if (list.size() >= IndexedChildList.INDEX_THRESHOLD) {
+                children = new IndexedChildList(list);
+            }
         }
     }
 
@@ -260,6 +279,8 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
             boolean result = ((List) children).remove(child);
             if (((List) children).size() == 1) {
                 children = ((List) children).get(0);
+            } else if (result && children instanceof IndexedChildList) {
+                ((IndexedChildList) children).removed();
             }
             return result;
         }
@@ -293,6 +314,8 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
             result = (TreeNode) nodes.remove(index);
             if (nodes.size() == 1) {
                 children = nodes.get(0);
+            } else if (nodes instanceof IndexedChildList) {
+                ((IndexedChildList) nodes).removed();
             }
         }
         return result;
@@ -365,15 +388,39 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
 
     /**
      * Sorts children of this node by values assigned to child nodes.
+     * <p>
+     * All descendants of this node are sorted as well. The tree is traversed without recursion and
+     * lists of children which are already in order are left untouched.
+     * </p>
      */
     public void sort() {
-        if (children != null) {
-            if (children instanceof ObjectTreeNode) {
-                ((ObjectTreeNode) children).sort();
-            } else {
-                Collections.sort((List) children);
-                for (ObjectTreeNode node : (List<ObjectTreeNode>) children) {
-                    node.sort();
+        List<ObjectTreeNode> stack = new ArrayList<>();
+        stack.add(this);
+        while (!stack.isEmpty()) {
+            ObjectTreeNode node = stack.remove(stack.size() - 1);
+            if (node.children instanceof ObjectTreeNode) {
+                stack.add((ObjectTreeNode) node.children);
+            } else if (node.children != null) {
+                node.sortChildren();
+                stack.addAll((List<ObjectTreeNode>) node.children);
+            }
+        }
+    }
+
+    /**
+     * Sorts only the direct children of this node unless they are already in order.
+     */
+    void sortChildren() {
+        if (children != null && !(children instanceof ObjectTreeNode)) {
+            List<ObjectTreeNode> list = (List<ObjectTreeNode>) children;
+            for (int i = list.size() - 1; i > 0; i--) {
+                if (list.get(i - 1).compareTo(list.get(i)) > 0) {
+                    if (list instanceof IndexedChildList) {
+                        ((IndexedChildList) list).sortNodes();
+                    } else {
+                        Collections.sort(list);
+                    }
+                    return;
                 }
             }
         }
@@ -393,6 +440,8 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
         }
         if (children instanceof ObjectTreeNode) {
             return key.equals(((ObjectTreeNode) children).getValue()) ? (TreeNode) children : null;
+        } else if (children instanceof IndexedChildList) {
+            return ((IndexedChildList) children).find(key);
         } else {
             for (Iterator it = ((List) children).iterator(); it.hasNext();) {
                 TreeNode tn = (TreeNode) it.next();
@@ -445,6 +494,10 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
      * @return Found child node or null if this node doesn't have any node with the given value.
      */
     private TreeNode fastGetChild(T key, TreeNode fromNode) {
+        if (children instanceof IndexedChildList
+                && !((IndexedChildList) children).mayContain(key)) {
+            return null;
+        }
         boolean check = false;
         for (TreeNode tn : (List<TreeNode>) children) {
             check |= tn == fromNode;
@@ -561,7 +614,8 @@ public class ObjectTreeNode<T> implements TreeNode<T>, Serializable, Comparable
                 for (int i = size; i > 0; i--) {
                     array.add((ObjectTreeNode) in.readObject());
                 }
-                this.children = array;
+                this.children = size >= IndexedChildList.INDEX_THRESHOLD
+                                ? new IndexedChildList(array) : array;
         }
     }
 
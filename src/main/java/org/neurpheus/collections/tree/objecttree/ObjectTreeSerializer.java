@@ -0,0 +1,267 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+
+package org.neurpheus.collections.tree.objecttree;
+
+import org.neurpheus.core.io.DataOutputStreamPacker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes and reads object trees in a compact binary form.
+ * <p>
+ * Nodes are written in the depth-first pre-order. Every node is stored as a flags byte describing
+ * types of the value and the additional data, followed by the value, the data and the number of
+ * children. Integers, characters and strings are written directly in the variable length form,
+ * other values are written using the Java serialization. Trees are processed without recursion, so
+ * very deep trees can be stored as well.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+final class ObjectTreeSerializer {
+
+    /** Version of the binary format. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Type code of a null value. */
+    private static final int TYPE_NULL = 0;
+
+    /** Type code of an {@link Integer} value. */
+    private static final int TYPE_INTEGER = 1;
+
+    /** Type code of a {@link Character} value. */
+    private static final int TYPE_CHARACTER = 2;
+
+    /** Type code of a {@link String} value. */
+    private static final int TYPE_STRING = 3;
+
+    /** Type code of any other serializable value. */
+    private static final int TYPE_OBJECT = 4;
+
+    /** Mask of the type code bits. */
+    private static final int TYPE_MASK = 0x07;
+
+    /** Position of the type code of additional data in the flags byte. */
+    private static final int DATA_TYPE_SHIFT = 3;
+
+    /** Flag marking nodes holding additional data. */
+    private static final int FLAG_WITH_DATA = 0x40;
+
+    /** Initial size of the stacks used while traversing a tree. */
+    private static final int INITIAL_STACK_SIZE = 64;
+
+    private ObjectTreeSerializer() {
+    }
+
+    /**
+     * Writes the tree starting from the given node to the data stream.
+     *
+     * @param root The root of the tree.
+     * @param out  The output stream.
+     *
+     * @throws IOException if any write error occurred or a value cannot be serialized.
+     */
+    static void write(final ObjectTreeNode root, final DataOutputStream out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        ObjectTreeNode[] stack = new ObjectTreeNode[INITIAL_STACK_SIZE];
+        int size = 0;
+        stack[size++] = root;
+        while (size > 0) {
+            ObjectTreeNode node = stack[--size];
+            stack[size] = null;
+            writeNode(node, out);
+            List<ObjectTreeNode> children = node.getChildren();
+            int count = children.size();
+            DataOutputStreamPacker.writeVarInt(count, out);
+            if (size + count > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(size + count, stack.length * 2));
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                stack[size++] = children.get(i);
+            }
+        }
+    }
+
+    /**
+     * Reads a tree written by the {@link #write(ObjectTreeNode, DataOutputStream)} method.
+     *
+     * @param in The input stream.
+     *
+     * @return The root of the read tree.
+     *
+     * @throws IOException if any read error occurred or the stream has an invalid format.
+     */
+    static ObjectTreeNode read(final DataInputStream in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new StreamCorruptedException("Unsupported version of an object tree: " + version);
+        }
+        ObjectTreeNode root = readNode(in);
+        ObjectTreeNode[] parents = new ObjectTreeNode[INITIAL_STACK_SIZE];
+        List[] lists = new List[INITIAL_STACK_SIZE];
+        int[] counts = new int[INITIAL_STACK_SIZE];
+        int size = 0;
+        int count = DataOutputStreamPacker.readVarInt(in);
+        if (count > 0) {
+            parents[0] = root;
+            lists[0] = createChildList(count);
+            counts[0] = count;
+            size = 1;
+        }
+        while (size > 0) {
+            int top = size - 1;
+            ObjectTreeNode node = readNode(in);
+            count = DataOutputStreamPacker.readVarInt(in);
+            List list = lists[top];
+            list.add(node);
+            if (list.size() == counts[top]) {
+                parents[top].setChildren(list);
+                parents[top] = null;
+                lists[top] = null;
+                size--;
+            }
+            if (count > 0) {
+                if (size == parents.length) {
+                    int newLength = size * 2;
+                    parents = Arrays.copyOf(parents, newLength);
+                    lists = Arrays.copyOf(lists, newLength);
+                    counts = Arrays.copyOf(counts, newLength);
+                }
+                parents[size] = node;
+                lists[size] = createChildList(count);
+                counts[size] = count;
+                size++;
+            }
+        }
+        return root;
+    }
+
+    private static List createChildList(final int count) {
+        return count >= IndexedChildList.INDEX_THRESHOLD
+               ? new IndexedChildList(count) : new ArrayList(count);
+    }
+
+    private static void writeNode(final ObjectTreeNode node, final DataOutputStream out)
+            throws IOException {
+        Object value = node.getValue();
+        int flags = typeOf(value);
+        Object data = null;
+        if (node instanceof ObjectTreeNodeWithData) {
+            data = ((ObjectTreeNodeWithData) node).getData();
+            flags |= FLAG_WITH_DATA | (typeOf(data) << DATA_TYPE_SHIFT);
+        }
+        out.writeByte(flags);
+        writeValue(flags & TYPE_MASK, value, out);
+        if ((flags & FLAG_WITH_DATA) != 0) {
+            writeValue((flags >> DATA_TYPE_SHIFT) & TYPE_MASK, data, out);
+        }
+    }
+
+    private static ObjectTreeNode readNode(final DataInputStream in) throws IOException {
+        int flags = in.readUnsignedByte();
+        Object value = readValue(flags & TYPE_MASK, in);
+        if ((flags & FLAG_WITH_DATA) != 0) {
+            Object data = readValue((flags >> DATA_TYPE_SHIFT) & TYPE_MASK, in);
+            return new ObjectTreeNodeWithData(value, data);
+        } else {
+            return new ObjectTreeNode(value);
+        }
+    }
+
+    private static int typeOf(final Object value) {
+        if (value == null) {
+            return TYPE_NULL;
+        } else if (value instanceof Integer) {
+            return TYPE_INTEGER;
+        } else if (value instanceof Character) {
+            return TYPE_CHARACTER;
+        } else if (value instanceof String) {
+            return TYPE_STRING;
+        } else {
+            return TYPE_OBJECT;
+        }
+    }
+
+    private static void writeValue(final int type, final Object value, final DataOutputStream out)
+            throws IOException {
+        switch (type) {
+            case TYPE_NULL:
+                break;
+            case TYPE_INTEGER:
+                DataOutputStreamPacker.writeZigZagVarInt(((Integer) value).intValue(), out);
+                break;
+            case TYPE_CHARACTER:
+                DataOutputStreamPacker.writeVarInt(((Character) value).charValue(), out);
+                break;
+            case TYPE_STRING:
+                DataOutputStreamPacker.writeString((String) value, out);
+                break;
+            default:
+                if (!(value instanceof Serializable)) {
+                    throw new NotSerializableException(value.getClass().getName());
+                }
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                    objectOut.writeObject(value);
+                }
+                DataOutputStreamPacker.writeVarInt(bytes.size(), out);
+                bytes.writeTo(out);
+                break;
+        }
+    }
+
+    private static Object readValue(final int type, final DataInputStream in) throws IOException {
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_INTEGER:
+                return DataOutputStreamPacker.readZigZagVarInt(in);
+            case TYPE_CHARACTER:
+                return (char) DataOutputStreamPacker.readVarInt(in);
+            case TYPE_STRING:
+                return DataOutputStreamPacker.readString(in);
+            case TYPE_OBJECT:
+                byte[] bytes = new byte[DataOutputStreamPacker.readVarInt(in)];
+                in.readFully(bytes);
+                try (ObjectInputStream objectIn = new ObjectInputStream(
+                        new ByteArrayInputStream(bytes))) {
+                    return objectIn.readObject();
+                } catch (ClassNotFoundException ex) {
+                    InvalidClassException e = new InvalidClassException(ex.getMessage());
+                    e.initCause(ex);
+                    throw e;
+                }
+            default:
+                throw new StreamCorruptedException("Unknown type of a node value: " + type);
+        }
+    }
+
+}
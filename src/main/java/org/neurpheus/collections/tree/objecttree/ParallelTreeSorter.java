@@ -0,0 +1,100 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+
+package org.neurpheus.collections.tree.objecttree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts nodes of an object tree using the fork-join framework.
+ * <p>
+ * Children of a node are sorted first, then subtrees of the children are sorted as independent
+ * tasks. Near the root a separate task is forked for every child having children itself; deeper
+ * subtrees are sorted in the current thread by the {@link ObjectTreeNode#sort()} method, because
+ * they are too small to pay off the cost of a task.
+ * </p>
+ *
+ * @author Jakub Strychowski
+ */
+final class ParallelTreeSorter extends RecursiveAction {
+
+    private static final long serialVersionUID = 770608061018150101L;
+
+    /**
+     * Depth of nodes below which subtrees are sorted without forking new tasks.
+     * <p>
+     * Nodes of character trees have tens of children near the root, so three levels give
+     * thousands of tasks which is enough to balance the work between threads.
+     * </p>
+     */
+    static final int FORK_DEPTH = 3;
+
+    /** The root of the sorted subtree. */
+    private final ObjectTreeNode node;
+
+    /** The depth of the node in the tree. */
+    private final int depth;
+
+    private ParallelTreeSorter(final ObjectTreeNode node, final int depth) {
+        this.node = node;
+        this.depth = depth;
+    }
+
+    /**
+     * Sorts all nodes of the tree starting from the given node.
+     *
+     * @param root            The root of the sorted tree.
+     * @param numberOfThreads The number of threads sorting the tree.
+     */
+    static void sort(final ObjectTreeNode root, final int numberOfThreads) {
+        if (numberOfThreads <= 1 || root.getNumberOfChildren() < 2) {
+            root.sort();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+            try {
+                pool.invoke(new ParallelTreeSorter(root, 0));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (depth >= FORK_DEPTH) {
+            node.sort();
+            return;
+        }
+        ObjectTreeNode current = node;
+        while (current.getNumberOfChildren() == 1) {
+            current = (ObjectTreeNode) current.getChildAtPos(0);
+        }
+        current.sortChildren();
+        List<ObjectTreeNode> children = current.getChildren();
+        List<ParallelTreeSorter> tasks = new ArrayList<>(children.size());
+        for (ObjectTreeNode child : children) {
+            if (!child.isLeaf()) {
+                tasks.add(new ParallelTreeSorter(child, depth + 1));
+            }
+        }
+        invokeAll(tasks);
+    }
+
+}
@@ -17,16 +17,25 @@
 package org.neurpheus.collections.tree.util;
 
 import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import org.neurpheus.collections.tree.Tree;
 import org.neurpheus.collections.tree.TreeNodeWithData;
 import org.neurpheus.collections.tree.TreeNode;
 import org.neurpheus.collections.tree.linkedlist.LinkedListTree;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeTools;
 import org.neurpheus.collections.tree.linkedlist.LinkedListTreeUnit;
 import org.neurpheus.collections.tree.linkedlist.LinkedListTreeUnitArray;
 
@@ -96,22 +105,14 @@ public class TreeHelper {
         }
     }
 
-    public static void printTreeWords(Tree tree, PrintStream out, TreeNodePrinter nodePrinter)
-            throws IOException {
-        for (Iterator it = tree.getRoot().getChildren().iterator(); it.hasNext();) {
-            printWords((TreeNode) it.next(), out, "", nodePrinter);
-        }
-    }
-
-    private static void printWords(TreeNode node, PrintStream out, String prefix,
-                                   TreeNodePrinter nodePrinter) {
-        String tmp = prefix + nodePrinter.getValueString(node.getValue());
-        if (node.isLeaf() || node.hasExtraData()) {
-            out.println(tmp);
-        }
-        for (Iterator it = node.getChildren().iterator(); it.hasNext();) {
-            printWords((TreeNode) it.next(), out, tmp, nodePrinter);
-        }
+    public static void printTreeWords(Tree tree, final PrintStream out,
+                                      TreeNodePrinter nodePrinter) throws IOException {
+        visitWords(tree.getRoot(), nodePrinter, new WordVisitor() {
+            @Override
+            void visit(StringBuilder word, TreeNode node) {
+                out.println(word);
+            }
+        });
     }
 
     private static void printNode(TreeNode node, PrintStream out, int ident,
@@ -131,22 +132,218 @@ public class TreeHelper {
     }
 
     public static Collection getTreeWords(Tree tree, TreeNodePrinter nodePrinter) {
-        Collection result = new HashSet();
-        for (Iterator it = tree.getRoot().getChildren().iterator(); it.hasNext();) {
-            getWords((TreeNode) it.next(), result, "", nodePrinter);
+        final Collection result = new HashSet();
+        try {
+            visitWords(tree.getRoot(), nodePrinter, new WordVisitor() {
+                @Override
+                void visit(StringBuilder word, TreeNode node) {
+                    result.add(word.toString());
+                }
+            });
+        } catch (IOException ex) {
+            // collecting words in memory does not perform any i/o operation
+            throw new IllegalStateException(ex);
         }
         return result;
     }
 
-    private static void getWords(TreeNode node, Collection result, String prefix,
-                                 TreeNodePrinter nodePrinter) {
-        String tmp = prefix + nodePrinter.getValueString(node.getValue());
-        if (node.hasExtraData() || node.isLeaf()) {
-            result.add(tmp);
+    /**
+     * Writes all words stored in the specified tree to the output stream using the UTF-8
+     * encoding, one word per line.
+     *
+     * @param tree     The tree to export.
+     * @param out      The output stream; it is flushed but not closed by this method.
+     * @param reverse  if {@code true} the tree stores characters in the reverse order, so paths
+     *                 are written backwards.
+     * @param withData if {@code true} each word is followed by a tab character and the data of
+     *                 the last node of the word.
+     *
+     * @throws IOException if any i/o error occurred.
+     *
+     * @see #writeTreeWords(Tree, Writer, boolean, boolean)
+     */
+    public static void writeTreeWords(Tree tree, OutputStream out, boolean reverse,
+                                      boolean withData) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeTreeWords(tree, writer, reverse, withData);
+        writer.flush();
+    }
+
+    /**
+     * Writes all words stored in the specified tree to the writer, one word per line.
+     * <p>
+     * Words are streamed while the tree is traversed, so the whole set of words is never held in
+     * memory. A word is a path from the root to a node holding additional data or to a leaf.
+     * Character values and integer values representing characters are written as characters,
+     * other values are written as strings. Linked list trees are traversed directly on their unit
+     * arrays.
+     * </p>
+     *
+     * @param tree     The tree to export.
+     * @param out      The writer receiving words; it should be buffered.
+     * @param reverse  if {@code true} the tree stores characters in the reverse order, so paths
+     *                 are written backwards.
+     * @param withData if {@code true} each word is followed by a tab character and the data of
+     *                 the last node of the word.
+     *
+     * @throws IOException if any i/o error occurred.
+     */
+    public static void writeTreeWords(Tree tree, Writer out, boolean reverse, boolean withData)
+            throws IOException {
+        if (tree instanceof LinkedListTree) {
+            LinkedListTreeTools.writeWords((LinkedListTree) tree, out, reverse, withData);
+        } else {
+            writeNodeWords(tree.getRoot(), out, reverse, withData);
         }
-        for (Iterator it = node.getChildren().iterator(); it.hasNext();) {
-            getWords((TreeNode) it.next(), result, tmp, nodePrinter);
+    }
+
+    /**
+     * Writes all words stored in the subtree of the specified node to the writer, one word per
+     * line.
+     * <p>
+     * This method works for any implementation of the {@link TreeNode} interface.
+     * </p>
+     *
+     * @param root     The root of the subtree; its value is not a part of words.
+     * @param out      The writer receiving words; it should be buffered.
+     * @param reverse  if {@code true} paths are written backwards.
+     * @param withData if {@code true} each word is followed by a tab character and the data of
+     *                 the last node of the word.
+     *
+     * @throws IOException if any i/o error occurred.
+     *
+     * @see #writeTreeWords(Tree, Writer, boolean, boolean)
+     */
+    public static void writeNodeWords(TreeNode root, final Writer out, final boolean reverse,
+                                      final boolean withData) throws IOException {
+        visitWords(root, null, new WordVisitor() {
+            private char[] buffer = new char[64];
+
+            @Override
+            void visit(StringBuilder word, TreeNode node) throws IOException {
+                int length = word.length();
+                if (buffer.length < length) {
+                    buffer = new char[Math.max(length, 2 * buffer.length)];
+                }
+                if (reverse) {
+                    // reverses the order of node values keeping characters of each value,
+                    // so surrogate pairs are not broken
+                    int pos = 0;
+                    int end = length;
+                    for (int i = numberOfValues - 1; i >= 0; i--) {
+                        word.getChars(valueStarts[i], end, buffer, pos);
+                        pos += end - valueStarts[i];
+                        end = valueStarts[i];
+                    }
+                } else {
+                    word.getChars(0, length, buffer, 0);
+                }
+                out.write(buffer, 0, length);
+                if (withData && node.hasExtraData()) {
+                    out.write('\t');
+                    out.write(String.valueOf(((TreeNodeWithData) node).getData()));
+                }
+                out.write('\n');
+            }
+        });
+    }
+
+    /**
+     * Traverses the subtree of the given node without recursion and passes each word to the
+     * visitor. All words are built in a single buffer which is passed to the visitor.
+     *
+     * @param root        The root of the subtree.
+     * @param nodePrinter Converts values to strings; if {@code null} values are appended as
+     *                    characters.
+     * @param visitor     Receives words.
+     *
+     * @throws IOException if the visitor cannot process a word.
+     */
+    private static void visitWords(TreeNode root, TreeNodePrinter nodePrinter,
+                                   WordVisitor visitor) throws IOException {
+        StringBuilder path = new StringBuilder();
+        List<TreeNode> nodes = new ArrayList<>();
+        int[] lengths = new int[64];
+        pushChildren(root, 0, nodes, lengths);
+        while (!nodes.isEmpty()) {
+            int top = nodes.size() - 1;
+            TreeNode node = nodes.remove(top);
+            path.setLength(lengths[top]);
+            visitor.startValue(lengths[top]);
+            if (nodePrinter == null) {
+                appendValue(path, node.getValue());
+            } else {
+                path.append(nodePrinter.getValueString(node.getValue()));
+            }
+            if (node.isLeaf() || node.hasExtraData()) {
+                visitor.visit(path, node);
+            }
+            lengths = pushChildren(node, path.length(), nodes, lengths);
         }
     }
 
+    private static int[] pushChildren(TreeNode node, int length, List<TreeNode> nodes,
+                                      int[] lengths) {
+        List<? extends TreeNode> children = node.getChildren();
+        int count = children.size();
+        int size = nodes.size();
+        if (size + count > lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(size + count, 2 * lengths.length));
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            nodes.add(children.get(i));
+            lengths[size++] = length;
+        }
+        return lengths;
+    }
+
+    private static void appendValue(StringBuilder path, Object value) {
+        if (value instanceof Character) {
+            path.append(((Character) value).charValue());
+        } else if (value instanceof Integer && Character.isValidCodePoint((Integer) value)) {
+            path.appendCodePoint((Integer) value);
+        } else if (value != null) {
+            path.append(value);
+        }
+    }
+
+    /**
+     * Receives words found while traversing a tree.
+     */
+    private abstract static class WordVisitor {
+
+        /** Positions in the word at which values of successive nodes of the word start. */
+        int[] valueStarts = new int[64];
+
+        /** The number of values recorded in the valueStarts array. */
+        int numberOfValues;
+
+        /**
+         * Processes a single word.
+         *
+         * @param word The buffer holding the word; it is reused for next words.
+         * @param node The last node of the word.
+         *
+         * @throws IOException if the word cannot be written.
+         */
+        abstract void visit(StringBuilder word, TreeNode node) throws IOException;
+
+        /**
+         * Records the position at which the value of the next node of the word starts; values of
+         * nodes which are not ancestors of the node are forgotten.
+         *
+         * @param start The length of the word without the value of the node.
+         */
+        void startValue(int start) {
+            while (numberOfValues > 0 && valueStarts[numberOfValues - 1] >= start) {
+                numberOfValues--;
+            }
+            if (numberOfValues == valueStarts.length) {
+                valueStarts = Arrays.copyOf(valueStarts, 2 * numberOfValues);
+            }
+            valueStarts[numberOfValues++] = start;
+        }
+
+    }
+
 }
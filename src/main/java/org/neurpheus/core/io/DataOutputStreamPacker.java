@@ -75,6 +75,75 @@ public class DataOutputStreamPacker {
         }
     }
 
+    /**
+     * Writes a non-negative integer value using 7 bits per byte; the highest bit of each byte
+     * tells if more bytes follow.
+     * <p>
+     * Negative values are written in 5 bytes, so use {@link #writeZigZagVarInt(int, DataOutputStream)}
+     * for values which can be negative.
+     * </p>
+     *
+     * @param value The value to write.
+     * @param out   The output stream.
+     *
+     * @throws IOException if any write error occurred.
+     */
+    public static void writeVarInt(int value, DataOutputStream out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an integer value written by the {@link #writeVarInt(int, DataOutputStream)} method.
+     *
+     * @param in The input stream.
+     *
+     * @return The read value.
+     *
+     * @throws IOException if any read error occurred or the value is malformed.
+     */
+    public static int readVarInt(DataInputStream in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed variable length integer.");
+    }
+
+    /**
+     * Writes an integer value which can be negative, so that values close to zero take one byte.
+     *
+     * @param value The value to write.
+     * @param out   The output stream.
+     *
+     * @throws IOException if any write error occurred.
+     */
+    public static void writeZigZagVarInt(int value, DataOutputStream out) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31), out);
+    }
+
+    /**
+     * Reads an integer value written by the {@link #writeZigZagVarInt(int, DataOutputStream)}
+     * method.
+     *
+     * @param in The input stream.
+     *
+     * @return The read value.
+     *
+     * @throws IOException if any read error occurred or the value is malformed.
+     */
+    public static int readZigZagVarInt(DataInputStream in) throws IOException {
+        int v = readVarInt(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
     public static void writeStringsMap(final Map map, final DataOutputStream out) throws IOException {
         int size = map == null ? 0 : map.size();
         DataOutputStreamPacker.writeInt(size, out);
@@ -30,6 +30,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.BitSet;
+import java.util.Random;
 import org.junit.experimental.categories.Category;
 
 
@@ -330,4 +331,194 @@ public class BitsArrayTest {
         
     }
 
+    private static BitsArray createRandomArray(Random random, int size, double density,
+                                               BitSet expected) {
+        BitsArray result = new BitsArray(size);
+        for (int i = 0; i < size; i++) {
+            boolean bit = random.nextDouble() < density;
+            result.set(i, bit);
+            expected.set(i, bit);
+        }
+        return result;
+    }
+
+    private static void assertSameBits(BitSet expected, int expectedSize, BitsArray array) {
+        assertEquals(expectedSize, array.size());
+        assertEquals(expected.cardinality(), array.cardinality());
+        for (int i = 0; i < expectedSize; i++) {
+            assertEquals("bit " + i, expected.get(i), array.get(i));
+        }
+    }
+
+    /**
+     * Test of rank and select methods, of class BitsArray.
+     */
+    @Test
+    public void testRankAndSelect() {
+        Random random = new Random(1234L);
+        for (int size : new int[]{0, 1, 63, 64, 65, 511, 512, 513, 5000}) {
+            for (double density : new double[]{0.0, 0.1, 0.5, 1.0}) {
+                BitSet expected = new BitSet();
+                BitsArray array = createRandomArray(random, size, density, expected);
+                int ones = 0;
+                for (int i = 0; i <= size; i++) {
+                    assertEquals(ones, array.rank1(i));
+                    assertEquals(i - ones, array.rank0(i));
+                    if (i < size && expected.get(i)) {
+                        ++ones;
+                        assertEquals(i, array.select1(ones));
+                    } else if (i < size) {
+                        assertEquals(i, array.select0(i + 1 - ones));
+                    }
+                }
+                assertEquals(ones, array.cardinality());
+                assertEquals(-1, array.select1(ones + 1));
+                assertEquals(-1, array.select0(size - ones + 1));
+                assertEquals(-1, array.select1(0));
+            }
+        }
+    }
+
+    /**
+     * Checks that the rank index is rebuilt after a modification of the array.
+     */
+    @Test
+    public void testRankAfterModification() {
+        BitsArray array = new BitsArray(1000);
+        array.set(999, false);
+        assertEquals(0, array.rank1(1000));
+        array.set(10, true);
+        assertEquals(1, array.rank1(1000));
+        assertEquals(10, array.select1(1));
+        array.set(1500, true);
+        assertEquals(2, array.rank1(1501));
+        assertEquals(1500, array.select1(2));
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testRankIndexOutOfBounds() {
+        BitsArray array = new BitsArray();
+        array.set(4, true);
+        array.rank1(6);
+    }
+
+    /**
+     * Test of nextSetBit and nextClearBit methods, of class BitsArray.
+     */
+    @Test
+    public void testNextSetAndClearBit() {
+        Random random = new Random(4321L);
+        for (double density : new double[]{0.0, 0.01, 0.5, 0.99, 1.0}) {
+            BitSet expected = new BitSet();
+            int size = 3000;
+            BitsArray array = createRandomArray(random, size, density, expected);
+            for (int i = 0; i < size; i++) {
+                int nextSet = expected.nextSetBit(i);
+                assertEquals(nextSet < size ? nextSet : -1, array.nextSetBit(i));
+                int nextClear = expected.nextClearBit(i);
+                assertEquals(nextClear < size ? nextClear : -1, array.nextClearBit(i));
+            }
+            assertEquals(-1, array.nextSetBit(size));
+            assertEquals(-1, array.nextClearBit(size));
+        }
+    }
+
+    /**
+     * Test of and, or, xor and andNot methods, of class BitsArray.
+     */
+    @Test
+    public void testBulkOperations() {
+        Random random = new Random(5678L);
+        int[][] sizes = new int[][]{{100, 100}, {1000, 130}, {130, 1000}, {64, 65}, {0, 70}};
+        for (int[] pair : sizes) {
+            BitSet first = new BitSet();
+            BitSet second = new BitSet();
+            BitsArray secondArray = createRandomArray(random, pair[1], 0.5, second);
+            int maxSize = Math.max(pair[0], pair[1]);
+
+            BitsArray array = createRandomArray(random, pair[0], 0.5, first);
+            BitSet expected = (BitSet) first.clone();
+            array.and(secondArray);
+            expected.and(second);
+            assertSameBits(expected, pair[0], array);
+
+            array = createRandomArray(random, pair[0], 0.5, first = new BitSet());
+            expected = (BitSet) first.clone();
+            array.or(secondArray);
+            expected.or(second);
+            assertSameBits(expected, maxSize, array);
+
+            array = createRandomArray(random, pair[0], 0.5, first = new BitSet());
+            expected = (BitSet) first.clone();
+            array.xor(secondArray);
+            expected.xor(second);
+            assertSameBits(expected, maxSize, array);
+            assertEquals(expected.cardinality(), array.rank1(maxSize));
+
+            array = createRandomArray(random, pair[0], 0.5, first = new BitSet());
+            expected = (BitSet) first.clone();
+            array.andNot(secondArray);
+            expected.andNot(second);
+            assertSameBits(expected, pair[0], array);
+        }
+    }
+
+    /**
+     * Checks that bits placed in a shared backing array beyond the size of an array are ignored.
+     */
+    @Test
+    public void testBitsBeyondSize() {
+        BitsArray array = new BitsArray(3, new long[]{-1L});
+        assertEquals(3, array.cardinality());
+        assertEquals(3, array.rank1(3));
+        assertEquals(-1, array.nextClearBit(0));
+        BitsArray other = new BitsArray(70);
+        other.set(69, false);
+        other.or(array);
+        assertEquals(3, other.cardinality());
+        assertEquals(3, other.nextClearBit(0));
+    }
+
+    /**
+     * Checks that bulk operations do not change bits of a shared backing array placed beyond the
+     * size of an array.
+     */
+    @Test
+    public void testBulkOperationsKeepBitsBeyondSize() {
+        long[] backingArray = new long[]{-1L, -1L};
+        BitsArray array = new BitsArray(3, backingArray);
+        BitsArray other = new BitsArray(3, new long[]{2L});
+        array.and(other);
+        assertEquals(1, array.cardinality());
+        assertEquals(-1L & ~5L, backingArray[0]);
+        assertEquals(-1L, backingArray[1]);
+        array.andNot(other);
+        assertEquals(0, array.cardinality());
+        assertEquals(-1L & ~7L, backingArray[0]);
+        array.xor(other);
+        array.or(new BitsArray(2, new long[]{1L}));
+        assertEquals(2, array.cardinality());
+        assertEquals(-1L & ~4L, backingArray[0]);
+        assertEquals(-1L, backingArray[1]);
+
+        BitsArray longer = new BitsArray(5, new long[]{16L});
+        array.or(longer);
+        assertEquals(5, array.size());
+        assertEquals(3, array.cardinality());
+        assertEquals(-1L & ~12L, backingArray[0]);
+        assertEquals(-1L, backingArray[1]);
+    }
+
+    /**
+     * Checks estimated memory consumed by the rank index.
+     */
+    @Test
+    public void testGetAllocationSizeWithRankIndex() {
+        BitsArray instance = new BitsArray(5000);
+        instance.set(4999, true);
+        instance.compact();
+        instance.buildRankIndex();
+        assertEquals(RamUsageEstimator.sizeOf(instance), instance.getAllocationSize());
+    }
+
 }
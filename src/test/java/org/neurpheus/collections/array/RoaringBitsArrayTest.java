@@ -0,0 +1,250 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.array;
+
+import com.carrotsearch.sizeof.RamUsageEstimator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Tests {@link RoaringBitsArray}.
+ *
+ * @author Jakub Strychowski
+ */
+public class RoaringBitsArrayTest {
+
+    private static final int SIZE = 300_000;
+
+    public RoaringBitsArrayTest() {
+    }
+
+    /**
+     * Creates an array having a sparse chunk, a dense chunk, a chunk with long runs and an empty
+     * chunk.
+     */
+    private static RoaringBitsArray createMixedArray(Random random, BitSet expected) {
+        RoaringBitsArray result = new RoaringBitsArray();
+        for (int i = 0; i < SIZE; i++) {
+            boolean bit;
+            if (i < 65536) {
+                bit = random.nextInt(100) == 0;
+            } else if (i < 2 * 65536) {
+                bit = random.nextBoolean();
+            } else if (i < 3 * 65536) {
+                bit = (i / 1000) % 2 == 0;
+            } else {
+                bit = false;
+            }
+            if (bit) {
+                result.set(i, true);
+                expected.set(i);
+            }
+        }
+        result.set(SIZE - 1, false);
+        return result;
+    }
+
+    private static void assertSameBits(BitSet expected, int expectedSize, RoaringBitsArray array) {
+        assertEquals(expectedSize, array.size());
+        assertEquals(expected.cardinality(), array.cardinality());
+        for (int i = 0; i < expectedSize; i++) {
+            assertEquals("bit " + i, expected.get(i), array.get(i));
+        }
+        int pos = 0;
+        for (int i = expected.nextSetBit(0); i >= 0 && i < expectedSize;
+             i = expected.nextSetBit(i + 1)) {
+            pos = array.nextSetBit(pos);
+            assertEquals(i, pos);
+            ++pos;
+        }
+        assertEquals(-1, pos < expectedSize ? array.nextSetBit(pos) : -1);
+    }
+
+    @Test
+    public void testSetGet() {
+        BitSet expected = new BitSet();
+        RoaringBitsArray array = createMixedArray(new Random(1234L), expected);
+        assertSameBits(expected, SIZE, array);
+        assertEquals(3, array.getNumberOfContainers());
+        array.compact();
+        assertSameBits(expected, SIZE, array);
+
+        // modifies chunks held by all kinds of containers
+        Random random = new Random(4321L);
+        for (int i = 0; i < 20_000; i++) {
+            int index = random.nextInt(SIZE);
+            boolean bit = random.nextBoolean();
+            array.set(index, bit);
+            expected.set(index, bit);
+        }
+        assertSameBits(expected, SIZE, array);
+    }
+
+    @Test
+    public void testContainerConversions() {
+        RoaringBitsArray array = new RoaringBitsArray();
+        for (int i = 0; i < 10_000; i++) {
+            array.set(2 * i, true);
+        }
+        assertEquals(10_000, array.cardinality());
+        for (int i = 0; i < 10_000; i++) {
+            array.set(2 * i, false);
+        }
+        assertEquals(0, array.cardinality());
+        assertEquals(0, array.getNumberOfContainers());
+        assertEquals(19_999, array.size());
+        assertFalse(array.get(19_998));
+        assertEquals(-1, array.nextSetBit(0));
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testGetIndexOutOfBounds() {
+        RoaringBitsArray array = new RoaringBitsArray();
+        array.set(4, true);
+        array.get(5);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testSetIndexOutOfBounds() {
+        RoaringBitsArray array = new RoaringBitsArray();
+        array.set(-1, true);
+    }
+
+    @Test
+    public void testBulkOperations() {
+        Random random = new Random(5678L);
+        BitSet first = new BitSet();
+        RoaringBitsArray firstArray = createMixedArray(random, first);
+        BitSet second = new BitSet();
+        RoaringBitsArray secondArray = new RoaringBitsArray();
+        for (int i = 0; i < 2 * SIZE; i += 1 + random.nextInt(5)) {
+            secondArray.set(i, true);
+            second.set(i);
+        }
+        secondArray.compact();
+        int maxSize = secondArray.size();
+
+        for (int op = 0; op < 4; op++) {
+            BitSet expected = (BitSet) first.clone();
+            RoaringBitsArray array = new RoaringBitsArray(firstArray.toBitsArray());
+            switch (op) {
+                case 0:
+                    expected.and(second);
+                    array.and(secondArray);
+                    assertSameBits(expected, SIZE, array);
+                    break;
+                case 1:
+                    expected.or(second);
+                    array.or(secondArray);
+                    assertSameBits(expected, maxSize, array);
+                    break;
+                case 2:
+                    expected.xor(second);
+                    array.xor(secondArray);
+                    assertSameBits(expected, maxSize, array);
+                    break;
+                default:
+                    expected.andNot(second);
+                    array.andNot(secondArray);
+                    assertSameBits(expected, SIZE, array);
+                    break;
+            }
+        }
+        // arguments of operations are not modified
+        assertSameBits(first, SIZE, firstArray);
+    }
+
+    @Test
+    public void testRunContainers() {
+        BitSet expected = new BitSet();
+        RoaringBitsArray first = new RoaringBitsArray();
+        RoaringBitsArray second = new RoaringBitsArray();
+        for (int i = 0; i < SIZE; i++) {
+            if ((i / 700) % 3 == 0) {
+                first.set(i, true);
+                expected.set(i);
+            }
+            if ((i / 500) % 4 == 1) {
+                second.set(i, true);
+                expected.set(i);
+            }
+        }
+        first.set(SIZE - 1, false);
+        first.compact();
+        second.compact();
+        long before = first.getAllocationSize();
+        first.or(second);
+        assertSameBits(expected, SIZE, first);
+        first.compact();
+        assertTrue(first.getAllocationSize() <= before + second.getAllocationSize());
+    }
+
+    @Test
+    public void testConversionFromBitsArray() {
+        BitsArray dense = new BitsArray(SIZE);
+        BitSet expected = new BitSet();
+        for (int i = 0; i < SIZE; i += 997) {
+            dense.set(i, true);
+            expected.set(i);
+        }
+        dense.set(SIZE - 1, false);
+        RoaringBitsArray array = new RoaringBitsArray(dense);
+        assertSameBits(expected, SIZE, array);
+        assertTrue(array.getAllocationSize() < dense.getAllocationSize() / 10);
+        BitsArray copy = array.toBitsArray();
+        assertEquals(SIZE, copy.size());
+        assertEquals(expected.cardinality(), copy.cardinality());
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        BitSet expected = new BitSet();
+        RoaringBitsArray array = createMixedArray(new Random(8765L), expected);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            array.write(out);
+        }
+        RoaringBitsArray read;
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = RoaringBitsArray.readInstance(in);
+        }
+        assertSameBits(expected, SIZE, read);
+    }
+
+    @Test
+    public void testGetAllocationSize() {
+        BitSet expected = new BitSet();
+        RoaringBitsArray array = createMixedArray(new Random(1234L), expected);
+        array.compact();
+        assertEquals(RamUsageEstimator.sizeOf(array), array.getAllocationSize());
+        array = new RoaringBitsArray();
+        assertEquals(RamUsageEstimator.sizeOf(array), array.getAllocationSize());
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.array;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link TwoTierCompactArray}.
+ *
+ * @author Jakub Strychowski
+ */
+public class TwoTierCompactArrayTest {
+
+    public TwoTierCompactArrayTest() {
+    }
+
+    /**
+     * Creates values with a geometric distribution - small values are the most frequent ones.
+     */
+    private static int[] createSkewedValues(int size) {
+        Random random = new Random(1234);
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            int value = 0;
+            while (random.nextInt(10) != 0 && value < 100_000) {
+                value = value * 2 + 1 + random.nextInt(2);
+            }
+            result[i] = i % 1000 == 0 ? 1_000_000 : value >> 8;
+        }
+        return result;
+    }
+
+    private static CompactArray createCompactArray(int[] values) {
+        int max = 0;
+        for (int v : values) {
+            max = Math.max(max, v);
+        }
+        CompactArray result = new CompactArray(values.length, max);
+        for (int v : values) {
+            result.addIntValue(v);
+        }
+        result.compact();
+        return result;
+    }
+
+    @Test
+    public void testSkewedValues() {
+        int[] values = createSkewedValues(100_000);
+        TwoTierCompactArray array = new TwoTierCompactArray(values);
+        assertEquals(values.length, array.size());
+        assertTrue(array.getHotBits() > 0);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], array.getIntValue(i));
+        }
+        CompactArray plain = createCompactArray(values);
+        assertTrue("Skewed values should take at least 30% less memory",
+                   array.getAllocationSize() < 0.7 * plain.getAllocationSize());
+    }
+
+    @Test
+    public void testUniformValues() {
+        int[] values = new int[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i * 7919) % 4096;
+        }
+        TwoTierCompactArray array = new TwoTierCompactArray(values);
+        assertEquals(0, array.getHotBits());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], array.getIntValue(i));
+        }
+        long plainSize = createCompactArray(values).getAllocationSize();
+        assertTrue(array.getAllocationSize()
+                <= plainSize + TwoTierCompactArray.BASE_ALLOCATION_SIZE);
+    }
+
+    @Test
+    public void testEmptyArray() {
+        TwoTierCompactArray array = new TwoTierCompactArray(new int[0]);
+        assertEquals(0, array.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeValue() {
+        new TwoTierCompactArray(new int[]{1, -1});
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testInvalidIndex() {
+        new TwoTierCompactArray(createSkewedValues(1000)).getIntValue(1000);
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        for (int[] values : new int[][]{createSkewedValues(5000), {5, 3, 7}}) {
+            TwoTierCompactArray array = new TwoTierCompactArray(values);
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            array.write(new DataOutputStream(bout));
+            TwoTierCompactArray read = TwoTierCompactArray.readInstance(
+                    new DataInputStream(new ByteArrayInputStream(bout.toByteArray())));
+            assertEquals(array.size(), read.size());
+            assertEquals(array.getHotBits(), read.getHotBits());
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], read.getIntValue(i));
+            }
+        }
+    }
+
+    @Test
+    public void testWrap() {
+        int[] values = createSkewedValues(1000);
+        TwoTierCompactArray array = TwoTierCompactArray.wrap(createCompactArray(values));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], array.getIntValue(i));
+        }
+    }
+
+}
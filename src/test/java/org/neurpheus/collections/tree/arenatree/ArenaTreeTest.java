@@ -0,0 +1,164 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.arenatree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.TreeNodeWithData;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTree;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeFactory;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeTools;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeUnitArray;
+import org.neurpheus.collections.tree.objecttree.ObjectTreeFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests trees holding nodes in arrays.
+ *
+ * @author Jakub Strychowski
+ */
+public class ArenaTreeTest {
+
+    @Test
+    public void testNodeOperations() {
+        ArenaTreeFactory factory = new ArenaTreeFactory(4);
+        ArenaTree tree = factory.createTree();
+        ArenaTreeNode root = tree.getRoot();
+        assertTrue(root.isLeaf());
+        ArenaTreeNode b = factory.createTreeNode('b');
+        ArenaTreeNode d = factory.createTreeNode('d');
+        root.addChild(b);
+        root.addChild(d);
+        ArenaTreeNode a = factory.createTreeNode('a');
+        root.addChild(0, a);
+        ArenaTreeNode c = factory.createTreeNode('c');
+        root.addChild(2, c);
+        assertEquals(Arrays.asList(a, b, c, d), root.getChildren());
+        assertEquals(4, root.getNumberOfChildren());
+        assertEquals(c, root.getChild((int) 'c'));
+        assertEquals(c, root.getChild(Integer.valueOf('c'), b));
+        assertNull(root.getChild(Integer.valueOf('a'), b));
+        assertNull(root.getChild((int) 'x'));
+
+        ArenaTreeDataNode c2 = factory.createTreeNodeWithAdditionalData('c', 7);
+        c.addChild(factory.createTreeNode('x'));
+        c2.setChildren(c.getChildren());
+        assertEquals(2, root.replaceChild(c, c2));
+        TreeNode found = tree.getRoot().getChild((int) 'c');
+        assertTrue(found instanceof TreeNodeWithData);
+        assertEquals(Integer.valueOf(7), ((TreeNodeWithData) found).getData());
+        assertEquals(Integer.valueOf('x'), found.getChildAtPos(0).getValue());
+
+        assertTrue(root.removeChild(b));
+        assertFalse(root.removeChild(b));
+        assertEquals(a, root.removeChild(0));
+        assertEquals(Arrays.asList(c2, d), root.getChildren());
+        assertTrue(factory.getNumberOfNodes() > 4);
+
+        tree.clear();
+        assertTrue(tree.getRoot().isLeaf());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNodeOfOtherFactory() {
+        ArenaTreeFactory factory = new ArenaTreeFactory();
+        factory.createTree().getRoot().addChild(new ArenaTreeFactory().createTreeNode(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testWrongPosition() {
+        ArenaTreeFactory factory = new ArenaTreeFactory();
+        ArenaTreeNode root = factory.createTree().getRoot();
+        root.addChild(factory.createTreeNode(1));
+        root.getChildAtPos(1);
+    }
+
+    @Test
+    public void testCreateLinkedListTree() throws Exception {
+        File file = new File(ClassLoader.getSystemResource("english.txt").toURI());
+        List<String> words = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            for (String word : line.split("\\s")) {
+                if (word.length() > 0) {
+                    words.add(word);
+                }
+            }
+        }
+        for (boolean reverse : new boolean[]{false, true}) {
+            Tree objectTree = LinkedListTreeTools.createBaseTree(
+                    words, reverse, true, ObjectTreeFactory.getInstance());
+            Tree arenaTree = LinkedListTreeTools.createBaseTree(
+                    words, reverse, true, new ArenaTreeFactory());
+            LinkedListTreeFactory factory = LinkedListTreeFactory.getInstance();
+            LinkedListTree expected = factory.createTree(objectTree, true, false, false);
+            LinkedListTree result = factory.createTree(arenaTree, true, false, false);
+            LinkedListTreeUnitArray expectedUnits = expected.getUnitArray();
+            LinkedListTreeUnitArray resultUnits = result.getUnitArray();
+            assertEquals(expectedUnits.size(), resultUnits.size());
+            for (int i = 0; i < expectedUnits.size(); i++) {
+                assertEquals(expectedUnits.getValueCode(i), resultUnits.getValueCode(i));
+                assertEquals(expectedUnits.getDistance(i), resultUnits.getDistance(i));
+                assertEquals(expectedUnits.getDataCode(i), resultUnits.getDataCode(i));
+                assertEquals(expectedUnits.isWordEnd(i), resultUnits.isWordEnd(i));
+                assertEquals(expectedUnits.isWordContinued(i), resultUnits.isWordContinued(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        List<String> words = Arrays.asList("ala", "ma", "kota", "kot", "al");
+        ArenaTree tree = (ArenaTree) LinkedListTreeTools.createBaseTree(
+                words, false, true, new ArenaTreeFactory());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(tree);
+        }
+        ArenaTree copy;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (ArenaTree) in.readObject();
+        }
+        for (int i = 0; i < words.size(); i++) {
+            TreeNode node = copy.getRoot();
+            for (char c : words.get(i).toCharArray()) {
+                node = node.getChild((Integer) (int) c);
+            }
+            assertEquals(Integer.valueOf(i), ((TreeNodeWithData) node).getData());
+        }
+        copy.getRoot().getChild((int) 'k').addChild(
+                copy.getFactory().createTreeNodeWithAdditionalData('x', 9));
+        assertNull(tree.getRoot().getChild((int) 'k').getChild((int) 'x'));
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.inttree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.neurpheus.collections.tree.TreeNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Tests nodes of the int tree.
+ *
+ * @author Jakub Strychowski
+ */
+public class IntTreeNodeTest {
+
+    private final IntTreeFactory factory = IntTreeFactory.getInstance();
+
+    @Test
+    public void testAddChildKeepsOrder() {
+        IntTreeNode node = factory.createTreeNode(0);
+        assertTrue(node.isLeaf());
+        TreeMap<Integer, IntTreeNode> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int value = random.nextInt(2000) - 1000;
+            if (!expected.containsKey(value)) {
+                IntTreeNode child = factory.createTreeNode(value);
+                expected.put(value, child);
+                node.addChild(child);
+            }
+        }
+        assertEquals(new ArrayList<>(expected.values()), node.getChildren());
+        assertEquals(expected.size(), node.getNumberOfChildren());
+        for (int value = -1001; value <= 1001; value++) {
+            assertSame(expected.get(value), node.getChild(value));
+            assertSame(expected.get(value), node.getChild(Integer.valueOf(value)));
+        }
+        assertNull(node.getChild((Integer) null));
+    }
+
+    @Test
+    public void testSingleChild() {
+        IntTreeNode node = factory.createTreeNode(0);
+        IntTreeNode child = factory.createTreeNode('a');
+        node.addChild(child);
+        assertFalse(node.isLeaf());
+        assertSame(child, node.getChild((int) 'a'));
+        assertSame(child, node.getChildAtPos(0));
+        assertNull(node.getChild((int) 'b'));
+        node.addChild(0, factory.createTreeNode('0'));
+        assertEquals(2, node.getNumberOfChildren());
+        assertSame(child, node.removeChild(1));
+        assertEquals('0', node.getChildAtPos(0).getIntValue());
+        assertTrue(node.removeChild(factory.createTreeNode('0')));
+        assertTrue(node.isLeaf());
+        assertFalse(node.removeChild(child));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddChildAtWrongPosition() {
+        IntTreeNode node = factory.createTreeNode(0);
+        node.addChild(factory.createTreeNode('a'));
+        node.addChild(factory.createTreeNode('c'));
+        node.addChild(2, factory.createTreeNode('b'));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetChildAtWrongPosition() {
+        IntTreeNode node = factory.createTreeNode(0);
+        node.addChild(factory.createTreeNode('a'));
+        node.getChildAtPos(1);
+    }
+
+    @Test
+    public void testSetChildren() {
+        IntTreeNode node = factory.createTreeNode(0);
+        List<TreeNode> children = new ArrayList<>();
+        for (char c : "zxcvbnm".toCharArray()) {
+            children.add(factory.createTreeNode(c));
+        }
+        node.setChildren(children);
+        StringBuilder values = new StringBuilder();
+        for (IntTreeNode child : node.getChildren()) {
+            values.append((char) child.getIntValue());
+        }
+        assertEquals("bcmnvxz", values.toString());
+        IntTreeNode copy = factory.createTreeNode(1);
+        copy.setChildren(node.getChildren());
+        assertEquals(node.getChildren(), copy.getChildren());
+        node.setChildren(null);
+        assertTrue(node.isLeaf());
+    }
+
+    @Test
+    public void testReplaceChild() {
+        IntTreeNode node = factory.createTreeNode(0);
+        IntTreeNode a = factory.createTreeNode('a');
+        IntTreeNode b = factory.createTreeNode('b');
+        IntTreeNode c = factory.createTreeNode('c');
+        node.setChildren(Arrays.asList(a, b, c));
+        IntTreeNodeWithData b2 = factory.createTreeNodeWithAdditionalData('b', 5);
+        assertEquals(1, node.replaceChild(b, b2));
+        assertSame(b2, node.getChild((int) 'b'));
+        assertEquals(Integer.valueOf(5),
+                     ((IntTreeNodeWithData) node.getChild((int) 'b')).getData());
+        IntTreeNode d = factory.createTreeNode('d');
+        assertEquals(0, node.replaceChild(a, d));
+        assertEquals(Arrays.asList(b2, c, d), node.getChildren());
+        assertEquals(-1, node.replaceChild(a, d));
+    }
+
+    @Test
+    public void testClear() {
+        IntTreeNode root = factory.createTreeNode(0);
+        IntTreeNode node = root;
+        for (int i = 0; i < 100_000; i++) {
+            IntTreeNode child = factory.createTreeNodeWithAdditionalData(i, i);
+            node.addChild(child);
+            node = child;
+        }
+        root.clear();
+        assertTrue(root.isLeaf());
+        assertEquals(Integer.valueOf(0), ((IntTreeNodeWithData) node).getData());
+    }
+
+}
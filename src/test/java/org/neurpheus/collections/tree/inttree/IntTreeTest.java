@@ -0,0 +1,142 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.inttree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.TreeNodeWithData;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTree;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeFactory;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeTools;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeUnitArray;
+import org.neurpheus.collections.tree.objecttree.ObjectTreeFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the int tree used as a base tree of linked list trees.
+ *
+ * @author Jakub Strychowski
+ */
+public class IntTreeTest {
+
+    private static List<String> words;
+
+    @BeforeClass
+    public static void setUpClass() throws URISyntaxException, IOException {
+        File file = new File(ClassLoader.getSystemResource("english.txt").toURI());
+        words = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            for (String word : line.split("\\s")) {
+                if (word.length() > 0) {
+                    words.add(word);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCreateLinkedListTree() {
+        for (boolean reverse : new boolean[]{false, true}) {
+            Tree objectTree = LinkedListTreeTools.createBaseTree(
+                    words, reverse, true, ObjectTreeFactory.getInstance());
+            Tree intTree = LinkedListTreeTools.createBaseTree(
+                    words, reverse, true, IntTreeFactory.getInstance());
+            assertTrue(intTree instanceof IntTree);
+
+            LinkedListTreeFactory factory = LinkedListTreeFactory.getInstance();
+            LinkedListTree expected = factory.createTree(objectTree, true, false, false);
+            LinkedListTree result = factory.createTree(intTree, true, false, false);
+            assertUnitsEquals(expected.getUnitArray(), result.getUnitArray());
+        }
+    }
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        IntTree tree = (IntTree) LinkedListTreeTools.createBaseTree(
+                words.subList(0, 5000), false, true, IntTreeFactory.getInstance());
+        StringBuilder longWord = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            longWord.append((char) ('a' + i % 26));
+        }
+        List<String> deep = new ArrayList<>();
+        deep.add(longWord.toString());
+        IntTree deepTree = (IntTree) LinkedListTreeTools.createBaseTree(
+                deep, false, true, IntTreeFactory.getInstance());
+        for (IntTree source : new IntTree[]{tree, deepTree}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(source);
+            }
+            IntTree copy;
+            try (ObjectInputStream in = new ObjectInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray()))) {
+                copy = (IntTree) in.readObject();
+            }
+            assertNotNull(copy.getRoot());
+            assertTreeEquals(source.getRoot(), copy.getRoot());
+        }
+    }
+
+    private static void assertTreeEquals(TreeNode expected, TreeNode result) {
+        List<TreeNode> expectedNodes = new ArrayList<>();
+        List<TreeNode> resultNodes = new ArrayList<>();
+        expectedNodes.add(expected);
+        resultNodes.add(result);
+        while (!expectedNodes.isEmpty()) {
+            TreeNode a = expectedNodes.remove(expectedNodes.size() - 1);
+            TreeNode b = resultNodes.remove(resultNodes.size() - 1);
+            assertEquals(a.getValue(), b.getValue());
+            assertEquals(a.hasExtraData(), b.hasExtraData());
+            if (a.hasExtraData()) {
+                assertEquals(((TreeNodeWithData) a).getData(), ((TreeNodeWithData) b).getData());
+            }
+            assertEquals(a.getNumberOfChildren(), b.getNumberOfChildren());
+            expectedNodes.addAll(a.getChildren());
+            resultNodes.addAll(b.getChildren());
+        }
+    }
+
+    private static void assertUnitsEquals(LinkedListTreeUnitArray expected,
+                                          LinkedListTreeUnitArray result) {
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getValueCode(i), result.getValueCode(i));
+            assertEquals(expected.getDistance(i), result.getDistance(i));
+            assertEquals(expected.getDataCode(i), result.getDataCode(i));
+            assertEquals(expected.isWordEnd(i), result.isWordEnd(i));
+            assertEquals(expected.isWordContinued(i), result.isWordContinued(i));
+        }
+    }
+
+}
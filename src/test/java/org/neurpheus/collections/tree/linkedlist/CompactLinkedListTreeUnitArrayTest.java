@@ -197,4 +197,30 @@ public class CompactLinkedListTreeUnitArrayTest  extends AbstractLinkedListTreeU
         assertEquals(6, lla.getNumberOfDifferentUnits());
     }
     
+
+    @Test
+    public void testParallelCompact() {
+        FastLinkedListTreeUnitArray reference = new FastLinkedListTreeUnitArray(5000);
+        CompactLinkedListTreeUnitArray lla1 = new CompactLinkedListTreeUnitArray(5000);
+        CompactLinkedListTreeUnitArray lla2 = new CompactLinkedListTreeUnitArray(5000);
+        for (int i = 0; i < 5000; i++) {
+            LinkedListTreeUnit unit = i % 11 == 0 ? null
+                    : new LinkedListTreeUnit(i % 13, i % 17, i % 3 == 0, i % 5 != 0, i % 7);
+            reference.add(unit);
+            lla1.add(unit);
+            lla2.add(unit);
+        }
+        int expected = lla1.getNumberOfDifferentUnits();
+        lla1.compact();
+        lla2.compact(4);
+        assertEquals(expected, lla1.getNumberOfDifferentUnits());
+        assertEquals(expected, lla2.getNumberOfDifferentUnits());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(reference.get(i), lla1.get(i));
+            assertEquals(reference.get(i), lla2.get(i));
+            assertTrue(lla1.isNull(i) == reference.isNull(i));
+            assertTrue(lla2.isNull(i) == reference.isNull(i));
+        }
+    }
+
 }
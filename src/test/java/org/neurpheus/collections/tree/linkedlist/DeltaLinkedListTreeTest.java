@@ -0,0 +1,164 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link DeltaLinkedListTree}.
+ *
+ * @author Jakub Strychowski
+ */
+public class DeltaLinkedListTreeTest {
+
+    private static final List<String> examples = Arrays.asList(new String[]{
+        "wysoki",
+        "wysoka",
+        "wysokie",
+        "wysokiego",
+        "wysokiej",
+        "wysokiemu",
+        "wysoko",
+        "niewysoki",
+        "niewysokiego",
+        "niewysokiemu",
+        "niewysoka"
+    });
+
+    public DeltaLinkedListTreeTest() {
+    }
+
+    private static LinkedListTree createBaseTree() {
+        return LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(examples, false, true), true, true, false);
+    }
+
+    private static void assertExamples(DeltaLinkedListTree tree) {
+        for (int i = 0; i < examples.size(); i++) {
+            assertEquals(examples.get(i), Integer.valueOf(i), tree.getData(examples.get(i)));
+        }
+    }
+
+    @Test
+    public void testLookupsWithoutModifications() {
+        DeltaLinkedListTree tree = new DeltaLinkedListTree(createBaseTree());
+        assertExamples(tree);
+        assertFalse(tree.contains("wysok"));
+        assertFalse(tree.contains("abc"));
+        assertFalse(tree.contains(""));
+        assertEquals(0, tree.getDeltaSize());
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        DeltaLinkedListTree tree = new DeltaLinkedListTree(createBaseTree());
+        tree.add("wysokimi", 100);
+        tree.add("niski", 101);
+        tree.add("wysoka", 102);
+        assertTrue(tree.remove("wysokie"));
+        assertFalse(tree.remove("wysokie"));
+        assertFalse(tree.remove("niskiego"));
+        assertEquals(4, tree.getDeltaSize());
+
+        assertEquals(Integer.valueOf(100), tree.getData("wysokimi"));
+        assertEquals(Integer.valueOf(101), tree.getData("niski"));
+        assertEquals(Integer.valueOf(102), tree.getData("wysoka"));
+        assertNull(tree.getData("wysokie"));
+        assertTrue(tree.contains("wysokiego"));
+        assertFalse(tree.contains("nisk"));
+
+        tree.add("wysokie", 103);
+        assertEquals(Integer.valueOf(103), tree.getData("wysokie"));
+        assertEquals(4, tree.getDeltaSize());
+    }
+
+    @Test
+    public void testMerge() {
+        LinkedListTree base = createBaseTree();
+        DeltaLinkedListTree tree = new DeltaLinkedListTree(base);
+        assertSame(base, tree.merge());
+
+        tree.add("wysokimi", 100);
+        tree.add("niski", 101);
+        tree.add("wysoka", 102);
+        tree.remove("wysokie");
+        tree.remove("niewysoka");
+        LinkedListTree merged = tree.merge();
+        assertNotSame(base, merged);
+        assertSame(merged, tree.getBaseTree());
+        assertEquals(0, tree.getDeltaSize());
+
+        int[] stack = new int[100];
+        assertEquals(Integer.valueOf(100), merged.getRoot().getData("wysokimi", stack, 0));
+        assertEquals(Integer.valueOf(101), merged.getRoot().getData("niski", stack, 0));
+        assertEquals(Integer.valueOf(102), merged.getRoot().getData("wysoka", stack, 0));
+        assertNull(merged.getRoot().getData("wysokie", stack, 0));
+        assertNull(merged.getRoot().getData("niewysoka", stack, 0));
+        assertEquals(Integer.valueOf(3), merged.getRoot().getData("wysokiego", stack, 0));
+        assertEquals(Integer.valueOf(9), merged.getRoot().getData("niewysokiemu", stack, 0));
+        assertNull(LinkedListTreeTools.findNode("niewysoka", merged, false, null));
+
+        assertEquals(Integer.valueOf(101), tree.getData("niski"));
+        assertFalse(tree.contains("wysokie"));
+    }
+
+    @Test
+    public void testBackgroundMerge() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            DeltaLinkedListTree tree = new DeltaLinkedListTree(createBaseTree(), executor, 50,
+                                                               true);
+            for (int i = 0; i < 1000; i++) {
+                tree.add("slowo" + i, 1000 + i);
+                assertEquals(Integer.valueOf(1000 + i), tree.getData("slowo" + i));
+                if (i % 10 == 0) {
+                    assertTrue(tree.remove("slowo" + (i / 2)));
+                }
+                assertExamples(tree);
+            }
+            Future<LinkedListTree> future = tree.mergeInBackground();
+            future.get(60, TimeUnit.SECONDS);
+            tree.merge();
+            assertEquals(0, tree.getDeltaSize());
+            assertExamples(tree);
+            for (int i = 0; i < 1000; i++) {
+                boolean removed = i % 5 == 0 && i < 500;
+                Integer expected = removed ? null : Integer.valueOf(1000 + i);
+                assertEquals("slowo" + i, expected, tree.getData("slowo" + i));
+                assertEquals("slowo" + i, expected,
+                             tree.getBaseTree().getRoot().getData("slowo" + i, new int[100], 0));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link DoubleArrayTrie}.
+ *
+ * @author Jakub Strychowski
+ */
+public class DoubleArrayTrieTest {
+
+    private static final Charset charset = StandardCharsets.UTF_8;
+
+    private static final List<String> examples = Arrays.asList(new String[]{
+        "wysoki",
+        "wysoka",
+        "wysokie",
+        "wysokiego",
+        "niewysoki",
+        "niewysokiego",
+        "w"
+    });
+
+    private static String filePath;
+
+    public DoubleArrayTrieTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        URL url = ClassLoader.getSystemResource("");
+        File folder = null;
+        try {
+            folder = new File(url.toURI());
+        } catch (URISyntaxException ex) {
+            fail(ex.getMessage());
+        }
+        filePath = folder.getAbsolutePath() + File.separator + "english.txt";
+    }
+
+    private static void assertWords(List<String> words, DoubleArrayTrie trie) {
+        for (int i = 0; i < words.size(); i++) {
+            assertEquals(words.get(i), Integer.valueOf(i), trie.getData(words.get(i)));
+        }
+    }
+
+    @Test
+    public void testExamples() {
+        for (boolean tailCompression : new boolean[]{false, true}) {
+            LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree(
+                    LinkedListTreeTools.createBaseTree(examples, false, true), true, true, false);
+            DoubleArrayTrie trie = DoubleArrayTrie.create(tree, tailCompression);
+            assertWords(examples, trie);
+            assertFalse(trie.contains(""));
+            assertFalse(trie.contains("wysok"));
+            assertFalse(trie.contains("wysokiegoo"));
+            assertFalse(trie.contains("wysokx"));
+            assertFalse(trie.contains("abc"));
+            assertFalse(trie.contains("wysoki\u20ac"));
+            assertNull(trie.getData("niewysokie"));
+        }
+    }
+
+    @Test
+    public void testTailCompression() throws IOException {
+        List<String> words = Files.readAllLines(Paths.get(filePath), charset);
+        LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(filePath, charset, false, true),
+                true, true, false);
+        DoubleArrayTrie trie = DoubleArrayTrie.create(tree, false);
+        DoubleArrayTrie compressed = DoubleArrayTrie.create(tree, true);
+        assertEquals(0, trie.getTailSize());
+        assertTrue(compressed.getAllocationSize() < trie.getAllocationSize());
+        assertWords(words, trie);
+        assertWords(words, compressed);
+        int[] stack = new int[1000];
+        for (String word : words) {
+            String prefix = word.substring(0, word.length() / 2);
+            assertEquals(prefix, tree.getRoot().getData(prefix, stack, 0), trie.getData(prefix));
+            assertEquals(prefix, tree.getRoot().getData(prefix, stack, 0),
+                         compressed.getData(prefix));
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(examples, false, true), true, true, false);
+        DoubleArrayTrie trie = DoubleArrayTrie.create(tree, true);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            trie.write(out);
+        }
+        DoubleArrayTrie read;
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = DoubleArrayTrie.readInstance(in);
+        }
+        assertEquals(trie.size(), read.size());
+        assertEquals(trie.getTailSize(), read.getTailSize());
+        assertTrue(Arrays.equals(trie.getValueMapping(), read.getValueMapping()));
+        assertWords(examples, read);
+        assertFalse(read.contains("wysok"));
+    }
+
+    @Test
+    public void testEmptyTrie() {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        assertFalse(trie.contains(""));
+        assertFalse(trie.contains("abc"));
+        assertEquals(1, trie.size());
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link ForestCompression}.
+ *
+ * @author Jakub Strychowski
+ */
+public class ForestCompressionTest {
+
+    private static final Charset charset = StandardCharsets.UTF_8;
+
+    private static String filePath;
+
+    public ForestCompressionTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        URL url = ClassLoader.getSystemResource("");
+        File folder = null;
+        try {
+            folder = new File(url.toURI());
+        } catch (URISyntaxException ex) {
+            fail(ex.getMessage());
+        }
+        filePath = folder.getAbsolutePath() + File.separator + "english.txt";
+    }
+
+    private static LinkedListTree createTree(boolean reverse, boolean withData,
+                                             boolean deduplicate) throws IOException {
+        return LinkedListTreeFactory.getInstance().createTreeUsingForestCompression(
+                LinkedListTreeTools.createBaseTree(filePath, charset, reverse, withData),
+                true, 3, deduplicate);
+    }
+
+    @Test
+    public void testCompressionWithData() throws IOException {
+        LinkedListTree tree = createTree(false, true, false);
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, charset, false, true, false, false));
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, charset, false, true, true, true));
+
+        // data have to be found starting from any node on a path
+        List<String> words = Files.readAllLines(Paths.get(filePath), charset);
+        int[] stack = new int[1000];
+        for (int index = 0; index < words.size(); index += 7) {
+            String word = words.get(index);
+            for (int pos = 1; pos < word.length(); pos++) {
+                LinkedListTreeNode node = LinkedListTreeTools.findNode(
+                        word.substring(0, pos), tree, false, null, stack);
+                assertNotNull(word, node);
+                assertEquals(word, Integer.valueOf(index),
+                             node.getData(word.substring(pos), stack, 0));
+            }
+        }
+    }
+
+    @Test
+    public void testReverseCompression() throws IOException {
+        LinkedListTree tree = createTree(true, false, true);
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, charset, true, false, false, false));
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, charset, true, false, true, false));
+
+        LinkedListTree sequential = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(filePath, charset, true, false),
+                true, false, false);
+        assertTrue(tree.getUnitArray().size() < sequential.getUnitArray().size());
+    }
+
+    @Test
+    public void testDeduplication() {
+        List<String> words = Arrays.asList(new String[]{
+            "xabc", "xabd", "xac", "yabc", "yabd", "yac", "zabc", "zac"
+        });
+        LinkedListTreeFactory factory = LinkedListTreeFactory.getInstance();
+        LinkedListTree tree = factory.createTreeUsingForestCompression(
+                LinkedListTreeTools.createBaseTree(words, false, false), true, 2, false);
+        LinkedListTree deduplicated = factory.createTreeUsingForestCompression(
+                LinkedListTreeTools.createBaseTree(words, false, false), true, 2, true);
+        assertTrue(deduplicated.getUnitArray().size() < tree.getUnitArray().size());
+        for (LinkedListTree t : Arrays.asList(tree, deduplicated)) {
+            for (String word : words) {
+                assertNotNull(word, LinkedListTreeTools.findNode(word, t, false, null));
+                assertNotNull(word, LinkedListTreeTools.findNode(word, t, false, null,
+                                                                 new int[100]));
+            }
+            assertNull(LinkedListTreeTools.findNode("zabd", t, false, null));
+            assertNull(LinkedListTreeTools.findNode("zabd", t, false, null, new int[100]));
+            assertEquals(3, t.getRoot().getNumberOfChildren());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumberOfThreads() {
+        ForestCompression.compress(LinkedListTreeNodeTest.createTestTree(false), 0, false);
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests {@link LinkedListTreeBuilder}.
+ *
+ * @author Jakub Strychowski
+ */
+public class LinkedListTreeBuilderTest {
+
+    private static final List<String> examples = Arrays.asList(new String[]{
+        "wysoki",
+        "wysoka",
+        "wysokie",
+        "wysokiego",
+        "wysokiej",
+        "wysokiemu",
+        "wysoko",
+        "wysocy",
+        "wysockich",
+        "wysocki",
+        "wysokim",
+        "wysokimi",
+        "niewysoki",
+        "niewysokiego",
+        "niewysokiemu",
+        "nienajwyzszemu",
+        "niewysoka",
+        "niewysocy",
+        "niewysocki",
+        "niewysokim",
+        "niewysokimi"
+    });
+
+    private static String filePath;
+
+    public LinkedListTreeBuilderTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        URL url = ClassLoader.getSystemResource("");
+        File folder = null;
+        try {
+            folder = new File(url.toURI());
+        } catch (URISyntaxException ex) {
+            fail(ex.getMessage());
+        }
+        filePath = folder.getAbsolutePath() + File.separator + "english.txt";
+    }
+
+    private static List<String> sortedExamples() {
+        List<String> words = new ArrayList<>(examples);
+        Collections.sort(words);
+        return words;
+    }
+
+    @Test
+    public void testBuildWithData() {
+        List<String> words = sortedExamples();
+        LinkedListTreeBuilder builder = new LinkedListTreeBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            builder.add(words.get(i), i);
+        }
+        assertEquals(words.size(), builder.getNumberOfWords());
+        LinkedListTree tree = builder.build();
+        int[] stack = new int[100];
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            assertNotNull(word, LinkedListTreeTools.findNode(word, tree, false, null));
+            assertNotNull(word, LinkedListTreeTools.findNode(word, tree, false, null, stack));
+            assertEquals(word, i, tree.getRoot().getData(word, stack, 0).intValue());
+        }
+        assertNull(LinkedListTreeTools.findNode("wysokia", tree, false, null));
+        assertNull(LinkedListTreeTools.findNode("niewysokii", tree, false, null));
+    }
+
+    @Test
+    public void testMinimization() {
+        List<String> words = sortedExamples();
+        LinkedListTreeBuilder builder = new LinkedListTreeBuilder();
+        for (String word : words) {
+            builder.add(word);
+        }
+        LinkedListTree tree = builder.build();
+        for (String word : words) {
+            LinkedListTreeNode node = LinkedListTreeTools.findNode(word, tree, false, null);
+            assertNotNull(word, node);
+        }
+        // common suffixes of "wysok..." and "niewysok..." should be shared
+        LinkedListTreeNode node1 = LinkedListTreeTools.findNode("wysoki", tree, false, null);
+        LinkedListTreeNode node2 = LinkedListTreeTools.findNode("niewysoki", tree, false, null);
+        assertEquals(node1.getChildren().size(), node2.getChildren().size());
+    }
+
+    @Test
+    public void testRepeatedAndEmptyWords() {
+        LinkedListTreeBuilder builder = new LinkedListTreeBuilder();
+        builder.add("");
+        builder.add("a", 1);
+        builder.add("a", 2);
+        builder.add("ab", 3);
+        builder.add("ab", 4);
+        assertEquals(2, builder.getNumberOfWords());
+        LinkedListTree tree = builder.build();
+        int[] stack = new int[100];
+        assertEquals(1, tree.getRoot().getData("a", stack, 0).intValue());
+        assertEquals(3, tree.getRoot().getData("ab", stack, 0).intValue());
+    }
+
+    @Test
+    public void testUnsortedWords() {
+        LinkedListTreeBuilder builder = new LinkedListTreeBuilder();
+        builder.add("abc");
+        try {
+            builder.add("abb");
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            builder.add("ab");
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBuildTwice() {
+        LinkedListTreeBuilder builder = new LinkedListTreeBuilder();
+        builder.add("abc");
+        builder.build();
+        try {
+            builder.build();
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCreateTreeFromSortedWords() throws IOException {
+        LinkedListTree tree = LinkedListTreeTools.createTreeFromSortedWords(
+                filePath, StandardCharsets.UTF_8, true);
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, StandardCharsets.UTF_8, false, true, false, false));
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, StandardCharsets.UTF_8, false, true, true, true));
+
+        tree = LinkedListTreeTools.createTreeFromSortedWords(
+                filePath, StandardCharsets.UTF_8, false);
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, StandardCharsets.UTF_8, false, false, true, true));
+
+        LinkedListTree baseTree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(filePath, StandardCharsets.UTF_8, false, false),
+                true, false, false);
+        assertTrue(tree.getUnitArray().size() < baseTree.getUnitArray().size());
+    }
+
+}
@@ -16,14 +16,20 @@
 
 package org.neurpheus.collections.tree.linkedlist;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import org.junit.Test;
 import org.neurpheus.collections.tree.Tree;
 import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.objecttree.ObjectTreeFactory;
 import org.neurpheus.logging.LoggerService;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -143,6 +149,158 @@ public class LinkedListTreeFactoryTest {
 
     }
 
+    @Test
+    public void testCompressWithOptions() {
+        List<String> examples = Arrays.asList(EXAMPLES);
+        for (CompressionOptions.Profile profile : CompressionOptions.Profile.values()) {
+            testExamples(examples, new CompressionOptions(profile));
+        }
+        CompressionOptions options = new CompressionOptions();
+        options.setMaxReplacementLength(3);
+        options.setMaxPartitionSize(2);
+        options.setMinGain(2);
+        testExamples(examples, options);
+
+    }
+
+    @Test
+    public void testCompressWithTimeBudget() {
+        List<String> examples = generateExamples();
+        LinkedListTree unlimited = compressExamples(
+                examples, new CompressionOptions(CompressionOptions.Profile.BALANCED));
+
+        CompressionOptions options = new CompressionOptions(CompressionOptions.Profile.BALANCED);
+        options.setTimeBudget(1);
+        LinkedListTree limited = compressExamples(examples, options);
+        checkExamples(examples, limited);
+        assertTrue(limited.getUnitArray().size() > unlimited.getUnitArray().size());
+    }
+
+    @Test
+    public void testTimeBudgetStopsScanningOfPartition() {
+        // the suffix shared by all words forms a single partition with a position for each word
+        List<String> examples = new ArrayList<>();
+        for (char a = 'i'; a <= 'z'; a++) {
+            for (char b = 'i'; b <= 'z'; b++) {
+                for (char c = 'i'; c <= 'z'; c++) {
+                    examples.add(new String(new char[]{a, b, c}) + "abcdefgh");
+                }
+            }
+        }
+        LinkedListTree unlimited = compressExamples(examples, new CompressionOptions());
+        CompressionOptions options = new CompressionOptions();
+        options.setTimeBudget(1);
+        LinkedListTree limited = compressExamples(examples, options);
+        checkExamples(examples, limited);
+        assertTrue(limited.getUnitArray().size() - unlimited.getUnitArray().size()
+                   > examples.size());
+    }
+
+    @Test
+    public void testResumeCompressionFromCheckpoint() throws IOException {
+        List<String> examples = generateExamples();
+        LinkedListTree expected = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(examples, REVERSE, true), true,
+                new CompressionOptions(CompressionOptions.Profile.BALANCED));
+
+        File checkpoint = File.createTempFile("lztrie", ".checkpoint");
+        assertTrue(checkpoint.delete());
+        final int[] savedPosition = new int[1];
+        CompressionOptions options = new CompressionOptions(CompressionOptions.Profile.BALANCED);
+        options.setCheckpointFile(checkpoint);
+        options.setCheckpointInterval(1);
+        options.setProgressListener(new ProgressRecorder() {
+            private int counter;
+
+            @Override
+            public void checkpointSaved(File file, int position) {
+                savedPosition[0] = position;
+                if (++counter == 3) {
+                    throw new IllegalStateException("simulated crash");
+                }
+            }
+        });
+        try {
+            LinkedListTreeFactory.getInstance().createTree(
+                    LinkedListTreeTools.createBaseTree(examples, REVERSE, true), true, options);
+            fail("The compression should be interrupted");
+        } catch (IllegalStateException ex) {
+            assertTrue(checkpoint.isFile());
+        }
+
+        ProgressRecorder recorder = new ProgressRecorder();
+        options.setCheckpointInterval(CompressionOptions.DEFAULT_CHECKPOINT_INTERVAL);
+        options.setProgressListener(recorder);
+        LinkedListTree resumed = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(examples, REVERSE, true), true, options);
+        assertEquals(savedPosition[0], recorder.restoredPosition);
+        assertTrue(recorder.restoredPosition > 1);
+        assertTrue(recorder.progress > 0);
+        assertFalse(checkpoint.exists());
+        checkExamples(examples, resumed);
+        assertArrayEquals(toBytes(expected.getUnitArray()), toBytes(resumed.getUnitArray()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCompressionOptions() {
+        CompressionOptions options = new CompressionOptions();
+        options.setMaxReplacementLength(CompressionOptions.MAX_REPLACEMENT_LENGTH + 1);
+    }
+
+    @Test
+    public void testMinGainLimitedByMaxReplacementLength() {
+        CompressionOptions options = new CompressionOptions();
+        options.setMaxReplacementLength(10);
+        options.setMinGain(9);
+        try {
+            options.setMinGain(50);
+            fail("The minimum gain should be smaller than the maximum replacement length");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(9, options.getMinGain());
+        }
+        try {
+            options.setMaxReplacementLength(9);
+            fail("The maximum replacement length should exceed the minimum gain");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(10, options.getMaxReplacementLength());
+        }
+    }
+
+    @Test
+    public void testCreateDeepTree() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        String longWord = builder.toString();
+        List<String> examples = new ArrayList<>(Arrays.asList(EXAMPLES));
+        examples.add(longWord);
+        examples.add(longWord.substring(0, 50_000));
+        ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
+        Tree baseTree = factory.createTree();
+        for (int i = 0; i < examples.size(); i++) {
+            LinkedListTreeTools.addStringToTree(factory, false, baseTree.getRoot(),
+                                                examples.get(i), 0, i);
+        }
+        LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree(
+                baseTree, true, false, false);
+        int numberOfNodes = 1 + longWord.length();
+        Set<String> prefixes = new HashSet<>();
+        for (String example : EXAMPLES) {
+            for (int i = 1; i <= example.length(); i++) {
+                if (prefixes.add(example.substring(0, i))) {
+                    numberOfNodes++;
+                }
+            }
+        }
+        assertEquals(numberOfNodes, tree.getUnitArray().size());
+        int[] stack = new int[1000];
+        for (int i = 0; i < examples.size(); i++) {
+            assertEquals(Integer.valueOf(i),
+                         tree.getRoot().getData(examples.get(i), stack, 0));
+        }
+    }
+
     private void testExamples(List<String> examples, boolean parallelMode) {
         System.out.println("--------------------------------------------");
         System.out.printf("Test %d words%n", examples.size());
@@ -150,7 +308,19 @@ public class LinkedListTreeFactoryTest {
         Tree baseTree = LinkedListTreeTools.createBaseTree(examples, REVERSE, true);
         LinkedListTree compressedTree = LinkedListTreeFactory.getInstance().createTree(
                 baseTree, true, true, parallelMode);
+        checkExamples(examples, compressedTree);
+    }
+
+    private void testExamples(List<String> examples, CompressionOptions options) {
+        checkExamples(examples, compressExamples(examples, options));
+    }
+
+    private LinkedListTree compressExamples(List<String> examples, CompressionOptions options) {
+        Tree baseTree = LinkedListTreeTools.createBaseTree(examples, REVERSE, true);
+        return LinkedListTreeFactory.getInstance().createTree(baseTree, true, options);
+    }
 
+    private void checkExamples(List<String> examples, LinkedListTree compressedTree) {
         int stack[] = new int[1000];
 
         for (String example : examples) {
@@ -171,6 +341,36 @@ public class LinkedListTreeFactoryTest {
         }
     }
 
+    private byte[] toBytes(LinkedListTreeUnitArray units) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            units.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static class ProgressRecorder implements CompressionProgressListener {
+
+        private long progress;
+
+        private int restoredPosition;
+
+        @Override
+        public void progressChanged(long progress, long maxProgress, long elapsedTime) {
+            this.progress = progress;
+        }
+
+        @Override
+        public void checkpointSaved(File file, int position) {
+        }
+
+        @Override
+        public void checkpointRestored(File file, int position) {
+            this.restoredPosition = position;
+        }
+
+    }
+
     private List<String> generateExamples() {
 
         List<String> suffixes = generateStrings(SUFFIX_ALPHABET, 0, 4, NUMBER_OF_SUFFIXES);
@@ -6,13 +6,23 @@ package org.neurpheus.collections.tree.linkedlist;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.neurpheus.collections.tree.Tree;
+import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.TreeNodeWithData;
+import org.neurpheus.collections.tree.objecttree.ObjectTreeFactory;
+import org.neurpheus.collections.tree.util.TreeHelper;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -109,6 +119,169 @@ public class LinkedListTreeToolsTest {
     }
     
 
+    @Test
+    public void testParallelCreateBaseTree() throws IOException {
+        Map<String, Integer> expected = readWords(filePath, charset);
+        for (boolean reverse : new boolean[]{false, true}) {
+            Tree single = new ParallelBaseTreeBuilder(charset, reverse, true, 1,
+                    ParallelBaseTreeBuilder.DEFAULT_CHUNK_SIZE).build(filePath);
+            assertEquals(expected, collectWords(single, reverse));
+            single = new ParallelBaseTreeBuilder(charset, reverse, true, 1, 4096).build(filePath);
+            assertEquals(expected, collectWords(single, reverse));
+            Tree parallel = new ParallelBaseTreeBuilder(charset, reverse, true, 4, 4096)
+                    .build(filePath);
+            assertEquals(expected, collectWords(parallel, reverse));
+        }
+    }
+
+    @Test
+    public void testCreateBaseTreeFromStreamInPortions() throws IOException {
+        Charset utf16 = StandardCharsets.UTF_16;
+        Map<String, Integer> expected = readWords(filePath, charset);
+        File file = File.createTempFile("words", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new String(Files.readAllBytes(Paths.get(filePath)), charset)
+                .getBytes(utf16));
+        for (int threads = 1; threads <= 3; threads += 2) {
+            Tree tree = new ParallelBaseTreeBuilder(utf16, false, true, threads, 4096)
+                    .build(file.getAbsolutePath());
+            assertEquals(expected, collectWords(tree, false));
+        }
+    }
+
+    @Test
+    public void testCreateBaseTreeWithNotSplittableCharset() throws IOException {
+        Charset utf16 = StandardCharsets.UTF_16;
+        assertFalse(ParallelBaseTreeBuilder.isSplittable(utf16));
+        File file = File.createTempFile("words", ".txt");
+        file.deleteOnExit();
+        String text = "  ala\tma kota\r\nkot ma\u00a0ale  \n\nala ";
+        Files.write(file.toPath(), text.getBytes(utf16));
+        Tree tree = LinkedListTreeTools.createBaseTree(file.getAbsolutePath(), utf16, false, true, 3);
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("ala", 0);
+        expected.put("ma", 1);
+        expected.put("kota", 2);
+        expected.put("kot", 3);
+        expected.put("ma\u00a0ale", 4);
+        assertEquals(expected, collectWords(tree, false));
+    }
+
+    @Test
+    public void testWriteWords() throws IOException {
+        Map<String, Integer> expected = readWords(filePath, charset);
+        for (boolean reverse : new boolean[]{false, true}) {
+            Tree baseTree = LinkedListTreeTools.createBaseTree(filePath, charset, reverse, true);
+            StringWriter out = new StringWriter();
+            TreeHelper.writeTreeWords(baseTree, out, reverse, true);
+            assertEquals(expected, parseWords(out.toString()));
+
+            LinkedListTree tree = LinkedListTreeFactory.getInstance()
+                    .createTree(baseTree, true, true, false);
+            out = new StringWriter();
+            TreeHelper.writeTreeWords(tree, out, reverse, true);
+            assertEquals(expected, parseWords(out.toString()));
+            StringWriter nodeOut = new StringWriter();
+            TreeHelper.writeNodeWords(tree.getRoot(), nodeOut, reverse, true);
+            assertEquals(nodeOut.toString(), out.toString());
+        }
+    }
+
+    @Test
+    public void testWriteReversedSupplementaryCharacters() throws IOException {
+        String word = "a\ud83d\ude00b";
+        ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
+        Tree tree = factory.createTree();
+        TreeNode node = tree.getRoot();
+        int[] codePoints = new int[]{'b', 0x1f600, 'a'};
+        for (int i = 0; i < codePoints.length; i++) {
+            TreeNode child = i + 1 < codePoints.length
+                             ? factory.createTreeNode(codePoints[i])
+                             : factory.createTreeNodeWithAdditionalData(codePoints[i], 7);
+            node.addChild(child);
+            node = child;
+        }
+        StringWriter out = new StringWriter();
+        TreeHelper.writeNodeWords(tree.getRoot(), out, true, true);
+        assertEquals(word + "\t7\n", out.toString());
+    }
+
+    @Test
+    public void testWriteReversedAdjacentSupplementaryCharacters() throws IOException {
+        List<String> words = Arrays.asList("x\ud83d\ude00\ud83d\ude01y", "\ud83d\ude02\ud83d\ude03",
+                                           "ab\ud83d\ude00", "\ud83d\ude01cd");
+        Tree baseTree = LinkedListTreeTools.createBaseTree(words, true, true);
+        StringWriter baseOut = new StringWriter();
+        TreeHelper.writeTreeWords(baseTree, baseOut, true, true);
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < words.size(); i++) {
+            expected.put(words.get(i), i);
+        }
+        assertEquals(expected, parseWords(baseOut.toString()));
+
+        LinkedListTree tree = LinkedListTreeFactory.getInstance()
+                .createTree(baseTree, true, true, false);
+        StringWriter treeOut = new StringWriter();
+        TreeHelper.writeTreeWords(tree, treeOut, true, true);
+        assertEquals(baseOut.toString(), treeOut.toString());
+        StringWriter nodeOut = new StringWriter();
+        TreeHelper.writeNodeWords(tree.getRoot(), nodeOut, true, true);
+        assertEquals(baseOut.toString(), nodeOut.toString());
+    }
+
+    private static Map<String, Integer> parseWords(String text) {
+        Map<String, Integer> result = new HashMap<>();
+        for (String line : text.split("\n")) {
+            int pos = line.indexOf('\t');
+            assertNull(result.put(line.substring(0, pos), Integer.valueOf(line.substring(pos + 1))));
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> readWords(String path, Charset cs) throws IOException {
+        Map<String, Integer> result = new HashMap<>();
+        int index = 0;
+        for (String line : Files.readAllLines(Paths.get(path), cs)) {
+            for (String word : line.split("\\s")) {
+                if (word.length() > 0) {
+                    if (!result.containsKey(word)) {
+                        result.put(word, index);
+                    }
+                    index++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> collectWords(Tree tree, boolean reverse) {
+        Map<String, Integer> result = new HashMap<>();
+        collectWords(tree.getRoot(), new StringBuilder(), reverse, result);
+        return result;
+    }
+
+    private static void collectWords(TreeNode node, StringBuilder prefix, boolean reverse,
+                                     Map<String, Integer> result) {
+        for (int i = 0; i < node.getNumberOfChildren(); i++) {
+            TreeNode child = node.getChildAtPos(i);
+            if (i > 0) {
+                assertTrue(((Integer) node.getChildAtPos(i - 1).getValue())
+                           < ((Integer) child.getValue()));
+            }
+            prefix.append((char) ((Integer) child.getValue()).intValue());
+            if (child instanceof TreeNodeWithData) {
+                String word = prefix.toString();
+                if (reverse) {
+                    word = new StringBuilder(word).reverse().toString();
+                }
+                result.put(word, (Integer) ((TreeNodeWithData) child).getData());
+            }
+            collectWords(child, prefix, reverse, result);
+            prefix.setLength(prefix.length() - 1);
+        }
+    }
+
+
     /*
     @Test
     public void testFindNode_3args() {
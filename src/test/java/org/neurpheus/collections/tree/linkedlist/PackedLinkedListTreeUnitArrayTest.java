@@ -0,0 +1,184 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Tests packed implementation of LLT unit array.
+ *
+ * @author Jakub Strychowski
+ */
+public class PackedLinkedListTreeUnitArrayTest extends AbstractLinkedListTreeUnitArrayTest {
+
+    public PackedLinkedListTreeUnitArrayTest() {
+    }
+
+    @Override
+    public AbstractLinkedListTreeUnitArray newInstance() {
+        return new PackedLinkedListTreeUnitArray();
+    }
+
+    private static String getEnglishFilePath() {
+        URL url = ClassLoader.getSystemResource("");
+        File folder = null;
+        try {
+            folder = new File(url.toURI());
+        } catch (URISyntaxException ex) {
+            fail(ex.getMessage());
+        }
+        return folder.getAbsolutePath() + File.separator + "english.txt";
+    }
+
+    @Test
+    public void testCopyConstructor() {
+        CompactLinkedListTreeUnitArray lla = new CompactLinkedListTreeUnitArray();
+        lla.clear(200);
+        for (int i = 0; i < 200; i++) {
+            lla.add(new LinkedListTreeUnit(i & 10, i % 5, (i % 3 == 0), (i % 7 == 0), i));
+        }
+        lla.compact();
+        LinkedListTreeUnitArray lla2 = new PackedLinkedListTreeUnitArray(lla);
+        LinkedListTreeUnitArray lla3 = new PackedLinkedListTreeUnitArray(lla2);
+
+        assertEquals(lla.size(), lla2.size());
+        assertEquals(lla.size(), lla3.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(lla.get(i), lla2.get(i));
+            assertEquals(lla.get(i), lla3.get(i));
+        }
+    }
+
+    @Test
+    public void testNegativeDistanceAndLargeValueCode() {
+        LinkedListTreeUnitArray lla = newInstance();
+        int maxCode = PackedLinkedListTreeUnitArray.MAX_VALUE_CODE;
+        lla.add(new LinkedListTreeUnit(maxCode, -5, true, false, -1));
+        assertEquals(maxCode, lla.getValueCode(0));
+        assertEquals(-5, lla.getDistance(0));
+        assertTrue(lla.isWordEnd(0));
+        assertFalse(lla.isWordContinued(0));
+        assertEquals(-1, lla.getDataCode(0));
+        try {
+            lla.add(new LinkedListTreeUnit(maxCode + 1, 0, true, false, 0));
+            fail("Value code out of range should be rejected");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testWriteAndReadNullUnit() throws IOException {
+        LinkedListTreeUnitArray lla = newInstance();
+        lla.setValueMapping(new int[]{0, 'a', 'b'});
+        lla.add(new LinkedListTreeUnit(0, 0, false, true, 0));
+        lla.add(new LinkedListTreeUnit(1, 1, true, false, 7));
+        lla.add(null);
+        lla.add(new LinkedListTreeUnit(2, 0, true, true, 8));
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        lla.write(new DataOutputStream(bout));
+        LinkedListTreeUnitArray read = newInstance();
+        read.read(new DataInputStream(new ByteArrayInputStream(bout.toByteArray())));
+        assertEquals(lla.size(), read.size());
+        for (int i = 0; i < lla.size(); i++) {
+            assertEquals(lla.get(i), read.get(i));
+        }
+        assertNull(read.get(2));
+        assertEquals('b', read.getValue(3));
+    }
+
+    @Test
+    public void testTreeWithPackedUnits() throws IOException {
+        String filePath = getEnglishFilePath();
+        Charset charset = StandardCharsets.UTF_8;
+        LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(filePath, charset, false, true),
+                true, true, false);
+        tree.setUnitArray(new PackedLinkedListTreeUnitArray(tree.getUnitArray()));
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, charset, false, true, false, false));
+        assertNull(LinkedListTreeTools.checkTree(
+                tree, filePath, charset, false, true, true, false));
+    }
+
+    /**
+     * Compares speed of a dictionary lookup for fast and packed unit arrays.
+     */
+    @Category(org.neurpheus.test.PerformenceTest.class)
+    @Test
+    public void testTraversalPerformance() throws IOException {
+        String filePath = getEnglishFilePath();
+        Charset charset = StandardCharsets.UTF_8;
+        List<String> words = Files.readAllLines(Paths.get(filePath), charset);
+        LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(filePath, charset, false, true),
+                true, true, false);
+        LinkedListTree fastTree = LinkedListTreeFactory.getInstance().createTree();
+        fastTree.setUnitArray(new FastLinkedListTreeUnitArray(tree.getUnitArray()));
+        LinkedListTree packedTree = LinkedListTreeFactory.getInstance().createTree();
+        packedTree.setUnitArray(new PackedLinkedListTreeUnitArray(tree.getUnitArray()));
+
+        int[] stack = new int[1000];
+        long fastDuration = 0;
+        long packedDuration = 0;
+        for (int x = 0; x < 10; x++) {
+            long startTime = System.nanoTime();
+            LinkedListTreeNode root = fastTree.getRoot();
+            for (String word : words) {
+                assertTrue(root.getData(word, stack, 0) != null);
+            }
+            fastDuration = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            root = packedTree.getRoot();
+            for (String word : words) {
+                assertTrue(root.getData(word, stack, 0) != null);
+            }
+            packedDuration = System.nanoTime() - startTime;
+            System.out.printf("Lookup of %d words - fast: %d mics, packed: %d mics.%n",
+                              words.size(), fastDuration / 1_000, packedDuration / 1_000);
+        }
+        System.out.printf("Memory - fast: %d kB, packed: %d kB.%n",
+                          fastTree.getUnitArray().getAllocationSize() / 1024,
+                          packedTree.getUnitArray().getAllocationSize() / 1024);
+        // after warming up for JIT
+        assertTrue("Packed units should be no slower then fast units",
+                   packedDuration < 1.3 * fastDuration);
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link SiblingIndex}.
+ *
+ * @author Jakub Strychowski
+ */
+public class SiblingIndexTest {
+
+    private static final Charset charset = StandardCharsets.UTF_8;
+
+    private static String filePath;
+
+    public SiblingIndexTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        URL url = ClassLoader.getSystemResource("");
+        File folder = null;
+        try {
+            folder = new File(url.toURI());
+        } catch (URISyntaxException ex) {
+            fail(ex.getMessage());
+        }
+        filePath = folder.getAbsolutePath() + File.separator + "english.txt";
+    }
+
+    private static LinkedListTree createTree(boolean compress) throws IOException {
+        return LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(filePath, charset, false, true),
+                true, compress, false);
+    }
+
+    private static void assertSameLookups(LinkedListTree tree, int minNumberOfChildren)
+            throws IOException {
+        List<String> words = Files.readAllLines(Paths.get(filePath), charset);
+        int[] stack = new int[1000];
+        Integer[] expected = new Integer[words.size() * 2];
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            expected[2 * i] = tree.getRoot().getData(word, stack, 0);
+            expected[2 * i + 1] = tree.getRoot().getData(word.substring(1) + "e", stack, 0);
+        }
+        SiblingIndex index = tree.createSiblingIndex(minNumberOfChildren);
+        assertSame(index, tree.getSiblingIndex());
+        assertTrue(index.getNumberOfIndexedNodes() > 0);
+        assertNull(LinkedListTreeTools.checkTree(tree, filePath, charset, false, true, true,
+                                                 false));
+        assertNull(LinkedListTreeTools.checkTree(tree, filePath, charset, false, true, true,
+                                                 true));
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            assertEquals(word, expected[2 * i], tree.getRoot().getData(word, stack, 0));
+            assertEquals(word, expected[2 * i + 1],
+                         tree.getRoot().getData(word.substring(1) + "e", stack, 0));
+        }
+        tree.removeSiblingIndex();
+        assertNull(tree.getSiblingIndex());
+    }
+
+    @Test
+    public void testUncompressedTree() throws IOException {
+        assertSameLookups(createTree(false), 2);
+    }
+
+    @Test
+    public void testCompressedTree() throws IOException {
+        assertSameLookups(createTree(true), 2);
+        assertSameLookups(createTree(true), 8);
+    }
+
+    @Test
+    public void testFindChildren() throws IOException {
+        LinkedListTree tree = createTree(true);
+        int[] stack = new int[1000];
+        int[] keys = new int[]{'a', 'e', 'k', 'q', 'x', 'z', 0x20ac};
+        LinkedListTreeNode[] expected = new LinkedListTreeNode[keys.length];
+        LinkedListTreeNode[] found = new LinkedListTreeNode[keys.length];
+        LinkedListTreeNode root = tree.getRoot();
+        root.findChildren(keys, expected, stack, 0);
+        tree.createSiblingIndex(4);
+        root.findChildren(keys, found, stack, 0);
+        for (int i = 0; i < keys.length; i++) {
+            if (expected[i] == null) {
+                assertNull(found[i]);
+            } else {
+                assertEquals(expected[i].getValue(), found[i].getValue());
+                assertEquals(expected[i].getChildren().size(), found[i].getChildren().size());
+                assertEquals(expected[i].getPosition().getPos(), found[i].getPosition().getPos());
+            }
+        }
+    }
+
+    @Test
+    public void testTable() {
+        LinkedListTree tree = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(Arrays.asList(new String[]{
+                    "a", "c", "e", "g"
+                }), false, false), true, false, false);
+        SiblingIndex index = SiblingIndex.create(tree.getUnitArray(), 3);
+        assertEquals(1, index.getNumberOfIndexedNodes());
+        assertEquals(3, index.getMinNumberOfChildren());
+        int table = index.findTable(1);
+        assertEquals(0, table);
+        assertEquals(-1, index.findTable(0));
+        LinkedListTreeUnitArray units = tree.getUnitArray();
+        int codeOfC = units.mapToValueCode('c');
+        int position = index.ceilingChild(table, codeOfC);
+        assertEquals(codeOfC, units.getValueCode(position));
+        assertEquals(1, index.ceilingChild(table, 0));
+        assertEquals(index.getLastChild(table),
+                     index.ceilingChild(table, units.mapToValueCode('g')));
+        assertEquals(-1, index.ceilingChild(table, units.mapToValueCode('g') + 1));
+        assertTrue(index.getAllocationSize() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMinNumberOfChildren() {
+        SiblingIndex.create(new FastLinkedListTreeUnitArray(1), 1);
+    }
+
+}
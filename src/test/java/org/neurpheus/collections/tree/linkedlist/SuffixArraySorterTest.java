@@ -0,0 +1,88 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests the linear time construction of suffix arrays.
+ *
+ * @author Jakub Strychowski
+ */
+public class SuffixArraySorterTest {
+
+    public SuffixArraySorterTest() {
+    }
+
+    @Test
+    public void testEmptyArray() {
+        LinkedListTreeUnitArray units = new FastLinkedListTreeUnitArray(0);
+        assertEquals(0, SuffixArraySorter.createSuffixArray(units).length);
+    }
+
+    @Test
+    public void testSingleUnit() {
+        LinkedListTreeUnitArray units = new FastLinkedListTreeUnitArray(1);
+        units.add(new LinkedListTreeUnit(0, 0, false, true, 0));
+        assertArrayEquals(new int[]{0}, SuffixArraySorter.createSuffixArray(units));
+    }
+
+    @Test
+    public void testTreeUnits() {
+        LinkedListTree tree = LinkedListTreeNodeTest.createTestTree(false);
+        LinkedListTreeUnitArray units = tree.getUnitArray();
+        assertArrayEquals(sortByComparator(units), SuffixArraySorter.createSuffixArray(units));
+    }
+
+    @Test
+    public void testRandomUnits() {
+        Random random = new Random(7);
+        for (int test = 0; test < 20; test++) {
+            int size = 1 + random.nextInt(5000);
+            FastLinkedListTreeUnitArray units = new FastLinkedListTreeUnitArray(size);
+            for (int i = 0; i < size; i++) {
+                units.add(new LinkedListTreeUnit(
+                        random.nextInt(test + 2),
+                        random.nextInt(test % 3 == 0 ? 3 : 70_000),
+                        random.nextBoolean(),
+                        random.nextBoolean(),
+                        random.nextInt(test % 2 == 0 ? 2 : 1_000_000)));
+            }
+            assertArrayEquals(sortByComparator(units), SuffixArraySorter.createSuffixArray(units));
+        }
+    }
+
+    private int[] sortByComparator(LinkedListTreeUnitArray units) {
+        Integer[] tmp = new Integer[units.size()];
+        for (int i = 0; i < tmp.length; i++) {
+            tmp[i] = i;
+        }
+        Arrays.sort(tmp, new SuffixArrayComparator(units, true));
+        int[] result = new int[tmp.length];
+        for (int i = 0; i < tmp.length; i++) {
+            result[i] = tmp[i];
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.linkedlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Tests {@link TraversalMetrics}.
+ *
+ * @author Jakub Strychowski
+ */
+public class TraversalMetricsTest {
+
+    private static final List<String> examples = Arrays.asList(new String[]{
+        "wysoki",
+        "wysoka",
+        "wysokie",
+        "wysokiego",
+        "wysokiej",
+        "wysokiemu",
+        "wysoko",
+        "niewysoki",
+        "niewysokiego",
+        "niewysokiemu",
+        "niewysoka"
+    });
+
+    public TraversalMetricsTest() {
+    }
+
+    private static LinkedListTree createTree() {
+        return LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(examples, false, true), true, true, false);
+    }
+
+    private static long sum(long[] histogram) {
+        long result = 0;
+        for (long count : histogram) {
+            result += count;
+        }
+        return result;
+    }
+
+    @Test
+    public void testCollectingMetrics() {
+        LinkedListTree tree = createTree();
+        assertNull(tree.getTraversalMetrics());
+        TraversalMetrics metrics = new TraversalMetrics("test");
+        tree.setTraversalMetrics(metrics);
+        assertSame(metrics, tree.getTraversalMetrics());
+
+        int[] stack = new int[100];
+        LinkedListTreeNode root = tree.getRoot();
+        for (int i = 0; i < examples.size(); i++) {
+            assertEquals(Integer.valueOf(i), root.getData(examples.get(i), stack, 0));
+        }
+        assertNull(root.getData("abc", stack, 0));
+        assertNotNull(root.getChild((int) 'w', stack, 0));
+        LinkedListTreeNode[] found = new LinkedListTreeNode[2];
+        root.findChildren(new int[]{'n', 'w'}, found, stack, 0);
+        assertNotNull(found[1]);
+
+        int lookups = examples.size() + 3;
+        assertEquals(lookups, metrics.getLookups());
+        assertEquals(lookups, sum(metrics.getUnitsScannedHistogram()));
+        assertEquals(lookups, sum(metrics.getPointerHopsHistogram()));
+        assertEquals(lookups, sum(metrics.getStackDepthHistogram()));
+        assertTrue(metrics.getUnitsScanned() >= lookups);
+        assertTrue(metrics.getMeanUnitsScanned() >= 1);
+        // compressed tree contains absolute pointers
+        assertTrue(metrics.getPointerHops() > 0);
+        assertTrue(metrics.getMaxStackDepth() > 0);
+        assertEquals(metrics.getStackDepthHistogram().length - 1,
+                     32 - Integer.numberOfLeadingZeros(metrics.getMaxStackDepth()));
+
+        metrics.reset();
+        assertEquals(0, metrics.getLookups());
+        assertEquals(0, metrics.getMeanUnitsScanned(), 0);
+        assertEquals(0, sum(metrics.getUnitsScannedHistogram()));
+
+        tree.setTraversalMetrics(null);
+        root.getData("wysoki", stack, 0);
+        assertEquals(0, metrics.getLookups());
+    }
+
+    @Test
+    public void testMetricsKeptAfterWrite() throws Exception {
+        LinkedListTree tree = createTree();
+        TraversalMetrics metrics = new TraversalMetrics("written");
+        tree.setTraversalMetrics(metrics);
+        tree.write(new java.io.DataOutputStream(new java.io.ByteArrayOutputStream()));
+        tree.getRoot().getData("wysoko", new int[100], 0);
+        assertEquals(1, metrics.getLookups());
+    }
+
+    @Test
+    public void testJmxRegistration() throws Exception {
+        TraversalMetrics metrics = new TraversalMetrics("jmx test");
+        LinkedListTree tree = createTree();
+        tree.setTraversalMetrics(metrics);
+        tree.getRoot().getData("wysokiemu", new int[100], 0);
+        ObjectName name = metrics.register();
+        assertSame(name, metrics.register());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertTrue(server.isRegistered(name));
+            assertEquals(1L, server.getAttribute(name, "Lookups"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "Lookups"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Neurpheus - Utilities Package
+ *
+ * Copyright (C) 2006-2016 Jakub Strychowski
+ *
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as published by the Free
+ *  Software Foundation; either version 3.0 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ *  for more details.
+ */
+
+package org.neurpheus.collections.tree.louds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.TreeNodeWithData;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTree;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeFactory;
+import org.neurpheus.collections.tree.linkedlist.LinkedListTreeTools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link LoudsTree}.
+ *
+ * @author Jakub Strychowski
+ */
+public class LoudsTreeTest {
+
+    private static final Charset charset = StandardCharsets.UTF_8;
+
+    private static final List<String> examples = Arrays.asList(new String[]{
+        "wysoki",
+        "wysoka",
+        "wysokie",
+        "wysokiego",
+        "niewysoki",
+        "niewysokiego",
+        "w"
+    });
+
+    private static String filePath;
+
+    public LoudsTreeTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        URL url = ClassLoader.getSystemResource("");
+        File folder = null;
+        try {
+            folder = new File(url.toURI());
+        } catch (URISyntaxException ex) {
+            fail(ex.getMessage());
+        }
+        filePath = folder.getAbsolutePath() + File.separator + "english.txt";
+    }
+
+    private static LinkedListTree createLinkedListTree(List<String> words, boolean compress) {
+        return LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(words, false, true), true, compress, false);
+    }
+
+    private static void assertWords(List<String> words, LoudsTree tree) {
+        for (int i = 0; i < words.size(); i++) {
+            assertEquals(words.get(i), Integer.valueOf(i), tree.getData(words.get(i)));
+        }
+    }
+
+    @Test
+    public void testExamples() {
+        for (boolean compress : new boolean[]{false, true}) {
+            LoudsTree tree = LoudsTreeFactory.getInstance().createTree(
+                    createLinkedListTree(examples, compress));
+            assertWords(examples, tree);
+            assertNull(tree.getData(""));
+            assertNull(tree.getData("wysok"));
+            assertNull(tree.getData("wysokiegoo"));
+            assertNull(tree.getData("abc"));
+            assertNull(tree.getData("wysoki\u20ac"));
+            assertEquals(2 * tree.getNumberOfNodes() - 1, tree.getTopologySize());
+        }
+    }
+
+    @Test
+    public void testNodes() {
+        LinkedListTree source = createLinkedListTree(examples, false);
+        LoudsTree tree = LoudsTreeFactory.getInstance().createTree(source);
+        LoudsTreeNode root = tree.getRoot();
+        assertEquals(0, root.getNodeNumber());
+        assertEquals(source.getRoot().getNumberOfChildren(), root.getNumberOfChildren());
+        List<LoudsTreeNode> children = root.getChildren();
+        assertEquals(root.getNumberOfChildren(), children.size());
+        for (int i = 0; i < children.size(); i++) {
+            LoudsTreeNode child = children.get(i);
+            assertEquals(child, root.getChildAtPos(i));
+            assertEquals(child, root.getChild(child.getValue()));
+            if (i > 0) {
+                assertTrue(children.get(i - 1).getValue() < child.getValue());
+            }
+        }
+        assertNull(root.getChild((int) 'x'));
+
+        TreeNode node = root.getChild((int) 'w');
+        assertTrue(node instanceof TreeNodeWithData);
+        assertEquals(Integer.valueOf(examples.indexOf("w")),
+                     ((TreeNodeWithData) node).getData());
+        node = node.getChild((int) 'y');
+        assertFalse(node instanceof TreeNodeWithData);
+        assertFalse(node.isLeaf());
+
+        try {
+            root.getChildAtPos(children.size());
+            fail("Expected exception");
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            // expected
+        }
+        try {
+            root.addChild(root);
+            fail("Expected exception");
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testEnglishDictionary() throws IOException {
+        List<String> words = Files.readAllLines(Paths.get(filePath), charset);
+        LinkedListTree source = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(filePath, charset, false, true),
+                true, true, false);
+        LoudsTree tree = LoudsTreeFactory.getInstance().createTree(source);
+        assertWords(words, tree);
+        int[] stack = new int[1000];
+        for (String word : words) {
+            String prefix = word.substring(0, word.length() / 2);
+            assertEquals(prefix, source.getRoot().getData(prefix, stack, 0),
+                         tree.getData(prefix));
+        }
+        assertEquals(2 * tree.getNumberOfNodes() - 1, tree.getTopologySize());
+
+        LinkedListTree uncompressed = LinkedListTreeFactory.getInstance().createTree(
+                LinkedListTreeTools.createBaseTree(filePath, charset, false, true),
+                true, false, false);
+        assertTrue(tree.getAllocationSize() < uncompressed.getUnitArray().getAllocationSize());
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        LoudsTree tree = LoudsTreeFactory.getInstance().createTree(
+                createLinkedListTree(examples, true));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            tree.write(out);
+        }
+        LoudsTree read;
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = LoudsTreeFactory.getInstance().readTree(in);
+        }
+        assertEquals(tree.getNumberOfNodes(), read.getNumberOfNodes());
+        assertEquals(tree.getTopologySize(), read.getTopologySize());
+        assertWords(examples, read);
+        assertNull(read.getData("wysok"));
+    }
+
+    @Test
+    public void testEmptyTree() {
+        LoudsTree tree = LoudsTreeFactory.getInstance().createTree();
+        assertEquals(1, tree.getNumberOfNodes());
+        assertTrue(tree.getRoot().isLeaf());
+        assertNull(tree.getData(""));
+        assertNull(tree.getData("abc"));
+    }
+
+}
@@ -28,6 +28,10 @@ import org.neurpheus.collections.tree.TreeNode;
 import org.neurpheus.collections.tree.TreeNodeWithData;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Tests tree structure creation.
@@ -188,6 +192,49 @@ public class ObjectTreeFactoryTest {
         assertEquals(nodeBCC, nodeBC.getChildAtPos(2));
         assertEquals(nodeBCD, nodeBC.getChildAtPos(3));
     }
+
+    /**
+     * Test of sortTree method using many threads, of class ObjectTreeFactory.
+     */
+    @Test
+    public void testSortTreeInParallel() {
+        ObjectTreeFactory<Character, Integer> factory = ObjectTreeFactory.getInstance();
+        Tree tree = factory.createTree();
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            TreeNode node = tree.getRoot();
+            int length = 1 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                Character c = (char) ('a' + random.nextInt(j < 3 ? 26 : 4));
+                TreeNode child = node.getChild(c);
+                if (child == null) {
+                    child = factory.createTreeNode(c);
+                    node.addChild(child);
+                }
+                node = child;
+            }
+        }
+        TreeNode deepest = tree.getRoot().getChildAtPos(0);
+        for (int i = 0; i < 50000; i++) {
+            TreeNode child = factory.createTreeNode((char) ('z' - i % 3));
+            deepest.addChild(child);
+            deepest.addChild(factory.createTreeNode((char) ('a' + i % 3)));
+            deepest = child;
+        }
+
+        factory.sortTree(tree, 4);
+
+        List<TreeNode> stack = new ArrayList<>();
+        stack.add(tree.getRoot());
+        while (!stack.isEmpty()) {
+            TreeNode node = stack.remove(stack.size() - 1);
+            List<TreeNode> children = new ArrayList<>(node.getChildren());
+            List<TreeNode> sorted = new ArrayList<>(children);
+            Collections.sort((List) sorted);
+            assertEquals(sorted, children);
+            stack.addAll(children);
+        }
+    }
     
  
     @Test
@@ -20,6 +20,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -31,6 +32,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * Tests single tree node.
@@ -971,5 +973,79 @@ public class ObjectTreeNodeTest {
         assertNotEquals(n1.hashCode(), n3.hashCode());
         assertNotEquals(n2.hashCode(), n3.hashCode());
     }
-    
+
+    /**
+     * Test of searching children of a node having many children.
+     */
+    @Test
+    public void testWideNode() {
+        ObjectTreeNode<Integer> root = new ObjectTreeNode<>(null);
+        List<ObjectTreeNode> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i += 2) {
+            ObjectTreeNode node = new ObjectTreeNode<>(i);
+            root.addChild(node);
+            expected.add(node);
+        }
+        for (int i = 1; i < 200; i += 2) {
+            ObjectTreeNode node = new ObjectTreeNode<>(i);
+            root.addChild(i, node);
+            expected.add(i, node);
+        }
+        assertEquals(expected, root.getChildren());
+        for (int i = 0; i < 200; i++) {
+            assertSame(expected.get(i), root.getChild(i));
+        }
+        assertNull(root.getChild(200));
+
+        ObjectTreeNode duplicate = new ObjectTreeNode<>(10);
+        root.addChild(duplicate);
+        assertSame(expected.get(10), root.getChild(10));
+        assertSame(duplicate, root.getChild(10, expected.get(11)));
+        assertNull(root.getChild(5, expected.get(6)));
+        assertNull(root.getChild(-1, expected.get(0)));
+        assertSame(duplicate, root.removeChild(root.getNumberOfChildren() - 1));
+
+        ObjectTreeNode replacement = new ObjectTreeNode<>(7);
+        assertEquals(7, root.replaceChild(expected.get(7), replacement));
+        assertSame(replacement, root.getChild(7));
+        ObjectTreeNode other = new ObjectTreeNode<>(1000);
+        root.replaceChild(expected.get(8), other);
+        assertNull(root.getChild(8));
+        assertSame(other, root.getChild(1000));
+
+        root.removeChild(50);
+        assertNull(root.getChild(50));
+        assertSame(expected.get(51), root.getChild(51));
+
+        root.sort();
+        assertEquals(199, root.getNumberOfChildren());
+        assertSame(other, root.getChildAtPos(198));
+        assertSame(replacement, root.getChild(7));
+        for (int i = 0; i < 197; i++) {
+            root.removeChild(0);
+        }
+        assertEquals(2, root.getNumberOfChildren());
+        assertSame(other, root.getChild(1000));
+    }
+
+    @Test
+    public void testSetChildOfWideNode() {
+        ObjectTreeNode<Integer> root = new ObjectTreeNode<>(null);
+        for (int i = 0; i < 100; i++) {
+            root.addChild(new ObjectTreeNode<>(i));
+        }
+        ObjectTreeNode sameValue = new ObjectTreeNode<>(20);
+        root.getChildren().set(20, sameValue);
+        assertSame(sameValue, root.getChild(20));
+        ObjectTreeNode otherValue = new ObjectTreeNode<>(1000);
+        root.getChildren().set(30, otherValue);
+        assertNull(root.getChild(30));
+        assertSame(otherValue, root.getChild(1000));
+        ListIterator<ObjectTreeNode> iterator = root.getChildren().listIterator(40);
+        iterator.next();
+        ObjectTreeNode iteratorValue = new ObjectTreeNode<>(40);
+        iterator.set(iteratorValue);
+        assertSame(iteratorValue, root.getChild(40));
+    }
+
 }
@@ -22,6 +22,18 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 import org.neurpheus.collections.tree.Tree;
 import org.neurpheus.collections.tree.TreeNode;
+import org.neurpheus.collections.tree.TreeNodeWithData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * Tests a simple implementation of a {link Tree} interface.
@@ -97,5 +109,99 @@ public class ObjectTreeTest {
         Tree tree = new ObjectTree();
         assertTrue(tree.getFactory() == ObjectTreeFactory.getInstance());
     }
-    
+
+    /**
+     * Test of write and read methods, of class ObjectTree.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
+        ObjectTree tree = new ObjectTree();
+        TreeNode root = tree.getRoot();
+        root.addChild(factory.createTreeNode('a'));
+        root.addChild(factory.createTreeNode("text \u0105\u0107"));
+        root.addChild(factory.createTreeNode(null));
+        root.addChild(factory.createTreeNodeWithAdditionalData(-1000, null));
+        root.addChild(factory.createTreeNodeWithAdditionalData(Integer.MIN_VALUE, "data"));
+        root.addChild(factory.createTreeNode(new BigInteger("12345678901234567890")));
+        TreeNode node = root.getChildAtPos(0);
+        node.addChild(factory.createTreeNodeWithAdditionalData('\uffff', 7));
+        node.getChildAtPos(0).addChild(factory.createTreeNode(Integer.MAX_VALUE));
+        root.getChildAtPos(2).addChild(factory.createTreeNode(""));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        tree.write(new DataOutputStream(bytes));
+        ObjectTree result = factory.readTree(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertSameTree(tree.getRoot(), result.getRoot());
+    }
+
+    /**
+     * Test of serialization of a tree deeper than the size of the call stack.
+     */
+    @Test
+    public void testSerializeDeepTree() throws IOException, ClassNotFoundException {
+        ObjectTree tree = new ObjectTree();
+        TreeNode node = tree.getRoot();
+        for (int i = 0; i < 100000; i++) {
+            TreeNode child = new ObjectTreeNode<>((char) ('a' + i % 26));
+            node.addChild(child);
+            node = child;
+        }
+        node.addChild(new ObjectTreeNodeWithData<>('z', 1));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(tree);
+        }
+        ObjectTree result;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            result = (ObjectTree) in.readObject();
+        }
+        assertSameTree(tree.getRoot(), result.getRoot());
+    }
+
+    /**
+     * Test of deserialization of a tree serialized by the previous version of the class.
+     */
+    @Test
+    public void testDeserializePreviousForm() throws IOException, ClassNotFoundException {
+        ObjectTreeFactory factory = ObjectTreeFactory.getInstance();
+        Tree expected = factory.createTree();
+        TreeNode c = factory.createTreeNode('c');
+        expected.getRoot().addChild(c);
+        c.addChild(factory.createTreeNodeWithAdditionalData('a', 1));
+        TreeNode t = factory.createTreeNodeWithAdditionalData('t', 2);
+        c.addChild(t);
+        t.addChild(factory.createTreeNodeWithAdditionalData('s', 3));
+        expected.getRoot().addChild(factory.createTreeNodeWithAdditionalData('d', "dog"));
+
+        ObjectTree result;
+        try (ObjectInputStream in = new ObjectInputStream(
+                getClass().getResourceAsStream("object-tree-v1.ser"))) {
+            result = (ObjectTree) in.readObject();
+        }
+        assertSameTree(expected.getRoot(), result.getRoot());
+    }
+
+    private static void assertSameTree(TreeNode expected, TreeNode actual) {
+        Deque<TreeNode[]> stack = new ArrayDeque<>();
+        stack.push(new TreeNode[] {expected, actual});
+        while (!stack.isEmpty()) {
+            TreeNode[] pair = stack.pop();
+            assertEquals(pair[0].getValue(), pair[1].getValue());
+            assertEquals(pair[0].hasExtraData(), pair[1].hasExtraData());
+            if (pair[0].hasExtraData()) {
+                assertEquals(((TreeNodeWithData) pair[0]).getData(),
+                        ((TreeNodeWithData) pair[1]).getData());
+            }
+            int count = pair[0].getNumberOfChildren();
+            assertEquals(count, pair[1].getNumberOfChildren());
+            for (int i = 0; i < count; i++) {
+                stack.push(new TreeNode[] {pair[0].getChildAtPos(i), pair[1].getChildAtPos(i)});
+            }
+        }
+    }
+
 }